@@ -0,0 +1,44 @@
+package com.webcohesion.enunciate.benchmarks;
+
+import com.webcohesion.enunciate.util.AntPatternMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Matching of class names against the kinds of patterns that are used to include and exclude the api classes.
+ *
+ * @author Ryan Heaton
+ */
+@State ( Scope.Benchmark )
+public class AntPatternMatcherBenchmark {
+
+  private AntPatternMatcher matcher;
+
+  @Setup
+  public void setUp() {
+    this.matcher = new AntPatternMatcher();
+    this.matcher.setPathSeparator(".");
+  }
+
+  @Benchmark
+  public boolean matchExact() {
+    return this.matcher.match("com.example.api.model.Thing", "com.example.api.model.Thing");
+  }
+
+  @Benchmark
+  public boolean matchPackageWildcard() {
+    return this.matcher.match("com.example.api.model.*", "com.example.api.model.Thing");
+  }
+
+  @Benchmark
+  public boolean matchDeepWildcard() {
+    return this.matcher.match("com.example.**.model.*Thing", "com.example.api.v2.internal.model.SpecialThing");
+  }
+
+  @Benchmark
+  public boolean mismatchDeepWildcard() {
+    return this.matcher.match("com.example.**.model.*Thing", "com.example.api.v2.internal.resources.SpecialThingResource");
+  }
+}
@@ -0,0 +1,232 @@
+package com.webcohesion.enunciate.benchmarks;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateLogger;
+import com.webcohesion.enunciate.io.InvokeEnunciateModule;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the full Enunciate engine, with every module that is on the classpath, over a {@link SyntheticApi synthetic API}
+ * and reports the wall time, the peak heap and the time of each module. Usage:<br/><br/>
+ *
+ * <code>java -cp benchmarks.jar com.webcohesion.enunciate.benchmarks.BuildBenchmark [-resources N] [-types M] [-depth D] [-javadoc J] [-warmups W] [-iterations I]</code><br/><br/>
+ *
+ * The peak heap is the sum of the peak usage of the heap memory pools during a build, so it is an upper bound of the
+ * actual peak. The time of each module is the time of its own work, not counting the modules it depends on; modules
+ * that don't depend on each other may run at the same time.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildBenchmark {
+
+  private final SyntheticApi api;
+  private final int warmups;
+  private final int iterations;
+
+  public BuildBenchmark(SyntheticApi api, int warmups, int iterations) {
+    this.api = api;
+    this.warmups = warmups;
+    this.iterations = iterations;
+  }
+
+  public static void main(String[] args) throws Exception {
+    int resources = 100;
+    int types = 500;
+    int depth = 3;
+    double javadoc = 0.5;
+    int warmups = 1;
+    int iterations = 3;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String option = args[i];
+      String value = args[i + 1];
+      if ("-resources".equals(option)) {
+        resources = Integer.parseInt(value);
+      }
+      else if ("-types".equals(option)) {
+        types = Integer.parseInt(value);
+      }
+      else if ("-depth".equals(option)) {
+        depth = Integer.parseInt(value);
+      }
+      else if ("-javadoc".equals(option)) {
+        javadoc = Double.parseDouble(value);
+      }
+      else if ("-warmups".equals(option)) {
+        warmups = Integer.parseInt(value);
+      }
+      else if ("-iterations".equals(option)) {
+        iterations = Integer.parseInt(value);
+      }
+      else {
+        throw new IllegalArgumentException("Unknown option: " + option);
+      }
+    }
+
+    new BuildBenchmark(new SyntheticApi(resources, types, depth, javadoc), warmups, iterations).run();
+  }
+
+  /**
+   * Generate the synthetic API, run the warmup builds and the measured builds, and print the results.
+   */
+  public void run() throws IOException {
+    File workDir = createTempDir("enunciate-benchmark");
+    File sourceDir = new File(workDir, "src");
+    this.api.writeTo(sourceDir);
+    System.out.printf("Synthetic API: %s resources, %s types, inheritance depth %s, javadoc density %s (%s).%n",
+                      this.api.getResourceCount(), this.api.getTypeCount(), this.api.getInheritanceDepth(), this.api.getJavadocDensity(), sourceDir);
+
+    for (int i = 0; i < this.warmups; i++) {
+      BuildResult result = build(sourceDir, new File(workDir, "warmup" + i));
+      System.out.printf("Warmup %s: %s ms, peak heap %s MB.%n", i + 1, result.wallTime, result.peakHeap / (1024 * 1024));
+    }
+
+    List<BuildResult> results = new ArrayList<BuildResult>();
+    for (int i = 0; i < this.iterations; i++) {
+      BuildResult result = build(sourceDir, new File(workDir, "build" + i));
+      System.out.printf("Build %s: %s ms, peak heap %s MB.%n", i + 1, result.wallTime, result.peakHeap / (1024 * 1024));
+      results.add(result);
+    }
+
+    if (!results.isEmpty()) {
+      report(results);
+    }
+  }
+
+  /**
+   * Run a build of the synthetic API.
+   *
+   * @param sourceDir The source directory of the synthetic API.
+   * @param buildDir  The build directory.
+   * @return The result of the build.
+   */
+  protected BuildResult build(File sourceDir, File buildDir) {
+    TimingLogger logger = new TimingLogger();
+    Enunciate enunciate = new Enunciate();
+    enunciate.setLogger(logger);
+    enunciate.addSourceDir(sourceDir);
+    enunciate.setBuildDir(buildDir);
+    List<File> classpath = new ArrayList<File>();
+    for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+      classpath.add(new File(entry));
+    }
+    enunciate.setClasspath(classpath);
+    enunciate.loadDiscoveredModules();
+
+    System.gc();
+    List<MemoryPoolMXBean> heapPools = new ArrayList<MemoryPoolMXBean>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        pool.resetPeakUsage();
+        heapPools.add(pool);
+      }
+    }
+
+    long start = System.currentTimeMillis();
+    enunciate.run();
+    long wallTime = System.currentTimeMillis() - start;
+
+    long peakHeap = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      peakHeap += pool.getPeakUsage().getUsed();
+    }
+
+    return new BuildResult(wallTime, peakHeap, logger.moduleTimes);
+  }
+
+  protected void report(List<BuildResult> results) {
+    long wallTime = 0;
+    long peakHeap = 0;
+    Map<String, Long> moduleTimes = new TreeMap<String, Long>();
+    for (BuildResult result : results) {
+      wallTime += result.wallTime;
+      peakHeap = Math.max(peakHeap, result.peakHeap);
+      for (Map.Entry<String, Long> moduleTime : result.moduleTimes.entrySet()) {
+        Long total = moduleTimes.get(moduleTime.getKey());
+        moduleTimes.put(moduleTime.getKey(), (total == null ? 0 : total) + moduleTime.getValue());
+      }
+    }
+
+    System.out.println();
+    System.out.printf("Average wall time: %s ms%n", wallTime / results.size());
+    System.out.printf("Peak heap: %s MB%n", peakHeap / (1024 * 1024));
+    System.out.println("Average module times:");
+    for (Map.Entry<String, Long> moduleTime : moduleTimes.entrySet()) {
+      System.out.printf("  %-24s %8s ms%n", moduleTime.getKey(), moduleTime.getValue() / results.size());
+    }
+  }
+
+  protected static File createTempDir(String prefix) throws IOException {
+    File tempDir = File.createTempFile(prefix, "");
+    if (!tempDir.delete() || !tempDir.mkdirs()) {
+      throw new IOException("Unable to create " + tempDir);
+    }
+    return tempDir;
+  }
+
+  /**
+   * The result of a build.
+   */
+  public static class BuildResult {
+
+    private final long wallTime;
+    private final long peakHeap;
+    private final Map<String, Long> moduleTimes;
+
+    public BuildResult(long wallTime, long peakHeap, Map<String, Long> moduleTimes) {
+      this.wallTime = wallTime;
+      this.peakHeap = peakHeap;
+      this.moduleTimes = moduleTimes;
+    }
+
+    public long getWallTime() {
+      return wallTime;
+    }
+
+    public long getPeakHeap() {
+      return peakHeap;
+    }
+
+    public Map<String, Long> getModuleTimes() {
+      return moduleTimes;
+    }
+  }
+
+  /**
+   * A logger that picks up the module times, and only prints the warnings and the errors.
+   */
+  protected static class TimingLogger implements EnunciateLogger {
+
+    private final Map<String, Long> moduleTimes = new ConcurrentHashMap<String, Long>();
+
+    @Override
+    public void debug(String message, Object... formatArgs) {
+      if (InvokeEnunciateModule.MODULE_DONE_MESSAGE.equals(message)) {
+        this.moduleTimes.put(String.valueOf(formatArgs[0]), (Long) formatArgs[1]);
+      }
+    }
+
+    @Override
+    public void info(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void warn(String message, Object... formatArgs) {
+      System.err.printf("[WARN] " + message + "%n", formatArgs);
+    }
+
+    @Override
+    public void error(String message, Object... formatArgs) {
+      System.err.printf("[ERROR] " + message + "%n", formatArgs);
+    }
+  }
+}
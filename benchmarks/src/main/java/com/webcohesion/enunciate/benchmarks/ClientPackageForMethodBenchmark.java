@@ -0,0 +1,49 @@
+package com.webcohesion.enunciate.benchmarks;
+
+import com.webcohesion.enunciate.util.freemarker.ClientPackageForMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversion of class names to client-side class names, with the conversions that a typical client module configures.
+ * The "cold" benchmarks convert with a new method each time, so they don't benefit from the cache of converted packages.
+ *
+ * @author Ryan Heaton
+ */
+@State ( Scope.Benchmark )
+public class ClientPackageForMethodBenchmark {
+
+  private Map<String, String> conversions;
+  private ClientPackageForMethod warmMethod;
+
+  @Setup
+  public void setUp() {
+    this.conversions = new HashMap<String, String>();
+    for (int i = 0; i < 20; i++) {
+      this.conversions.put("com.example.api" + i + ".model", "com.example.client" + i + ".model");
+    }
+    this.conversions.put("com.example", "com.example.client");
+    this.conversions.put("com.example.api.v2", "com.example.client.v2");
+    this.warmMethod = new ClientPackageForMethod(this.conversions, null);
+  }
+
+  @Benchmark
+  public String convertWarm() {
+    return this.warmMethod.convert("com.example.api.v2.model.Thing");
+  }
+
+  @Benchmark
+  public String convertWarmUnconverted() {
+    return this.warmMethod.convert("org.example.model.Thing");
+  }
+
+  @Benchmark
+  public String convertCold() {
+    return new ClientPackageForMethod(this.conversions, null).convert("com.example.api.v2.model.Thing");
+  }
+}
@@ -0,0 +1,106 @@
+package com.webcohesion.enunciate.benchmarks;
+
+import com.webcohesion.enunciate.rt.IDLFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Rewriting of the assumed base address in a WSDL by the IDL filter. The servlet objects are stubbed out, so only the
+ * filtering itself is measured.
+ *
+ * @author Ryan Heaton
+ */
+@State ( Scope.Benchmark )
+public class IDLFilterBenchmark {
+
+  private IDLFilter filter;
+  private byte[] wsdl;
+  private HttpServletRequest request;
+
+  @Setup
+  public void setUp() throws Exception {
+    StringBuilder wsdl = new StringBuilder();
+    wsdl.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    wsdl.append("<?enunciate-assumed-base-uri http://localhost:8080/api/?>\n");
+    wsdl.append("<definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\" xmlns:soap=\"http://schemas.xmlsoap.org/wsdl/soap/\" targetNamespace=\"urn:example\">\n");
+    for (int i = 0; i < 50; i++) {
+      wsdl.append("  <service name=\"Service").append(i).append("\">\n");
+      wsdl.append("    <documentation>Service ").append(i).append(", at http://localhost:8080/api/service").append(i).append(".</documentation>\n");
+      wsdl.append("    <port name=\"Port").append(i).append("\" binding=\"Binding").append(i).append("\">\n");
+      wsdl.append("      <soap:address location=\"http://localhost:8080/api/service").append(i).append("\"/>\n");
+      wsdl.append("    </port>\n");
+      wsdl.append("  </service>\n");
+    }
+    wsdl.append("</definitions>\n");
+    this.wsdl = wsdl.toString().getBytes("utf-8");
+
+    final ServletContext servletContext = stub(ServletContext.class, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        return "getResourceAsStream".equals(method.getName()) ? new ByteArrayInputStream(IDLFilterBenchmark.this.wsdl) : null;
+      }
+    });
+
+    FilterConfig filterConfig = stub(FilterConfig.class, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        return "getServletContext".equals(method.getName()) ? servletContext : null;
+      }
+    });
+
+    this.request = stub(HttpServletRequest.class, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ("getRequestURL".equals(method.getName())) {
+          return new StringBuffer("https://api.example.com/app/example.wsdl");
+        }
+        else if ("getContextPath".equals(method.getName())) {
+          return "/app";
+        }
+        return null;
+      }
+    });
+
+    this.filter = new IDLFilter();
+    this.filter.init(filterConfig);
+  }
+
+  @Benchmark
+  public String filter() throws Exception {
+    final StringWriter out = new StringWriter();
+    ServletResponse response = stub(ServletResponse.class, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        return "getWriter".equals(method.getName()) ? new PrintWriter(out) : null;
+      }
+    });
+
+    this.filter.doFilter(this.request, response, stub(FilterChain.class, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        throw new IllegalStateException("The IDL wasn't filtered.");
+      }
+    }));
+    return out.toString();
+  }
+
+  @SuppressWarnings ( "unchecked" )
+  private static <T> T stub(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(IDLFilterBenchmark.class.getClassLoader(), new Class[]{type}, handler);
+  }
+}
@@ -0,0 +1,45 @@
+package com.webcohesion.enunciate.benchmarks;
+
+import com.webcohesion.enunciate.javac.javadoc.DefaultJavaDocTagHandler;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing of doc comments, with and without block tags and inline tags.
+ *
+ * @author Ryan Heaton
+ */
+@State ( Scope.Benchmark )
+public class JavaDocBenchmark {
+
+  private String simpleComment;
+  private String taggedComment;
+  private DefaultJavaDocTagHandler tagHandler;
+
+  @Setup
+  public void setUp() {
+    this.simpleComment = "Reads a thing. The thing is looked up by its id, and the latest version of the thing is returned.";
+    this.taggedComment = "Reads a {@link com.example.Thing thing}. The thing is looked up by its id, and the latest version\n"
+      + "of the thing is returned, unless a {@code version} is given.\n\n"
+      + "@param id The id of the thing.\n"
+      + "@param version The version of the thing, or null for the {@linkplain com.example.Version latest version}.\n"
+      + "@return The thing.\n"
+      + "@throws com.example.NotFoundException If there is no such thing.\n"
+      + "@see com.example.Things#list()\n"
+      + "@since 2.0";
+    this.tagHandler = new DefaultJavaDocTagHandler();
+  }
+
+  @Benchmark
+  public JavaDoc parseSimple() {
+    return new JavaDoc(this.simpleComment, this.tagHandler);
+  }
+
+  @Benchmark
+  public JavaDoc parseTagged() {
+    return new JavaDoc(this.taggedComment, this.tagHandler);
+  }
+}
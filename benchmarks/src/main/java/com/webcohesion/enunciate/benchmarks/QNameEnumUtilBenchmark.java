@@ -0,0 +1,67 @@
+package com.webcohesion.enunciate.benchmarks;
+
+import com.webcohesion.enunciate.metadata.qname.XmlQNameEnum;
+import com.webcohesion.enunciate.metadata.qname.XmlQNameEnumValue;
+import com.webcohesion.enunciate.metadata.qname.XmlUnknownQNameEnumValue;
+import com.webcohesion.enunciate.rt.QNameEnumUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.xml.namespace.QName;
+
+/**
+ * Conversion between QName enums and their QNames and URIs.
+ *
+ * @author Ryan Heaton
+ */
+@State ( Scope.Benchmark )
+public class QNameEnumUtilBenchmark {
+
+  @XmlQNameEnum ( namespace = "urn:example:colors" )
+  public enum Color {
+    RED,
+    GREEN,
+    @XmlQNameEnumValue ( localPart = "blue-ish" )
+    BLUE,
+    @XmlUnknownQNameEnumValue
+    OTHER
+  }
+
+  @XmlQNameEnum ( namespace = "urn:example:shapes/", base = XmlQNameEnum.BaseType.URI )
+  public enum Shape {
+    CIRCLE,
+    SQUARE,
+    TRIANGLE
+  }
+
+  private QName blue;
+  private String triangle;
+
+  @Setup
+  public void setUp() {
+    this.blue = new QName("urn:example:colors", "blue-ish");
+    this.triangle = "urn:example:shapes/TRIANGLE";
+  }
+
+  @Benchmark
+  public Color fromQName() {
+    return QNameEnumUtil.fromQName(this.blue, Color.class);
+  }
+
+  @Benchmark
+  public QName toQName() {
+    return QNameEnumUtil.toQName(Color.BLUE);
+  }
+
+  @Benchmark
+  public Shape fromURI() {
+    return QNameEnumUtil.fromURI(this.triangle, Shape.class);
+  }
+
+  @Benchmark
+  public String toURI() {
+    return QNameEnumUtil.toURI(Shape.TRIANGLE);
+  }
+}
@@ -0,0 +1,215 @@
+package com.webcohesion.enunciate.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * Generates the sources of a synthetic API: a number of JAX-RS resources over a number of data types that are both JAXB
+ * and Jackson types. The types are laid out in inheritance chains of a given depth, and a given fraction of the types,
+ * properties, resources and resource methods are documented. The same parameters always generate the same sources.
+ *
+ * @author Ryan Heaton
+ */
+public class SyntheticApi {
+
+  static final String BASE_PACKAGE = "com.webcohesion.enunciate.benchmarks.synthetic";
+  static final int TYPES_PER_PACKAGE = 50;
+
+  private final int resourceCount;
+  private final int typeCount;
+  private final int inheritanceDepth;
+  private final double javadocDensity;
+  private final Random random;
+
+  /**
+   * @param resourceCount    The number of JAX-RS resources.
+   * @param typeCount        The number of data types.
+   * @param inheritanceDepth The depth of the inheritance chains of the data types (1 for no inheritance).
+   * @param javadocDensity   The fraction (0 to 1) of the elements that are documented.
+   */
+  public SyntheticApi(int resourceCount, int typeCount, int inheritanceDepth, double javadocDensity) {
+    if (resourceCount < 1 || typeCount < 1 || inheritanceDepth < 1 || javadocDensity < 0 || javadocDensity > 1) {
+      throw new IllegalArgumentException("There must be at least one resource, one type and an inheritance depth of at least one, and the javadoc density must be between 0 and 1.");
+    }
+
+    this.resourceCount = resourceCount;
+    this.typeCount = typeCount;
+    this.inheritanceDepth = inheritanceDepth;
+    this.javadocDensity = javadocDensity;
+    this.random = new Random(resourceCount * 31L + typeCount * 17L + inheritanceDepth);
+  }
+
+  public int getResourceCount() {
+    return resourceCount;
+  }
+
+  public int getTypeCount() {
+    return typeCount;
+  }
+
+  public int getInheritanceDepth() {
+    return inheritanceDepth;
+  }
+
+  public double getJavadocDensity() {
+    return javadocDensity;
+  }
+
+  /**
+   * Write the sources of the API.
+   *
+   * @param sourceDir The directory to write the sources to.
+   */
+  public void writeTo(File sourceDir) throws IOException {
+    for (int pckg = 0; pckg * TYPES_PER_PACKAGE < this.typeCount; pckg++) {
+      writeEnum(sourceDir, pckg);
+    }
+
+    for (int type = 0; type < this.typeCount; type++) {
+      writeType(sourceDir, type);
+    }
+
+    for (int resource = 0; resource < this.resourceCount; resource++) {
+      writeResource(sourceDir, resource);
+    }
+  }
+
+  protected String packageOf(int type) {
+    return BASE_PACKAGE + ".model" + (type / TYPES_PER_PACKAGE);
+  }
+
+  protected String typeName(int type) {
+    return packageOf(type) + ".Type" + type;
+  }
+
+  protected String enumName(int type) {
+    return packageOf(type) + ".Status";
+  }
+
+  protected void writeEnum(File sourceDir, int pckg) throws IOException {
+    int firstType = pckg * TYPES_PER_PACKAGE;
+    PrintWriter out = open(sourceDir, enumName(firstType));
+    out.printf("package %s;%n%n", packageOf(firstType));
+    writeDoc(out, "", "The status of the things in package " + pckg + ".");
+    out.println("public enum Status {");
+    out.println("  ACTIVE, SUSPENDED, ARCHIVED, DELETED");
+    out.println("}");
+    out.close();
+  }
+
+  protected void writeType(File sourceDir, int type) throws IOException {
+    boolean chainRoot = type % this.inheritanceDepth == 0;
+    int reference = (type + this.inheritanceDepth) % this.typeCount;
+
+    PrintWriter out = open(sourceDir, typeName(type));
+    out.printf("package %s;%n%n", packageOf(type));
+    out.println("import javax.xml.bind.annotation.XmlAttribute;");
+    out.println("import javax.xml.bind.annotation.XmlElement;");
+    out.println("import javax.xml.bind.annotation.XmlElementWrapper;");
+    out.println("import javax.xml.bind.annotation.XmlRootElement;");
+    out.println("import javax.xml.bind.annotation.XmlSeeAlso;");
+    out.println("import com.fasterxml.jackson.annotation.JsonProperty;");
+    out.println("import java.math.BigDecimal;");
+    out.println("import java.util.Date;");
+    out.println("import java.util.List;");
+    out.println();
+    writeDoc(out, "", "A synthetic data type (number " + type + "), which references {@link " + typeName(reference) + "}.");
+    out.println("@XmlRootElement");
+    if (type + 1 < this.typeCount && (type + 1) % this.inheritanceDepth != 0) {
+      out.printf("@XmlSeeAlso ( %s.class )%n", typeName(type + 1));
+    }
+    out.printf("public class Type%s%s {%n%n", type, chainRoot ? "" : " extends " + typeName(type - 1));
+
+    String prefix = "t" + type;
+    writeProperty(out, "String", prefix + "Id", "@XmlAttribute", "The id of the thing.");
+    writeProperty(out, "String", prefix + "Name", "@XmlElement ( required = true )", "The name of the thing.");
+    writeProperty(out, "Date", prefix + "Created", null, "When the thing was created.");
+    writeProperty(out, "int", prefix + "Count", null, "How many of the thing there are.");
+    writeProperty(out, "BigDecimal", prefix + "Amount", "@JsonProperty ( \"" + prefix + "_amount\" )", "The amount of the thing.");
+    writeProperty(out, "List<String>", prefix + "Tags", "@XmlElementWrapper", "The tags of the thing.");
+    writeProperty(out, enumName(type), prefix + "Status", null, "The status of the thing.");
+    writeProperty(out, typeName(reference), prefix + "Related", null, "The related thing.");
+    writeProperty(out, "List<" + typeName(reference) + ">", prefix + "Children", null, "The children of the thing.");
+    out.println("}");
+    out.close();
+  }
+
+  protected void writeProperty(PrintWriter out, String type, String name, String annotation, String doc) {
+    String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    out.printf("  private %s %s;%n%n", type, name);
+    writeDoc(out, "  ", doc + "\n\n@return " + doc);
+    if (annotation != null) {
+      out.printf("  %s%n", annotation);
+    }
+    out.printf("  public %s get%s() {%n    return this.%s;%n  }%n%n", type, capitalized, name);
+    writeDoc(out, "  ", doc + "\n\n@param " + name + " " + doc);
+    out.printf("  public void set%s(%s %s) {%n    this.%s = %s;%n  }%n%n", capitalized, type, name, name, name);
+  }
+
+  protected void writeResource(File sourceDir, int resource) throws IOException {
+    String type = typeName(resource % this.typeCount);
+    String name = "Resource" + resource;
+    String className = BASE_PACKAGE + ".resources.r" + (resource / TYPES_PER_PACKAGE) + "." + name;
+
+    PrintWriter out = open(sourceDir, className);
+    out.printf("package %s;%n%n", className.substring(0, className.lastIndexOf('.')));
+    out.println("import javax.ws.rs.*;");
+    out.println("import java.util.List;");
+    out.println();
+    writeDoc(out, "", "Synthetic resource " + resource + ", for managing {@link " + type + "} things.");
+    out.printf("@Path ( \"/resource%s\" )%n", resource);
+    out.println("@Produces ( { \"application/xml\", \"application/json\" } )");
+    out.println("@Consumes ( { \"application/xml\", \"application/json\" } )");
+    out.printf("public class %s {%n%n", name);
+
+    writeDoc(out, "  ", "Lists the things.\n\n@param start The index of the first thing.\n@param max The maximum number of things.\n@return The things.");
+    out.println("  @GET");
+    out.printf("  public List<%s> list(@QueryParam ( \"start\" ) int start, @QueryParam ( \"max\" ) @DefaultValue ( \"100\" ) int max) {%n    return null;%n  }%n%n", type);
+
+    writeDoc(out, "  ", "Reads a thing.\n\n@param id The id of the thing.\n@return The thing.");
+    out.println("  @GET");
+    out.println("  @Path ( \"{id}\" )");
+    out.printf("  public %s read(@PathParam ( \"id\" ) String id) {%n    return null;%n  }%n%n", type);
+
+    writeDoc(out, "  ", "Creates a thing.\n\n@param thing The thing.\n@return The created thing.");
+    out.println("  @POST");
+    out.printf("  public %s create(%s thing) {%n    return thing;%n  }%n%n", type, type);
+
+    writeDoc(out, "  ", "Updates a thing.\n\n@param id The id of the thing.\n@param thing The thing.");
+    out.println("  @PUT");
+    out.println("  @Path ( \"{id}\" )");
+    out.printf("  public void update(@PathParam ( \"id\" ) String id, %s thing) {%n  }%n%n", type);
+
+    writeDoc(out, "  ", "Deletes a thing.\n\n@param id The id of the thing.");
+    out.println("  @DELETE");
+    out.println("  @Path ( \"{id}\" )");
+    out.println("  public void delete(@PathParam ( \"id\" ) String id) {\n  }");
+    out.println("}");
+    out.close();
+  }
+
+  /**
+   * Write a doc comment, if the element is one of the documented ones.
+   */
+  protected void writeDoc(PrintWriter out, String indent, String doc) {
+    if (this.random.nextDouble() < this.javadocDensity) {
+      out.printf("%s/**%n", indent);
+      for (String line : doc.split("\n")) {
+        out.printf("%s * %s%n", indent, line);
+      }
+      out.printf("%s */%n", indent);
+    }
+  }
+
+  protected PrintWriter open(File sourceDir, String className) throws IOException {
+    File file = new File(sourceDir, className.replace('.', File.separatorChar) + ".java");
+    if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+      throw new IOException("Unable to create " + file.getParentFile());
+    }
+    return new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), "utf-8"));
+  }
+}
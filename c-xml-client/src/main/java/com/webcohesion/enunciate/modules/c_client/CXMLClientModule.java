@@ -43,6 +43,7 @@ import com.webcohesion.enunciate.modules.jaxb.model.util.MapType;
 import com.webcohesion.enunciate.modules.jaxb.util.AccessorOverridesAnotherMethod;
 import com.webcohesion.enunciate.modules.jaxb.util.FindRootElementMethod;
 import com.webcohesion.enunciate.modules.jaxb.util.ReferencedNamespacesMethod;
+import com.webcohesion.enunciate.modules.jaxb.util.XmlNameHashMethod;
 import com.webcohesion.enunciate.modules.jaxrs.JaxrsModule;
 import com.webcohesion.enunciate.util.freemarker.FileDirective;
 import com.webcohesion.enunciate.util.freemarker.IsFacetExcludedMethod;
@@ -83,6 +84,13 @@ public class CXMLClientModule extends BasicGeneratingModule implements ApiFeatur
     return "c-xml-client";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("separateCommonCode", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new DependencySpec() {
@@ -178,6 +186,7 @@ public class CXMLClientModule extends BasicGeneratingModule implements ApiFeatur
     model.put("prefix", new PrefixMethod(ns2prefix));
     model.put("xmlFunctionIdentifier", new XmlFunctionIdentifierMethod(ns2prefix));
     model.put("accessorOverridesAnother", new AccessorOverridesAnotherMethod());
+    model.put("xmlNameHash", new XmlNameHashMethod());
     model.put("filename", sourceFileName);
     model.put("file", new FileDirective(srcDir, this.enunciate.getLogger()));
     model.put("schemas", this.jaxbModule.getJaxbContext().getSchemas().values());
@@ -290,14 +299,8 @@ public class CXMLClientModule extends BasicGeneratingModule implements ApiFeatur
     return usesUnmappableElements;
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -320,6 +323,19 @@ public class CXMLClientModule extends BasicGeneratingModule implements ApiFeatur
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new CXMLClientObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -13,8 +13,11 @@ int main ( int argc, char *argv[] ) {
   struct api_draw_canvas *canvas;
   struct api_structures_house *house;
   struct api_vehicles_bus *bus;
+  struct xmlStream *stream;
+  FILE *out;
+  clock_t start;
   if (argc != 4) {
-    printf("Usage: %s [cat|canvas|house|bus|circle|triangle|rectangle] [infile] [outfile]", argv[0]);
+    printf("Usage: %s [cat|canvas|house|bus|busarena|busstream|circle|triangle|rectangle] [infile] [outfile]", argv[0]);
     return 1;
   }
 
@@ -184,8 +187,16 @@ int main ( int argc, char *argv[] ) {
     printf("Successfully freed the reader.\n");
 #endif
   }
-  else if (strcmp("bus", argv[1]) == 0) {
-    bus = xml_read_api_vehicles_bus(reader);
+  else if (strcmp("bus", argv[1]) == 0 || strcmp("busarena", argv[1]) == 0) {
+    //time the read of the bus, with or without an arena.
+    start = clock();
+    bus = strcmp("busarena", argv[1]) == 0 ? xml_read_api_vehicles_bus_in_arena(reader) : xml_read_api_vehicles_bus(reader);
+    printf("Read the bus in %ld microseconds.\n", (long) ((clock() - start) * 1000000.0 / CLOCKS_PER_SEC));
+    if (bus == NULL) {
+      //panic
+      printf("Problem reading bus.");
+      return 1;
+    }
     status = xml_write_api_vehicles_bus(writer, bus);
     if (status < 0) {
       //panic
@@ -211,8 +222,43 @@ int main ( int argc, char *argv[] ) {
     printf("Successfully freed the reader.\n");
 #endif
   }
+  else if (strcmp("busstream", argv[1]) == 0) {
+    //read the windows and the wheels of the bus one at a time, writing a line for each item and the status of the stream at its end.
+    xmlFreeTextWriter(writer);
+    out = fopen(argv[3], "w");
+
+    stream = xml_open_api_vehicles_bus_stream(reader);
+    if (stream == NULL) {
+      //panic
+      printf("Problem opening the bus stream.");
+      return 1;
+    }
+    while ((rectangle = xml_next_api_vehicles_bus_windows(stream)) != NULL) {
+      fprintf(out, "window %i\n", rectangle->width);
+      xml_free_api_vehicles_bus_windows(rectangle);
+    }
+    fprintf(out, "windows %i\n", stream->status);
+    xml_close_api_vehicles_bus_stream(stream);
+    xmlFreeTextReader(reader);
+
+    reader = xmlReaderForFile(argv[2], NULL, 0);
+    stream = xml_open_api_vehicles_bus_stream(reader);
+    if (stream == NULL) {
+      //panic
+      printf("Problem opening the bus stream.");
+      return 1;
+    }
+    while ((circle = xml_next_api_vehicles_bus_wheels(stream)) != NULL) {
+      fprintf(out, "wheel %i\n", circle->radius);
+      xml_free_api_vehicles_bus_wheels(circle);
+    }
+    fprintf(out, "wheels %i\n", stream->status);
+    xml_close_api_vehicles_bus_stream(stream);
+    xmlFreeTextReader(reader);
+    fclose(out);
+  }
   else {
-    printf("Unrecognized xml type: %s\nUsage: %s [cat|canvas|house|bus||circle|triangle|rectangle] [infile] [outfile]", argv[1], argv[0]);
+    printf("Unrecognized xml type: %s\nUsage: %s [cat|canvas|house|bus|busarena|busstream|circle|triangle|rectangle] [infile] [outfile]", argv[1], argv[0]);
     return 1;
   }
 
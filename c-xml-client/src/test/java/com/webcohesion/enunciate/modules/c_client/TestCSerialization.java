@@ -19,6 +19,8 @@ import javax.xml.bind.Marshaller;
 import javax.xml.bind.Unmarshaller;
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.InputStreamReader;
 import java.util.*;
 
@@ -528,6 +530,146 @@ public class TestCSerialization extends TestCase {
     //todo: test element refs of attachment elements.
   }
 
+  /**
+   * benchmarks reading a large document (large collections and long text values), with and without an arena.
+   */
+  public void testLargeCollections() throws Exception {
+    if (this.skipCTests) {
+      System.out.println("C tests have been disabled.");
+      return;
+    }
+
+    Bus bus = new Bus();
+    bus.setId("bus id");
+    StringBuilder description = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      description.append("window").append(i).append("&");
+    }
+    Label label = new Label();
+    label.setValue(description.toString());
+    bus.setLabels(Arrays.asList(label));
+    List<Rectangle> windows = new ArrayList<Rectangle>();
+    for (int i = 0; i < 50000; i++) {
+      Rectangle window = new Rectangle();
+      window.setColor(Color.BLUE);
+      window.setWidth(i);
+      window.setHeight(2);
+      window.setLineStyle(LineStyle.solid);
+      windows.add(window);
+    }
+    bus.setWindows(windows);
+
+    JAXBContext context = JAXBContext.newInstance(Bus.class);
+    File in = new File(this.tempDir, getName() + ".in.xml");
+    context.createMarshaller().marshal(bus, in);
+
+    for (String command : Arrays.asList("bus", "busarena")) {
+      File out = new File(this.tempDir, getName() + "." + command + ".out.xml");
+      long best = Long.MAX_VALUE;
+      for (int run = 0; run < 5; run++) {
+        long readTime = -1;
+        for (String line : processXml(command, in, out)) {
+          if (line.startsWith("Read the bus in ")) {
+            readTime = Long.parseLong(line.substring("Read the bus in ".length(), line.indexOf(" microseconds")));
+          }
+        }
+        assertTrue("No read time reported.", readTime >= 0);
+        best = Math.min(best, readTime);
+      }
+      System.out.printf("Read a bus of %s windows (%s bytes) with '%s' in %.1f ms (best of 5).%n", windows.size(), in.length(), command, best / 1000.0);
+
+      Bus read = (Bus) context.createUnmarshaller().unmarshal(out);
+      assertEquals(description.toString(), read.getLabels().iterator().next().getValue());
+      assertEquals(50000, read.getWindows().size());
+      int i = 0;
+      for (Rectangle window : read.getWindows()) {
+        assertEquals(i++, window.getWidth());
+        assertEquals(2, window.getHeight());
+      }
+    }
+  }
+
+  /**
+   * tests reading the collections of a root element one item at a time.
+   */
+  public void testStreamCollections() throws Exception {
+    if (this.skipCTests) {
+      System.out.println("C tests have been disabled.");
+      return;
+    }
+
+    Bus bus = new Bus();
+    bus.setId("bus id");
+    List<Rectangle> windows = new ArrayList<Rectangle>();
+    for (int i = 0; i < 500; i++) {
+      Rectangle window = new Rectangle();
+      window.setColor(Color.BLUE);
+      window.setWidth(i);
+      window.setHeight(2);
+      window.setLineStyle(LineStyle.solid);
+      windows.add(window);
+    }
+    bus.setWindows(windows);
+    Circle front = new Circle();
+    front.setRadius(6);
+    Circle back = new Circle();
+    back.setRadius(7);
+    bus.setWheels(new Circle[] {front, null, back});
+
+    File in = new File(this.tempDir, getName() + ".in.xml");
+    JAXBContext.newInstance(Bus.class).createMarshaller().marshal(bus, in);
+    List<String> lines = processThroughStream(in);
+
+    //the windows are unwrapped and the nil wheel is skipped.
+    List<String> expected = new ArrayList<String>();
+    for (int i = 0; i < 500; i++) {
+      expected.add("window " + i);
+    }
+    expected.add("windows 0");
+    expected.add("wheel 6");
+    expected.add("wheel 7");
+    expected.add("wheels 0");
+    assertEquals(expected, lines);
+
+    //a document that ends in the middle of the windows is an error, not the end of the stream.
+    StringBuilder xml = new StringBuilder();
+    BufferedReader xmlReader = new BufferedReader(new FileReader(in));
+    String line = xmlReader.readLine();
+    while (line != null) {
+      xml.append(line).append('\n');
+      line = xmlReader.readLine();
+    }
+    xmlReader.close();
+    File truncated = new File(this.tempDir, getName() + ".truncated.xml");
+    FileWriter writer = new FileWriter(truncated);
+    writer.write(xml.substring(0, xml.lastIndexOf("<windows>", xml.indexOf("<width>250</width>"))));
+    writer.close();
+    lines = processThroughStream(truncated);
+    int windowCount = 0;
+    for (String item : lines) {
+      if (item.startsWith("window ")) {
+        windowCount++;
+      }
+    }
+    assertEquals(250, windowCount);
+    assertTrue(lines.contains("windows -1"));
+  }
+
+  protected List<String> processThroughStream(File in) throws Exception {
+    File out = new File(this.tempDir, in.getName() + ".out.txt");
+    processXml("busstream", in, out);
+
+    List<String> lines = new ArrayList<String>();
+    BufferedReader outReader = new BufferedReader(new FileReader(out));
+    String line = outReader.readLine();
+    while (line != null) {
+      lines.add(line);
+      line = outReader.readLine();
+    }
+    outReader.close();
+    return lines;
+  }
+
   protected <T> T processThroughXml(T object) throws Exception {
     JAXBContext context = JAXBContext.newInstance(object.getClass());
     Marshaller marshaller = context.createMarshaller();
@@ -535,21 +677,36 @@ public class TestCSerialization extends TestCase {
     File in = new File(this.tempDir, getName() + lineNumber + ".in.xml");
     File out = new File(this.tempDir, getName() + lineNumber + ".out.xml");
     marshaller.marshal(object, in);
-//    System.out.printf("%s %s %s %s\n", this.exe.getAbsolutePath(), object.getClass().getSimpleName().toLowerCase(), in.getAbsolutePath(), out.getAbsolutePath());
-    Process process = new ProcessBuilder(this.exe.getAbsolutePath(), object.getClass().getSimpleName().toLowerCase(), in.getAbsolutePath(), out.getAbsolutePath())
+    processXml(object.getClass().getSimpleName().toLowerCase(), in, out);
+
+    Unmarshaller unmarshaller = context.createUnmarshaller();
+    return (T) unmarshaller.unmarshal(out);
+  }
+
+  /**
+   * Runs the C program that processes the XML.
+   *
+   * @param command The command (e.g. the type to read).
+   * @param in The file to read.
+   * @param out The file to write.
+   * @return The lines the program printed.
+   */
+  protected List<String> processXml(String command, File in, File out) throws Exception {
+//    System.out.printf("%s %s %s %s\n", this.exe.getAbsolutePath(), command, in.getAbsolutePath(), out.getAbsolutePath());
+    Process process = new ProcessBuilder(this.exe.getAbsolutePath(), command, in.getAbsolutePath(), out.getAbsolutePath())
       .redirectErrorStream(true)
       .start();
+    List<String> lines = new ArrayList<String>();
     BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
     String line = procReader.readLine();
     while (line != null) {
       System.out.println(line);
+      lines.add(line);
       line = procReader.readLine();
     }
     int exitStatus = process.waitFor();
     assertEquals("Process xml failed.", 0, exitStatus);
-
-    Unmarshaller unmarshaller = context.createUnmarshaller();
-    return (T) unmarshaller.unmarshal(out);
+    return lines;
   }
 
   protected String packageToModule(String pckg) {
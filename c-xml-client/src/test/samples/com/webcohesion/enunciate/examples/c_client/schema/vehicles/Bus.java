@@ -21,6 +21,7 @@ import com.webcohesion.enunciate.examples.c_client.schema.Figure;
 import com.webcohesion.enunciate.examples.c_client.schema.Rectangle;
 import com.webcohesion.enunciate.metadata.qname.XmlQNameEnumRef;
 
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.namespace.QName;
@@ -46,6 +47,9 @@ public class Bus extends Figure {
     this.frame = frame;
   }
 
+  @XmlElement (
+    nillable = true
+  )
   public Circle[] getWheels() {
     return wheels;
   }
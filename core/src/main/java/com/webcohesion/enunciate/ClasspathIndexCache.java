@@ -0,0 +1,174 @@
+package com.webcohesion.enunciate;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of what the {@link ClasspathScanner} read from the jars of a classpath, kept between builds (e.g. by a build
+ * daemon) so the jars that haven't changed don't have to be opened and read again. An entry holds the names of the
+ * classes and the source files in a jar, and the header of each class that was read; it's only used while the length
+ * and the modification time of the jar are the same as when it was read.<br/><br/>
+ *
+ * Only jars are cached: the directories on a classpath are the output of the build being documented, so they're
+ * expected to change between builds.
+ *
+ * @author Ryan Heaton
+ */
+public class ClasspathIndexCache {
+
+  private final ConcurrentMap<File, Entry> entries = new ConcurrentHashMap<File, Entry>();
+
+  /**
+   * Find the entry for a jar.
+   *
+   * @param jar The jar.
+   * @return The entry, or null if the jar isn't cached or has changed since it was cached.
+   */
+  public Entry find(File jar) {
+    Entry entry = this.entries.get(jar);
+    if (entry != null && (entry.length != jar.length() || entry.lastModified != jar.lastModified())) {
+      this.entries.remove(jar, entry);
+      entry = null;
+    }
+    return entry;
+  }
+
+  /**
+   * Create an (empty) entry for a jar that is about to be read. The entry isn't in the cache until it's {@link #put(Entry) put}.
+   *
+   * @param jar The jar.
+   * @return The entry.
+   */
+  public Entry createEntry(File jar) {
+    return new Entry(jar, jar.length(), jar.lastModified());
+  }
+
+  /**
+   * Put an entry in the cache, once its jar has been read.
+   *
+   * @param entry The entry.
+   */
+  public void put(Entry entry) {
+    this.entries.put(entry.jar, entry);
+  }
+
+  /**
+   * Clear the cache.
+   */
+  public void clear() {
+    this.entries.clear();
+  }
+
+  /**
+   * What was read from a jar.
+   */
+  public static class Entry {
+
+    private final File jar;
+    private final long length;
+    private final long lastModified;
+    private final Queue<String> classNames = new ConcurrentLinkedQueue<String>();
+    private final Queue<String> sourcePaths = new ConcurrentLinkedQueue<String>();
+    private final ConcurrentMap<String, ClassRecord> classes = new ConcurrentHashMap<String, ClassRecord>();
+
+    Entry(File jar, long length, long lastModified) {
+      this.jar = jar;
+      this.length = length;
+      this.lastModified = lastModified;
+    }
+
+    /**
+     * Note an entry of the jar.
+     *
+     * @param path The path of the entry.
+     */
+    public void addPath(String path) {
+      if (path.endsWith(".java")) {
+        this.sourcePaths.add(path);
+      }
+      else if (path.endsWith(".class")) {
+        this.classNames.add(path.substring(0, path.length() - 6).replace('/', '.'));
+      }
+    }
+
+    /**
+     * Note the header of a class that was read.
+     *
+     * @param path       The path of the class file.
+     * @param className  The name of the class.
+     * @param annotations The names of the class annotations.
+     * @param superclass The name of the superclass.
+     * @param interfaces The names of the interfaces.
+     */
+    public void addClass(String path, String className, List<String> annotations, String superclass, List<String> interfaces) {
+      this.classes.put(path.substring(0, path.length() - 6).replace('/', '.'), new ClassRecord(className, annotations, superclass, interfaces));
+    }
+
+    /**
+     * The names of the classes in the jar, read or not.
+     *
+     * @return The names of the classes in the jar.
+     */
+    public Collection<String> getClassNames() {
+      return classNames;
+    }
+
+    /**
+     * The paths of the java source files in the jar.
+     *
+     * @return The paths of the java source files in the jar.
+     */
+    public Collection<String> getSourcePaths() {
+      return sourcePaths;
+    }
+
+    /**
+     * The header of a class that was read.
+     *
+     * @param className The name of the class, as derived from its path.
+     * @return The header of the class, or null if the class wasn't read.
+     */
+    public ClassRecord findClass(String className) {
+      return this.classes.get(className);
+    }
+  }
+
+  /**
+   * The part of the header of a class that is indexed.
+   */
+  public static class ClassRecord {
+
+    private final String className;
+    private final List<String> annotationNames;
+    private final String superclassName;
+    private final List<String> interfaceNames;
+
+    ClassRecord(String className, List<String> annotationNames, String superclassName, List<String> interfaceNames) {
+      this.className = className;
+      this.annotationNames = annotationNames;
+      this.superclassName = superclassName;
+      this.interfaceNames = interfaceNames;
+    }
+
+    public String getClassName() {
+      return className;
+    }
+
+    public List<String> getAnnotationNames() {
+      return annotationNames;
+    }
+
+    public String getSuperclassName() {
+      return superclassName;
+    }
+
+    public List<String> getInterfaceNames() {
+      return interfaceNames;
+    }
+  }
+}
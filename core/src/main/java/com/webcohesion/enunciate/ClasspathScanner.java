@@ -0,0 +1,458 @@
+package com.webcohesion.enunciate;
+
+import com.webcohesion.enunciate.util.ClassHeader;
+import com.webcohesion.enunciate.util.ClassHeaderMetadataAdapter;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Scans a classpath for the entries selected by an {@link EnunciateReflectionsScanner}: the names of the selected classes
+ * and the paths of the java source files.<br/><br/>
+ *
+ * The work is split into chunks that are put on a shared queue. Each classpath entry starts out as a single chunk; when
+ * a jar or a directory is opened, its entries are split into ranges and any range beyond the first is put back on the
+ * queue, so idle threads pick up the ranges of large jars while the thread that opened the jar works on the first range.
+ * Idle threads block on the queue until more chunks are put on it or the last chunk is done.
+ * Only the {@link ClassHeader header} of each class file is read, and class files that are excluded by name are skipped
+ * without being read. The headers are added to a {@link TypeIndex type index}, against which the rules of the indexed type
+ * filtering modules are evaluated once the scan is done; the other type filtering modules are asked about each class.<br/><br/>
+ *
+ * If the scanner is given a {@link ClasspathIndexCache}, what it reads from each jar is cached, and the jars that are
+ * found unchanged in the cache aren't opened at all (unless there are type filtering modules that aren't indexed, since
+ * those need to read each class).
+ *
+ * @author Ryan Heaton
+ */
+public class ClasspathScanner {
+
+  static final int DEFAULT_RANGE_SIZE = 256;
+
+  /**
+   * Put on the queue when the last chunk is done, to wake the idle threads. Each thread that takes it puts it back.
+   */
+  private static final Chunk DONE = new Chunk() {
+    @Override
+    public void run() {
+    }
+  };
+
+  private final EnunciateReflectionsScanner typeScanner;
+  private final TypeIndex typeIndex;
+  private final EnunciateLogger logger;
+  private final ClassHeaderMetadataAdapter metadata = new ClassHeaderMetadataAdapter();
+  private final int rangeSize;
+  private final ClasspathIndexCache indexCache;
+
+  private final BlockingQueue<Chunk> queue = new LinkedBlockingQueue<Chunk>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Set<String> entries = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  private final AtomicInteger classesRead = new AtomicInteger();
+  private final AtomicInteger classesSkipped = new AtomicInteger();
+  private final AtomicInteger classesCached = new AtomicInteger();
+
+  public ClasspathScanner(EnunciateReflectionsScanner typeScanner, EnunciateLogger logger) {
+    this(typeScanner, logger, DEFAULT_RANGE_SIZE);
+  }
+
+  public ClasspathScanner(EnunciateReflectionsScanner typeScanner, EnunciateLogger logger, int rangeSize) {
+    this(typeScanner, logger, rangeSize, null);
+  }
+
+  public ClasspathScanner(EnunciateReflectionsScanner typeScanner, EnunciateLogger logger, int rangeSize, ClasspathIndexCache indexCache) {
+    this.typeScanner = typeScanner;
+    this.typeIndex = typeScanner.createTypeIndex();
+    this.logger = logger;
+    this.rangeSize = rangeSize;
+    //the unindexed modules need to read each class, so there's no point in caching the jars for them.
+    this.indexCache = typeScanner.hasUnindexedModules() ? null : indexCache;
+  }
+
+  /**
+   * Scan the specified classpath.
+   *
+   * @param scanpath The classpath entries (directories or jars) to scan.
+   * @param executor The executor to use for the threads that help with the scan, or null to scan on the current thread only.
+   * @param helpers  The number of threads that help with the scan.
+   * @return The scanned entries: the names of the selected classes, and the relative paths of the java source files.
+   */
+  public Set<String> scan(List<File> scanpath, ExecutorService executor, int helpers) {
+    long start = System.currentTimeMillis();
+    for (File entry : scanpath) {
+      push(new ClasspathEntryChunk(entry));
+    }
+    if (scanpath.isEmpty()) {
+      this.queue.add(DONE);
+    }
+
+    List<Future<?>> futures = new ArrayList<Future<?>>();
+    if (executor != null) {
+      for (int i = 0; i < helpers; i++) {
+        futures.add(executor.submit(new Runnable() {
+          @Override
+          public void run() {
+            work();
+          }
+        }));
+      }
+    }
+
+    boolean finished = false;
+    try {
+      work();
+      finished = true;
+    }
+    finally {
+      if (!finished) {
+        //stop the helpers, so they don't keep working on (or waiting for) the rest of the chunks.
+        this.queue.clear();
+        this.queue.add(DONE);
+        for (Future<?> future : futures) {
+          future.cancel(true);
+        }
+      }
+    }
+
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new EnunciateException(e);
+      }
+      catch (ExecutionException e) {
+        throw new EnunciateException(e.getCause());
+      }
+    }
+
+    //the types accepted by the indexed modules are found with set operations over the index.
+    this.entries.addAll(this.typeScanner.accept(this.typeIndex));
+
+    this.logger.debug("Scanned %s classpath entries in %s ms (%s classes read, %s classes cached, %s classes skipped, %s threads).",
+                      scanpath.size(), System.currentTimeMillis() - start, this.classesRead.get(), this.classesCached.get(), this.classesSkipped.get(), futures.size() + 1);
+    return this.entries;
+  }
+
+  /**
+   * Work on the chunks in the queue until all the chunks are done.
+   */
+  protected void work() {
+    while (true) {
+      Chunk chunk;
+      try {
+        //the chunks that are still being worked on may put more chunks on the queue.
+        chunk = this.queue.take();
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new EnunciateException(e);
+      }
+
+      if (chunk == DONE) {
+        this.queue.add(DONE);
+        return;
+      }
+
+      try {
+        chunk.run();
+      }
+      finally {
+        if (this.pending.decrementAndGet() == 0) {
+          this.queue.add(DONE);
+        }
+      }
+    }
+  }
+
+  protected void push(Chunk chunk) {
+    this.pending.incrementAndGet();
+    this.queue.add(chunk);
+  }
+
+  /**
+   * Whether the scanner needs to read the specified entry.
+   *
+   * @param path The path of the entry, relative to the root of its classpath entry.
+   * @return Whether the entry needs to be read.
+   */
+  protected boolean needsRead(String path) {
+    if (path.endsWith(".java")) {
+      this.entries.add(path);
+      return false;
+    }
+    else if (path.endsWith(".class")) {
+      String className = path.substring(0, path.length() - 6).replace('/', '.');
+      this.typeIndex.noteClass(className);
+      if (this.typeScanner.isExcluded(className)) {
+        this.classesSkipped.incrementAndGet();
+        return false;
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Scan a class file.
+   *
+   * @param path The path of the class file.
+   * @param in   The stream of the class file.
+   * @return The header of the class, or null if the class couldn't be read.
+   */
+  protected ClassHeader scanClass(String path, InputStream in) {
+    try {
+      ClassHeader header;
+      try {
+        header = new ClassHeader(ClassHeaderMetadataAdapter.readFully(in));
+      }
+      finally {
+        in.close();
+      }
+
+      this.classesRead.incrementAndGet();
+      this.typeIndex.add(header.getClassName(), header.getAnnotationNames(), header.getSuperclassName(), header.getInterfaceNames());
+      if (this.typeScanner.acceptUnindexed(header, this.metadata)) {
+        this.entries.add(header.getClassName());
+      }
+      return header;
+    }
+    catch (Exception e) {
+      this.logger.debug("Unable to scan %s: %s", path, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Scan a jar from what was cached when it was last read.
+   *
+   * @param entry The cache entry of the jar.
+   * @return Whether the jar was scanned. If not, the jar has to be read.
+   */
+  protected boolean scanCached(ClasspathIndexCache.Entry entry) {
+    //each class that isn't excluded has to have been read when the jar was cached.
+    for (String className : entry.getClassNames()) {
+      if (entry.findClass(className) == null && !this.typeScanner.isExcluded(className)) {
+        return false;
+      }
+    }
+
+    this.entries.addAll(entry.getSourcePaths());
+    for (String className : entry.getClassNames()) {
+      this.typeIndex.noteClass(className);
+      if (this.typeScanner.isExcluded(className)) {
+        this.classesSkipped.incrementAndGet();
+        continue;
+      }
+
+      ClasspathIndexCache.ClassRecord record = entry.findClass(className);
+      this.classesCached.incrementAndGet();
+      this.typeIndex.add(record.getClassName(), record.getAnnotationNames(), record.getSuperclassName(), record.getInterfaceNames());
+      if (this.typeScanner.isIncluded(record.getClassName())) {
+        //without any unindexed modules, only the explicitly included classes are accepted class by class.
+        this.entries.add(record.getClassName());
+      }
+    }
+    return true;
+  }
+
+  protected interface Chunk {
+    void run();
+  }
+
+  /**
+   * A classpath entry that hasn't been opened yet.
+   */
+  protected class ClasspathEntryChunk implements Chunk {
+
+    private final File file;
+
+    public ClasspathEntryChunk(File file) {
+      this.file = file;
+    }
+
+    @Override
+    public void run() {
+      if (this.file.isDirectory()) {
+        List<String> paths = new ArrayList<String>();
+        listDirectory(this.file, "", paths);
+        List<DirectoryRange> ranges = new ArrayList<DirectoryRange>();
+        for (int i = 0; i < paths.size(); i += rangeSize) {
+          ranges.add(new DirectoryRange(this.file, paths.subList(i, Math.min(paths.size(), i + rangeSize))));
+        }
+        runFirstAndPushOthers(ranges);
+      }
+      else if (this.file.isFile()) {
+        ClasspathIndexCache.Entry indexEntry = null;
+        if (indexCache != null) {
+          ClasspathIndexCache.Entry cached = indexCache.find(this.file);
+          if (cached != null && scanCached(cached)) {
+            return;
+          }
+          indexEntry = indexCache.createEntry(this.file);
+        }
+
+        final ZipFile zip;
+        try {
+          zip = new ZipFile(this.file);
+        }
+        catch (IOException e) {
+          logger.debug("Unable to open %s for scanning: %s", this.file, e.getMessage());
+          return;
+        }
+
+        List<ZipEntry> zipEntries = new ArrayList<ZipEntry>();
+        Enumeration<? extends ZipEntry> en = zip.entries();
+        while (en.hasMoreElements()) {
+          ZipEntry zipEntry = en.nextElement();
+          if (!zipEntry.isDirectory()) {
+            if (indexEntry != null) {
+              indexEntry.addPath(zipEntry.getName());
+            }
+
+            if (needsRead(zipEntry.getName())) {
+              zipEntries.add(zipEntry);
+            }
+          }
+        }
+
+        List<JarRange> ranges = new ArrayList<JarRange>();
+        AtomicInteger openRanges = new AtomicInteger();
+        for (int i = 0; i < zipEntries.size(); i += rangeSize) {
+          ranges.add(new JarRange(zip, zipEntries.subList(i, Math.min(zipEntries.size(), i + rangeSize)), openRanges, indexEntry));
+        }
+
+        if (ranges.isEmpty()) {
+          closeQuietly(zip);
+          if (indexEntry != null) {
+            indexCache.put(indexEntry);
+          }
+        }
+        else {
+          openRanges.set(ranges.size());
+          runFirstAndPushOthers(ranges);
+        }
+      }
+    }
+
+    private void listDirectory(File dir, String prefix, List<String> paths) {
+      File[] files = dir.listFiles();
+      if (files != null) {
+        for (File file : files) {
+          String path = prefix + file.getName();
+          if (file.isDirectory()) {
+            listDirectory(file, path + "/", paths);
+          }
+          else if (needsRead(path)) {
+            paths.add(path);
+          }
+        }
+      }
+    }
+
+    private void runFirstAndPushOthers(List<? extends Chunk> ranges) {
+      for (int i = 1; i < ranges.size(); i++) {
+        push(ranges.get(i));
+      }
+
+      if (!ranges.isEmpty()) {
+        ranges.get(0).run();
+      }
+    }
+  }
+
+  /**
+   * A range of the class files in a directory.
+   */
+  protected class DirectoryRange implements Chunk {
+
+    private final File dir;
+    private final List<String> paths;
+
+    public DirectoryRange(File dir, List<String> paths) {
+      this.dir = dir;
+      this.paths = paths;
+    }
+
+    @Override
+    public void run() {
+      for (String path : this.paths) {
+        try {
+          scanClass(path, new FileInputStream(new File(this.dir, path)));
+        }
+        catch (IOException e) {
+          logger.debug("Unable to scan %s: %s", path, e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * A range of the class files in a jar. The jar is shared by all its ranges, and is closed (and cached, if it's being
+   * cached) when the last range is done.
+   */
+  protected class JarRange implements Chunk {
+
+    private final ZipFile zip;
+    private final List<ZipEntry> zipEntries;
+    private final AtomicInteger openRanges;
+    private final ClasspathIndexCache.Entry indexEntry;
+
+    public JarRange(ZipFile zip, List<ZipEntry> zipEntries, AtomicInteger openRanges, ClasspathIndexCache.Entry indexEntry) {
+      this.zip = zip;
+      this.zipEntries = zipEntries;
+      this.openRanges = openRanges;
+      this.indexEntry = indexEntry;
+    }
+
+    @Override
+    public void run() {
+      try {
+        for (ZipEntry zipEntry : this.zipEntries) {
+          try {
+            ClassHeader header = scanClass(zipEntry.getName(), this.zip.getInputStream(zipEntry));
+            if (header != null && this.indexEntry != null) {
+              this.indexEntry.addClass(zipEntry.getName(), header.getClassName(), header.getAnnotationNames(), header.getSuperclassName(), header.getInterfaceNames());
+            }
+          }
+          catch (IOException e) {
+            logger.debug("Unable to scan %s: %s", zipEntry.getName(), e.getMessage());
+          }
+        }
+      }
+      finally {
+        if (this.openRanges.decrementAndGet() == 0) {
+          closeQuietly(this.zip);
+          if (this.indexEntry != null) {
+            indexCache.put(this.indexEntry);
+          }
+        }
+      }
+    }
+  }
+
+  private static void closeQuietly(ZipFile zip) {
+    try {
+      zip.close();
+    }
+    catch (IOException e) {
+      //fall through...
+    }
+  }
+}
@@ -2,20 +2,26 @@ package com.webcohesion.enunciate;
 
 import com.sun.tools.javac.api.JavacTool;
 import com.webcohesion.enunciate.api.ApiRegistry;
+import com.webcohesion.enunciate.api.snapshot.ApiModelFile;
 import com.webcohesion.enunciate.artifacts.Artifact;
+import com.webcohesion.enunciate.artifacts.ClientLibraryArtifact;
+import com.webcohesion.enunciate.artifacts.FileArtifact;
+import com.webcohesion.enunciate.daemon.WarmBuildState;
 import com.webcohesion.enunciate.io.InvokeEnunciateModule;
+import com.webcohesion.enunciate.module.ApiModelGeneratingModule;
 import com.webcohesion.enunciate.module.ApiRegistryAwareModule;
 import com.webcohesion.enunciate.module.DependencySpec;
 import com.webcohesion.enunciate.module.DependingModuleAwareModule;
 import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.util.ArtifactCache;
+import com.webcohesion.enunciate.util.SharedJavaCompiler;
+import freemarker.template.Configuration;
 import org.apache.commons.configuration.ConfigurationException;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.alg.CycleDetector;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.traverse.TopologicalOrderIterator;
-import org.reflections.Reflections;
-import org.reflections.util.ConfigurationBuilder;
 
 import org.reflections.util.FilterBuilder;
 import rx.Observable;
@@ -29,10 +35,15 @@ import javax.tools.*;
 import java.io.*;
 import java.net.*;
 import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -46,6 +57,7 @@ public class Enunciate implements Runnable {
   private static final String ENUNCIATE_ELEMENT_FILTER_PROPERTY = "com.webcohesion.enunciate.Enunciate#ENUNCIATE_ELEMENT_FILTER_PROPERTY";
 
   private Set<File> sourceFiles = new TreeSet<File>();
+  private final Set<File> sourceDirs = new TreeSet<File>();
   private List<EnunciateModule> modules;
   private final Set<String> includePatterns = new TreeSet<String>();
   private final Set<String> excludePatterns = new TreeSet<String>();
@@ -56,10 +68,18 @@ public class Enunciate implements Runnable {
   private EnunciateLogger logger = new EnunciateConsoleLogger();
   private final EnunciateConfiguration configuration = new EnunciateConfiguration();
   private File buildDir;
+  private ArtifactCache artifactCache;
+  private long cacheMaxSize = ArtifactCache.DEFAULT_MAX_SIZE;
+  private long cacheMaxAge = ArtifactCache.DEFAULT_MAX_AGE;
   private final List<String> compilerArgs = new ArrayList<String>();
   private final Set<Artifact> artifacts = new TreeSet<Artifact>();
   private final Map<String, File> exports = new HashMap<String, File>();
   private final ApiRegistry apiRegistry = new ApiRegistry();
+  private final SharedJavaCompiler javaCompiler = new SharedJavaCompiler(this);
+  private boolean apiModelEnabled = false;
+  private String sourceFingerprint = null;
+  private WarmBuildState warmState = null;
+  private final ConcurrentMap<String, Configuration> templateConfigurations = new ConcurrentHashMap<String, Configuration>();
 
   public List<EnunciateModule> getModules() {
     return modules;
@@ -93,6 +113,10 @@ public class Enunciate implements Runnable {
     return this;
   }
 
+  public Set<File> getSourceFiles() {
+    return sourceFiles;
+  }
+
   public Enunciate setSourceFiles(Set<File> sourceFiles) {
     this.sourceFiles = sourceFiles;
     return this;
@@ -107,6 +131,7 @@ public class Enunciate implements Runnable {
   }
 
   public Enunciate addSourceDir(File dir) {
+    this.sourceDirs.add(dir);
     visitFiles(dir, JAVA_FILTER, new FileVisitor() {
       @Override
       public void visit(File file) {
@@ -117,6 +142,15 @@ public class Enunciate implements Runnable {
     return this;
   }
 
+  /**
+   * The source directories that were added (see {@link #addSourceDir(File)}).
+   *
+   * @return The source directories that were added.
+   */
+  public Set<File> getSourceDirs() {
+    return Collections.unmodifiableSet(this.sourceDirs);
+  }
+
   public Enunciate setExecutorService(ExecutorService executorService) {
     this.executorService = executorService;
     return this;
@@ -177,6 +211,15 @@ public class Enunciate implements Runnable {
     return logger;
   }
 
+  /**
+   * The compiler to use for the Java sources generated by the modules.
+   *
+   * @return The compiler to use for the Java sources generated by the modules.
+   */
+  public SharedJavaCompiler getJavaCompiler() {
+    return javaCompiler;
+  }
+
   public Enunciate setLogger(EnunciateLogger logger) {
     this.logger = logger;
     return this;
@@ -200,7 +243,7 @@ public class Enunciate implements Runnable {
 
   public Enunciate loadConfiguration(Reader reader) {
     try {
-      this.configuration.getSource().load(reader);
+      this.configuration.load(reader);
     }
     catch (ConfigurationException e) {
       throw new EnunciateException(e);
@@ -238,6 +281,142 @@ public class Enunciate implements Runnable {
     return this;
   }
 
+  /**
+   * The directory of the artifact cache shared across builds, or null if artifacts aren't cached.
+   *
+   * @return The directory of the artifact cache.
+   */
+  public File getCacheDir() {
+    return this.artifactCache == null ? null : this.artifactCache.getDir();
+  }
+
+  /**
+   * Set the directory of the artifact cache, in which the output of the extracted bundles and the
+   * packaged artifacts is kept so that later builds can copy it instead of generating it again.
+   *
+   * @param cacheDir The directory of the artifact cache, or null to disable the cache.
+   * @return this.
+   */
+  public Enunciate setCacheDir(File cacheDir) {
+    this.artifactCache = cacheDir == null ? null : new ArtifactCache(cacheDir, this);
+    if (this.artifactCache != null) {
+      this.artifactCache.setMaxSize(this.cacheMaxSize);
+      this.artifactCache.setMaxAge(this.cacheMaxAge);
+    }
+    return this;
+  }
+
+  /**
+   * The maximum size of the artifact cache, in bytes.
+   *
+   * @return The maximum size of the artifact cache, in bytes.
+   */
+  public long getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  /**
+   * Set the maximum size of the artifact cache. The least recently used artifacts are evicted from a larger cache.
+   *
+   * @param cacheMaxSize The maximum size of the artifact cache, in bytes.
+   * @return this.
+   */
+  public Enunciate setCacheMaxSize(long cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+    if (this.artifactCache != null) {
+      this.artifactCache.setMaxSize(cacheMaxSize);
+    }
+    return this;
+  }
+
+  /**
+   * The maximum age of an unused artifact in the artifact cache, in milliseconds.
+   *
+   * @return The maximum age of an unused artifact in the artifact cache, in milliseconds.
+   */
+  public long getCacheMaxAge() {
+    return cacheMaxAge;
+  }
+
+  /**
+   * Set the maximum age of an unused artifact in the artifact cache. Older artifacts are evicted from the cache.
+   *
+   * @param cacheMaxAge The maximum age of an unused artifact, in milliseconds.
+   * @return this.
+   */
+  public Enunciate setCacheMaxAge(long cacheMaxAge) {
+    this.cacheMaxAge = cacheMaxAge;
+    if (this.artifactCache != null) {
+      this.artifactCache.setMaxAge(cacheMaxAge);
+    }
+    return this;
+  }
+
+  /**
+   * The artifact cache.
+   *
+   * @return The artifact cache, or null if artifacts aren't cached.
+   */
+  public ArtifactCache getArtifactCache() {
+    return artifactCache;
+  }
+
+  /**
+   * Whether the API model is saved at the end of a build and can be generated from (see {@link #generateFromModel()}).
+   *
+   * @return Whether the API model is saved at the end of a build and can be generated from.
+   */
+  public boolean isApiModelEnabled() {
+    return apiModelEnabled;
+  }
+
+  /**
+   * Set whether the API model is saved at the end of a build and can be generated from (see {@link #generateFromModel()}).
+   * Saving the API model means fingerprinting the sources before the build and serializing the API registry after it,
+   * so it's off by default.
+   *
+   * @param apiModelEnabled Whether the API model is saved at the end of a build and can be generated from.
+   * @return this.
+   */
+  public Enunciate setApiModelEnabled(boolean apiModelEnabled) {
+    this.apiModelEnabled = apiModelEnabled;
+    return this;
+  }
+
+  /**
+   * The state kept warm between builds by a build daemon.
+   *
+   * @return The state kept warm between builds, or null if the build isn't run by a build daemon.
+   */
+  public WarmBuildState getWarmState() {
+    return warmState;
+  }
+
+  /**
+   * Set the state to keep warm between builds, when the build is run by a {@link com.webcohesion.enunciate.daemon.BuildDaemon build daemon}.
+   * The template configurations, what was read from the jars on the classpath and the javac file managers are then
+   * reused from the previous builds, as long as their inputs haven't changed.
+   *
+   * @param warmState The state to keep warm between builds.
+   * @return this.
+   */
+  public Enunciate setWarmState(WarmBuildState warmState) {
+    this.warmState = warmState;
+    return this;
+  }
+
+  /**
+   * The freemarker configurations shared by the invocations of the templates of a module, keyed by the name of the
+   * module. A shared configuration caches the templates it has parsed, so each template is parsed once per build (or
+   * once per build daemon) instead of once per invocation. The modules that share a configuration must make it check
+   * its templates for modification each time they're used, since a build daemon keeps it between builds.
+   *
+   * @return The shared template configurations.
+   */
+  public ConcurrentMap<String, Configuration> getTemplateConfigurations() {
+    return this.warmState == null ? this.templateConfigurations : this.warmState.getTemplateConfigurations();
+  }
+
   public List<String> getCompilerArgs() {
     return compilerArgs;
   }
@@ -412,11 +591,57 @@ public class Enunciate implements Runnable {
    * @param dirs   The directories to zip up.
    */
   public boolean zip(File toFile, File... dirs) throws IOException {
+    return zip(toFile, Collections.<String, byte[]>emptyMap(), dirs);
+  }
+
+  /**
+   * zip up directories and in-memory entries to a specified zip file.
+   *
+   * @param toFile  The file to zip to.
+   * @param entries The in-memory entries to add to the zip file, keyed by entry name.
+   * @param dirs    The directories to zip up.
+   */
+  public boolean zip(File toFile, Map<String, byte[]> entries, File... dirs) throws IOException {
     if (!toFile.getParentFile().exists()) {
       getLogger().debug("Creating directory %s...", toFile.getParentFile());
       toFile.getParentFile().mkdirs();
     }
 
+    if (this.artifactCache == null) {
+      return writeZip(toFile, entries, dirs);
+    }
+
+    String key = this.artifactCache.key(entries, dirs);
+    File cached = this.artifactCache.find("zip", key);
+    if (cached != null && !isZipFile(cached)) {
+      getLogger().warn("Cached zip file %s is corrupt. It will be created again.", cached);
+      this.artifactCache.remove("zip", key);
+      cached = null;
+    }
+
+    if (cached == null) {
+      File temp = this.artifactCache.createTemp(false);
+      writeZip(temp, entries, dirs);
+      cached = this.artifactCache.put("zip", key, temp);
+    }
+    copyFile(cached, toFile);
+
+    ArrayList<File> files = new ArrayList<File>();
+    buildFileList(files, dirs);
+    return !entries.isEmpty() || !files.isEmpty();
+  }
+
+  private boolean isZipFile(File file) {
+    try {
+      new ZipFile(file).close();
+      return true;
+    }
+    catch (IOException e) {
+      return false;
+    }
+  }
+
+  private boolean writeZip(File toFile, Map<String, byte[]> entries, File... dirs) throws IOException {
     boolean anyFiles = false;
 
     byte[] buffer = new byte[2 * 1024]; //buffer of 2K should be fine.
@@ -447,6 +672,15 @@ public class Enunciate implements Runnable {
       }
     }
 
+    for (Map.Entry<String, byte[]> memoryEntry : entries.entrySet()) {
+      ZipEntry entry = new ZipEntry(memoryEntry.getKey());
+      getLogger().debug("Adding entry %s...", entry.getName());
+      zipout.putNextEntry(entry);
+      zipout.write(memoryEntry.getValue());
+      zipout.closeEntry();
+      anyFiles = true;
+    }
+
     if (!anyFiles) {
       ZipEntry entry = new ZipEntry("README.txt");
       zipout.putNextEntry(entry);
@@ -479,12 +713,51 @@ public class Enunciate implements Runnable {
   }
 
   /**
-   * Extracts the (zipped up) base to the specified directory.
+   * Extracts the (zipped up) base to the specified directory. The extracted base isn't cached; see {@link #unzip(URL, File)}.
    *
    * @param stream The stream to the zip.
    * @param toDir  The directory to extract to.
    */
   public void unzip(InputStream stream, File toDir) throws IOException {
+    try {
+      extract(stream, toDir);
+    }
+    finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * Extracts the (zipped up) base at the specified URL to the specified directory. If there's an artifact cache, the
+   * extracted base is kept in the cache, keyed by the contents of the zip.
+   *
+   * @param url   The URL of the zip.
+   * @param toDir The directory to extract to.
+   */
+  public void unzip(URL url, File toDir) throws IOException {
+    if (this.artifactCache == null) {
+      unzip(url.openStream(), toDir);
+      return;
+    }
+
+    String key = this.artifactCache.key(url);
+
+    File cached = this.artifactCache.find("unzip", key);
+    if (cached != null && !cached.isDirectory()) {
+      getLogger().warn("Cached directory %s is corrupt. It will be extracted again.", cached);
+      this.artifactCache.remove("unzip", key);
+      cached = null;
+    }
+
+    if (cached == null) {
+      File temp = this.artifactCache.createTemp(true);
+      unzip(url.openStream(), temp);
+      cached = this.artifactCache.put("unzip", key, temp);
+    }
+    copyDir(cached, toDir);
+  }
+
+  private void extract(InputStream stream, File toDir) throws IOException {
     ZipInputStream in = new ZipInputStream(stream);
     ZipEntry entry = in.getNextEntry();
     while (entry != null) {
@@ -526,9 +799,253 @@ public class Enunciate implements Runnable {
     }
   }
 
+  /**
+   * The file to which the API model is saved at the end of a build (see {@link #generateFromModel()}).
+   *
+   * @return The API model file, or null if there's no build directory.
+   */
+  public File getApiModelFile() {
+    return this.buildDir == null ? null : new File(this.buildDir, "api-model.bin");
+  }
+
+  /**
+   * Generate from the API model saved by a previous build, if the sources (classpath, source path, source files,
+   * compiler arguments and configuration) haven't changed since. The classpath isn't scanned and the compiler isn't
+   * invoked; only the modules that generate from the API registry alone are invoked.
+   *
+   * @return Whether the output was generated from the saved API model. If not, the engine must be {@link #run() run}.
+   * @see #setApiModelEnabled(boolean)
+   */
+  public boolean generateFromModel() {
+    File modelFile = getApiModelFile();
+    if (!this.apiModelEnabled || this.modules == null || this.modules.isEmpty() || modelFile == null || !modelFile.exists()) {
+      return false;
+    }
+
+    ApiModelFile.ApiModel model;
+    try {
+      model = new ApiModelFile(modelFile).read(computeSourceFingerprint());
+    }
+    catch (IOException e) {
+      getLogger().debug("Unable to read API model %s: %s", modelFile, e.getMessage());
+      return false;
+    }
+
+    if (model == null) {
+      getLogger().info("API model %s isn't up-to-date with the sources.", modelFile);
+      return false;
+    }
+
+    getLogger().info("Generating from API model %s...", modelFile);
+    ApiRegistry registry = model.getRegistry();
+    this.apiRegistry.getServiceApis().addAll(registry.getServiceApis());
+    this.apiRegistry.getResourceApis().addAll(registry.getResourceApis());
+    this.apiRegistry.getSyntaxes().addAll(registry.getSyntaxes());
+    for (Artifact artifact : model.getArtifacts()) {
+      addArtifact(artifact);
+    }
+    if (model.getDescription() != null) {
+      this.configuration.setDefaultDescription(model.getDescription());
+    }
+
+    //there's no compiler model, so there's no processing environment and there are no api elements.
+    EnunciateContext context = new EnunciateContext(null, getLogger(), this.apiRegistry, this.configuration, getIncludePatterns(), getExcludePatterns());
+    context.setApiElements(Collections.<Element>emptySet());
+    context.setLocalApiElements(Collections.<Element>emptySet());
+
+    Map<String, EnunciateModule> modelModules = new TreeMap<String, EnunciateModule>();
+    for (Map.Entry<String, ? extends EnunciateModule> module : findEnabledModules().entrySet()) {
+      if (module.getValue() instanceof ApiModelGeneratingModule) {
+        module.getValue().init(context);
+        modelModules.put(module.getKey(), module.getValue());
+      }
+    }
+
+    DirectedGraph<String, DefaultEdge> graph = buildModuleGraph(modelModules);
+    composeEngine(context, modelModules, graph).toList().toBlocking().single();
+
+    exportArtifacts();
+    return true;
+  }
+
+  /**
+   * Save the API model (see {@link #generateFromModel()}). Invoked once the engine has finished.
+   *
+   * @param context The context of the engine.
+   */
+  void saveApiModel(EnunciateContext context) {
+    File modelFile = getApiModelFile();
+    if (modelFile == null || this.sourceFingerprint == null) {
+      return;
+    }
+
+    Set<String> modelModules = new TreeSet<String>();
+    for (EnunciateModule module : findEnabledModules().values()) {
+      if (module instanceof ApiModelGeneratingModule) {
+        modelModules.add(module.getName());
+      }
+    }
+
+    //only the artifacts that are just files can be restored without the modules that created them; the artifacts
+    //of the modules that generate from the api model will be created again.
+    List<Artifact> artifacts = new ArrayList<Artifact>();
+    for (Artifact artifact : this.artifacts) {
+      if ((artifact instanceof FileArtifact || artifact instanceof ClientLibraryArtifact) && !modelModules.contains(artifact.getModule())) {
+        artifacts.add(artifact);
+      }
+    }
+
+    try {
+      new ApiModelFile(modelFile).write(this.sourceFingerprint, this.apiRegistry.snapshot(), this.configuration.readDescription(context), artifacts);
+      getLogger().debug("Saved API model to %s.", modelFile);
+    }
+    catch (IOException e) {
+      getLogger().warn("Unable to save API model to %s: %s", modelFile, e.getMessage());
+      modelFile.delete();
+    }
+  }
+
+  /**
+   * Computes a fingerprint of everything the API model is built from: the source files, the classpath and the source
+   * path, the include and exclude patterns, the compiler arguments, the enabled modules and the configuration,
+   * including the contents of the files the configuration refers to (e.g. templates and license files). The
+   * configuration of the modules that generate from the API model isn't included, so changing it doesn't require
+   * the API model to be rebuilt.
+   *
+   * @return The fingerprint.
+   */
+  protected String computeSourceFingerprint() {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new EnunciateException(e);
+    }
+
+    fingerprint(digest, "version", String.valueOf(ApiModelFile.FORMAT_VERSION));
+    for (File sourceFile : this.sourceFiles) {
+      fingerprint(digest, "source", sourceFile);
+    }
+    for (File entry : this.classpath == null ? Collections.<File>emptyList() : this.classpath) {
+      fingerprint(digest, "classpath", entry);
+    }
+    for (File entry : this.sourcepath == null ? Collections.<File>emptyList() : this.sourcepath) {
+      fingerprint(digest, "sourcepath", entry);
+    }
+    for (String include : this.includePatterns) {
+      fingerprint(digest, "include", include);
+    }
+    for (String exclude : this.excludePatterns) {
+      fingerprint(digest, "exclude", exclude);
+    }
+    for (String arg : this.compilerArgs) {
+      fingerprint(digest, "arg", arg);
+    }
+
+    List<String> modelModules = new ArrayList<String>();
+    for (EnunciateModule module : findEnabledModules().values()) {
+      fingerprint(digest, "module", module.getName());
+      if (module instanceof ApiModelGeneratingModule) {
+        modelModules.add("modules." + module.getName());
+      }
+    }
+
+    Iterator<String> keys = this.configuration.getSource().getKeys();
+    TreeMap<String, String> config = new TreeMap<String, String>();
+    while (keys.hasNext()) {
+      String key = keys.next();
+      if (!isConfigurationOf(key, modelModules)) {
+        config.put(key, String.valueOf(this.configuration.getSource().getProperty(key)));
+      }
+    }
+    for (Map.Entry<String, String> entry : config.entrySet()) {
+      fingerprint(digest, entry.getKey(), entry.getValue());
+
+      File file = this.configuration.resolveFile(entry.getValue());
+      if (file.isFile()) {
+        fingerprintContents(digest, entry.getKey(), file);
+      }
+    }
+
+    StringBuilder fingerprint = new StringBuilder();
+    for (byte b : digest.digest()) {
+      fingerprint.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return fingerprint.toString();
+  }
+
+  private static boolean isConfigurationOf(String key, List<String> modules) {
+    for (String module : modules) {
+      if (key.equals(module) || key.startsWith(module + ".") || key.startsWith(module + "[")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void fingerprint(final MessageDigest digest, final String kind, File file) {
+    if (file.isDirectory()) {
+      final TreeMap<String, File> files = new TreeMap<String, File>();
+      visitFiles(file, new FileFilter() {
+        @Override
+        public boolean accept(File file) {
+          return file.isFile();
+        }
+      }, new FileVisitor() {
+        @Override
+        public void visit(File file) {
+          files.put(file.getAbsolutePath(), file);
+        }
+      });
+
+      for (File child : files.values()) {
+        fingerprint(digest, kind, child);
+      }
+    }
+    else {
+      fingerprint(digest, kind, file.getAbsolutePath() + ':' + file.length() + ':' + file.lastModified());
+    }
+  }
+
+  private void fingerprintContents(MessageDigest digest, String kind, File file) {
+    fingerprint(digest, kind, file.getAbsolutePath());
+    try {
+      InputStream in = new FileInputStream(file);
+      try {
+        byte[] buffer = new byte[8 * 1024];
+        int len;
+        while ((len = in.read(buffer)) > 0) {
+          digest.update(buffer, 0, len);
+        }
+      }
+      finally {
+        in.close();
+      }
+    }
+    catch (IOException e) {
+      throw new EnunciateException(e);
+    }
+  }
+
+  private void fingerprint(MessageDigest digest, String kind, String value) {
+    try {
+      digest.update(kind.getBytes("utf-8"));
+      digest.update((byte) 0);
+      digest.update(value.getBytes("utf-8"));
+      digest.update((byte) 0);
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new EnunciateException(e);
+    }
+  }
+
   @Override
   public void run() {
     if (this.modules != null && !this.modules.isEmpty()) {
+      //fingerprint the sources first, so the api model saved at the end of the build describes the sources that were read.
+      this.sourceFingerprint = this.apiModelEnabled && this.buildDir != null ? computeSourceFingerprint() : null;
+
       //scan for any included types.
       List<File> classpath = this.classpath == null ? new ArrayList<File>() : this.classpath;
       List<File> sourcepath = this.sourcepath == null ? new ArrayList<File>() : this.sourcepath;
@@ -552,8 +1069,10 @@ public class Enunciate implements Runnable {
         }
       }
 
-      Reflections reflections = loadApiReflections(scanpath);
-      Set<String> scannedEntries = reflections.getStore().get(EnunciateReflectionsScanner.class.getSimpleName()).keySet();
+      List<File> scanFiles = new ArrayList<File>(classpath.size() + sourcepath.size());
+      scanFiles.addAll(classpath);
+      scanFiles.addAll(sourcepath);
+      Set<String> scannedEntries = scanApiEntries(scanFiles);
       Set<String> includedTypes = new HashSet<String>();
       Set<String> scannedSourceFiles = new HashSet<String>();
       for (String entry : scannedEntries) {
@@ -655,12 +1174,28 @@ public class Enunciate implements Runnable {
       }
 
       JavaCompiler compiler = JavacTool.create();
+      StandardJavaFileManager fileManager = null;
+      if (this.warmState != null) {
+        //the file manager keeps the jars it has opened, so it's reused by the builds with the same options as long as the jars don't change.
+        fileManager = this.warmState.getFileManager("api:" + options, compiler, scanFiles);
+      }
       StringWriter compilerOutput = new StringWriter();
       DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
-      JavaCompiler.CompilationTask task = compiler.getTask(compilerOutput, null, diagnostics, options, null, sources);
+      JavaCompiler.CompilationTask task = compiler.getTask(compilerOutput, fileManager, diagnostics, options, null, sources);
       EnunciateAnnotationProcessor processor = new EnunciateAnnotationProcessor(this, includedTypes);
       task.setProcessors(Arrays.asList(processor));
-      Boolean javacSuccess = task.call();
+      Boolean javacSuccess;
+      try {
+        javacSuccess = task.call();
+      }
+      finally {
+        try {
+          this.javaCompiler.close();
+        }
+        catch (IOException e) {
+          getLogger().debug("Unable to close the shared compiler: %s", e.getMessage());
+        }
+      }
       if (!javacSuccess || !processor.processed) {
         String outputText = compilerOutput.toString();
         try {
@@ -720,37 +1255,44 @@ public class Enunciate implements Runnable {
         getLogger().debug("[javac] [%s] %s:%s:%s %s", diagnostic.getKind(), diagnostic.getSource(), diagnostic.getLineNumber(), diagnostic.getColumnNumber(), diagnostic);
       }
 
-      HashSet<String> exportedArtifacts = new HashSet<String>();
-      for (Artifact artifact : artifacts) {
-        String artifactId = artifact.getId();
-        Map.Entry<String, File> export = null;
-        for (Map.Entry<String, File> entry : this.exports.entrySet()) {
-          if (artifactId.equals(entry.getKey()) || artifact.getAliases().contains(entry.getKey())) {
-            export = entry;
-          }
-        }
+      exportArtifacts();
+    }
+    else {
+      this.logger.warn("No Enunciate modules have been loaded. No work was done.");
+    }
+  }
 
-        if (export != null) {
-          File dest = export.getValue();
-          getLogger().debug("Exporting artifact %s to %s.", export.getKey(), dest);
-          try {
-            artifact.exportTo(dest, this);
-          }
-          catch (IOException e) {
-            throw new RuntimeException(e);
-          }
-          exportedArtifacts.add(export.getKey());
+  /**
+   * Export the artifacts to their configured export destinations.
+   */
+  protected void exportArtifacts() {
+    HashSet<String> exportedArtifacts = new HashSet<String>();
+    for (Artifact artifact : artifacts) {
+      String artifactId = artifact.getId();
+      Map.Entry<String, File> export = null;
+      for (Map.Entry<String, File> entry : this.exports.entrySet()) {
+        if (artifactId.equals(entry.getKey()) || artifact.getAliases().contains(entry.getKey())) {
+          export = entry;
         }
       }
 
-      for (String export : this.exports.keySet()) {
-        if (!exportedArtifacts.remove(export)) {
-          getLogger().warn("Unknown artifact '%s'.  Artifact will not be exported.", export);
+      if (export != null) {
+        File dest = export.getValue();
+        getLogger().debug("Exporting artifact %s to %s.", export.getKey(), dest);
+        try {
+          artifact.exportTo(dest, this);
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
         }
+        exportedArtifacts.add(export.getKey());
       }
     }
-    else {
-      this.logger.warn("No Enunciate modules have been loaded. No work was done.");
+
+    for (String export : this.exports.keySet()) {
+      if (!exportedArtifacts.remove(export)) {
+        getLogger().warn("Unknown artifact '%s'.  Artifact will not be exported.", export);
+      }
     }
   }
 
@@ -780,16 +1322,32 @@ public class Enunciate implements Runnable {
     return sourceFiles;
   }
 
-  protected Reflections loadApiReflections(List<URL> classpath) {
-    ConfigurationBuilder reflectionSpec = new ConfigurationBuilder()
-      .setUrls(classpath)
-      .setScanners(new EnunciateReflectionsScanner(this, getModules()));
-
+  /**
+   * Scan the specified classpath for the entries that make up the API.
+   *
+   * @param classpath The classpath (directories or jars).
+   * @return The names of the classes that are included in the API, and the relative paths of the java source files on the classpath.
+   */
+  protected Set<String> scanApiEntries(List<File> classpath) {
+    ClasspathIndexCache indexCache = this.warmState == null ? null : this.warmState.getIndexCache();
+    ClasspathScanner scanner = new ClasspathScanner(new EnunciateReflectionsScanner(this, getModules()), getLogger(), ClasspathScanner.DEFAULT_RANGE_SIZE, indexCache);
+    int helpers = Runtime.getRuntime().availableProcessors() - 1;
     if (this.executorService != null) {
-      reflectionSpec = reflectionSpec.setExecutorService(this.executorService);
+      return scanner.scan(classpath, this.executorService, helpers);
+    }
+    else if (helpers > 0) {
+      //the scan is read-only, so it gets its own threads even if the build isn't using any extra threads.
+      ExecutorService scanExecutor = Executors.newFixedThreadPool(helpers);
+      try {
+        return scanner.scan(classpath, scanExecutor, helpers);
+      }
+      finally {
+        scanExecutor.shutdown();
+      }
+    }
+    else {
+      return scanner.scan(classpath, null, 0);
     }
-
-    return new Reflections(reflectionSpec);
   }
 
   public void visitFiles(File dir, FileFilter filter, FileVisitor visitor) {
@@ -976,6 +1534,29 @@ public class Enunciate implements Runnable {
       return this.source.openStream();
     }
 
+    @Override
+    public long getLastModified() {
+      //the modules compare the modification time of the sources to that of their output to find whether it's up-to-date.
+      try {
+        URL file = this.source;
+        if ("jar".equals(file.getProtocol())) {
+          //an entry of a jar file is as recent as the jar file.
+          file = ((JarURLConnection) file.openConnection()).getJarFileURL();
+        }
+
+        if ("file".equals(file.getProtocol())) {
+          return new File(file.toURI()).lastModified();
+        }
+      }
+      catch (IOException e) {
+        //fall through...
+      }
+      catch (URISyntaxException e) {
+        //fall through...
+      }
+      return super.getLastModified();
+    }
+
     @Override
     public CharSequence getCharContent(boolean ignoreEncodingErrors) throws IOException {
       StringBuilder content = new StringBuilder();
@@ -91,6 +91,11 @@ public class EnunciateAnnotationProcessor extends AbstractProcessor {
       //fire off (and block on) the engine.
       engine.toList().toBlocking().single();
 
+      //save the api model while the compiler model is still around.
+      if (this.enunciate.isApiModelEnabled()) {
+        this.enunciate.saveApiModel(this.context);
+      }
+
       this.processed = true;
     }
 
@@ -2,13 +2,19 @@ package com.webcohesion.enunciate;
 
 import com.webcohesion.enunciate.facets.FacetFilter;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedPackageElement;
+import com.webcohesion.enunciate.util.ConfigurationSnapshot;
 import com.webcohesion.enunciate.util.PathSortStrategy;
+import org.apache.commons.configuration.ConfigurationException;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 import org.apache.commons.configuration.XMLConfiguration;
+import org.apache.commons.configuration.event.ConfigurationEvent;
+import org.apache.commons.configuration.event.ConfigurationListener;
 
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Serializable;
 import java.io.StringWriter;
 import java.util.*;
 
@@ -27,7 +33,8 @@ public class EnunciateConfiguration {
   private final XMLConfiguration source;
   private File base;
   private File configFile;
-  private FacetFilter facetFilter;
+  private volatile ConfigurationSnapshot snapshot;
+  private volatile FacetFilter facetFilter;
 
   public EnunciateConfiguration() {
     this(createDefaultConfigurationSource());
@@ -41,6 +48,36 @@ public class EnunciateConfiguration {
 
   public EnunciateConfiguration(XMLConfiguration source) {
     this.source = source;
+    this.source.addConfigurationListener(new ConfigurationListener() {
+      @Override
+      public void configurationChanged(ConfigurationEvent event) {
+        if (!event.isBeforeUpdate()) {
+          sourceChanged();
+        }
+      }
+    });
+  }
+
+  /**
+   * Load the source of the configuration.
+   *
+   * @param reader The reader from which to load the configuration.
+   */
+  public void load(Reader reader) throws ConfigurationException {
+    this.source.load(reader);
+    sourceChanged();
+  }
+
+  /**
+   * The source changed; the values read from it will have to be read again.
+   */
+  private void sourceChanged() {
+    this.snapshot = null;
+    this.facetFilter = null;
+  }
+
+  public File getBase() {
+    return base;
   }
 
   public void setBase(File base) {
@@ -62,8 +99,23 @@ public class EnunciateConfiguration {
     return source;
   }
 
+  /**
+   * An immutable snapshot of the source, from which the configuration is read. The snapshot is taken when the
+   * configuration is first read after it has been loaded or changed.
+   *
+   * @return The snapshot of the source.
+   */
+  protected HierarchicalConfiguration getSnapshot() {
+    ConfigurationSnapshot snapshot = this.snapshot;
+    if (snapshot == null) {
+      snapshot = new ConfigurationSnapshot(this.source);
+      this.snapshot = snapshot;
+    }
+    return snapshot;
+  }
+
   public String getSlug() {
-    return this.source.getString("[@slug]", this.defaultSlug);
+    return getSnapshot().getString("[@slug]", this.defaultSlug);
   }
 
   public void setDefaultSlug(String defaultSlug) {
@@ -71,7 +123,7 @@ public class EnunciateConfiguration {
   }
 
   public String getVersion() {
-    return this.source.getString("[@version]", this.defaultVersion);
+    return getSnapshot().getString("[@version]", this.defaultVersion);
   }
 
   public void setDefaultVersion(String defaultVersion) {
@@ -79,7 +131,7 @@ public class EnunciateConfiguration {
   }
 
   public String getTitle() {
-    return this.source.getString("title", this.defaultTitle);
+    return getSnapshot().getString("title", this.defaultTitle);
   }
 
   public void setDefaultTitle(String defaultTitle) {
@@ -87,7 +139,7 @@ public class EnunciateConfiguration {
   }
 
   public String getCopyright() {
-    return this.source.getString("copyright", this.defaultCopyright);
+    return getSnapshot().getString("copyright", this.defaultCopyright);
   }
 
   public void setDefaultCopyright(String defaultCopyright) {
@@ -95,12 +147,12 @@ public class EnunciateConfiguration {
   }
 
   public String getTerms() {
-    return this.source.getString("terms", null);
+    return getSnapshot().getString("terms", null);
   }
 
   public String readDescription(EnunciateContext context) {
-    String descriptionPackage = this.source.getString("description[@package]", null);
-    if (descriptionPackage != null) {
+    String descriptionPackage = getSnapshot().getString("description[@package]", null);
+    if (descriptionPackage != null && context.getProcessingEnvironment() != null) {
       DecoratedPackageElement packageElement = (DecoratedPackageElement) context.getProcessingEnvironment().getElementUtils().getPackageElement(descriptionPackage);
       if (packageElement != null) {
         String docValue = packageElement.getDocValue();
@@ -110,7 +162,11 @@ public class EnunciateConfiguration {
       }
     }
 
-    return this.source.getString("description", this.defaultDescription);
+    return getSnapshot().getString("description", this.defaultDescription);
+  }
+
+  public String getDefaultDescription() {
+    return defaultDescription;
   }
 
   public void setDefaultDescription(String defaultDescription) {
@@ -118,12 +174,12 @@ public class EnunciateConfiguration {
   }
 
   public String getDefaultNamespace() {
-    return this.source.getString("namespaces[@default]", null);
+    return getSnapshot().getString("namespaces[@default]", null);
   }
 
   public Map<String, String> getNamespaces() {
     Map<String, String> namespacePrefixes = new HashMap<String, String>();
-    List<HierarchicalConfiguration> namespaceConfigs = this.source.configurationsAt("namespaces.namespace");
+    List<HierarchicalConfiguration> namespaceConfigs = getSnapshot().configurationsAt("namespaces.namespace");
     for (HierarchicalConfiguration namespaceConfig : namespaceConfigs) {
       String uri = namespaceConfig.getString("[@uri]", null);
       String prefix = namespaceConfig.getString("[@id]", null);
@@ -145,7 +201,7 @@ public class EnunciateConfiguration {
   }
 
   public String getApplicationRoot() {
-    String root = this.source.getString("application[@root]", null);
+    String root = getSnapshot().getString("application[@root]", null);
     if (root != null && !root.endsWith("/")) {
       root = root + "/";
     }
@@ -153,8 +209,8 @@ public class EnunciateConfiguration {
   }
 
   public License getGeneratedCodeLicense() {
-    String text = this.source.getString("code-license", null);
-    List<HierarchicalConfiguration> configs = this.source.configurationsAt("code-license");
+    String text = getSnapshot().getString("code-license", null);
+    List<HierarchicalConfiguration> configs = getSnapshot().configurationsAt("code-license");
     for (HierarchicalConfiguration licenseConfig : configs) {
       String file = licenseConfig.getString("[@file]", null);
       String name = licenseConfig.getString("[@name]", null);
@@ -165,8 +221,8 @@ public class EnunciateConfiguration {
   }
 
   public License getApiLicense() {
-    String text = this.source.getString("code-license", null);
-    List<HierarchicalConfiguration> configs = this.source.configurationsAt("api-license");
+    String text = getSnapshot().getString("code-license", null);
+    List<HierarchicalConfiguration> configs = getSnapshot().configurationsAt("api-license");
     for (HierarchicalConfiguration licenseConfig : configs) {
       String file = licenseConfig.getString("[@file]", null);
       String name = licenseConfig.getString("[@name]", null);
@@ -182,7 +238,7 @@ public class EnunciateConfiguration {
   }
 
   public List<Contact> getContacts() {
-    List<HierarchicalConfiguration> contacts = this.source.configurationsAt("contact");
+    List<HierarchicalConfiguration> contacts = getSnapshot().configurationsAt("contact");
     ArrayList<Contact> results = new ArrayList<Contact>(contacts.size());
     for (HierarchicalConfiguration configuration : contacts) {
       results.add(new Contact(configuration.getString("[@name]", null), configuration.getString("[@url]", null), configuration.getString("[@email]", null)));
@@ -252,7 +308,7 @@ public class EnunciateConfiguration {
   }
 
   public Set<String> getFacetIncludes() {
-    List<Object> includes = this.source.getList("facets.include[@name]");
+    List<Object> includes = getSnapshot().getList("facets.include[@name]");
     Set<String> facetIncludes = new TreeSet<String>();
     for (Object include : includes) {
       facetIncludes.add(String.valueOf(include));
@@ -261,7 +317,7 @@ public class EnunciateConfiguration {
   }
 
   public Set<String> getFacetExcludes() {
-    List<Object> excludes = this.source.getList("facets.exclude[@name]");
+    List<Object> excludes = getSnapshot().getList("facets.exclude[@name]");
     Set<String> facetExcludes = new TreeSet<String>();
     for (Object exclude : excludes) {
       facetExcludes.add(String.valueOf(exclude));
@@ -270,7 +326,7 @@ public class EnunciateConfiguration {
   }
 
   public Set<String> getApiIncludeClasses() {
-    List<Object> includes = this.source.getList("api-classes.include[@pattern]");
+    List<Object> includes = getSnapshot().getList("api-classes.include[@pattern]");
     Set<String> classIncludes = new TreeSet<String>();
     for (Object include : includes) {
       classIncludes.add(String.valueOf(include));
@@ -279,7 +335,7 @@ public class EnunciateConfiguration {
   }
 
   public Set<String> getApiExcludeClasses() {
-    List<Object> excludes = this.source.getList("api-classes.exclude[@pattern]");
+    List<Object> excludes = getSnapshot().getList("api-classes.exclude[@pattern]");
     Set<String> classExcludes = new TreeSet<String>();
     for (Object exclude : excludes) {
       classExcludes.add(String.valueOf(exclude));
@@ -287,7 +343,9 @@ public class EnunciateConfiguration {
     return classExcludes;
   }
 
-  public static final class License {
+  public static final class License implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final String name;
     private final String url;
@@ -319,7 +377,9 @@ public class EnunciateConfiguration {
 
   }
 
-  public static final class Contact {
+  public static final class Contact implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final String name;
     private final String url;
@@ -1,6 +1,8 @@
 package com.webcohesion.enunciate;
 
 import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.module.IndexedTypeFilteringModule;
+import com.webcohesion.enunciate.module.TypeFilterRules;
 import com.webcohesion.enunciate.module.TypeFilteringModule;
 import com.webcohesion.enunciate.util.*;
 import org.reflections.adapters.MetadataAdapter;
@@ -9,8 +11,10 @@ import org.reflections.util.FilterBuilder;
 import org.reflections.vfs.Vfs;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * @author Ryan Heaton
@@ -21,12 +25,21 @@ public class EnunciateReflectionsScanner extends AbstractScanner {
   private final FilterBuilder includeFilter;
   private final FilterBuilder excludeFilter;
   private final List<TypeFilteringModule> filteringModules;
+  private final List<IndexedTypeFilteringModule> indexedModules;
+  private final List<TypeFilteringModule> unindexedModules;
 
   public EnunciateReflectionsScanner(Enunciate enunciate, List<EnunciateModule> modules) {
     this.filteringModules = new ArrayList<TypeFilteringModule>();
+    this.indexedModules = new ArrayList<IndexedTypeFilteringModule>();
+    this.unindexedModules = new ArrayList<TypeFilteringModule>();
     for (EnunciateModule module : modules) {
-      if (module instanceof TypeFilteringModule) {
+      if (module instanceof IndexedTypeFilteringModule) {
         this.filteringModules.add((TypeFilteringModule) module);
+        this.indexedModules.add((IndexedTypeFilteringModule) module);
+      }
+      else if (module instanceof TypeFilteringModule) {
+        this.filteringModules.add((TypeFilteringModule) module);
+        this.unindexedModules.add((TypeFilteringModule) module);
       }
     }
 
@@ -78,11 +91,40 @@ public class EnunciateReflectionsScanner extends AbstractScanner {
   }
 
   public void scan(Object type) {
-    boolean accepted = false;
-
     MetadataAdapter metadata = getMetadataAdapter();
+    if (accept(type, metadata)) {
+      String className = metadata.getClassName(type);
+      getStore().put(className, className);
+    }
+  }
 
-    for (TypeFilteringModule filteringModule : this.filteringModules) {
+  /**
+   * Whether the specified type is to be included in the API.
+   *
+   * @param type The type.
+   * @param metadata The metadata adapter for the type.
+   * @return Whether the type is to be included.
+   */
+  public boolean accept(Object type, MetadataAdapter metadata) {
+    return accept(type, metadata, this.filteringModules);
+  }
+
+  /**
+   * Whether the specified type is to be included in the API, according to the type filtering modules that aren't
+   * {@link IndexedTypeFilteringModule indexed}. The types accepted by indexed modules are found with {@link #accept(TypeIndex)}.
+   *
+   * @param type The type.
+   * @param metadata The metadata adapter for the type.
+   * @return Whether the type is to be included.
+   */
+  public boolean acceptUnindexed(Object type, MetadataAdapter metadata) {
+    return accept(type, metadata, this.unindexedModules);
+  }
+
+  protected boolean accept(Object type, MetadataAdapter metadata, List<TypeFilteringModule> filteringModules) {
+    boolean accepted = false;
+
+    for (TypeFilteringModule filteringModule : filteringModules) {
       if (filteringModule.acceptType(type, metadata)) {
         accepted = true;
         //do not break: type filtering modules may need to be aware of types that are not accepted, or that are accepted by other modules.
@@ -94,14 +136,84 @@ public class EnunciateReflectionsScanner extends AbstractScanner {
     boolean filteredIn = this.includeFilter != null && this.includeFilter.apply(className);
     if (filteredIn) {
       //if it's explicitly included, add it.
-      getStore().put(className, className);
+      return true;
     }
     else {
       boolean filteredOut = this.excludeFilter != null && this.excludeFilter.apply(className);
-      if (accepted && !filteredOut) {
-        //else if it's accepted and not explicitly excluded, add it.
-        getStore().put(className, className);
+      //else if it's accepted and not explicitly excluded, add it.
+      return accepted && !filteredOut;
+    }
+  }
+
+  /**
+   * Create an index for the rules of the indexed type filtering modules.
+   *
+   * @return The index.
+   */
+  public TypeIndex createTypeIndex() {
+    List<TypeFilterRules> rules = new ArrayList<TypeFilterRules>(this.indexedModules.size());
+    for (IndexedTypeFilteringModule module : this.indexedModules) {
+      rules.add(module.getTypeFilterRules());
+    }
+    return new TypeIndex(rules);
+  }
+
+  /**
+   * The types in the index that are accepted by the indexed type filtering modules and not explicitly excluded. The
+   * detected types of each module are acknowledged along the way.
+   *
+   * @param index The index, {@link #createTypeIndex() created} by this scanner.
+   * @return The names of the accepted types.
+   */
+  public Set<String> accept(TypeIndex index) {
+    Set<String> accepted = new TreeSet<String>();
+    for (IndexedTypeFilteringModule module : this.indexedModules) {
+      TypeFilterRules rules = module.getTypeFilterRules();
+      module.acknowledgeDetectedTypes(rules.detect(index));
+      accepted.addAll(rules.accept(index));
+    }
+
+    if (this.excludeFilter != null) {
+      Iterator<String> it = accepted.iterator();
+      while (it.hasNext()) {
+        if (isExcluded(it.next())) {
+          it.remove();
+        }
       }
     }
+
+    return accepted;
+  }
+
+  /**
+   * Whether there are type filtering modules that aren't {@link IndexedTypeFilteringModule indexed}, and so need to read
+   * each class (see {@link #acceptUnindexed(Object, MetadataAdapter)}).
+   *
+   * @return Whether there are type filtering modules that aren't indexed.
+   */
+  public boolean hasUnindexedModules() {
+    return !this.unindexedModules.isEmpty();
+  }
+
+  /**
+   * Whether the specified class is explicitly included, meaning it's included in the API no matter what the type
+   * filtering modules say.
+   *
+   * @param className The name of the class.
+   * @return Whether the class is explicitly included.
+   */
+  public boolean isIncluded(String className) {
+    return this.includeFilter != null && this.includeFilter.apply(className);
+  }
+
+  /**
+   * Whether the specified class is explicitly excluded (and not explicitly included), meaning it will never be included
+   * in the API no matter what the type filtering modules say, so it doesn't need to be read.
+   *
+   * @param className The name of the class.
+   * @return Whether the class is excluded.
+   */
+  public boolean isExcluded(String className) {
+    return this.excludeFilter != null && this.excludeFilter.apply(className) && !(this.includeFilter != null && this.includeFilter.apply(className));
   }
 }
@@ -16,7 +16,12 @@
 
 package com.webcohesion.enunciate;
 
+import com.webcohesion.enunciate.daemon.BuildDaemonClient;
+import com.webcohesion.enunciate.daemon.BuildRequest;
+import com.webcohesion.enunciate.daemon.BuildWatcher;
 import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.module.OnDemandDocumentationProviderModule;
+import com.webcohesion.enunciate.util.ArtifactCache;
 import org.apache.tools.ant.AntClassLoader;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.DirectoryScanner;
@@ -29,6 +34,7 @@ import org.apache.tools.ant.types.Reference;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.net.URL;
 import java.util.*;
 
 /**
@@ -45,6 +51,14 @@ public class EnunciateTask extends MatchingTask {
   private Path classpath;
   private Path sourcepath;
   private File buildDir;
+  private File cacheDir;
+  private long cacheMaxSize = ArtifactCache.DEFAULT_MAX_SIZE / (1024L * 1024L);
+  private long cacheMaxAge = ArtifactCache.DEFAULT_MAX_AGE / (24L * 60L * 60L * 1000L);
+  private boolean daemon = false;
+  private File daemonFile;
+  private boolean watch = false;
+  private int watchPort = -1;
+  private boolean watchDocsOnDemand = false;
   private String javacSourceVersion = null;
   private String javacTargetVersion = null;
   private final ArrayList<Export> exports = new ArrayList<Export>();
@@ -72,6 +86,9 @@ public class EnunciateTask extends MatchingTask {
       //set the build dir.
       this.buildDir.mkdirs();
       enunciate.setBuildDir(this.buildDir);
+      enunciate.setCacheDir(this.cacheDir);
+      enunciate.setCacheMaxSize(this.cacheMaxSize * 1024L * 1024L);
+      enunciate.setCacheMaxAge(this.cacheMaxAge * 24L * 60L * 60L * 1000L);
 
       //add the source files.
       DirectoryScanner scanner = getDirectoryScanner(basedir);
@@ -152,7 +169,36 @@ public class EnunciateTask extends MatchingTask {
         enunciate.addExport(export.getArtifactId(), export.getDestination());
       }
 
-      enunciate.run();
+      boolean docsOnDemand = this.watch && this.watchPort >= 0 && this.watchDocsOnDemand;
+      if (docsOnDemand && enunciate.getModules() != null) {
+        for (EnunciateModule module : enunciate.getModules()) {
+          if (module instanceof OnDemandDocumentationProviderModule) {
+            ((OnDemandDocumentationProviderModule) module).setRenderPagesOnDemand(true);
+          }
+        }
+      }
+
+      //the builds that follow while watching generate from the api model when they can.
+      enunciate.setApiModelEnabled(this.watch);
+
+      List<URL> moduleClasspath = new ArrayList<URL>();
+      if (this.classpath != null) {
+        for (File file : enunciate.getClasspath()) {
+          moduleClasspath.add(file.toURI().toURL());
+        }
+      }
+
+      if (!this.daemon || this.classpath == null || !new BuildDaemonClient(this.daemonFile).build(enunciate, new BuildRequest(enunciate, moduleClasspath))) {
+        enunciate.run();
+      }
+
+      if (this.watch) {
+        BuildRequest request = new BuildRequest(enunciate, moduleClasspath);
+        request.setRenderPagesOnDemand(docsOnDemand);
+        BuildWatcher watcher = new BuildWatcher(request, Enunciate.class.getClassLoader(), enunciate.getLogger());
+        watcher.setLiveReloadPort(this.watchPort);
+        watcher.watch(enunciate);
+      }
     }
     catch (IOException e) {
       throw new BuildException(e);
@@ -193,6 +239,82 @@ public class EnunciateTask extends MatchingTask {
     this.buildDir = buildDir;
   }
 
+  /**
+   * The directory of the artifact cache shared across builds.
+   *
+   * @param cacheDir The directory of the artifact cache.
+   */
+  public void setCacheDir(File cacheDir) {
+    this.cacheDir = cacheDir;
+  }
+
+  /**
+   * The maximum size of the artifact cache, in megabytes.
+   *
+   * @param cacheMaxSize The maximum size of the artifact cache, in megabytes.
+   */
+  public void setCacheMaxSize(long cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+  }
+
+  /**
+   * The maximum age of an unused artifact in the artifact cache, in days.
+   *
+   * @param cacheMaxAge The maximum age of an unused artifact, in days.
+   */
+  public void setCacheMaxAge(long cacheMaxAge) {
+    this.cacheMaxAge = cacheMaxAge;
+  }
+
+  /**
+   * Whether to delegate the build to a running build daemon (see {@link com.webcohesion.enunciate.daemon.BuildDaemon}).
+   * If no daemon is running, the build is run by the task.
+   *
+   * @param daemon Whether to delegate the build to a running build daemon.
+   */
+  public void setDaemon(boolean daemon) {
+    this.daemon = daemon;
+  }
+
+  /**
+   * The daemon file of the build daemon, if not the default.
+   *
+   * @param daemonFile The daemon file of the build daemon.
+   */
+  public void setDaemonFile(File daemonFile) {
+    this.daemonFile = daemonFile;
+  }
+
+  /**
+   * Whether to keep watching the sources, the configuration and the templates once the build is done, and to build
+   * again when they change (see {@link BuildWatcher}).
+   *
+   * @param watch Whether to keep watching the inputs of the build.
+   */
+  public void setWatch(boolean watch) {
+    this.watch = watch;
+  }
+
+  /**
+   * The port on which to serve the docs with live reload while watching: 0 for any free port, or -1 (the default) to
+   * not serve them.
+   *
+   * @param watchPort The port on which to serve the docs with live reload.
+   */
+  public void setWatchPort(int watchPort) {
+    this.watchPort = watchPort;
+  }
+
+  /**
+   * Whether to render the pages of the docs on demand as they're served while watching, instead of writing them all to
+   * the docs directory on each build. Ignored unless the docs are served while watching.
+   *
+   * @param watchDocsOnDemand Whether to render the pages of the docs on demand while watching.
+   */
+  public void setWatchDocsOnDemand(boolean watchDocsOnDemand) {
+    this.watchDocsOnDemand = watchDocsOnDemand;
+  }
+
   /**
    * The enunciate config file.
    *
@@ -0,0 +1,120 @@
+package com.webcohesion.enunciate;
+
+import com.webcohesion.enunciate.module.TypeFilterRules;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An index of the scanned classes by their annotations and their direct supertypes, built in a single pass over the
+ * classpath. Only the annotations and supertypes that are named by one of the {@link TypeFilterRules rules} are indexed.
+ * The index is safe to build from multiple threads.
+ *
+ * @author Ryan Heaton
+ */
+public class TypeIndex {
+
+  private final Collection<TypeFilterRules> rules;
+  private final Set<String> supertypes = new HashSet<String>();
+  private final Set<String> detectableTypes = new HashSet<String>();
+  private final ConcurrentMap<String, Boolean> indexedAnnotations = new ConcurrentHashMap<String, Boolean>();
+  private final ConcurrentMap<String, Set<String>> typesByAnnotation = new ConcurrentHashMap<String, Set<String>>();
+  private final ConcurrentMap<String, Set<String>> typesBySupertype = new ConcurrentHashMap<String, Set<String>>();
+  private final Set<String> detectedTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+  public TypeIndex(Collection<TypeFilterRules> rules) {
+    this.rules = rules;
+    for (TypeFilterRules rule : rules) {
+      this.supertypes.addAll(rule.getSupertypes());
+      this.detectableTypes.addAll(rule.getDetectedTypes());
+    }
+  }
+
+  /**
+   * Note that a class is on the classpath, whether or not it's read.
+   *
+   * @param className The name of the class.
+   */
+  public void noteClass(String className) {
+    if (this.detectableTypes.contains(className)) {
+      this.detectedTypes.add(className);
+    }
+  }
+
+  /**
+   * Add a class to the index.
+   *
+   * @param className  The name of the class.
+   * @param annotations The names of the class annotations.
+   * @param superclass The name of the superclass.
+   * @param interfaces The names of the interfaces.
+   */
+  public void add(String className, List<String> annotations, String superclass, List<String> interfaces) {
+    for (String annotation : annotations) {
+      if (isIndexed(annotation)) {
+        put(this.typesByAnnotation, annotation, className);
+      }
+    }
+
+    if (superclass != null && this.supertypes.contains(superclass)) {
+      put(this.typesBySupertype, superclass, className);
+    }
+
+    for (String iface : interfaces) {
+      if (this.supertypes.contains(iface)) {
+        put(this.typesBySupertype, iface, className);
+      }
+    }
+  }
+
+  public Set<String> getAnnotationNames() {
+    return this.typesByAnnotation.keySet();
+  }
+
+  public Set<String> getTypesAnnotatedWith(String annotation) {
+    Set<String> types = this.typesByAnnotation.get(annotation);
+    return types == null ? Collections.<String>emptySet() : types;
+  }
+
+  public Set<String> getDirectSubtypesOf(String supertype) {
+    Set<String> types = this.typesBySupertype.get(supertype);
+    return types == null ? Collections.<String>emptySet() : types;
+  }
+
+  public Set<String> getDetectedTypes() {
+    return this.detectedTypes;
+  }
+
+  private boolean isIndexed(String annotation) {
+    //the same few annotations show up on most classes, so remember the answer for each annotation.
+    Boolean indexed = this.indexedAnnotations.get(annotation);
+    if (indexed == null) {
+      indexed = Boolean.FALSE;
+      for (TypeFilterRules rule : this.rules) {
+        if (rule.isTriggeredBy(annotation)) {
+          indexed = Boolean.TRUE;
+          break;
+        }
+      }
+      this.indexedAnnotations.put(annotation, indexed);
+    }
+    return indexed;
+  }
+
+  private static void put(ConcurrentMap<String, Set<String>> index, String key, String className) {
+    Set<String> types = index.get(key);
+    if (types == null) {
+      Set<String> newTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+      types = index.putIfAbsent(key, newTypes);
+      if (types == null) {
+        types = newTypes;
+      }
+    }
+    types.add(className);
+  }
+}
@@ -3,6 +3,7 @@ package com.webcohesion.enunciate.api;
 import com.webcohesion.enunciate.api.datatype.Syntax;
 import com.webcohesion.enunciate.api.resources.ResourceApi;
 import com.webcohesion.enunciate.api.services.ServiceApi;
+import com.webcohesion.enunciate.api.snapshot.Snapshots;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,10 +15,22 @@ import java.util.TreeSet;
  */
 public class ApiRegistry {
 
-  private final List<ServiceApi> serviceApis = new ArrayList<ServiceApi>();
-  private final List<ResourceApi> resourceApis = new ArrayList<ResourceApi>();
-  private final Set<Syntax> syntaxes = new TreeSet<Syntax>();
+  private final List<ServiceApi> serviceApis;
+  private final List<ResourceApi> resourceApis;
+  private final Set<Syntax> syntaxes;
   private InterfaceDescriptionFile swaggerUI;
+  private ApiRegistry snapshot;
+
+  public ApiRegistry() {
+    this(new ArrayList<ServiceApi>(), new ArrayList<ResourceApi>(), new TreeSet<Syntax>(), null);
+  }
+
+  public ApiRegistry(List<ServiceApi> serviceApis, List<ResourceApi> resourceApis, Set<Syntax> syntaxes, InterfaceDescriptionFile swaggerUI) {
+    this.serviceApis = serviceApis;
+    this.resourceApis = resourceApis;
+    this.syntaxes = syntaxes;
+    this.swaggerUI = swaggerUI;
+  }
 
   public List<ServiceApi> getServiceApis() {
     return serviceApis;
@@ -38,4 +51,20 @@ public class ApiRegistry {
   public void setSwaggerUI(InterfaceDescriptionFile swaggerUI) {
     this.swaggerUI = swaggerUI;
   }
+
+  /**
+   * Materializes this registry into an immutable snapshot that is detached from the javac model, so it can be read
+   * from any thread. The APIs must have been fully built (i.e. the modules that provide them must have finished).
+   * The snapshot is taken once and shared by everything that asks for it; the snapshot of a snapshot is itself.
+   *
+   * @return The snapshot.
+   * @see com.webcohesion.enunciate.api.snapshot.Snapshots
+   */
+  public synchronized ApiRegistry snapshot() {
+    if (this.snapshot == null) {
+      this.snapshot = new Snapshots().snapshot(this);
+      this.snapshot.snapshot = this.snapshot;
+    }
+    return this.snapshot;
+  }
 }
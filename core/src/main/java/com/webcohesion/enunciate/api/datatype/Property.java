@@ -23,4 +23,12 @@ public interface Property {
   Map<String, AnnotationMirror> getAnnotations();
 
   JavaDoc getJavaDoc();
+
+  /**
+   * The value of the specified metadata of this property.
+   *
+   * @param name The name of the metadata (one of the names of the {@link DataType#getPropertyMetadata() property metadata} of the data type).
+   * @return The value (a {@link PropertyMetadata} or a simple value), or null if the property has no value for the metadata.
+   */
+  Object getMetadata(String name);
 }
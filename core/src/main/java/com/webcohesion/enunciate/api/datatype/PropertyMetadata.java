@@ -1,9 +1,11 @@
 package com.webcohesion.enunciate.api.datatype;
 
+import java.io.Serializable;
+
 /**
  * @author Ryan Heaton
  */
-public class PropertyMetadata {
+public class PropertyMetadata implements Serializable {
 
   private final boolean structure;
   private final String value;
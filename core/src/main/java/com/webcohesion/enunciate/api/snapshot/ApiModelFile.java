@@ -0,0 +1,190 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.ApiRegistry;
+import com.webcohesion.enunciate.api.datatype.Syntax;
+import com.webcohesion.enunciate.api.resources.ResourceApi;
+import com.webcohesion.enunciate.api.services.ServiceApi;
+import com.webcohesion.enunciate.artifacts.Artifact;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A file holding a snapshot of the API registry, written at the end of a build so that the modules that only need the
+ * API registry can be invoked again without scanning the classpath or invoking the compiler.<br/><br/>
+ *
+ * The file starts with a header (a magic string, the format version and the fingerprint of the sources the model was
+ * built from), followed by the (deflated) serialized model. A file with a different format version or a different
+ * fingerprint is never read past its header.
+ *
+ * @author Ryan Heaton
+ */
+public class ApiModelFile {
+
+  /**
+   * The version of the format of the model file. Bump this whenever the serialized form of the snapshots changes.
+   */
+  public static final int FORMAT_VERSION = 2;
+
+  private static final String MAGIC = "ENUNCIATE-API-MODEL";
+
+  private final File file;
+
+  public ApiModelFile(File file) {
+    this.file = file;
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Write the model.
+   *
+   * @param fingerprint The fingerprint of the sources the model was built from.
+   * @param registry    The snapshot of the API registry (see {@link ApiRegistry#snapshot()}).
+   * @param description The description of the API.
+   * @param artifacts   The artifacts to save with the model.
+   */
+  public void write(String fingerprint, ApiRegistry registry, String description, List<Artifact> artifacts) throws IOException {
+    File parent = this.file.getAbsoluteFile().getParentFile();
+    parent.mkdirs();
+
+    //write to a temp file first so a failed write never leaves a partial model behind.
+    File tmp = File.createTempFile(this.file.getName(), ".tmp", parent);
+    try {
+      DataOutputStream header = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+      try {
+        header.writeUTF(MAGIC);
+        header.writeInt(FORMAT_VERSION);
+        header.writeUTF(fingerprint);
+        header.flush();
+
+        DeflaterOutputStream deflater = new DeflaterOutputStream(header);
+        ObjectOutputStream out = new ObjectOutputStream(deflater);
+        out.writeObject(new ArrayList<ServiceApi>(registry.getServiceApis()));
+        out.writeObject(new ArrayList<ResourceApi>(registry.getResourceApis()));
+        out.writeObject(new ArrayList<Syntax>(registry.getSyntaxes()));
+        out.writeObject(description);
+        out.writeObject(new ArrayList<Artifact>(artifacts));
+        out.flush();
+        deflater.finish();
+      }
+      finally {
+        header.close();
+      }
+
+      if (this.file.exists() && !this.file.delete()) {
+        throw new IOException("Unable to replace " + this.file);
+      }
+
+      if (!tmp.renameTo(this.file)) {
+        throw new IOException("Unable to write " + this.file);
+      }
+    }
+    finally {
+      tmp.delete();
+    }
+  }
+
+  /**
+   * Read the model, if it was built from the sources with the specified fingerprint.
+   *
+   * @param fingerprint The fingerprint of the sources.
+   * @return The model, or null if the file doesn't exist, is of a different format version, or was built from different sources.
+   */
+  @SuppressWarnings ( "unchecked" )
+  public ApiModel read(String fingerprint) throws IOException {
+    if (!this.file.exists()) {
+      return null;
+    }
+
+    DataInputStream header = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)));
+    try {
+      if (!MAGIC.equals(header.readUTF()) || header.readInt() != FORMAT_VERSION || !fingerprint.equals(header.readUTF())) {
+        return null;
+      }
+
+      ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(header));
+      List<ServiceApi> serviceApis = (List<ServiceApi>) in.readObject();
+      List<ResourceApi> resourceApis = (List<ResourceApi>) in.readObject();
+      List<Syntax> syntaxes = (List<Syntax>) in.readObject();
+      String description = (String) in.readObject();
+      List<Artifact> artifacts = (List<Artifact>) in.readObject();
+      ApiRegistry registry = new ApiRegistry(serviceApis, resourceApis, new TreeSet<Syntax>(syntaxes), null);
+      return new ApiModel(registry, description, artifacts);
+    }
+    catch (ClassNotFoundException e) {
+      //written by a different version of the classes; the model will have to be rebuilt.
+      return null;
+    }
+    catch (InvalidClassException e) {
+      //written by a different version of the classes; the model will have to be rebuilt.
+      return null;
+    }
+    finally {
+      header.close();
+    }
+  }
+
+  /**
+   * A model read from a model file.
+   */
+  public static class ApiModel {
+
+    private final ApiRegistry registry;
+    private final String description;
+    private final List<Artifact> artifacts;
+
+    ApiModel(ApiRegistry registry, String description, List<Artifact> artifacts) {
+      this.registry = registry;
+      this.description = description;
+      this.artifacts = artifacts;
+    }
+
+    /**
+     * The API registry.
+     *
+     * @return The API registry.
+     */
+    public ApiRegistry getRegistry() {
+      return registry;
+    }
+
+    /**
+     * The description of the API, as it was resolved when the model was written.
+     *
+     * @return The description of the API.
+     */
+    public String getDescription() {
+      return description;
+    }
+
+    /**
+     * The artifacts saved with the model.
+     *
+     * @return The artifacts saved with the model.
+     */
+    public List<Artifact> getArtifacts() {
+      return artifacts;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.BaseType;
+import com.webcohesion.enunciate.api.datatype.DataType;
+import com.webcohesion.enunciate.api.datatype.DataTypeReference;
+
+import java.util.List;
+
+/**
+ * Snapshot of a {@link DataTypeReference}.
+ *
+ * @author Ryan Heaton
+ */
+public class DataTypeReferenceSnapshot extends SnapshotObject implements DataTypeReference {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String label;
+  private final String slug;
+  private final List<ContainerType> containers;
+  private final DataType value;
+  private final BaseType baseType;
+
+  DataTypeReferenceSnapshot(DataTypeReference live, Snapshots snapshots) {
+    super(live, DataTypeReference.class, snapshots);
+    this.label = live.getLabel();
+    this.slug = live.getSlug();
+    this.containers = Snapshots.copy(live.getContainers());
+    this.value = snapshots.snapshot(live.getValue(), DataType.class);
+    this.baseType = live.getBaseType();
+  }
+
+  @Override
+  public String getLabel() {
+    return this.label;
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public List<ContainerType> getContainers() {
+    return this.containers;
+  }
+
+  @Override
+  public DataType getValue() {
+    return this.value;
+  }
+
+  @Override
+  public BaseType getBaseType() {
+    return this.baseType;
+  }
+}
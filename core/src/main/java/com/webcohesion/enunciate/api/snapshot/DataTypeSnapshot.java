@@ -0,0 +1,157 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.BaseType;
+import com.webcohesion.enunciate.api.datatype.DataType;
+import com.webcohesion.enunciate.api.datatype.DataTypeReference;
+import com.webcohesion.enunciate.api.datatype.Example;
+import com.webcohesion.enunciate.api.datatype.Namespace;
+import com.webcohesion.enunciate.api.datatype.Property;
+import com.webcohesion.enunciate.api.datatype.Syntax;
+import com.webcohesion.enunciate.api.datatype.Value;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a {@link DataType}.
+ *
+ * @author Ryan Heaton
+ */
+public class DataTypeSnapshot extends SnapshotObject implements DataType {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String label;
+  private final String slug;
+  private final String description;
+  private final String deprecated;
+  private final Namespace namespace;
+  private final Syntax syntax;
+  private final BaseType baseType;
+  private final List<DataTypeReference> supertypes;
+  private final String since;
+  private final String version;
+  private final Example example;
+  private final List<Value> values;
+  private final List<Property> properties;
+  private final Map<String, String> propertyMetadata;
+  private final JavaDoc javaDoc;
+
+  DataTypeSnapshot(DataType live, Snapshots snapshots) {
+    super(live, DataType.class, snapshots);
+    this.label = live.getLabel();
+    this.slug = live.getSlug();
+    this.description = live.getDescription();
+    this.deprecated = live.getDeprecated();
+    this.namespace = snapshots.snapshot(live.getNamespace(), Namespace.class);
+    this.syntax = snapshots.snapshot(live.getSyntax(), Syntax.class);
+    this.baseType = live.getBaseType();
+    this.supertypes = snapshots.list(live.getSupertypes(), DataTypeReference.class);
+    this.since = live.getSince();
+    this.version = live.getVersion();
+    this.example = snapshots.snapshot(live.getExample(), Example.class);
+    this.values = snapshots.list(live.getValues(), Value.class);
+    this.propertyMetadata = Snapshots.copy(live.getPropertyMetadata());
+    this.properties = snapshots.properties(live.getProperties(), this.propertyMetadata);
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public String getLabel() {
+    return this.label;
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public String getDeprecated() {
+    return this.deprecated;
+  }
+
+  @Override
+  public Namespace getNamespace() {
+    return this.namespace;
+  }
+
+  @Override
+  public Syntax getSyntax() {
+    return this.syntax;
+  }
+
+  @Override
+  public BaseType getBaseType() {
+    return this.baseType;
+  }
+
+  @Override
+  public List<DataTypeReference> getSupertypes() {
+    return this.supertypes;
+  }
+
+  @Override
+  public String getSince() {
+    return this.since;
+  }
+
+  @Override
+  public String getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public Example getExample() {
+    return this.example;
+  }
+
+  @Override
+  public List<Value> getValues() {
+    return this.values;
+  }
+
+  @Override
+  public List<Property> getProperties() {
+    return this.properties;
+  }
+
+  @Override
+  public Map<String, String> getPropertyMetadata() {
+    return this.propertyMetadata;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.resources.Entity;
+import com.webcohesion.enunciate.api.resources.MediaTypeDescriptor;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of an {@link Entity}.
+ *
+ * @author Ryan Heaton
+ */
+public class EntitySnapshot extends SnapshotObject implements Entity {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String description;
+  private final List<MediaTypeDescriptor> mediaTypes;
+  private final JavaDoc javaDoc;
+
+  EntitySnapshot(Entity live, Snapshots snapshots) {
+    super(live, Entity.class, snapshots);
+    this.description = live.getDescription();
+    this.mediaTypes = snapshots.list(live.getMediaTypes(), MediaTypeDescriptor.class);
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public List<MediaTypeDescriptor> getMediaTypes() {
+    return this.mediaTypes;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.Example;
+
+/**
+ * Snapshot of an {@link Example}.
+ *
+ * @author Ryan Heaton
+ */
+public class ExampleSnapshot extends SnapshotObject implements Example {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String lang;
+  private final String body;
+
+  ExampleSnapshot(Example live, Snapshots snapshots) {
+    super(live, Example.class, snapshots);
+    this.lang = live.getLang();
+    this.body = live.getBody();
+  }
+
+  @Override
+  public String getLang() {
+    return this.lang;
+  }
+
+  @Override
+  public String getBody() {
+    return this.body;
+  }
+}
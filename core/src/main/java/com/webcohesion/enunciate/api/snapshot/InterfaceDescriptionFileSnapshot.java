@@ -0,0 +1,123 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
+
+import java.io.*;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Snapshot of an {@link InterfaceDescriptionFile}. As long as the snapshot is attached to the file it was taken from,
+ * everything is delegated to that file. When the snapshot is serialized, the file is written to a scratch directory
+ * and its contents are serialized along with the snapshot, so a deserialized snapshot can still be written.
+ *
+ * @author Ryan Heaton
+ */
+public class InterfaceDescriptionFileSnapshot implements InterfaceDescriptionFile, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient InterfaceDescriptionFile live;
+  private String href;
+  private Map<String, byte[]> contents;
+
+  InterfaceDescriptionFileSnapshot(InterfaceDescriptionFile live) {
+    this.live = live;
+  }
+
+  @Override
+  public String getHref() {
+    if (this.live != null) {
+      return this.live.getHref();
+    }
+
+    return this.href;
+  }
+
+  @Override
+  public void writeTo(File directory) throws IOException {
+    if (this.live != null) {
+      this.live.writeTo(directory);
+      return;
+    }
+
+    for (Map.Entry<String, byte[]> entry : this.contents.entrySet()) {
+      File file = new File(directory, entry.getKey());
+      file.getParentFile().mkdirs();
+      FileOutputStream out = new FileOutputStream(file);
+      try {
+        out.write(entry.getValue());
+      }
+      finally {
+        out.close();
+      }
+    }
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    if (this.live != null) {
+      File scratchDir = File.createTempFile("enunciate", "");
+      scratchDir.delete();
+      scratchDir.mkdirs();
+      try {
+        this.live.writeTo(scratchDir);
+        this.href = this.live.getHref();
+        this.contents = new TreeMap<String, byte[]>();
+        readContents(scratchDir, "", this.contents);
+      }
+      finally {
+        delete(scratchDir);
+      }
+    }
+
+    out.defaultWriteObject();
+  }
+
+  private static void readContents(File dir, String path, Map<String, byte[]> contents) throws IOException {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          readContents(file, path + file.getName() + "/", contents);
+        }
+        else {
+          byte[] bytes = new byte[(int) file.length()];
+          DataInputStream in = new DataInputStream(new FileInputStream(file));
+          try {
+            in.readFully(bytes);
+          }
+          finally {
+            in.close();
+          }
+          contents.put(path + file.getName(), bytes);
+        }
+      }
+    }
+  }
+
+  private static void delete(File file) {
+    File[] files = file.listFiles();
+    if (files != null) {
+      for (File child : files) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.DataTypeReference;
+import com.webcohesion.enunciate.api.resources.MediaTypeDescriptor;
+
+/**
+ * Snapshot of a {@link MediaTypeDescriptor}.
+ *
+ * @author Ryan Heaton
+ */
+public class MediaTypeDescriptorSnapshot extends SnapshotObject implements MediaTypeDescriptor {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String mediaType;
+  private final DataTypeReference dataType;
+  private final String syntax;
+
+  MediaTypeDescriptorSnapshot(MediaTypeDescriptor live, Snapshots snapshots) {
+    super(live, MediaTypeDescriptor.class, snapshots);
+    this.mediaType = live.getMediaType();
+    this.dataType = snapshots.snapshot(live.getDataType(), DataTypeReference.class);
+    this.syntax = live.getSyntax();
+  }
+
+  @Override
+  public String getMediaType() {
+    return this.mediaType;
+  }
+
+  @Override
+  public DataTypeReference getDataType() {
+    return this.dataType;
+  }
+
+  @Override
+  public String getSyntax() {
+    return this.syntax;
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.resources.Entity;
+import com.webcohesion.enunciate.api.resources.Method;
+import com.webcohesion.enunciate.api.resources.Parameter;
+import com.webcohesion.enunciate.api.resources.Resource;
+import com.webcohesion.enunciate.api.resources.StatusCode;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of a {@link Method}.
+ *
+ * @author Ryan Heaton
+ */
+public class MethodSnapshot extends SnapshotObject implements Method {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Resource resource;
+  private final String label;
+  private final String httpMethod;
+  private final String slug;
+  private final String description;
+  private final String deprecated;
+  private final String since;
+  private final String version;
+  private final boolean includeDefaultParameterValues;
+  private final List<Parameter> parameters;
+  private final boolean includeParameterConstraints;
+  private final boolean includeParameterMultiplicity;
+  private final Entity requestEntity;
+  private final List<StatusCode> responseCodes;
+  private final Entity responseEntity;
+  private final List<StatusCode> warnings;
+  private final List<Parameter> responseHeaders;
+  private final Set<String> securityRoles;
+  private final JavaDoc javaDoc;
+
+  MethodSnapshot(Method live, Resource resource, Snapshots snapshots) {
+    super(live, Method.class, snapshots);
+    //the resource of a method might be created on demand, so use the resource we're being read from, if any.
+    this.resource = resource != null ? resource : snapshots.snapshot(live.getResource(), Resource.class);
+    this.label = live.getLabel();
+    this.httpMethod = live.getHttpMethod();
+    this.slug = live.getSlug();
+    this.description = live.getDescription();
+    this.deprecated = live.getDeprecated();
+    this.since = live.getSince();
+    this.version = live.getVersion();
+    this.includeDefaultParameterValues = live.isIncludeDefaultParameterValues();
+    this.parameters = snapshots.list(live.getParameters(), Parameter.class);
+    this.includeParameterConstraints = live.isIncludeParameterConstraints();
+    this.includeParameterMultiplicity = live.isIncludeParameterMultiplicity();
+    this.requestEntity = snapshots.snapshot(live.getRequestEntity(), Entity.class);
+    this.responseCodes = snapshots.list(live.getResponseCodes(), StatusCode.class);
+    this.responseEntity = snapshots.snapshot(live.getResponseEntity(), Entity.class);
+    this.warnings = snapshots.list(live.getWarnings(), StatusCode.class);
+    this.responseHeaders = snapshots.list(live.getResponseHeaders(), Parameter.class);
+    this.securityRoles = Snapshots.copy(live.getSecurityRoles());
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public Resource getResource() {
+    return this.resource;
+  }
+
+  @Override
+  public String getLabel() {
+    return this.label;
+  }
+
+  @Override
+  public String getHttpMethod() {
+    return this.httpMethod;
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public String getDeprecated() {
+    return this.deprecated;
+  }
+
+  @Override
+  public String getSince() {
+    return this.since;
+  }
+
+  @Override
+  public String getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public boolean isIncludeDefaultParameterValues() {
+    return this.includeDefaultParameterValues;
+  }
+
+  @Override
+  public List<Parameter> getParameters() {
+    return this.parameters;
+  }
+
+  @Override
+  public boolean isIncludeParameterConstraints() {
+    return this.includeParameterConstraints;
+  }
+
+  @Override
+  public boolean isIncludeParameterMultiplicity() {
+    return this.includeParameterMultiplicity;
+  }
+
+  @Override
+  public Entity getRequestEntity() {
+    return this.requestEntity;
+  }
+
+  @Override
+  public List<StatusCode> getResponseCodes() {
+    return this.responseCodes;
+  }
+
+  @Override
+  public Entity getResponseEntity() {
+    return this.responseEntity;
+  }
+
+  @Override
+  public List<StatusCode> getWarnings() {
+    return this.warnings;
+  }
+
+  @Override
+  public List<Parameter> getResponseHeaders() {
+    return this.responseHeaders;
+  }
+
+  @Override
+  public Set<String> getSecurityRoles() {
+    return this.securityRoles;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
+import com.webcohesion.enunciate.api.datatype.DataType;
+import com.webcohesion.enunciate.api.datatype.Namespace;
+
+import java.util.List;
+
+/**
+ * Snapshot of a {@link Namespace}.
+ *
+ * @author Ryan Heaton
+ */
+public class NamespaceSnapshot extends SnapshotObject implements Namespace {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String uri;
+  private final InterfaceDescriptionFile schemaFile;
+  private final List<DataType> types;
+
+  NamespaceSnapshot(Namespace live, Snapshots snapshots) {
+    super(live, Namespace.class, snapshots);
+    this.uri = live.getUri();
+    this.schemaFile = snapshots.file(live.getSchemaFile());
+    this.types = snapshots.list(live.getTypes(), DataType.class);
+  }
+
+  @Override
+  public String getUri() {
+    return this.uri;
+  }
+
+  @Override
+  public InterfaceDescriptionFile getSchemaFile() {
+    return this.schemaFile;
+  }
+
+  @Override
+  public List<DataType> getTypes() {
+    return this.types;
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.DataTypeReference;
+import com.webcohesion.enunciate.api.services.Fault;
+import com.webcohesion.enunciate.api.services.Operation;
+import com.webcohesion.enunciate.api.services.Parameter;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of an {@link Operation}.
+ *
+ * @author Ryan Heaton
+ */
+public class OperationSnapshot extends SnapshotObject implements Operation {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String name;
+  private final String slug;
+  private final String description;
+  private final String deprecated;
+  private final String since;
+  private final String version;
+  private final List<Parameter> inputParameters;
+  private final List<Parameter> outputParameters;
+  private final DataTypeReference returnType;
+  private final String returnDescription;
+  private final List<Fault> faults;
+  private final JavaDoc javaDoc;
+
+  OperationSnapshot(Operation live, Snapshots snapshots) {
+    super(live, Operation.class, snapshots);
+    this.name = live.getName();
+    this.slug = live.getSlug();
+    this.description = live.getDescription();
+    this.deprecated = live.getDeprecated();
+    this.since = live.getSince();
+    this.version = live.getVersion();
+    this.inputParameters = snapshots.list(live.getInputParameters(), Parameter.class);
+    this.outputParameters = snapshots.list(live.getOutputParameters(), Parameter.class);
+    this.returnType = snapshots.snapshot(live.getReturnType(), DataTypeReference.class);
+    this.returnDescription = live.getReturnDescription();
+    this.faults = snapshots.list(live.getFaults(), Fault.class);
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public String getDeprecated() {
+    return this.deprecated;
+  }
+
+  @Override
+  public String getSince() {
+    return this.since;
+  }
+
+  @Override
+  public String getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public List<Parameter> getInputParameters() {
+    return this.inputParameters;
+  }
+
+  @Override
+  public List<Parameter> getOutputParameters() {
+    return this.outputParameters;
+  }
+
+  @Override
+  public DataTypeReference getReturnType() {
+    return this.returnType;
+  }
+
+  @Override
+  public String getReturnDescription() {
+    return this.returnDescription;
+  }
+
+  @Override
+  public List<Fault> getFaults() {
+    return this.faults;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
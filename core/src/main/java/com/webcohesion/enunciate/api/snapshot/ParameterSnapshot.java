@@ -0,0 +1,101 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.resources.Parameter;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of a {@link Parameter}.
+ *
+ * @author Ryan Heaton
+ */
+public class ParameterSnapshot extends SnapshotObject implements Parameter {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String name;
+  private final String description;
+  private final String typeLabel;
+  private final String defaultValue;
+  private final String constraints;
+  private final Set<String> constraintValues;
+  private final JavaDoc javaDoc;
+  private final boolean multivalued;
+
+  ParameterSnapshot(Parameter live, Snapshots snapshots) {
+    super(live, Parameter.class, snapshots);
+    this.name = live.getName();
+    this.description = live.getDescription();
+    this.typeLabel = live.getTypeLabel();
+    this.defaultValue = live.getDefaultValue();
+    this.constraints = live.getConstraints();
+    this.constraintValues = Snapshots.copy(live.getConstraintValues());
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+    this.multivalued = live.isMultivalued();
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public String getTypeLabel() {
+    return this.typeLabel;
+  }
+
+  @Override
+  public String getDefaultValue() {
+    return this.defaultValue;
+  }
+
+  @Override
+  public String getConstraints() {
+    return this.constraints;
+  }
+
+  @Override
+  public Set<String> getConstraintValues() {
+    return this.constraintValues;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+
+  @Override
+  public boolean isMultivalued() {
+    return this.multivalued;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.PathSummary;
+
+import java.util.Set;
+
+/**
+ * Snapshot of a {@link PathSummary}.
+ *
+ * @author Ryan Heaton
+ */
+public class PathSummarySnapshot extends SnapshotObject implements PathSummary {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String path;
+  private final Set<String> methods;
+
+  PathSummarySnapshot(PathSummary live, Snapshots snapshots) {
+    super(live, PathSummary.class, snapshots);
+    this.path = live.getPath();
+    this.methods = Snapshots.copy(live.getMethods());
+  }
+
+  @Override
+  public String getPath() {
+    return this.path;
+  }
+
+  @Override
+  public Set<String> getMethods() {
+    return this.methods;
+  }
+}
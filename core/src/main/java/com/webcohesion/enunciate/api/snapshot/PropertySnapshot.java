@@ -0,0 +1,115 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.DataTypeReference;
+import com.webcohesion.enunciate.api.datatype.Property;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of a {@link Property}.
+ *
+ * @author Ryan Heaton
+ */
+public class PropertySnapshot extends SnapshotObject implements Property {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String name;
+  private final String description;
+  private final DataTypeReference dataType;
+  private final String deprecated;
+  private final boolean required;
+  private final JavaDoc javaDoc;
+  private final Map<String, Object> metadata;
+
+  PropertySnapshot(Property live, Set<String> metadataNames, Snapshots snapshots) {
+    super(live, Property.class, snapshots);
+    this.name = live.getName();
+    this.description = live.getDescription();
+    this.dataType = snapshots.snapshot(live.getDataType(), DataTypeReference.class);
+    this.deprecated = live.getDeprecated();
+    this.required = live.isRequired();
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+
+    Map<String, Object> metadata = new LinkedHashMap<String, Object>();
+    for (String name : metadataNames) {
+      Object value = live.getMetadata(name);
+      if (value != null) {
+        metadata.put(name, value);
+      }
+    }
+    this.metadata = metadata.isEmpty() ? Collections.<String, Object>emptyMap() : Collections.unmodifiableMap(metadata);
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public DataTypeReference getDataType() {
+    return this.dataType;
+  }
+
+  @Override
+  public String getDeprecated() {
+    return this.deprecated;
+  }
+
+  @Override
+  public boolean isRequired() {
+    return this.required;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+
+  @Override
+  public Object getMetadata(String name) {
+    return this.metadata.get(name);
+  }
+
+  /**
+   * Generic accessor for the metadata of the property (e.g. for templates, which look up the property metadata
+   * declared by a data type by name).
+   *
+   * @param name The name of the metadata.
+   * @return The value of the metadata, or null if the property has no value for it.
+   */
+  public Object get(String name) {
+    return getMetadata(name);
+  }
+}
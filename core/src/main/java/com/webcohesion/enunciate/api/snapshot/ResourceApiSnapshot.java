@@ -0,0 +1,59 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
+import com.webcohesion.enunciate.api.resources.ResourceApi;
+import com.webcohesion.enunciate.api.resources.ResourceGroup;
+
+import java.util.List;
+
+/**
+ * Snapshot of a {@link ResourceApi}.
+ *
+ * @author Ryan Heaton
+ */
+public class ResourceApiSnapshot extends SnapshotObject implements ResourceApi {
+
+  private static final long serialVersionUID = 1L;
+
+  private final boolean includeResourceGroupName;
+  private final InterfaceDescriptionFile wadlFile;
+  private final List<ResourceGroup> resourceGroups;
+
+  ResourceApiSnapshot(ResourceApi live, Snapshots snapshots) {
+    super(live, ResourceApi.class, snapshots);
+    this.includeResourceGroupName = live.isIncludeResourceGroupName();
+    this.wadlFile = snapshots.file(live.getWadlFile());
+    this.resourceGroups = snapshots.list(live.getResourceGroups(), ResourceGroup.class);
+  }
+
+  @Override
+  public boolean isIncludeResourceGroupName() {
+    return this.includeResourceGroupName;
+  }
+
+  @Override
+  public InterfaceDescriptionFile getWadlFile() {
+    return this.wadlFile;
+  }
+
+  @Override
+  public List<ResourceGroup> getResourceGroups() {
+    return this.resourceGroups;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.PathSummary;
+import com.webcohesion.enunciate.api.resources.Resource;
+import com.webcohesion.enunciate.api.resources.ResourceGroup;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a {@link ResourceGroup}.
+ *
+ * @author Ryan Heaton
+ */
+public class ResourceGroupSnapshot extends SnapshotObject implements ResourceGroup {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String slug;
+  private final String label;
+  private final String sortKey;
+  private final String description;
+  private final String deprecated;
+  private final List<PathSummary> paths;
+  private final String relativeContextPath;
+  private final List<Resource> resources;
+  private final JavaDoc javaDoc;
+
+  ResourceGroupSnapshot(ResourceGroup live, Snapshots snapshots) {
+    super(live, ResourceGroup.class, snapshots);
+    this.slug = live.getSlug();
+    this.label = live.getLabel();
+    this.sortKey = live.getSortKey();
+    this.description = live.getDescription();
+    this.deprecated = live.getDeprecated();
+    this.paths = snapshots.list(live.getPaths(), PathSummary.class);
+    this.relativeContextPath = live.getRelativeContextPath();
+    this.resources = snapshots.list(live.getResources(), Resource.class);
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public String getLabel() {
+    return this.label;
+  }
+
+  @Override
+  public String getSortKey() {
+    return this.sortKey;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public String getDeprecated() {
+    return this.deprecated;
+  }
+
+  @Override
+  public List<PathSummary> getPaths() {
+    return this.paths;
+  }
+
+  @Override
+  public String getRelativeContextPath() {
+    return this.relativeContextPath;
+  }
+
+  @Override
+  public List<Resource> getResources() {
+    return this.resources;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.resources.Method;
+import com.webcohesion.enunciate.api.resources.Resource;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a {@link Resource}.
+ *
+ * @author Ryan Heaton
+ */
+public class ResourceSnapshot extends SnapshotObject implements Resource {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String path;
+  private final String relativePath;
+  private final String slug;
+  private final String deprecated;
+  private final String since;
+  private final String version;
+  private final List<Method> methods;
+  private final JavaDoc javaDoc;
+
+  ResourceSnapshot(Resource live, Snapshots snapshots) {
+    super(live, Resource.class, snapshots);
+    this.path = live.getPath();
+    this.relativePath = live.getRelativePath();
+    this.slug = live.getSlug();
+    this.deprecated = live.getDeprecated();
+    this.since = live.getSince();
+    this.version = live.getVersion();
+    this.methods = snapshots.methods(live.getMethods(), this);
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public String getPath() {
+    return this.path;
+  }
+
+  @Override
+  public String getRelativePath() {
+    return this.relativePath;
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public String getDeprecated() {
+    return this.deprecated;
+  }
+
+  @Override
+  public String getSince() {
+    return this.since;
+  }
+
+  @Override
+  public String getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public List<Method> getMethods() {
+    return this.methods;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
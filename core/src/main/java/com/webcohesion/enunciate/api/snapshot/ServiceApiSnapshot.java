@@ -0,0 +1,51 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.services.ServiceApi;
+import com.webcohesion.enunciate.api.services.ServiceGroup;
+
+import java.util.List;
+
+/**
+ * Snapshot of a {@link ServiceApi}.
+ *
+ * @author Ryan Heaton
+ */
+public class ServiceApiSnapshot extends SnapshotObject implements ServiceApi {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String contextPath;
+  private final List<ServiceGroup> serviceGroups;
+
+  ServiceApiSnapshot(ServiceApi live, Snapshots snapshots) {
+    super(live, ServiceApi.class, snapshots);
+    this.contextPath = live.getContextPath();
+    this.serviceGroups = snapshots.list(live.getServiceGroups(), ServiceGroup.class);
+  }
+
+  @Override
+  public String getContextPath() {
+    return this.contextPath;
+  }
+
+  @Override
+  public List<ServiceGroup> getServiceGroups() {
+    return this.serviceGroups;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
+import com.webcohesion.enunciate.api.services.Service;
+import com.webcohesion.enunciate.api.services.ServiceGroup;
+
+import java.util.List;
+
+/**
+ * Snapshot of a {@link ServiceGroup}.
+ *
+ * @author Ryan Heaton
+ */
+public class ServiceGroupSnapshot extends SnapshotObject implements ServiceGroup {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String namespace;
+  private final InterfaceDescriptionFile wsdlFile;
+  private final List<Service> services;
+
+  ServiceGroupSnapshot(ServiceGroup live, Snapshots snapshots) {
+    super(live, ServiceGroup.class, snapshots);
+    this.namespace = live.getNamespace();
+    this.wsdlFile = snapshots.file(live.getWsdlFile());
+    this.services = snapshots.services(live.getServices(), this);
+  }
+
+  @Override
+  public String getNamespace() {
+    return this.namespace;
+  }
+
+  @Override
+  public InterfaceDescriptionFile getWsdlFile() {
+    return this.wsdlFile;
+  }
+
+  @Override
+  public List<Service> getServices() {
+    return this.services;
+  }
+}
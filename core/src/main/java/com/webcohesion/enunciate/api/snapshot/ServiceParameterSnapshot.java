@@ -0,0 +1,73 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.DataTypeReference;
+import com.webcohesion.enunciate.api.services.Parameter;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of a {@link Parameter}.
+ *
+ * @author Ryan Heaton
+ */
+public class ServiceParameterSnapshot extends SnapshotObject implements Parameter {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String name;
+  private final String description;
+  private final DataTypeReference dataType;
+  private final JavaDoc javaDoc;
+
+  ServiceParameterSnapshot(Parameter live, Snapshots snapshots) {
+    super(live, Parameter.class, snapshots);
+    this.name = live.getName();
+    this.description = live.getDescription();
+    this.dataType = snapshots.snapshot(live.getDataType(), DataTypeReference.class);
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public DataTypeReference getDataType() {
+    return this.dataType;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.services.Operation;
+import com.webcohesion.enunciate.api.services.Service;
+import com.webcohesion.enunciate.api.services.ServiceGroup;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a {@link Service}.
+ *
+ * @author Ryan Heaton
+ */
+public class ServiceSnapshot extends SnapshotObject implements Service {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String label;
+  private final String path;
+  private final String namespace;
+  private final ServiceGroup group;
+  private final String slug;
+  private final String description;
+  private final String deprecated;
+  private final String since;
+  private final String version;
+  private final List<Operation> operations;
+  private final JavaDoc javaDoc;
+
+  ServiceSnapshot(Service live, ServiceGroup group, Snapshots snapshots) {
+    super(live, Service.class, snapshots);
+    this.label = live.getLabel();
+    this.path = live.getPath();
+    this.namespace = live.getNamespace();
+    //the group of a service might be created on demand, so use the group we're being read from, if any.
+    this.group = group != null ? group : snapshots.snapshot(live.getGroup(), ServiceGroup.class);
+    this.slug = live.getSlug();
+    this.description = live.getDescription();
+    this.deprecated = live.getDeprecated();
+    this.since = live.getSince();
+    this.version = live.getVersion();
+    this.operations = snapshots.list(live.getOperations(), Operation.class);
+    this.javaDoc = Snapshots.copy(live.getJavaDoc());
+  }
+
+  @Override
+  public String getLabel() {
+    return this.label;
+  }
+
+  @Override
+  public String getPath() {
+    return this.path;
+  }
+
+  @Override
+  public String getNamespace() {
+    return this.namespace;
+  }
+
+  @Override
+  public ServiceGroup getGroup() {
+    return this.group;
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+
+  @Override
+  public String getDeprecated() {
+    return this.deprecated;
+  }
+
+  @Override
+  public String getSince() {
+    return this.since;
+  }
+
+  @Override
+  public String getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public List<Operation> getOperations() {
+    return this.operations;
+  }
+
+  @Override
+  public Map<String, AnnotationMirror> getAnnotations() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public JavaDoc getJavaDoc() {
+    return this.javaDoc;
+  }
+}
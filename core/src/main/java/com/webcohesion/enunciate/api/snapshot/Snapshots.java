@@ -0,0 +1,350 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.ApiRegistry;
+import com.webcohesion.enunciate.api.InterfaceDescriptionFile;
+import com.webcohesion.enunciate.api.PathSummary;
+import com.webcohesion.enunciate.api.datatype.*;
+import com.webcohesion.enunciate.api.resources.*;
+import com.webcohesion.enunciate.api.services.*;
+
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+
+import java.util.*;
+
+/**
+ * Materializes the API model into an immutable snapshot that is detached from the javac model the API was read from.
+ * Every value of the API model is resolved up front (including the documentation and examples), so the snapshot can
+ * be read from any thread. The facet filter is applied by the API model as it's read, so the snapshot holds only the
+ * elements that were accepted by the filter; the facets themselves aren't captured.<br/><br/>
+ *
+ * Only what's declared by the API interfaces is captured, plus the values of the property metadata declared by
+ * each data type (see {@link PropertySnapshot#get(String)}). The annotations of the model are javac objects, so
+ * they aren't captured: a snapshot has no annotations.
+ *
+ * @author Ryan Heaton
+ */
+public class Snapshots {
+
+  private final Map<Class<?>, Map<Object, Object>> snapshots = new HashMap<Class<?>, Map<Object, Object>>();
+  private final Map<Object, Object> snapshotsByKey = new HashMap<Object, Object>();
+
+  /**
+   * Take a snapshot of the specified registry.
+   *
+   * @param registry The registry.
+   * @return The snapshot.
+   */
+  public ApiRegistry snapshot(ApiRegistry registry) {
+    List<ServiceApi> serviceApis = list(registry.getServiceApis(), ServiceApi.class);
+    List<ResourceApi> resourceApis = list(registry.getResourceApis(), ResourceApi.class);
+    Set<Syntax> syntaxes = Collections.unmodifiableSet(new TreeSet<Syntax>(list(registry.getSyntaxes(), Syntax.class)));
+    return new ApiRegistry(serviceApis, resourceApis, syntaxes, registry.getSwaggerUI());
+  }
+
+  /**
+   * Take a snapshot of the specified element of the API model, as the specified type.
+   *
+   * @param live The element of the API model.
+   * @param type The type of the element (i.e. the API interface).
+   * @return The snapshot, or null if the element is null.
+   */
+  @SuppressWarnings ( "unchecked" )
+  public <T> T snapshot(T live, Class<T> type) {
+    if (live == null || live instanceof SnapshotObject) {
+      return live;
+    }
+
+    Object snapshot = lookup(live, type);
+    if (snapshot == null) {
+      //the snapshot registers itself before it reads anything, so cyclic references resolve to the same snapshot.
+      snapshot = create(live, type);
+    }
+    return (T) snapshot;
+  }
+
+  /**
+   * Take a snapshot of each of the methods of a resource.
+   *
+   * @param live     The methods.
+   * @param resource The (snapshot of the) resource.
+   * @return The (unmodifiable) list of snapshots.
+   */
+  List<Method> methods(List<? extends Method> live, Resource resource) {
+    if (live == null) {
+      return null;
+    }
+
+    List<Method> snapshots = new ArrayList<Method>(live.size());
+    for (Method method : live) {
+      Object snapshot = lookup(method, Method.class);
+      snapshots.add(snapshot != null ? (Method) snapshot : new MethodSnapshot(method, resource, this));
+    }
+    return Collections.unmodifiableList(snapshots);
+  }
+
+  /**
+   * Take a snapshot of each of the properties of a data type.
+   *
+   * @param live     The properties.
+   * @param metadata The property metadata of the data type.
+   * @return The (unmodifiable) list of snapshots.
+   */
+  List<Property> properties(List<? extends Property> live, Map<String, String> metadata) {
+    if (live == null) {
+      return null;
+    }
+
+    Set<String> names = metadata == null ? Collections.<String>emptySet() : metadata.keySet();
+    List<Property> snapshots = new ArrayList<Property>(live.size());
+    for (Property property : live) {
+      Object snapshot = lookup(property, Property.class);
+      snapshots.add(snapshot != null ? (Property) snapshot : new PropertySnapshot(property, names, this));
+    }
+    return Collections.unmodifiableList(snapshots);
+  }
+
+  /**
+   * Take a snapshot of each of the services of a service group.
+   *
+   * @param live  The services.
+   * @param group The (snapshot of the) group.
+   * @return The (unmodifiable) list of snapshots.
+   */
+  List<Service> services(List<? extends Service> live, ServiceGroup group) {
+    if (live == null) {
+      return null;
+    }
+
+    List<Service> snapshots = new ArrayList<Service>(live.size());
+    for (Service service : live) {
+      Object snapshot = lookup(service, Service.class);
+      snapshots.add(snapshot != null ? (Service) snapshot : new ServiceSnapshot(service, group, this));
+    }
+    return Collections.unmodifiableList(snapshots);
+  }
+
+  /**
+   * Take a snapshot of each element of the specified list.
+   *
+   * @param live The elements.
+   * @param type The type of the elements.
+   * @return The (unmodifiable) list of snapshots, or null if the list is null.
+   */
+  public <T> List<T> list(Collection<? extends T> live, Class<T> type) {
+    if (live == null) {
+      return null;
+    }
+
+    List<T> snapshots = new ArrayList<T>(live.size());
+    for (T element : live) {
+      snapshots.add(snapshot(element, type));
+    }
+    return Collections.unmodifiableList(snapshots);
+  }
+
+  /**
+   * Take a snapshot of the specified interface description file.
+   *
+   * @param live The file.
+   * @return The snapshot, or null if the file is null.
+   */
+  InterfaceDescriptionFile file(InterfaceDescriptionFile live) {
+    if (live == null || live instanceof InterfaceDescriptionFileSnapshot) {
+      return live;
+    }
+
+    return new InterfaceDescriptionFileSnapshot(live);
+  }
+
+  private Object create(Object live, Class<?> type) {
+    if (type == DataType.class) {
+      return new DataTypeSnapshot((DataType) live, this);
+    }
+    else if (type == DataTypeReference.class) {
+      return new DataTypeReferenceSnapshot((DataTypeReference) live, this);
+    }
+    else if (type == Example.class) {
+      return new ExampleSnapshot((Example) live, this);
+    }
+    else if (type == Namespace.class) {
+      return new NamespaceSnapshot((Namespace) live, this);
+    }
+    else if (type == Property.class) {
+      return new PropertySnapshot((Property) live, Collections.<String>emptySet(), this);
+    }
+    else if (type == Syntax.class) {
+      return new SyntaxSnapshot((Syntax) live, this);
+    }
+    else if (type == Value.class) {
+      return new ValueSnapshot((Value) live, this);
+    }
+    else if (type == Entity.class) {
+      return new EntitySnapshot((Entity) live, this);
+    }
+    else if (type == MediaTypeDescriptor.class) {
+      return new MediaTypeDescriptorSnapshot((MediaTypeDescriptor) live, this);
+    }
+    else if (type == Method.class) {
+      return new MethodSnapshot((Method) live, null, this);
+    }
+    else if (type == com.webcohesion.enunciate.api.resources.Parameter.class) {
+      return new ParameterSnapshot((com.webcohesion.enunciate.api.resources.Parameter) live, this);
+    }
+    else if (type == Resource.class) {
+      return new ResourceSnapshot((Resource) live, this);
+    }
+    else if (type == ResourceApi.class) {
+      return new ResourceApiSnapshot((ResourceApi) live, this);
+    }
+    else if (type == ResourceGroup.class) {
+      return new ResourceGroupSnapshot((ResourceGroup) live, this);
+    }
+    else if (type == StatusCode.class) {
+      return new StatusCodeSnapshot((StatusCode) live, this);
+    }
+    else if (type == PathSummary.class) {
+      return new PathSummarySnapshot((PathSummary) live, this);
+    }
+    else if (type == Fault.class) {
+      return new FaultSnapshot((Fault) live, this);
+    }
+    else if (type == Operation.class) {
+      return new OperationSnapshot((Operation) live, this);
+    }
+    else if (type == com.webcohesion.enunciate.api.services.Parameter.class) {
+      return new ServiceParameterSnapshot((com.webcohesion.enunciate.api.services.Parameter) live, this);
+    }
+    else if (type == Service.class) {
+      return new ServiceSnapshot((Service) live, null, this);
+    }
+    else if (type == ServiceApi.class) {
+      return new ServiceApiSnapshot((ServiceApi) live, this);
+    }
+    else if (type == ServiceGroup.class) {
+      return new ServiceGroupSnapshot((ServiceGroup) live, this);
+    }
+
+    throw new IllegalArgumentException("Unable to take a snapshot of " + type.getName());
+  }
+
+  /**
+   * Copy the specified map.
+   *
+   * @param map The map.
+   * @return The (unmodifiable) copy, or null if the map is null.
+   */
+  static <K, V> Map<K, V> copy(Map<K, V> map) {
+    return map == null ? null : Collections.unmodifiableMap(new LinkedHashMap<K, V>(map));
+  }
+
+  /**
+   * Copy the specified set.
+   *
+   * @param set The set.
+   * @return The (unmodifiable) copy, or null if the set is null.
+   */
+  static <T> Set<T> copy(Set<T> set) {
+    return set == null ? null : Collections.unmodifiableSet(new LinkedHashSet<T>(set));
+  }
+
+  /**
+   * Copy the specified list.
+   *
+   * @param list The list.
+   * @return The (unmodifiable) copy, or null if the list is null.
+   */
+  static <T> List<T> copy(List<T> list) {
+    return list == null ? null : Collections.unmodifiableList(new ArrayList<T>(list));
+  }
+
+  /**
+   * Copy the specified JavaDoc.
+   *
+   * @param javaDoc The JavaDoc.
+   * @return The copy, or null if the JavaDoc is null.
+   */
+  static JavaDoc copy(JavaDoc javaDoc) {
+    if (javaDoc == null) {
+      return null;
+    }
+
+    JavaDoc copy = new JavaDoc(null, null);
+    copy.setValue(javaDoc.toString());
+    for (Map.Entry<String, JavaDoc.JavaDocTagList> tag : javaDoc.entrySet()) {
+      JavaDoc.JavaDocTagList values = tag.getValue();
+      if (values != null && !values.isEmpty()) {
+        JavaDoc.JavaDocTagList valuesCopy = new JavaDoc.JavaDocTagList(values.get(0));
+        valuesCopy.addAll(values.subList(1, values.size()));
+        copy.put(tag.getKey(), valuesCopy);
+      }
+    }
+    return copy;
+  }
+
+  private Object lookup(Object live, Class<?> type) {
+    Object key = keyOf(live, type);
+    return key != null ? this.snapshotsByKey.get(key) : snapshotsOf(type).get(live);
+  }
+
+  /**
+   * The key that identifies an element of the API model, for the elements that are created on demand by the API (so
+   * the same element can't be recognized by its identity).
+   *
+   * @param live The element.
+   * @param type The type of the element.
+   * @return The key, or null if the element is to be identified by its identity.
+   */
+  private static Object keyOf(Object live, Class<?> type) {
+    if (type == DataType.class) {
+      //data type slugs are unique (they name the documentation page of the data type).
+      String slug = ((DataType) live).getSlug();
+      return slug == null ? null : Arrays.asList(DataType.class, slug);
+    }
+    else if (type == Namespace.class) {
+      return Arrays.asList(live.getClass(), ((Namespace) live).getUri());
+    }
+    return null;
+  }
+
+  private Map<Object, Object> snapshotsOf(Class<?> type) {
+    Map<Object, Object> snapshots = this.snapshots.get(type);
+    if (snapshots == null) {
+      snapshots = new IdentityHashMap<Object, Object>();
+      this.snapshots.put(type, snapshots);
+    }
+    return snapshots;
+  }
+
+  /**
+   * Registers a snapshot as the snapshot of the specified element.
+   *
+   * @param live     The element.
+   * @param type     The type of the element.
+   * @param snapshot The snapshot.
+   */
+  void register(Object live, Class<?> type, SnapshotObject snapshot) {
+    Object key = keyOf(live, type);
+    if (key != null) {
+      this.snapshotsByKey.put(key, snapshot);
+    }
+    else {
+      snapshotsOf(type).put(live, snapshot);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.Namespace;
+import com.webcohesion.enunciate.api.datatype.Syntax;
+import com.webcohesion.enunciate.api.resources.MediaTypeDescriptor;
+import com.webcohesion.enunciate.javac.decorations.type.DecoratedTypeMirror;
+
+import java.util.List;
+
+/**
+ * Snapshot of a {@link Syntax}.
+ *
+ * @author Ryan Heaton
+ */
+public class SyntaxSnapshot extends SnapshotObject implements Syntax {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String id;
+  private final String slug;
+  private final String label;
+  private final boolean empty;
+  private final List<Namespace> namespaces;
+
+  SyntaxSnapshot(Syntax live, Snapshots snapshots) {
+    super(live, Syntax.class, snapshots);
+    this.id = live.getId();
+    this.slug = live.getSlug();
+    this.label = live.getLabel();
+    this.empty = live.isEmpty();
+    this.namespaces = snapshots.list(live.getNamespaces(), Namespace.class);
+  }
+
+  @Override
+  public String getId() {
+    return this.id;
+  }
+
+  @Override
+  public String getSlug() {
+    return this.slug;
+  }
+
+  @Override
+  public String getLabel() {
+    return this.label;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.empty;
+  }
+
+  @Override
+  public List<Namespace> getNamespaces() {
+    return this.namespaces;
+  }
+
+  /**
+   * Media type descriptors are looked up by a type of the javac model, which a snapshot is detached from. The media
+   * type descriptors of the entities of the API have already been captured by their snapshots.
+   *
+   * @return null
+   */
+  @Override
+  public MediaTypeDescriptor findMediaTypeDescriptor(String mediaType, DecoratedTypeMirror typeMirror) {
+    return null;
+  }
+
+  @Override
+  public int compareTo(Syntax syntax) {
+    return getId().compareTo(syntax.getId());
+  }
+}
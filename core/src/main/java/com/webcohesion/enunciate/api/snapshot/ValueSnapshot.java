@@ -0,0 +1,48 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.datatype.Value;
+
+/**
+ * Snapshot of a {@link Value}.
+ *
+ * @author Ryan Heaton
+ */
+public class ValueSnapshot extends SnapshotObject implements Value {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String value;
+  private final String description;
+
+  ValueSnapshot(Value live, Snapshots snapshots) {
+    super(live, Value.class, snapshots);
+    this.value = live.getValue();
+    this.description = live.getDescription();
+  }
+
+  @Override
+  public String getValue() {
+    return this.value;
+  }
+
+  @Override
+  public String getDescription() {
+    return this.description;
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.webcohesion.enunciate.artifacts;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
@@ -23,7 +24,9 @@ import java.util.*;
  * 
  * @author Ryan Heaton
  */
-public abstract class BaseArtifact implements Artifact {
+public abstract class BaseArtifact implements Artifact, Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private final String module;
   private final String id;
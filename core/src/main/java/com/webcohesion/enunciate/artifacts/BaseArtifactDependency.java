@@ -16,12 +16,16 @@
 
 package com.webcohesion.enunciate.artifacts;
 
+import java.io.Serializable;
+
 /**
  * Basic artifact dependency.
  *
  * @author Ryan Heaton
  */
-public class BaseArtifactDependency implements ArtifactDependency {
+public class BaseArtifactDependency implements ArtifactDependency, Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private String id;
   private String version;
@@ -0,0 +1,410 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateConsoleLogger;
+import com.webcohesion.enunciate.EnunciateLogger;
+import com.webcohesion.enunciate.artifacts.Artifact;
+import com.webcohesion.enunciate.artifacts.ClientLibraryArtifact;
+import com.webcohesion.enunciate.artifacts.FileArtifact;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A long-lived process that runs the builds delegated to it (by a {@link BuildDaemonClient}) in a warm JVM. Between
+ * the builds that use the same modules, the daemon keeps the modules loaded, the templates parsed, what was read from
+ * the jars on the API classpath, and the javac file managers open (see {@link WarmBuildState}). Each build still gets
+ * a fresh engine and fresh modules, so a build run by the daemon produces the same artifacts as a build run in
+ * process. Usage:<br/><br/>
+ *
+ * <code>java -cp enunciate-core.jar com.webcohesion.enunciate.daemon.BuildDaemon [-port P] [-file F]</code><br/><br/>
+ *
+ * The daemon only listens on the loopback interface. The port and a random token are written to the daemon file
+ * (readable by its owner only), and a client must present the token before the daemon accepts a build. Builds are run
+ * one at a time.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildDaemon {
+
+  /**
+   * The default daemon file.
+   */
+  public static final File DEFAULT_DAEMON_FILE = new File(new File(System.getProperty("user.home"), ".enunciate"), "daemon.properties");
+
+  /**
+   * The maximum number of module classpaths for which state is kept warm.
+   */
+  public static final int MAX_WARM_STATES = 4;
+
+  private final File daemonFile;
+  private final int port;
+  private final EnunciateLogger logger;
+  private final Map<String, WarmBuildState> warmStates = new LinkedHashMap<String, WarmBuildState>(MAX_WARM_STATES, 0.75f, true);
+  private String token;
+  private ServerSocket serverSocket;
+
+  /**
+   * @param daemonFile The file to which to write the port and the token of the daemon.
+   * @param port       The port on which to listen, or 0 for any free port.
+   * @param logger     The logger of the daemon.
+   */
+  public BuildDaemon(File daemonFile, int port, EnunciateLogger logger) {
+    this.daemonFile = daemonFile;
+    this.port = port;
+    this.logger = logger;
+  }
+
+  public static void main(String[] args) throws IOException {
+    File daemonFile = DEFAULT_DAEMON_FILE;
+    int port = 0;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      String option = args[i];
+      String value = args[i + 1];
+      if ("-port".equals(option)) {
+        port = Integer.parseInt(value);
+      }
+      else if ("-file".equals(option)) {
+        daemonFile = new File(value);
+      }
+      else {
+        throw new IllegalArgumentException("Unknown option: " + option);
+      }
+    }
+
+    final BuildDaemon daemon = new BuildDaemon(daemonFile, port, new EnunciateConsoleLogger());
+    daemon.start();
+    Runtime.getRuntime().addShutdownHook(new Thread() {
+      @Override
+      public void run() {
+        daemon.stop();
+      }
+    });
+    daemon.serve();
+  }
+
+  /**
+   * Bind the daemon and write the daemon file.
+   */
+  public synchronized void start() throws IOException {
+    this.token = new BigInteger(130, new SecureRandom()).toString(32);
+    this.serverSocket = new ServerSocket(this.port, 50, InetAddress.getByName(null));
+
+    Properties properties = new Properties();
+    properties.setProperty("port", String.valueOf(this.serverSocket.getLocalPort()));
+    properties.setProperty("token", this.token);
+    File parent = this.daemonFile.getAbsoluteFile().getParentFile();
+    if (parent != null) {
+      parent.mkdirs();
+    }
+    //create the file and restrict it to its owner before the token is written to it.
+    FileOutputStream out = new FileOutputStream(this.daemonFile);
+    this.daemonFile.setReadable(false, false);
+    this.daemonFile.setWritable(false, false);
+    this.daemonFile.setReadable(true, true);
+    this.daemonFile.setWritable(true, true);
+    try {
+      properties.store(out, "Enunciate build daemon.");
+    }
+    finally {
+      out.close();
+    }
+
+    this.logger.info("Enunciate build daemon listening on port %s (%s).", this.serverSocket.getLocalPort(), this.daemonFile);
+  }
+
+  /**
+   * The port on which the daemon is listening.
+   *
+   * @return The port on which the daemon is listening.
+   */
+  public int getPort() {
+    return this.serverSocket.getLocalPort();
+  }
+
+  /**
+   * Serve the builds, until the daemon is {@link #stop() stopped}.
+   */
+  public void serve() throws IOException {
+    while (true) {
+      Socket socket;
+      try {
+        socket = this.serverSocket.accept();
+      }
+      catch (SocketException e) {
+        if (this.serverSocket.isClosed()) {
+          return;
+        }
+        throw e;
+      }
+
+      try {
+        handle(socket);
+      }
+      catch (Exception e) {
+        this.logger.warn("Unable to handle build request: %s", e.getMessage());
+      }
+      finally {
+        try {
+          socket.close();
+        }
+        catch (IOException e) {
+          //fall through...
+        }
+      }
+    }
+  }
+
+  /**
+   * Stop the daemon, release the warm state and delete the daemon file.
+   */
+  public synchronized void stop() {
+    if (this.serverSocket != null) {
+      try {
+        this.serverSocket.close();
+      }
+      catch (IOException e) {
+        //fall through...
+      }
+    }
+
+    for (WarmBuildState state : this.warmStates.values()) {
+      state.close();
+    }
+    this.warmStates.clear();
+    this.daemonFile.delete();
+  }
+
+  protected void handle(Socket socket) throws IOException, ClassNotFoundException {
+    //the output stream is opened first so the client, which does the same, doesn't block on the stream headers.
+    ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+    out.flush();
+    ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+    //the token is read as a plain string, so nothing is deserialized from a client that doesn't have it.
+    if (!this.token.equals(in.readUTF())) {
+      this.logger.warn("Rejected a build request with an invalid token.");
+      return;
+    }
+
+    BuildRequest request = (BuildRequest) in.readObject();
+    long start = System.currentTimeMillis();
+    BuildResult result = build(request, new RemoteLogger(out, request.isDebug()));
+    synchronized (out) {
+      out.writeObject(result);
+      out.flush();
+    }
+    this.logger.info("Build %s in %s ms.", result.getFailure() == null ? "succeeded" : "failed", System.currentTimeMillis() - start);
+  }
+
+  /**
+   * Run a build.
+   *
+   * @param request The build.
+   * @param logger  The logger for the build.
+   * @return The result of the build.
+   */
+  protected BuildResult build(BuildRequest request, EnunciateLogger logger) {
+    WarmBuildState state = getWarmState(request.getModuleClasspath());
+    Thread thread = Thread.currentThread();
+    ClassLoader contextLoader = thread.getContextClassLoader();
+    thread.setContextClassLoader(state.getModuleLoader());
+    try {
+      Enunciate enunciate = new Enunciate();
+      enunciate.setLogger(logger);
+      enunciate.setWarmState(state);
+      request.configure(enunciate, state.getModuleLoader());
+      if (!enunciate.generateFromModel()) {
+        enunciate.run();
+      }
+
+      List<Artifact> artifacts = new ArrayList<Artifact>();
+      for (Artifact artifact : enunciate.getArtifacts()) {
+        artifacts.add(materialize(artifact, enunciate));
+      }
+      return BuildResult.succeeded(artifacts);
+    }
+    catch (Throwable e) {
+      StringWriter trace = new StringWriter();
+      e.printStackTrace(new PrintWriter(trace));
+      logger.debug("%s", trace);
+      return BuildResult.failed(String.valueOf(e.getMessage()));
+    }
+    finally {
+      thread.setContextClassLoader(contextLoader);
+    }
+  }
+
+  /**
+   * Get the warm state for a module classpath, creating it if it doesn't exist or if the jars of the modules changed.
+   *
+   * @param moduleClasspath The module classpath.
+   * @return The warm state.
+   */
+  protected synchronized WarmBuildState getWarmState(List<URL> moduleClasspath) {
+    String key = moduleClasspath.toString();
+    WarmBuildState state = this.warmStates.get(key);
+    if (state != null && !state.isUpToDate()) {
+      this.logger.info("The modules have changed; reloading them.");
+      this.warmStates.remove(key);
+      state.close();
+      state = null;
+    }
+
+    if (state == null) {
+      state = new WarmBuildState(moduleClasspath, BuildDaemon.class.getClassLoader());
+      this.warmStates.put(key, state);
+
+      Iterator<WarmBuildState> eldest = this.warmStates.values().iterator();
+      while (this.warmStates.size() > MAX_WARM_STATES) {
+        eldest.next().close();
+        eldest.remove();
+      }
+    }
+
+    return state;
+  }
+
+  /**
+   * Turn an artifact into one that can be sent back to the client. The artifacts that are just files are sent as they
+   * are; the others (which refer to the model of the build) are exported and sent as the files they were exported to.
+   *
+   * @param artifact  The artifact.
+   * @param enunciate The engine that built the artifact.
+   * @return The artifact to send.
+   */
+  protected Artifact materialize(Artifact artifact, Enunciate enunciate) throws IOException {
+    if (artifact instanceof FileArtifact || artifact instanceof ClientLibraryArtifact) {
+      return artifact;
+    }
+
+    File exportDir = enunciate.createTempDir();
+    artifact.exportTo(exportDir, enunciate);
+    File exported = new File(exportDir, artifact.getName());
+    String[] children = exportDir.list();
+    File file = exported.isFile() && children != null && children.length == 1 ? exported : exportDir;
+
+    FileArtifact materialized = new FileArtifact(artifact.getModule(), artifact.getId(), file);
+    materialized.setDescription(artifact.getDescription());
+    materialized.setPublic(artifact.isPublic());
+    materialized.setBelongsOnServerSideClasspath(artifact.isBelongsOnServerSideClasspath());
+    materialized.setDependencies(artifact.getDependencies());
+    for (String alias : artifact.getAliases()) {
+      materialized.addAlias(alias);
+    }
+    return materialized;
+  }
+
+  /**
+   * A message logged by a build.
+   */
+  public static class LogMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String level;
+    private final String message;
+
+    public LogMessage(String level, String message) {
+      this.level = level;
+      this.message = message;
+    }
+
+    public String getLevel() {
+      return level;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    /**
+     * Log this message to the specified logger.
+     *
+     * @param logger The logger.
+     */
+    public void logTo(EnunciateLogger logger) {
+      if ("debug".equals(this.level)) {
+        logger.debug("%s", this.message);
+      }
+      else if ("warn".equals(this.level)) {
+        logger.warn("%s", this.message);
+      }
+      else if ("error".equals(this.level)) {
+        logger.error("%s", this.message);
+      }
+      else {
+        logger.info("%s", this.message);
+      }
+    }
+  }
+
+  /**
+   * A logger that sends the messages of a build back to the client.
+   */
+  protected static class RemoteLogger implements EnunciateLogger {
+
+    private final ObjectOutputStream out;
+    private final boolean debugEnabled;
+
+    public RemoteLogger(ObjectOutputStream out, boolean debugEnabled) {
+      this.out = out;
+      this.debugEnabled = debugEnabled;
+    }
+
+    @Override
+    public void debug(String message, Object... formatArgs) {
+      if (this.debugEnabled) {
+        send("debug", message, formatArgs);
+      }
+    }
+
+    @Override
+    public void info(String message, Object... formatArgs) {
+      send("info", message, formatArgs);
+    }
+
+    @Override
+    public void warn(String message, Object... formatArgs) {
+      send("warn", message, formatArgs);
+    }
+
+    @Override
+    public void error(String message, Object... formatArgs) {
+      send("error", message, formatArgs);
+    }
+
+    private void send(String level, String message, Object... formatArgs) {
+      //the modules may log from more than one thread.
+      synchronized (this.out) {
+        try {
+          this.out.writeObject(new LogMessage(level, String.format(message, formatArgs)));
+          this.out.flush();
+          //the messages aren't shared, so they needn't be kept by the stream.
+          this.out.reset();
+        }
+        catch (IOException e) {
+          //fall through: the client is gone, but the build can still finish.
+        }
+      }
+    }
+  }
+}
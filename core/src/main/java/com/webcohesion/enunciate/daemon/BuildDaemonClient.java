@@ -0,0 +1,115 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateException;
+import com.webcohesion.enunciate.artifacts.Artifact;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Properties;
+
+/**
+ * Delegates builds to a running {@link BuildDaemon build daemon}, found by way of its daemon file.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildDaemonClient {
+
+  private final File daemonFile;
+
+  public BuildDaemonClient() {
+    this(BuildDaemon.DEFAULT_DAEMON_FILE);
+  }
+
+  /**
+   * @param daemonFile The daemon file of the daemon.
+   */
+  public BuildDaemonClient(File daemonFile) {
+    this.daemonFile = daemonFile == null ? BuildDaemon.DEFAULT_DAEMON_FILE : daemonFile;
+  }
+
+  /**
+   * Delegate a build to the daemon. The messages of the build are logged to the logger of the engine, and the artifacts
+   * of the build are added to the engine.
+   *
+   * @param enunciate The engine the build is delegated for.
+   * @param request   The build.
+   * @return Whether the build was delegated, or false if there's no daemon running (in which case the engine is to be run in process).
+   * @throws EnunciateException If the build failed.
+   */
+  public boolean build(Enunciate enunciate, BuildRequest request) {
+    if (!this.daemonFile.exists()) {
+      enunciate.getLogger().debug("No build daemon file at %s.", this.daemonFile);
+      return false;
+    }
+
+    Properties properties = new Properties();
+    Socket socket;
+    try {
+      FileInputStream in = new FileInputStream(this.daemonFile);
+      try {
+        properties.load(in);
+      }
+      finally {
+        in.close();
+      }
+      socket = new Socket(InetAddress.getByName(null), Integer.parseInt(properties.getProperty("port")));
+    }
+    catch (ConnectException e) {
+      enunciate.getLogger().info("No build daemon is listening (%s); building in process.", this.daemonFile);
+      return false;
+    }
+    catch (IOException e) {
+      throw new EnunciateException(e);
+    }
+    catch (NumberFormatException e) {
+      throw new EnunciateException("Invalid build daemon file " + this.daemonFile, e);
+    }
+
+    enunciate.getLogger().info("Delegating the build to the build daemon on port %s...", socket.getPort());
+    try {
+      ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+      out.flush();
+      ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+      out.writeUTF(properties.getProperty("token", ""));
+      out.writeObject(request);
+      out.flush();
+
+      Object message = in.readObject();
+      while (message instanceof BuildDaemon.LogMessage) {
+        ((BuildDaemon.LogMessage) message).logTo(enunciate.getLogger());
+        message = in.readObject();
+      }
+
+      BuildResult result = (BuildResult) message;
+      if (result.getFailure() != null) {
+        throw new EnunciateException("Build failed: " + result.getFailure());
+      }
+
+      for (Artifact artifact : result.getArtifacts()) {
+        enunciate.addArtifact(artifact);
+      }
+      return true;
+    }
+    catch (IOException e) {
+      throw new EnunciateException(e);
+    }
+    catch (ClassNotFoundException e) {
+      throw new EnunciateException(e);
+    }
+    finally {
+      try {
+        socket.close();
+      }
+      catch (IOException e) {
+        //fall through...
+      }
+    }
+  }
+}
@@ -0,0 +1,270 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateConfiguration;
+import com.webcohesion.enunciate.EnunciateException;
+import com.webcohesion.enunciate.module.DocumentationProviderModule;
+import com.webcohesion.enunciate.module.OnDemandDocumentationProviderModule;
+import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.module.WebInfAwareModule;
+import org.apache.commons.configuration.ConfigurationException;
+
+import java.io.File;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A build to be run by a {@link BuildDaemon build daemon}: everything an {@link Enunciate} engine is configured with,
+ * except for the modules, which the daemon loads (and keeps loaded) from the classpath of the modules.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildRequest implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<URL> moduleClasspath;
+  private final Set<File> sourceFiles;
+  private final Set<File> sourceDirs;
+  private final List<File> classpath;
+  private final List<File> sourcepath;
+  private final Set<String> includePatterns;
+  private final Set<String> excludePatterns;
+  private final List<String> compilerArgs;
+  private final Map<String, File> exports;
+  private final File buildDir;
+  private final File cacheDir;
+  private final long cacheMaxSize;
+  private final long cacheMaxAge;
+  private final String configuration;
+  private final File configFile;
+  private final File configBase;
+  private final String defaultSlug;
+  private final String defaultVersion;
+  private final String defaultTitle;
+  private final String defaultDescription;
+  private final String defaultCopyright;
+  private final EnunciateConfiguration.License defaultApiLicense;
+  private final List<EnunciateConfiguration.Contact> defaultContacts;
+  private boolean generateFromModel = false;
+  private boolean debug = false;
+  private File defaultDocsDir;
+  private String defaultDocsSubdir;
+  private boolean renderPagesOnDemand = false;
+  private File webInfDir;
+
+  /**
+   * Capture the build that the specified engine is configured for.
+   *
+   * @param enunciate       The engine.
+   * @param moduleClasspath The classpath from which the daemon is to load the modules.
+   */
+  public BuildRequest(Enunciate enunciate, List<URL> moduleClasspath) {
+    this.moduleClasspath = new ArrayList<URL>(moduleClasspath);
+    this.sourceFiles = enunciate.getSourceFiles() == null ? new TreeSet<File>() : new TreeSet<File>(enunciate.getSourceFiles());
+    this.sourceDirs = new TreeSet<File>(enunciate.getSourceDirs());
+    this.classpath = enunciate.getClasspath() == null ? null : new ArrayList<File>(enunciate.getClasspath());
+    this.sourcepath = enunciate.getSourcepath() == null ? null : new ArrayList<File>(enunciate.getSourcepath());
+    this.includePatterns = new TreeSet<String>(enunciate.getIncludePatterns());
+    this.excludePatterns = new TreeSet<String>(enunciate.getExcludePatterns());
+    this.compilerArgs = new ArrayList<String>(enunciate.getCompilerArgs());
+    this.exports = new HashMap<String, File>(enunciate.getExports());
+    this.buildDir = enunciate.getBuildDir();
+    this.cacheDir = enunciate.getCacheDir();
+    this.cacheMaxSize = enunciate.getCacheMaxSize();
+    this.cacheMaxAge = enunciate.getCacheMaxAge();
+    this.generateFromModel = enunciate.isApiModelEnabled();
+
+    EnunciateConfiguration config = enunciate.getConfiguration();
+    if (config.getSource().isEmpty()) {
+      this.configuration = null;
+    }
+    else {
+      StringWriter xml = new StringWriter();
+      try {
+        config.getSource().save(xml);
+      }
+      catch (ConfigurationException e) {
+        throw new EnunciateException(e);
+      }
+      this.configuration = xml.toString();
+    }
+    this.configFile = config.getConfigFile();
+    this.configBase = config.getBase();
+
+    //the daemon reads the same configuration source, so the values read here are the same as the defaults (if the
+    //source doesn't override them) or are overridden by the source again.
+    this.defaultSlug = config.getSlug();
+    this.defaultVersion = config.getVersion();
+    this.defaultTitle = config.getTitle();
+    this.defaultDescription = config.getDefaultDescription();
+    this.defaultCopyright = config.getCopyright();
+    this.defaultApiLicense = config.getApiLicense();
+    this.defaultContacts = new ArrayList<EnunciateConfiguration.Contact>(config.getContacts());
+  }
+
+  /**
+   * Configure an engine for this build.
+   *
+   * @param enunciate    The engine.
+   * @param moduleLoader The class loader from which to load the modules.
+   */
+  public void configure(Enunciate enunciate, ClassLoader moduleLoader) {
+    enunciate.setBuildDir(this.buildDir);
+    enunciate.setCacheMaxSize(this.cacheMaxSize);
+    enunciate.setCacheMaxAge(this.cacheMaxAge);
+    enunciate.setCacheDir(this.cacheDir);
+    enunciate.setApiModelEnabled(this.generateFromModel);
+
+    EnunciateConfiguration config = enunciate.getConfiguration();
+    if (this.configuration != null) {
+      enunciate.loadConfiguration(new StringReader(this.configuration));
+    }
+    config.setConfigFile(this.configFile);
+    config.setBase(this.configBase);
+    config.setDefaultSlug(this.defaultSlug);
+    config.setDefaultVersion(this.defaultVersion);
+    config.setDefaultTitle(this.defaultTitle);
+    config.setDefaultDescription(this.defaultDescription);
+    config.setDefaultCopyright(this.defaultCopyright);
+    config.setDefaultApiLicense(this.defaultApiLicense);
+    config.setDefaultContacts(this.defaultContacts);
+
+    //the source directories are visited again, so the files that were added to them since are picked up and the
+    //files that were removed from them are dropped.
+    Set<File> sourceFiles = new TreeSet<File>();
+    for (File sourceFile : this.sourceFiles) {
+      if (sourceFile.exists()) {
+        sourceFiles.add(sourceFile);
+      }
+    }
+    enunciate.setSourceFiles(sourceFiles);
+    for (File sourceDir : this.sourceDirs) {
+      enunciate.addSourceDir(sourceDir);
+    }
+    enunciate.setClasspath(this.classpath);
+    enunciate.setSourcepath(this.sourcepath);
+    for (String include : this.includePatterns) {
+      enunciate.addInclude(include);
+    }
+    for (String exclude : this.excludePatterns) {
+      enunciate.addExclude(exclude);
+    }
+    enunciate.getCompilerArgs().addAll(this.compilerArgs);
+    for (Map.Entry<String, File> export : this.exports.entrySet()) {
+      enunciate.addExport(export.getKey(), export.getValue());
+    }
+
+    for (EnunciateModule module : ServiceLoader.load(EnunciateModule.class, moduleLoader)) {
+      enunciate.addModule(module);
+
+      if (module instanceof DocumentationProviderModule) {
+        if (this.defaultDocsDir != null) {
+          ((DocumentationProviderModule) module).setDefaultDocsDir(this.defaultDocsDir);
+        }
+
+        if (this.defaultDocsSubdir != null) {
+          ((DocumentationProviderModule) module).setDefaultDocsSubdir(this.defaultDocsSubdir);
+        }
+      }
+
+      if (module instanceof OnDemandDocumentationProviderModule && this.renderPagesOnDemand) {
+        ((OnDemandDocumentationProviderModule) module).setRenderPagesOnDemand(true);
+      }
+
+      if (module instanceof WebInfAwareModule && this.webInfDir != null) {
+        ((WebInfAwareModule) module).setWebInfDir(this.webInfDir);
+      }
+    }
+  }
+
+  /**
+   * The classpath from which the daemon is to load the modules.
+   *
+   * @return The classpath from which the daemon is to load the modules.
+   */
+  public List<URL> getModuleClasspath() {
+    return moduleClasspath;
+  }
+
+  /**
+   * Whether to generate from the API model saved by the previous build, if the sources haven't changed since (see {@link Enunciate#generateFromModel()}).
+   *
+   * @return Whether to generate from the API model saved by the previous build.
+   */
+  public boolean isGenerateFromModel() {
+    return generateFromModel;
+  }
+
+  /**
+   * Whether to generate from the API model saved by the previous build, if the sources haven't changed since (see {@link Enunciate#generateFromModel()}).
+   *
+   * @param generateFromModel Whether to generate from the API model saved by the previous build.
+   */
+  public void setGenerateFromModel(boolean generateFromModel) {
+    this.generateFromModel = generateFromModel;
+  }
+
+  /**
+   * Whether the debug messages of the build are to be sent back.
+   *
+   * @return Whether the debug messages of the build are to be sent back.
+   */
+  public boolean isDebug() {
+    return debug;
+  }
+
+  /**
+   * Whether the debug messages of the build are to be sent back.
+   *
+   * @param debug Whether the debug messages of the build are to be sent back.
+   */
+  public void setDebug(boolean debug) {
+    this.debug = debug;
+  }
+
+  /**
+   * The default docs directory of the documentation provider modules (see {@link DocumentationProviderModule#setDefaultDocsDir(File)}).
+   *
+   * @param defaultDocsDir The default docs directory.
+   */
+  public void setDefaultDocsDir(File defaultDocsDir) {
+    this.defaultDocsDir = defaultDocsDir;
+  }
+
+  /**
+   * The default docs subdirectory of the documentation provider modules (see {@link DocumentationProviderModule#setDefaultDocsSubdir(String)}).
+   *
+   * @param defaultDocsSubdir The default docs subdirectory.
+   */
+  public void setDefaultDocsSubdir(String defaultDocsSubdir) {
+    this.defaultDocsSubdir = defaultDocsSubdir;
+  }
+
+  /**
+   * Whether the documentation provider modules render their pages on demand (see {@link OnDemandDocumentationProviderModule}).
+   *
+   * @param renderPagesOnDemand Whether the documentation provider modules render their pages on demand.
+   */
+  public void setRenderPagesOnDemand(boolean renderPagesOnDemand) {
+    this.renderPagesOnDemand = renderPagesOnDemand;
+  }
+
+  /**
+   * The WEB-INF directory of the modules that are aware of it (see {@link WebInfAwareModule#setWebInfDir(File)}).
+   *
+   * @param webInfDir The WEB-INF directory.
+   */
+  public void setWebInfDir(File webInfDir) {
+    this.webInfDir = webInfDir;
+  }
+}
@@ -0,0 +1,64 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.artifacts.Artifact;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a build run by a {@link BuildDaemon build daemon}: the artifacts of the build, or the reason the build
+ * failed.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<Artifact> artifacts;
+  private final String failure;
+
+  private BuildResult(List<Artifact> artifacts, String failure) {
+    this.artifacts = artifacts;
+    this.failure = failure;
+  }
+
+  /**
+   * The result of a successful build.
+   *
+   * @param artifacts The artifacts of the build.
+   * @return The result.
+   */
+  public static BuildResult succeeded(List<Artifact> artifacts) {
+    return new BuildResult(new ArrayList<Artifact>(artifacts), null);
+  }
+
+  /**
+   * The result of a failed build.
+   *
+   * @param failure The reason the build failed.
+   * @return The result.
+   */
+  public static BuildResult failed(String failure) {
+    return new BuildResult(new ArrayList<Artifact>(), failure);
+  }
+
+  /**
+   * The artifacts of the build.
+   *
+   * @return The artifacts of the build.
+   */
+  public List<Artifact> getArtifacts() {
+    return artifacts;
+  }
+
+  /**
+   * The reason the build failed.
+   *
+   * @return The reason the build failed, or null if the build succeeded.
+   */
+  public String getFailure() {
+    return failure;
+  }
+}
@@ -0,0 +1,312 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateLogger;
+import com.webcohesion.enunciate.artifacts.Artifact;
+import com.webcohesion.enunciate.artifacts.FileArtifact;
+import com.webcohesion.enunciate.module.DocumentationPageRenderer;
+import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.module.OnDemandDocumentationProviderModule;
+import com.webcohesion.enunciate.module.WatchedFileProviderModule;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Watches the inputs of a build and runs the build again when they change: the source directories and the source
+ * files, the directories of the source path, the configuration file, and the files read by the modules (see
+ * {@link WatchedFileProviderModule}, e.g. the custom docs template).<br/><br/>
+ *
+ * The inputs are polled for changes, and a build is only run once they've stopped changing for a quiet period, so
+ * that saving several files at once triggers a single build. Each build runs on a fresh engine with warm state (see
+ * {@link WarmBuildState}), and generates from the API model of the previous build if only the configuration of the
+ * modules that generate from the API model (or the files they read) changed (see {@link Enunciate#generateFromModel()}),
+ * so only the affected modules are invoked. The generated files that didn't change aren't rewritten.<br/><br/>
+ *
+ * Optionally, the docs are served with live reload: the pages that are open in a browser are reloaded when a build
+ * succeeds (see {@link LiveReloadServer}). If the docs are rendered on demand (see {@link OnDemandDocumentationProviderModule}),
+ * the pages are rendered as they're requested from the API model of the last build.
+ *
+ * @author Ryan Heaton
+ */
+public class BuildWatcher {
+
+  private final BuildRequest request;
+  private final WarmBuildState warmState;
+  private final EnunciateLogger logger;
+  private long pollInterval = 1000;
+  private long quietPeriod = 300;
+  private int liveReloadPort = -1;
+  private LiveReloadServer liveReloadServer;
+  private volatile boolean stopped = false;
+
+  /**
+   * @param request      The build to run when the inputs change.
+   * @param parentLoader The parent class loader of the modules.
+   * @param logger       The logger for the builds.
+   */
+  public BuildWatcher(BuildRequest request, ClassLoader parentLoader, EnunciateLogger logger) {
+    this.request = request;
+    this.warmState = new WarmBuildState(request.getModuleClasspath(), parentLoader);
+    this.logger = logger;
+  }
+
+  /**
+   * How often (in milliseconds) to check the inputs for changes.
+   *
+   * @param pollInterval How often to check the inputs for changes.
+   */
+  public void setPollInterval(long pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+
+  /**
+   * How long (in milliseconds) the inputs must have stopped changing before a build is run.
+   *
+   * @param quietPeriod How long the inputs must have stopped changing before a build is run.
+   */
+  public void setQuietPeriod(long quietPeriod) {
+    this.quietPeriod = quietPeriod;
+  }
+
+  /**
+   * The port on which to serve the docs with live reload: 0 for any free port, or -1 (the default) to not serve them.
+   *
+   * @param liveReloadPort The port on which to serve the docs with live reload.
+   */
+  public void setLiveReloadPort(int liveReloadPort) {
+    this.liveReloadPort = liveReloadPort;
+  }
+
+  /**
+   * Watch the inputs of the build, until the watcher is {@link #stop() stopped}.
+   *
+   * @param lastBuild The engine of the last build, from which the inputs to watch are found.
+   */
+  public void watch(Enunciate lastBuild) throws IOException {
+    if (this.liveReloadPort >= 0) {
+      this.liveReloadServer = new LiveReloadServer(this.liveReloadPort);
+      this.liveReloadServer.setDocsDir(findDocsDir(lastBuild));
+      this.liveReloadServer.setPageRenderer(findPageRenderer(lastBuild));
+      this.liveReloadServer.start();
+      this.logger.info("Serving the docs with live reload at http://localhost:%s/", this.liveReloadServer.getPort());
+    }
+
+    try {
+      Set<File> inputs = findInputs(lastBuild);
+      Map<String, String> snapshot = snapshot(inputs);
+      this.logger.info("Watching %s files for changes...", snapshot.size());
+      while (!this.stopped) {
+        sleep(this.pollInterval);
+        Map<String, String> current = snapshot(inputs);
+        if (current.equals(snapshot)) {
+          continue;
+        }
+
+        //wait for the changes to settle.
+        Map<String, String> settled;
+        do {
+          settled = current;
+          sleep(this.quietPeriod);
+          current = snapshot(inputs);
+        }
+        while (!current.equals(settled) && !this.stopped);
+
+        if (this.stopped) {
+          break;
+        }
+
+        this.logger.info("%s", describeChanges(snapshot, current));
+        Enunciate build = build();
+        if (build != null) {
+          inputs = findInputs(build);
+          if (this.liveReloadServer != null) {
+            this.liveReloadServer.setDocsDir(findDocsDir(build));
+            this.liveReloadServer.setPageRenderer(findPageRenderer(build));
+            this.liveReloadServer.reload();
+          }
+        }
+        snapshot = snapshot(inputs);
+      }
+    }
+    finally {
+      if (this.liveReloadServer != null) {
+        this.liveReloadServer.stop();
+      }
+      this.warmState.close();
+    }
+  }
+
+  /**
+   * Stop watching.
+   */
+  public void stop() {
+    this.stopped = true;
+  }
+
+  /**
+   * Run the build.
+   *
+   * @return The engine of the build, or null if the build failed.
+   */
+  protected Enunciate build() {
+    long start = System.currentTimeMillis();
+    Thread thread = Thread.currentThread();
+    ClassLoader contextLoader = thread.getContextClassLoader();
+    thread.setContextClassLoader(this.warmState.getModuleLoader());
+    try {
+      Enunciate enunciate = new Enunciate();
+      enunciate.setLogger(this.logger);
+      enunciate.setWarmState(this.warmState);
+      this.request.configure(enunciate, this.warmState.getModuleLoader());
+      //a change to the inputs of the modules that generate from the api model alone doesn't need a full build.
+      enunciate.setApiModelEnabled(true);
+      if (!enunciate.generateFromModel()) {
+        enunciate.run();
+      }
+      this.logger.info("Build succeeded in %s ms. Watching for changes...", System.currentTimeMillis() - start);
+      return enunciate;
+    }
+    catch (RuntimeException e) {
+      this.logger.error("Build failed: %s", e.getMessage());
+      this.logger.info("Watching for changes...");
+      return null;
+    }
+    finally {
+      thread.setContextClassLoader(contextLoader);
+    }
+  }
+
+  /**
+   * Find the inputs of a build.
+   *
+   * @param enunciate The engine of the build.
+   * @return The inputs of the build.
+   */
+  protected Set<File> findInputs(Enunciate enunciate) {
+    Set<File> inputs = new TreeSet<File>();
+    inputs.addAll(enunciate.getSourceDirs());
+    for (File sourceFile : enunciate.getSourceFiles()) {
+      if (!isInSourceDir(sourceFile, enunciate.getSourceDirs())) {
+        inputs.add(sourceFile);
+      }
+    }
+
+    if (enunciate.getSourcepath() != null) {
+      for (File entry : enunciate.getSourcepath()) {
+        if (entry.isDirectory()) {
+          inputs.add(entry);
+        }
+      }
+    }
+
+    File configFile = enunciate.getConfiguration().getConfigFile();
+    if (configFile != null) {
+      inputs.add(configFile);
+    }
+
+    List<EnunciateModule> modules = enunciate.getModules();
+    if (modules != null) {
+      for (EnunciateModule module : modules) {
+        if (module instanceof WatchedFileProviderModule && module.isEnabled()) {
+          inputs.addAll(((WatchedFileProviderModule) module).getWatchedFiles());
+        }
+      }
+    }
+    return inputs;
+  }
+
+  private static boolean isInSourceDir(File file, Set<File> sourceDirs) {
+    for (File parent = file.getParentFile(); parent != null; parent = parent.getParentFile()) {
+      if (sourceDirs.contains(parent)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static File findDocsDir(Enunciate enunciate) {
+    Artifact docs = enunciate.findArtifact("docs");
+    return docs instanceof FileArtifact ? ((FileArtifact) docs).getFile() : null;
+  }
+
+  private static DocumentationPageRenderer findPageRenderer(Enunciate enunciate) {
+    List<EnunciateModule> modules = enunciate.getModules();
+    if (modules != null) {
+      for (EnunciateModule module : modules) {
+        if (module instanceof OnDemandDocumentationProviderModule && module.isEnabled()) {
+          DocumentationPageRenderer pageRenderer = ((OnDemandDocumentationProviderModule) module).getPageRenderer();
+          if (pageRenderer != null) {
+            return pageRenderer;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Take a snapshot of the inputs: the length and the modification time of each file, or of each file in a directory.
+   *
+   * @param inputs The inputs.
+   * @return The snapshot.
+   */
+  protected Map<String, String> snapshot(Set<File> inputs) {
+    Map<String, String> snapshot = new TreeMap<String, String>();
+    for (File input : inputs) {
+      snapshot(input, snapshot);
+    }
+    return snapshot;
+  }
+
+  private void snapshot(File file, Map<String, String> snapshot) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children != null) {
+        for (File child : children) {
+          if (!child.getName().startsWith(".")) {
+            snapshot(child, snapshot);
+          }
+        }
+      }
+    }
+    else if (file.exists()) {
+      snapshot.put(file.getAbsolutePath(), file.length() + ":" + file.lastModified());
+    }
+  }
+
+  private static String describeChanges(Map<String, String> before, Map<String, String> after) {
+    List<String> changed = new ArrayList<String>();
+    for (Map.Entry<String, String> entry : after.entrySet()) {
+      if (!entry.getValue().equals(before.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String path : before.keySet()) {
+      if (!after.containsKey(path)) {
+        changed.add(path);
+      }
+    }
+
+    if (changed.size() == 1) {
+      return changed.get(0) + " changed; rebuilding...";
+    }
+    return changed.size() + " files changed (e.g. " + changed.get(0) + "); rebuilding...";
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.stopped = true;
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.webcohesion.enunciate.module.DocumentationPageRenderer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Serves the generated docs on the loopback interface, with live reload: a script is added to each page as it is
+ * served (the files on disk are left as they are), which waits for the next build and reloads the page once the
+ * build succeeded. If the docs are rendered on demand (see {@link DocumentationPageRenderer}), the pages are rendered as
+ * they're requested, and the other files are served from disk.
+ *
+ * @author Ryan Heaton
+ */
+public class LiveReloadServer {
+
+  /**
+   * The path on which the pages wait for the next build.
+   */
+  public static final String RELOAD_PATH = "/enunciate-livereload";
+
+  /**
+   * How long (in milliseconds) a page waits for the next build before it asks again.
+   */
+  static final long RELOAD_WAIT = 25000;
+
+  private static final Map<String, String> CONTENT_TYPES = new HashMap<String, String>();
+  static {
+    CONTENT_TYPES.put("html", "text/html; charset=utf-8");
+    CONTENT_TYPES.put("css", "text/css; charset=utf-8");
+    CONTENT_TYPES.put("js", "application/javascript; charset=utf-8");
+    CONTENT_TYPES.put("json", "application/json; charset=utf-8");
+    CONTENT_TYPES.put("xml", "application/xml; charset=utf-8");
+    CONTENT_TYPES.put("xsd", "application/xml; charset=utf-8");
+    CONTENT_TYPES.put("wsdl", "application/xml; charset=utf-8");
+    CONTENT_TYPES.put("wadl", "application/xml; charset=utf-8");
+    CONTENT_TYPES.put("txt", "text/plain; charset=utf-8");
+    CONTENT_TYPES.put("png", "image/png");
+    CONTENT_TYPES.put("gif", "image/gif");
+    CONTENT_TYPES.put("jpg", "image/jpeg");
+    CONTENT_TYPES.put("svg", "image/svg+xml");
+    CONTENT_TYPES.put("ico", "image/x-icon");
+    CONTENT_TYPES.put("zip", "application/zip");
+    CONTENT_TYPES.put("jar", "application/java-archive");
+  }
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private volatile File docsDir;
+  private volatile DocumentationPageRenderer pageRenderer;
+  private long version = 0;
+
+  /**
+   * @param port The port on which to serve the docs, or 0 for any free port.
+   */
+  public LiveReloadServer(int port) throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getByName(null), port), 0);
+    this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "enunciate-livereload");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        try {
+          if (RELOAD_PATH.equals(exchange.getRequestURI().getPath())) {
+            handleReload(exchange);
+          }
+          else {
+            handleFile(exchange);
+          }
+        }
+        finally {
+          exchange.close();
+        }
+      }
+    });
+  }
+
+  public void start() {
+    this.server.start();
+  }
+
+  public void stop() {
+    synchronized (this) {
+      notifyAll();
+    }
+    this.server.stop(0);
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * The port on which the docs are served.
+   *
+   * @return The port on which the docs are served.
+   */
+  public int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  /**
+   * The directory of the docs to serve.
+   *
+   * @param docsDir The directory of the docs to serve.
+   */
+  public void setDocsDir(File docsDir) {
+    this.docsDir = docsDir;
+  }
+
+  /**
+   * The renderer of the pages of the docs, if they're rendered on demand.
+   *
+   * @param pageRenderer The renderer of the pages of the docs, or null if the pages are on disk.
+   */
+  public void setPageRenderer(DocumentationPageRenderer pageRenderer) {
+    this.pageRenderer = pageRenderer;
+  }
+
+  /**
+   * Reload the pages that are open.
+   */
+  public synchronized void reload() {
+    this.version++;
+    notifyAll();
+  }
+
+  /**
+   * Wait for the pages to be reloaded.
+   *
+   * @param version The version of the docs that is open.
+   * @param timeout How long (in milliseconds) to wait.
+   * @return The current version of the docs.
+   */
+  synchronized long awaitReload(long version, long timeout) throws InterruptedException {
+    long end = System.currentTimeMillis() + timeout;
+    long remaining = timeout;
+    while (this.version == version && remaining > 0) {
+      wait(remaining);
+      remaining = end - System.currentTimeMillis();
+    }
+    return this.version;
+  }
+
+  private void handleReload(HttpExchange exchange) throws IOException {
+    long version = -1;
+    String query = exchange.getRequestURI().getQuery();
+    if (query != null && query.startsWith("version=")) {
+      try {
+        version = Long.parseLong(query.substring(8));
+      }
+      catch (NumberFormatException e) {
+        //fall through: the current version is returned.
+      }
+    }
+
+    long current;
+    try {
+      current = version < 0 ? currentVersion() : awaitReload(version, RELOAD_WAIT);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      current = currentVersion();
+    }
+    send(exchange, 200, "text/plain; charset=utf-8", String.valueOf(current).getBytes("utf-8"));
+  }
+
+  private synchronized long currentVersion() {
+    return this.version;
+  }
+
+  private void handleFile(HttpExchange exchange) throws IOException {
+    File docsDir = this.docsDir;
+    if (docsDir == null || !"GET".equals(exchange.getRequestMethod())) {
+      send(exchange, 404, "text/plain; charset=utf-8", "Not found.".getBytes("utf-8"));
+      return;
+    }
+
+    File file = new File(docsDir, exchange.getRequestURI().getPath()).getCanonicalFile();
+    File root = docsDir.getCanonicalFile();
+    if (file.isDirectory()) {
+      file = new File(file, "index.html");
+    }
+
+    if (!isWithin(file, root)) {
+      send(exchange, 404, "text/plain; charset=utf-8", "Not found.".getBytes("utf-8"));
+      return;
+    }
+
+    DocumentationPageRenderer pageRenderer = this.pageRenderer;
+    String page;
+    try {
+      page = pageRenderer == null ? null : pageRenderer.renderPage(relativePath(file, root));
+    }
+    catch (IOException e) {
+      send(exchange, 500, "text/plain; charset=utf-8", ("Unable to render the page: " + e.getMessage()).getBytes("utf-8"));
+      return;
+    }
+
+    if (page != null) {
+      send(exchange, 200, CONTENT_TYPES.get("html"), addReloadScript(page).getBytes("utf-8"));
+    }
+    else if (file.isFile()) {
+      sendFile(exchange, file);
+    }
+    else {
+      send(exchange, 404, "text/plain; charset=utf-8", "Not found.".getBytes("utf-8"));
+    }
+  }
+
+  private void sendFile(HttpExchange exchange, File file) throws IOException {
+    String name = file.getName();
+    String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+    String contentType = CONTENT_TYPES.get(extension);
+    byte[] content = read(file);
+    if ("html".equals(extension)) {
+      content = addReloadScript(new String(content, "utf-8")).getBytes("utf-8");
+    }
+    send(exchange, 200, contentType == null ? "application/octet-stream" : contentType, content);
+  }
+
+  private String addReloadScript(String page) {
+    String script = "<script>(function(){var version=" + currentVersion() + ";function poll(){var xhr=new XMLHttpRequest();"
+      + "xhr.onreadystatechange=function(){if(xhr.readyState==4){if(xhr.status==200&&xhr.responseText!=String(version)){location.reload();}"
+      + "else{setTimeout(poll,xhr.status==200?0:2000);}}};xhr.open('GET','" + RELOAD_PATH + "?version='+version,true);xhr.send();}poll();})();</script>";
+    int body = page.toLowerCase().lastIndexOf("</body>");
+    return body < 0 ? page + script : page.substring(0, body) + script + page.substring(body);
+  }
+
+  private static String relativePath(File file, File dir) {
+    StringBuilder path = new StringBuilder(file.getName());
+    for (File parent = file.getParentFile(); parent != null && !parent.equals(dir); parent = parent.getParentFile()) {
+      path.insert(0, '/').insert(0, parent.getName());
+    }
+    return path.toString();
+  }
+
+  private static boolean isWithin(File file, File dir) {
+    for (File parent = file.getParentFile(); parent != null; parent = parent.getParentFile()) {
+      if (parent.equals(dir)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static byte[] read(File file) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+    InputStream in = new FileInputStream(file);
+    try {
+      byte[] buffer = new byte[8 * 1024];
+      int len;
+      while ((len = in.read(buffer)) > 0) {
+        out.write(buffer, 0, len);
+      }
+    }
+    finally {
+      in.close();
+    }
+    return out.toByteArray();
+  }
+
+  private static void send(HttpExchange exchange, int status, String contentType, byte[] content) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    exchange.sendResponseHeaders(status, content.length);
+    OutputStream out = exchange.getResponseBody();
+    out.write(content);
+    out.close();
+  }
+}
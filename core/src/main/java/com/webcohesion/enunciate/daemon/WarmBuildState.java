@@ -0,0 +1,184 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.ClasspathIndexCache;
+import freemarker.template.Configuration;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The state that a {@link BuildDaemon build daemon} keeps warm between the builds that use the same modules: the class
+ * loader of the modules, the template configurations of the modules (and so the templates they've parsed), what was
+ * read from the jars on the API classpath, and the javac file managers (and so the jars they've opened and indexed).<br/><br/>
+ *
+ * Each piece of the state is invalidated when its inputs change: the state as a whole when the jars of the modules
+ * change, what was read from a jar and the file managers when the jars they've read change, and the templates when
+ * they're modified (the shared template configurations check their templates each time they're used).
+ *
+ * @author Ryan Heaton
+ */
+public class WarmBuildState {
+
+  private final List<URL> moduleClasspath;
+  private final String moduleFingerprint;
+  private final URLClassLoader moduleLoader;
+  private final ConcurrentMap<String, Configuration> templateConfigurations = new ConcurrentHashMap<String, Configuration>();
+  private final ClasspathIndexCache indexCache = new ClasspathIndexCache();
+  private final Map<String, WarmFileManager> fileManagers = new HashMap<String, WarmFileManager>();
+
+  public WarmBuildState(List<URL> moduleClasspath, ClassLoader parent) {
+    this.moduleClasspath = new ArrayList<URL>(moduleClasspath);
+    this.moduleFingerprint = fingerprint(toFiles(moduleClasspath));
+    this.moduleLoader = new URLClassLoader(moduleClasspath.toArray(new URL[moduleClasspath.size()]), parent);
+  }
+
+  /**
+   * The classpath of the modules.
+   *
+   * @return The classpath of the modules.
+   */
+  public List<URL> getModuleClasspath() {
+    return moduleClasspath;
+  }
+
+  /**
+   * The class loader of the modules.
+   *
+   * @return The class loader of the modules.
+   */
+  public ClassLoader getModuleLoader() {
+    return moduleLoader;
+  }
+
+  /**
+   * Whether the jars of the modules are the same as when this state was created.
+   *
+   * @return Whether the jars of the modules are the same as when this state was created.
+   */
+  public boolean isUpToDate() {
+    return this.moduleFingerprint.equals(fingerprint(toFiles(this.moduleClasspath)));
+  }
+
+  /**
+   * The template configurations shared by the modules (see {@link com.webcohesion.enunciate.Enunciate#getTemplateConfigurations()}).
+   *
+   * @return The template configurations shared by the modules.
+   */
+  public ConcurrentMap<String, Configuration> getTemplateConfigurations() {
+    return templateConfigurations;
+  }
+
+  /**
+   * What was read from the jars on the API classpath.
+   *
+   * @return What was read from the jars on the API classpath.
+   */
+  public ClasspathIndexCache getIndexCache() {
+    return indexCache;
+  }
+
+  /**
+   * Get a javac file manager, kept open between builds. A file manager is only reused by a compile with the same key,
+   * and only as long as the files it reads haven't changed.
+   *
+   * @param key      The key of the file manager (e.g. the paths and the options it's configured with).
+   * @param compiler The compiler for which to create the file manager, if needed.
+   * @param files    The files (e.g. the jars on the classpath) the file manager reads.
+   * @return The file manager.
+   */
+  public synchronized StandardJavaFileManager getFileManager(String key, JavaCompiler compiler, List<File> files) {
+    String fingerprint = fingerprint(files);
+    WarmFileManager fileManager = this.fileManagers.get(key);
+    if (fileManager != null && !fileManager.fingerprint.equals(fingerprint)) {
+      closeQuietly(fileManager.fileManager);
+      fileManager = null;
+    }
+
+    if (fileManager == null) {
+      fileManager = new WarmFileManager(compiler.getStandardFileManager(null, null, null), fingerprint);
+      this.fileManagers.put(key, fileManager);
+    }
+
+    return fileManager.fileManager;
+  }
+
+  /**
+   * Release the state.
+   */
+  public synchronized void close() {
+    for (WarmFileManager fileManager : this.fileManagers.values()) {
+      closeQuietly(fileManager.fileManager);
+    }
+    this.fileManagers.clear();
+    this.templateConfigurations.clear();
+    this.indexCache.clear();
+
+    if (this.moduleLoader instanceof Closeable) {
+      //the class loader can only be closed as of java 7.
+      try {
+        ((Closeable) this.moduleLoader).close();
+      }
+      catch (IOException e) {
+        //fall through...
+      }
+    }
+  }
+
+  private static List<File> toFiles(List<URL> urls) {
+    List<File> files = new ArrayList<File>(urls.size());
+    for (URL url : urls) {
+      if ("file".equals(url.getProtocol())) {
+        try {
+          files.add(new File(url.toURI()));
+        }
+        catch (URISyntaxException e) {
+          files.add(new File(url.getPath()));
+        }
+      }
+    }
+    return files;
+  }
+
+  private static String fingerprint(List<File> files) {
+    StringBuilder fingerprint = new StringBuilder();
+    for (File file : files) {
+      //directories aren't indexed by the file managers, so only the files are fingerprinted.
+      if (file.isFile()) {
+        fingerprint.append(file.getAbsolutePath()).append(':').append(file.length()).append(':').append(file.lastModified()).append(File.pathSeparatorChar);
+      }
+    }
+    return fingerprint.toString();
+  }
+
+  private static void closeQuietly(StandardJavaFileManager fileManager) {
+    try {
+      fileManager.close();
+    }
+    catch (IOException e) {
+      //fall through...
+    }
+  }
+
+  private static class WarmFileManager {
+
+    private final StandardJavaFileManager fileManager;
+    private final String fingerprint;
+
+    private WarmFileManager(StandardJavaFileManager fileManager, String fingerprint) {
+      this.fileManager = fileManager;
+      this.fingerprint = fingerprint;
+    }
+  }
+}
@@ -5,9 +5,14 @@ import com.webcohesion.enunciate.metadata.Facets;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.type.DeclaredType;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Used to declare a "facet" for the sake of grouping resources and APIs together for simpler browsing.
@@ -16,7 +21,23 @@ import java.util.TreeSet;
  */
 public class Facet implements Comparable<Facet> {
 
+  /**
+   * The dictionary of facet names, each name mapped to the index of its bit in a {@link FacetSet}. The dictionary is
+   * shared by all the builds in the JVM (e.g. the builds of a build daemon), so that the indexes of a name never
+   * change, and it's never pruned: it grows by one entry for each distinct facet name that's ever used (in the facet
+   * annotations or in the facet includes and excludes of the configuration), which is expected to be a small number.
+   */
+  private static final ConcurrentMap<String, Integer> INDEXES = new ConcurrentHashMap<String, Integer>();
+  private static final List<Facet> FACETS = new ArrayList<Facet>();
+
+  /**
+   * The facets declared on annotation types (i.e. meta-facets), resolved once per annotation type. Keyed weakly by
+   * the annotation declaration, so the entries go away with the compilation they came from.
+   */
+  private static final Map<Element, FacetSet> META_FACETS = Collections.synchronizedMap(new WeakHashMap<Element, FacetSet>());
+
   private final String name;
+  private final int index;
 
   public Facet(com.webcohesion.enunciate.metadata.Facet facet) {
     this(facet.value());
@@ -27,6 +48,46 @@ public class Facet implements Comparable<Facet> {
       throw new NullPointerException();
     }
     this.name = name;
+    this.index = indexOf(name);
+  }
+
+  /**
+   * The index of the specified facet name, interning the name if it hasn't been seen yet.
+   *
+   * @param name The facet name.
+   * @return The index.
+   */
+  static int indexOf(String name) {
+    Integer index = INDEXES.get(name);
+    if (index == null) {
+      synchronized (FACETS) {
+        index = INDEXES.get(name);
+        if (index == null) {
+          index = FACETS.size();
+          FACETS.add(null);
+          INDEXES.put(name, index);
+          FACETS.set(index, new Facet(name, index));
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * The facet at the specified index.
+   *
+   * @param index The index.
+   * @return The facet.
+   */
+  static Facet forIndex(int index) {
+    synchronized (FACETS) {
+      return FACETS.get(index);
+    }
+  }
+
+  private Facet(String name, int index) {
+    this.name = name;
+    this.index = index;
   }
 
   /**
@@ -35,46 +96,56 @@ public class Facet implements Comparable<Facet> {
    * @param declaration The declaration on which to gather facets.
    * @return The facets gathered on the declaration.
    */
-  public static Set<Facet> gatherFacets(Element declaration) {
-    Set<Facet> bucket = new TreeSet<Facet>();
+  public static FacetSet gatherFacets(Element declaration) {
+    FacetSet bucket = new FacetSet();
     if (declaration != null) {
-      com.webcohesion.enunciate.metadata.Facet facet = declaration.getAnnotation(com.webcohesion.enunciate.metadata.Facet.class);
-      if (facet != null) {
-        bucket.add(new Facet(facet));
-      }
-
-      Facets facets = declaration.getAnnotation(Facets.class);
-      if (facets != null) {
-        for (com.webcohesion.enunciate.metadata.Facet f : facets.value()) {
-          bucket.add(new Facet(f));
-        }
-      }
+      gatherDeclaredFacets(declaration, bucket);
 
       List<? extends AnnotationMirror> annotationMirrors = declaration.getAnnotationMirrors();
       for (AnnotationMirror annotationMirror : annotationMirrors) {
         DeclaredType annotationType = annotationMirror.getAnnotationType();
         if (annotationType != null) {
           Element annotationDeclaration = annotationType.asElement();
-          facet = annotationDeclaration.getAnnotation(com.webcohesion.enunciate.metadata.Facet.class);
-          if (facet != null) {
-            bucket.add(new Facet(facet));
-          }
-          facets = annotationDeclaration.getAnnotation(Facets.class);
-          if (facets != null) {
-            for (com.webcohesion.enunciate.metadata.Facet f : facets.value()) {
-              bucket.add(new Facet(f));
-            }
+          FacetSet metaFacets = META_FACETS.get(annotationDeclaration);
+          if (metaFacets == null) {
+            metaFacets = new FacetSet();
+            gatherDeclaredFacets(annotationDeclaration, metaFacets);
+            META_FACETS.put(annotationDeclaration, metaFacets);
           }
+          bucket.addAll(metaFacets);
         }
       }
     }
     return bucket;
   }
 
+  private static void gatherDeclaredFacets(Element declaration, Set<Facet> bucket) {
+    com.webcohesion.enunciate.metadata.Facet facet = declaration.getAnnotation(com.webcohesion.enunciate.metadata.Facet.class);
+    if (facet != null) {
+      bucket.add(new Facet(facet));
+    }
+
+    Facets facets = declaration.getAnnotation(Facets.class);
+    if (facets != null) {
+      for (com.webcohesion.enunciate.metadata.Facet f : facets.value()) {
+        bucket.add(new Facet(f));
+      }
+    }
+  }
+
   public String getName() {
     return name;
   }
 
+  /**
+   * The index of this facet in the (build-wide) facet dictionary.
+   *
+   * @return The index of this facet.
+   */
+  public int getIndex() {
+    return index;
+  }
+
   public int compareTo(Facet o) {
     return this.name.compareTo(o.name);
   }
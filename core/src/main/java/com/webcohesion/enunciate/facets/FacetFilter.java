@@ -1,18 +1,32 @@
 package com.webcohesion.enunciate.facets;
 
-import java.util.*;
+import java.util.BitSet;
+import java.util.Set;
 
 /**
+ * Filter of items by facet. The included and excluded facets are compiled to masks of facet indexes, so a filter is
+ * evaluated against the facets of an item with a couple of bit set operations.
+ *
  * @author Ryan Heaton
  */
 public class FacetFilter {
 
-  private final Set<String> includes;
-  private final Set<String> excludes;
+  private final BitSet includeMask;
+  private final BitSet excludeMask;
 
   public FacetFilter(Set<String> includes, Set<String> excludes) {
-    this.includes = includes;
-    this.excludes = excludes;
+    this.includeMask = toMask(includes);
+    this.excludeMask = toMask(excludes);
+  }
+
+  private static BitSet toMask(Set<String> names) {
+    BitSet mask = new BitSet();
+    if (names != null) {
+      for (String name : names) {
+        mask.set(Facet.indexOf(name));
+      }
+    }
+    return mask;
   }
 
   public boolean accept(HasFacets item) {
@@ -20,33 +34,24 @@ public class FacetFilter {
       return false;
     }
 
-    if ((includes == null || includes.isEmpty()) && (excludes == null || excludes.isEmpty())) {
+    if (this.includeMask.isEmpty() && this.excludeMask.isEmpty()) {
       return true;
     }
 
-    boolean accept = true;
-    if (includes != null && !includes.isEmpty()) {
-      boolean included = false;
-      for (Facet facet : item.getFacets()) {
-        if (includes.contains(facet.getName())) {
-          included = true;
-          break;
-        }
-      }
-      accept = included;
+    Set<Facet> facets = item.getFacets();
+    BitSet bits;
+    if (facets instanceof FacetSet) {
+      bits = ((FacetSet) facets).getBits();
     }
-
-    //then remove the items that are explicitly excluded.
-    if (excludes != null && !excludes.isEmpty()) {
-      for (Facet facet : item.getFacets()) {
-        if (excludes.contains(facet.getName())) {
-          accept = false;
-          break;
-        }
+    else {
+      bits = new BitSet();
+      for (Facet facet : facets) {
+        bits.set(facet.getIndex());
       }
     }
 
-    return accept;
+    //accept the items that are included (if includes are specified), then remove the items that are explicitly excluded.
+    return (this.includeMask.isEmpty() || this.includeMask.intersects(bits)) && !this.excludeMask.intersects(bits);
   }
 
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.facets;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A set of facets, stored as a bit set of the indexes of the (interned) facets. Iteration is in facet name order.
+ *
+ * @author Ryan Heaton
+ */
+public class FacetSet extends AbstractSet<Facet> {
+
+  private final BitSet bits = new BitSet();
+
+  public FacetSet() {
+  }
+
+  public FacetSet(Collection<Facet> facets) {
+    addAll(facets);
+  }
+
+  /**
+   * The bits of the facets in this set. Not to be modified.
+   *
+   * @return The bits of the facets in this set.
+   */
+  BitSet getBits() {
+    return bits;
+  }
+
+  @Override
+  public boolean add(Facet facet) {
+    if (this.bits.get(facet.getIndex())) {
+      return false;
+    }
+
+    this.bits.set(facet.getIndex());
+    return true;
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Facet> facets) {
+    if (facets instanceof FacetSet) {
+      int size = this.bits.cardinality();
+      this.bits.or(((FacetSet) facets).bits);
+      return this.bits.cardinality() != size;
+    }
+
+    return super.addAll(facets);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof Facet && this.bits.get(((Facet) o).getIndex());
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    if (contains(o)) {
+      this.bits.clear(((Facet) o).getIndex());
+      return true;
+    }
+
+    return false;
+  }
+
+  @Override
+  public void clear() {
+    this.bits.clear();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.bits.isEmpty();
+  }
+
+  @Override
+  public int size() {
+    return this.bits.cardinality();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof FacetSet) {
+      return this.bits.equals(((FacetSet) o).bits);
+    }
+
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    //consistent with the Set contract: the sum of the hash codes of the facets.
+    int hashCode = 0;
+    for (int i = this.bits.nextSetBit(0); i >= 0; i = this.bits.nextSetBit(i + 1)) {
+      hashCode += Facet.forIndex(i).hashCode();
+    }
+    return hashCode;
+  }
+
+  @Override
+  public Iterator<Facet> iterator() {
+    //iteration is rare (i.e. documentation), so we just sort by name on demand.
+    Set<Facet> sorted = new TreeSet<Facet>();
+    for (int i = this.bits.nextSetBit(0); i >= 0; i = this.bits.nextSetBit(i + 1)) {
+      sorted.add(Facet.forIndex(i));
+    }
+    final Iterator<Facet> it = sorted.iterator();
+    return new Iterator<Facet>() {
+      private Facet current;
+
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public Facet next() {
+        this.current = it.next();
+        return this.current;
+      }
+
+      @Override
+      public void remove() {
+        it.remove();
+        FacetSet.this.remove(this.current);
+      }
+    };
+  }
+}
@@ -1,6 +1,7 @@
 package com.webcohesion.enunciate.io;
 
 import com.webcohesion.enunciate.EnunciateContext;
+import com.webcohesion.enunciate.EnunciateLogger;
 import com.webcohesion.enunciate.module.EnunciateModule;
 import rx.Observer;
 
@@ -9,6 +10,11 @@ import rx.Observer;
  */
 public class InvokeEnunciateModule implements Observer<EnunciateContext> {
 
+  /**
+   * The debug message logged when a module is done, with the name of the module and the milliseconds it took.
+   */
+  public static final String MODULE_DONE_MESSAGE = "Module %s done in %s ms.";
+
   private final EnunciateModule module;
 
   public InvokeEnunciateModule(EnunciateModule module) {
@@ -28,6 +34,11 @@ public class InvokeEnunciateModule implements Observer<EnunciateContext> {
 
   @Override
   public void onNext(EnunciateContext enunciateContext) {
+    long start = System.currentTimeMillis();
     this.module.call(enunciateContext);
+    EnunciateLogger logger = enunciateContext.getLogger();
+    if (logger != null) {
+      logger.debug(MODULE_DONE_MESSAGE, this.module.getName(), System.currentTimeMillis() - start);
+    }
   }
 }
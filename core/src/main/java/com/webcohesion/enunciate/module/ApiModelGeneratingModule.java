@@ -0,0 +1,27 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.module;
+
+/**
+ * Marker interface for a module that generates its output from the API registry alone (i.e. it doesn't need the
+ * compiler model), so it can be invoked when generating from the API model saved by a previous build.
+ *
+ * @author Ryan Heaton
+ * @see com.webcohesion.enunciate.Enunciate#generateFromModel()
+ */
+public interface ApiModelGeneratingModule extends ApiRegistryAwareModule {
+}
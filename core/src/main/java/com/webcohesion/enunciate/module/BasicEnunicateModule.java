@@ -2,6 +2,8 @@ package com.webcohesion.enunciate.module;
 
 import com.webcohesion.enunciate.Enunciate;
 import com.webcohesion.enunciate.EnunciateContext;
+import com.webcohesion.enunciate.EnunciateException;
+import com.webcohesion.enunciate.util.ConfigurationSnapshot;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 
 import javax.lang.model.element.ElementKind;
@@ -11,7 +13,9 @@ import javax.lang.model.element.TypeElement;
 import java.io.File;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * @author Ryan Heaton
@@ -26,7 +30,27 @@ public abstract class BasicEnunicateModule implements EnunciateModule, Depending
   @Override
   public void init(Enunciate engine) {
     this.enunciate = engine;
-    this.config = (HierarchicalConfiguration) this.enunciate.getConfiguration().getSource().subset("modules." + getName());
+    //the configuration has been loaded by now; take a snapshot so reading it later is cheap (and thread-safe).
+    ConfigurationSnapshot config = new ConfigurationSnapshot((HierarchicalConfiguration) this.enunciate.getConfiguration().getSource().subset("modules." + getName()));
+    this.config = config;
+
+    //report invalid values now, rather than when (and if) they're read.
+    List<String> errors = config.validateAttributes(getAttributeTypes());
+    if (!errors.isEmpty()) {
+      throw new EnunciateException("Invalid configuration of the " + getName() + " module: " + errors);
+    }
+  }
+
+  /**
+   * The types of the attributes of the configuration of this module whose values are validated when the module is
+   * initialized (see {@link ConfigurationSnapshot#validateAttributes(Map)}).
+   *
+   * @return The types of the attributes of the configuration of this module, by attribute name.
+   */
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = new TreeMap<String, Class<?>>();
+    attributeTypes.put("disabled", Boolean.class);
+    return attributeTypes;
   }
 
   @Override
@@ -2,6 +2,7 @@ package com.webcohesion.enunciate.module;
 
 import com.webcohesion.enunciate.javac.decorations.DecoratedProcessingEnvironment;
 import com.webcohesion.enunciate.javac.decorations.SourcePosition;
+import freemarker.template.Configuration;
 
 import javax.lang.model.element.Element;
 import java.io.File;
@@ -9,12 +10,46 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Ryan Heaton
  */
 public abstract class BasicGeneratingModule extends BasicEnunicateModule {
 
+  /**
+   * The freemarker configuration for the templates of this module, shared between the invocations of the templates (and
+   * between the builds of a warm daemon). It's created (see {@link #createTemplateConfiguration()}) the first time it's
+   * needed.
+   *
+   * @return The freemarker configuration.
+   * @see com.webcohesion.enunciate.Enunciate#getTemplateConfigurations()
+   */
+  protected Configuration getTemplateConfiguration() {
+    ConcurrentMap<String, Configuration> configurations = this.enunciate.getTemplateConfigurations();
+    Configuration configuration = configurations.get(getName());
+    if (configuration == null) {
+      configuration = createTemplateConfiguration();
+      Configuration shared = configurations.putIfAbsent(getName(), configuration);
+      if (shared != null) {
+        configuration = shared;
+      }
+    }
+    return configuration;
+  }
+
+  /**
+   * Creates the freemarker configuration for the templates of this module. Since the configuration is kept between the
+   * builds of a warm daemon, it must check its templates for modification each time they're used.
+   *
+   * @return The freemarker configuration.
+   */
+  protected Configuration createTemplateConfiguration() {
+    Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
   /**
    * Whether all files in the specified directory are newer than all the source files.
    *
@@ -0,0 +1,21 @@
+package com.webcohesion.enunciate.module;
+
+import java.io.IOException;
+
+/**
+ * Renders the pages of the documentation on demand, e.g. when they're served during development.
+ *
+ * @author Ryan Heaton
+ * @see OnDemandDocumentationProviderModule
+ */
+public interface DocumentationPageRenderer {
+
+  /**
+   * Render a page of the documentation.
+   *
+   * @param path The path of the page, relative to the documentation directory (e.g. "index.html").
+   * @return The page, or null if there's no page at the specified path.
+   */
+  String renderPage(String path) throws IOException;
+
+}
@@ -0,0 +1,29 @@
+package com.webcohesion.enunciate.module;
+
+import java.util.Set;
+
+/**
+ * A type filtering module that declares the types it accepts as {@link TypeFilterRules rules}. Instead of asking the
+ * module about each class on the classpath, the classpath scan indexes the classes by their annotations and supertypes
+ * and evaluates the rules of all the modules against the index.
+ *
+ * @author Ryan Heaton
+ */
+public interface IndexedTypeFilteringModule extends TypeFilteringModule {
+
+  /**
+   * The rules for the types that this module accepts.
+   *
+   * @return The rules.
+   */
+  TypeFilterRules getTypeFilterRules();
+
+  /**
+   * Acknowledge the classes named by the rules as {@link TypeFilterRules#detecting(String...) detected types} that were
+   * found on the classpath.
+   *
+   * @param detectedTypes The detected types.
+   */
+  void acknowledgeDetectedTypes(Set<String> detectedTypes);
+
+}
@@ -0,0 +1,26 @@
+package com.webcohesion.enunciate.module;
+
+/**
+ * A documentation provider that can render its pages on demand instead of writing them all to the documentation
+ * directory. The other files of the documentation (e.g. the stylesheets, the schemas and the downloads) are still
+ * written to the documentation directory.
+ *
+ * @author Ryan Heaton
+ */
+public interface OnDemandDocumentationProviderModule extends DocumentationProviderModule {
+
+  /**
+   * Whether to render the pages on demand instead of writing them to the documentation directory.
+   *
+   * @param renderPagesOnDemand Whether to render the pages on demand.
+   */
+  void setRenderPagesOnDemand(boolean renderPagesOnDemand);
+
+  /**
+   * The renderer of the pages, once the module has been invoked.
+   *
+   * @return The renderer of the pages, or null if the pages aren't rendered on demand or there are no pages.
+   */
+  DocumentationPageRenderer getPageRenderer();
+
+}
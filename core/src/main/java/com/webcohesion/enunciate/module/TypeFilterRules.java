@@ -0,0 +1,180 @@
+package com.webcohesion.enunciate.module;
+
+import com.webcohesion.enunciate.TypeIndex;
+import org.reflections.adapters.MetadataAdapter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The rules for the types that are accepted by an {@link IndexedTypeFilteringModule}. A type is accepted if it's annotated
+ * with one of the annotations (or with an annotation in one of the annotation packages), or if it directly extends or
+ * implements one of the supertypes.
+ *
+ * @author Ryan Heaton
+ */
+public class TypeFilterRules {
+
+  private final Set<String> annotations = new TreeSet<String>();
+  private final Set<String> annotationPackages = new TreeSet<String>();
+  private final Set<String> excludedAnnotations = new TreeSet<String>();
+  private final Set<String> supertypes = new TreeSet<String>();
+  private final Set<String> detectedTypes = new TreeSet<String>();
+
+  /**
+   * Accept the types that are annotated with any of the specified annotations.
+   *
+   * @param annotations The names of the annotations.
+   * @return this
+   */
+  public TypeFilterRules annotatedWith(String... annotations) {
+    Collections.addAll(this.annotations, annotations);
+    return this;
+  }
+
+  /**
+   * Accept the types that are annotated with any annotation in the specified package (or its subpackages).
+   *
+   * @param annotationPackage The name of the package.
+   * @return this
+   */
+  public TypeFilterRules annotatedWithAnyIn(String annotationPackage) {
+    this.annotationPackages.add(annotationPackage);
+    return this;
+  }
+
+  /**
+   * Don't accept types because of the specified annotations, even if they're in one of the annotation packages.
+   *
+   * @param annotations The names of the annotations.
+   * @return this
+   */
+  public TypeFilterRules exceptAnnotatedWith(String... annotations) {
+    Collections.addAll(this.excludedAnnotations, annotations);
+    return this;
+  }
+
+  /**
+   * Accept the types that directly extend or implement any of the specified types.
+   *
+   * @param supertypes The names of the supertypes.
+   * @return this
+   */
+  public TypeFilterRules extending(String... supertypes) {
+    Collections.addAll(this.supertypes, supertypes);
+    return this;
+  }
+
+  /**
+   * Detect whether the specified classes are on the classpath. Detected types aren't accepted, but they're
+   * {@link IndexedTypeFilteringModule#acknowledgeDetectedTypes(Set) acknowledged}.
+   *
+   * @param classNames The names of the classes.
+   * @return this
+   */
+  public TypeFilterRules detecting(String... classNames) {
+    Collections.addAll(this.detectedTypes, classNames);
+    return this;
+  }
+
+  public Set<String> getSupertypes() {
+    return Collections.unmodifiableSet(this.supertypes);
+  }
+
+  public Set<String> getDetectedTypes() {
+    return Collections.unmodifiableSet(this.detectedTypes);
+  }
+
+  /**
+   * Whether an annotation causes a type to be accepted.
+   *
+   * @param annotation The name of the annotation.
+   * @return Whether the annotation causes a type to be accepted.
+   */
+  public boolean isTriggeredBy(String annotation) {
+    if (this.annotations.contains(annotation)) {
+      return true;
+    }
+
+    if (!this.annotationPackages.isEmpty() && !this.excludedAnnotations.contains(annotation)) {
+      for (String annotationPackage : this.annotationPackages) {
+        if (annotation.startsWith(annotationPackage) && annotation.length() > annotationPackage.length() && annotation.charAt(annotationPackage.length()) == '.') {
+          return true;
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Whether a type is accepted.
+   *
+   * @param type     The type.
+   * @param metadata The metadata adapter for the type.
+   * @return Whether the type is accepted.
+   */
+  public boolean accept(Object type, MetadataAdapter metadata) {
+    List<String> classAnnotations = metadata.getClassAnnotationNames(type);
+    if (classAnnotations != null) {
+      for (String classAnnotation : classAnnotations) {
+        if (isTriggeredBy(classAnnotation)) {
+          return true;
+        }
+      }
+    }
+
+    if (!this.supertypes.isEmpty()) {
+      if (this.supertypes.contains(metadata.getSuperclassName(type))) {
+        return true;
+      }
+
+      List<String> interfaces = metadata.getInterfacesNames(type);
+      if (interfaces != null) {
+        for (String iface : interfaces) {
+          if (this.supertypes.contains(iface)) {
+            return true;
+          }
+        }
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * The types in an index that are accepted.
+   *
+   * @param index The index.
+   * @return The names of the accepted types.
+   */
+  public Set<String> accept(TypeIndex index) {
+    Set<String> accepted = new HashSet<String>();
+    for (String annotation : index.getAnnotationNames()) {
+      if (isTriggeredBy(annotation)) {
+        accepted.addAll(index.getTypesAnnotatedWith(annotation));
+      }
+    }
+
+    for (String supertype : this.supertypes) {
+      accepted.addAll(index.getDirectSubtypesOf(supertype));
+    }
+
+    return accepted;
+  }
+
+  /**
+   * The detected types in an index.
+   *
+   * @param index The index.
+   * @return The names of the detected types.
+   */
+  public Set<String> detect(TypeIndex index) {
+    Set<String> detected = new TreeSet<String>(this.detectedTypes);
+    detected.retainAll(index.getDetectedTypes());
+    return detected;
+  }
+}
@@ -3,7 +3,11 @@ package com.webcohesion.enunciate.module;
 import org.reflections.adapters.MetadataAdapter;
 
 /**
+ * A module that selects the types on the classpath that are to be included in the API. Classes that are explicitly
+ * excluded (and not explicitly included) by name may be skipped without being passed to the module.
+ *
  * @author Ryan Heaton
+ * @see IndexedTypeFilteringModule
  */
 public interface TypeFilteringModule extends EnunciateModule {
 
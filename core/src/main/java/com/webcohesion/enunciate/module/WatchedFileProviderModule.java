@@ -0,0 +1,22 @@
+package com.webcohesion.enunciate.module;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * A module that reads files other than the API sources and the configuration (e.g. custom templates), so that a
+ * watched build is run again when they change.
+ *
+ * @author Ryan Heaton
+ * @see com.webcohesion.enunciate.daemon.BuildWatcher
+ */
+public interface WatchedFileProviderModule extends EnunciateModule {
+
+  /**
+   * The files (or directories) the module reads, other than the API sources and the configuration.
+   *
+   * @return The files the module reads.
+   */
+  List<File> getWatchedFiles();
+
+}
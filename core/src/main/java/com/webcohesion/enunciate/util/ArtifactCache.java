@@ -0,0 +1,364 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webcohesion.enunciate.util;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * A local store of generated artifacts (e.g. extracted bundles or packaged jars), shared across modules, builds and
+ * projects. An entry is keyed by a hash of the contents of its inputs (and the paths of the inputs relative to their
+ * directories), so an artifact whose inputs haven't changed is copied from the store instead of being generated again,
+ * wherever the inputs are.<br/><br/>
+ *
+ * Entries are written to a temporary file and renamed into place, so concurrent builds sharing a cache directory never
+ * see a partial entry. Entries are copied out of the store (not linked) because the modules are free to modify the
+ * files they generate.<br/><br/>
+ *
+ * The entries that haven't been used for longer than the maximum age are evicted whenever an entry is added, as are the
+ * least recently used entries while the store is larger than its maximum size.
+ *
+ * @author Ryan Heaton
+ */
+public class ArtifactCache {
+
+  /**
+   * The default maximum size of the store, in bytes.
+   */
+  public static final long DEFAULT_MAX_SIZE = 1024L * 1024L * 1024L;
+
+  /**
+   * The default maximum age of an unused entry, in milliseconds.
+   */
+  public static final long DEFAULT_MAX_AGE = 30L * 24L * 60L * 60L * 1000L;
+
+  /**
+   * How long a used entry is kept regardless of the size of the store, because a concurrent build may be copying it.
+   */
+  static final long MIN_AGE = 60L * 1000L;
+
+  private static final int FORMAT_VERSION = 3;
+
+  private final File dir;
+  private final Enunciate enunciate;
+  private long maxSize = DEFAULT_MAX_SIZE;
+  private long maxAge = DEFAULT_MAX_AGE;
+
+  public ArtifactCache(File dir, Enunciate enunciate) {
+    this.dir = dir;
+    this.enunciate = enunciate;
+  }
+
+  /**
+   * The directory of the cache.
+   *
+   * @return The directory of the cache.
+   */
+  public File getDir() {
+    return dir;
+  }
+
+  /**
+   * The maximum size of the store, in bytes.
+   *
+   * @return The maximum size of the store, in bytes.
+   */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * The maximum size of the store, in bytes.
+   *
+   * @param maxSize The maximum size of the store, in bytes.
+   */
+  public void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * The maximum age of an unused entry, in milliseconds.
+   *
+   * @return The maximum age of an unused entry, in milliseconds.
+   */
+  public long getMaxAge() {
+    return maxAge;
+  }
+
+  /**
+   * The maximum age of an unused entry, in milliseconds.
+   *
+   * @param maxAge The maximum age of an unused entry, in milliseconds.
+   */
+  public void setMaxAge(long maxAge) {
+    this.maxAge = maxAge;
+  }
+
+  /**
+   * Find an entry in the cache. The entry is marked as used.
+   *
+   * @param kind The kind of entry (e.g. "zip").
+   * @param key  The key of the entry.
+   * @return The entry, or null if it isn't in the cache.
+   */
+  public File find(String kind, String key) {
+    File entry = new File(new File(this.dir, kind), key);
+    if (entry.exists()) {
+      this.enunciate.getLogger().debug("Found %s %s in the artifact cache.", kind, key);
+      entry.setLastModified(System.currentTimeMillis());
+      return entry;
+    }
+    return null;
+  }
+  /**
+   * Remove an entry from the cache, e.g. because it's found to be corrupt.
+   *
+   * @param kind The kind of entry.
+   * @param key  The key of the entry.
+   */
+  public void remove(String kind, String key) {
+    File entry = new File(new File(this.dir, kind), key);
+    delete(entry);
+    this.enunciate.getLogger().debug("Removed %s %s from the artifact cache.", kind, key);
+  }
+
+  /**
+   * Create a temporary file or directory in the cache, to be populated and then added with {@link #put(String, String, File)}.
+   *
+   * @param directory Whether to create a directory.
+   * @return The temporary file or directory.
+   */
+  public File createTemp(boolean directory) throws IOException {
+    this.dir.mkdirs();
+    File temp = File.createTempFile("entry", ".tmp", this.dir);
+    if (directory && !(temp.delete() && temp.mkdir())) {
+      throw new IOException("Unable to create temporary directory in " + this.dir);
+    }
+    return temp;
+  }
+
+  /**
+   * Add an entry to the cache.
+   *
+   * @param kind The kind of entry.
+   * @param key  The key of the entry.
+   * @param temp The (temporary) file or directory to add as the entry.
+   * @return The entry.
+   */
+  public File put(String kind, String key, File temp) throws IOException {
+    File entry = new File(new File(this.dir, kind), key);
+    entry.getParentFile().mkdirs();
+    if (!temp.renameTo(entry)) {
+      delete(temp);
+      if (!entry.exists()) {
+        throw new IOException("Unable to add " + kind + " " + key + " to the artifact cache at " + this.dir);
+      }
+      //another build added it first; the entries are the same.
+    }
+    else {
+      this.enunciate.getLogger().debug("Added %s %s to the artifact cache.", kind, key);
+    }
+    entry.setLastModified(System.currentTimeMillis());
+    evict(entry);
+    return entry;
+  }
+
+  /**
+   * Evict the entries that haven't been used for longer than the maximum age, and then the least recently used entries
+   * while the store is larger than its maximum size.
+   *
+   * @param keep An entry to keep (e.g. the entry that was just added).
+   */
+  void evict(File keep) {
+    List<File> entries = new ArrayList<File>();
+    File[] kinds = this.dir.listFiles();
+    if (kinds != null) {
+      for (File kind : kinds) {
+        File[] kindEntries = kind.listFiles();
+        if (kindEntries != null && !kind.getName().endsWith(".tmp")) {
+          entries.addAll(Arrays.asList(kindEntries));
+        }
+      }
+    }
+
+    final Map<File, Long> used = new HashMap<File, Long>();
+    for (File entry : entries) {
+      used.put(entry, entry.lastModified());
+    }
+    Collections.sort(entries, new Comparator<File>() {
+      @Override
+      public int compare(File entry1, File entry2) {
+        return used.get(entry1).compareTo(used.get(entry2));
+      }
+    });
+
+    long now = System.currentTimeMillis();
+    long size = 0;
+    Map<File, Long> sizes = new HashMap<File, Long>();
+    for (File entry : entries) {
+      long entrySize = sizeOf(entry);
+      sizes.put(entry, entrySize);
+      size += entrySize;
+    }
+
+    for (File entry : entries) {
+      if (entry.equals(keep)) {
+        continue;
+      }
+
+      long age = now - used.get(entry);
+      if (age > this.maxAge || (size > this.maxSize && age > MIN_AGE)) {
+        delete(entry);
+        size -= sizes.get(entry);
+        this.enunciate.getLogger().debug("Evicted %s from the artifact cache.", entry);
+      }
+    }
+  }
+
+  /**
+   * The key for the specified resource, i.e. the hash of its contents.
+   *
+   * @param url The URL of the resource.
+   * @return The key.
+   */
+  public String key(URL url) throws IOException {
+    MessageDigest digest = newDigest();
+    update(digest, url.openStream());
+    return toHex(digest);
+  }
+
+  /**
+   * The key for the specified named contents, i.e. in-memory entries and the files of directories, keyed by the hash of
+   * their names and contents. The files are named by their path relative to their directory, so the key doesn't depend
+   * on where the directories are.
+   *
+   * @param entries The in-memory entries.
+   * @param dirs    The directories.
+   * @return The key.
+   */
+  public String key(Map<String, byte[]> entries, File... dirs) throws IOException {
+    MessageDigest digest = newDigest();
+    for (Map.Entry<String, byte[]> entry : new TreeMap<String, byte[]>(entries).entrySet()) {
+      digest.update(utf8(entry.getKey()));
+      digest.update((byte) 0);
+      digest.update(utf8(String.valueOf(entry.getValue().length)));
+      digest.update((byte) 0);
+      digest.update(entry.getValue());
+    }
+
+    for (File dir : dirs) {
+      TreeMap<String, File> files = new TreeMap<String, File>();
+      collectFiles(dir, "", files);
+      digest.update((byte) 1);
+      for (Map.Entry<String, File> file : files.entrySet()) {
+        digest.update(utf8(file.getKey()));
+        digest.update((byte) 0);
+        digest.update(utf8(String.valueOf(file.getValue().length())));
+        digest.update((byte) 0);
+        update(digest, new FileInputStream(file.getValue()));
+      }
+    }
+    return toHex(digest);
+  }
+
+  private static void update(MessageDigest digest, InputStream in) throws IOException {
+    try {
+      byte[] buffer = new byte[8 * 1024];
+      int len;
+      while ((len = in.read(buffer)) > 0) {
+        digest.update(buffer, 0, len);
+      }
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  private void collectFiles(File dir, String path, Map<String, File> contents) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory()) {
+          collectFiles(file, path + file.getName() + "/", contents);
+        }
+        else {
+          contents.put(path + file.getName(), file);
+        }
+      }
+    }
+  }
+
+  private MessageDigest newDigest() {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      digest.update(utf8("enunciate-artifact-cache-" + FORMAT_VERSION));
+      return digest;
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new EnunciateException(e);
+    }
+  }
+
+  private static byte[] utf8(String value) {
+    try {
+      return value.getBytes("utf-8");
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new EnunciateException(e);
+    }
+  }
+
+  private static String toHex(MessageDigest digest) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return hex.toString();
+  }
+
+  private static long sizeOf(File file) {
+    long size = file.isDirectory() ? 0 : file.length();
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        size += sizeOf(child);
+      }
+    }
+    return size;
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webcohesion.enunciate.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The header of a class file: its name, access flags, supertypes and class-level annotations. Only the constant pool and
+ * the class-level attributes are read; the fields and methods are skipped over, so reading a header is much cheaper than
+ * reading the whole class file. The bytes are kept so the class file can still be fully read if it's needed.
+ *
+ * @author Ryan Heaton
+ */
+public class ClassHeader {
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+  private static final int CONSTANT_DYNAMIC = 17;
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+  private static final int CONSTANT_MODULE = 19;
+  private static final int CONSTANT_PACKAGE = 20;
+
+  private static final int ACC_PUBLIC = 0x0001;
+
+  private final byte[] bytes;
+  private final int accessFlags;
+  private final String className;
+  private final String superclassName;
+  private final List<String> interfaceNames;
+  private final List<String> annotationNames;
+
+  /**
+   * Read the header of a class file.
+   *
+   * @param bytes The bytes of the class file.
+   * @throws IOException If the bytes aren't a valid class file.
+   */
+  public ClassHeader(byte[] bytes) throws IOException {
+    this.bytes = bytes;
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    if (in.readInt() != 0xCAFEBABE) {
+      throw new IOException("Not a class file.");
+    }
+    in.readUnsignedShort(); //minor version
+    in.readUnsignedShort(); //major version
+
+    //the utf8 constants are only decoded if they're needed, so we just remember where each entry starts.
+    int constantCount = in.readUnsignedShort();
+    int[] offsets = new int[constantCount];
+    int position = 10;
+    for (int i = 1; i < constantCount; i++) {
+      offsets[i] = position + 1;
+      int tag = in.readUnsignedByte();
+      int length;
+      switch (tag) {
+        case CONSTANT_UTF8:
+          length = 2 + in.readUnsignedShort();
+          in.skipBytes(length - 2);
+          break;
+        case CONSTANT_CLASS:
+        case CONSTANT_STRING:
+        case CONSTANT_METHOD_TYPE:
+        case CONSTANT_MODULE:
+        case CONSTANT_PACKAGE:
+          length = 2;
+          in.skipBytes(length);
+          break;
+        case CONSTANT_METHOD_HANDLE:
+          length = 3;
+          in.skipBytes(length);
+          break;
+        case CONSTANT_INTEGER:
+        case CONSTANT_FLOAT:
+        case CONSTANT_FIELDREF:
+        case CONSTANT_METHODREF:
+        case CONSTANT_INTERFACE_METHODREF:
+        case CONSTANT_NAME_AND_TYPE:
+        case CONSTANT_DYNAMIC:
+        case CONSTANT_INVOKE_DYNAMIC:
+          length = 4;
+          in.skipBytes(length);
+          break;
+        case CONSTANT_LONG:
+        case CONSTANT_DOUBLE:
+          length = 8;
+          in.skipBytes(length);
+          i++; //eight-byte constants take up two entries.
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag: " + tag);
+      }
+      position += 1 + length;
+    }
+
+    this.accessFlags = in.readUnsignedShort();
+    this.className = readClassName(offsets, in.readUnsignedShort());
+    int superclassIndex = in.readUnsignedShort();
+    this.superclassName = superclassIndex == 0 ? null : readClassName(offsets, superclassIndex);
+
+    int interfaceCount = in.readUnsignedShort();
+    List<String> interfaceNames = new ArrayList<String>(interfaceCount);
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaceNames.add(readClassName(offsets, in.readUnsignedShort()));
+    }
+    this.interfaceNames = Collections.unmodifiableList(interfaceNames);
+
+    skipMembers(in); //fields
+    skipMembers(in); //methods
+
+    List<String> visibleAnnotationNames = Collections.emptyList();
+    List<String> invisibleAnnotationNames = Collections.emptyList();
+    int attributeCount = in.readUnsignedShort();
+    for (int i = 0; i < attributeCount; i++) {
+      String attributeName = readUtf8(offsets, in.readUnsignedShort());
+      int attributeLength = in.readInt();
+      if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+        visibleAnnotationNames = readAnnotationNames(offsets, in);
+      }
+      else if ("RuntimeInvisibleAnnotations".equals(attributeName)) {
+        invisibleAnnotationNames = readAnnotationNames(offsets, in);
+      }
+      else {
+        in.skipBytes(attributeLength);
+      }
+    }
+
+    //visible annotations first, then invisible annotations, same as the javassist adapter.
+    List<String> annotationNames = new ArrayList<String>(visibleAnnotationNames.size() + invisibleAnnotationNames.size());
+    annotationNames.addAll(visibleAnnotationNames);
+    annotationNames.addAll(invisibleAnnotationNames);
+    this.annotationNames = Collections.unmodifiableList(annotationNames);
+  }
+
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  public boolean isPublic() {
+    return (this.accessFlags & ACC_PUBLIC) != 0;
+  }
+
+  public String getClassName() {
+    return className;
+  }
+
+  public String getSuperclassName() {
+    return superclassName;
+  }
+
+  public List<String> getInterfaceNames() {
+    return interfaceNames;
+  }
+
+  public List<String> getAnnotationNames() {
+    return annotationNames;
+  }
+
+  private String readUtf8(int[] offsets, int index) throws IOException {
+    if (index <= 0 || index >= offsets.length || this.bytes[offsets[index] - 1] != CONSTANT_UTF8) {
+      throw new IOException("Bad utf8 constant index: " + index);
+    }
+    return new DataInputStream(new ByteArrayInputStream(this.bytes, offsets[index], this.bytes.length - offsets[index])).readUTF();
+  }
+
+  private String readClassName(int[] offsets, int index) throws IOException {
+    if (index <= 0 || index >= offsets.length || this.bytes[offsets[index] - 1] != CONSTANT_CLASS) {
+      throw new IOException("Bad class constant index: " + index);
+    }
+    int offset = offsets[index];
+    int nameIndex = ((this.bytes[offset] & 0xFF) << 8) | (this.bytes[offset + 1] & 0xFF);
+    return readUtf8(offsets, nameIndex).replace('/', '.');
+  }
+
+  private static void skipMembers(DataInputStream in) throws IOException {
+    int memberCount = in.readUnsignedShort();
+    for (int i = 0; i < memberCount; i++) {
+      in.skipBytes(6); //access flags, name, descriptor
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        in.skipBytes(2); //name
+        in.skipBytes(in.readInt());
+      }
+    }
+  }
+
+  private List<String> readAnnotationNames(int[] offsets, DataInputStream in) throws IOException {
+    int annotationCount = in.readUnsignedShort();
+    List<String> annotationNames = new ArrayList<String>(annotationCount);
+    for (int i = 0; i < annotationCount; i++) {
+      annotationNames.add(readAnnotation(offsets, in));
+    }
+    return annotationNames;
+  }
+
+  private String readAnnotation(int[] offsets, DataInputStream in) throws IOException {
+    String descriptor = readUtf8(offsets, in.readUnsignedShort());
+    int pairCount = in.readUnsignedShort();
+    for (int i = 0; i < pairCount; i++) {
+      in.skipBytes(2); //element name
+      skipElementValue(offsets, in);
+    }
+
+    //the type of an annotation is a field descriptor ("Ljava/lang/Deprecated;").
+    if (descriptor.length() > 2 && descriptor.charAt(0) == 'L' && descriptor.charAt(descriptor.length() - 1) == ';') {
+      descriptor = descriptor.substring(1, descriptor.length() - 1);
+    }
+    return descriptor.replace('/', '.');
+  }
+
+  private void skipElementValue(int[] offsets, DataInputStream in) throws IOException {
+    int tag = in.readUnsignedByte();
+    switch (tag) {
+      case 'e':
+        in.skipBytes(4);
+        break;
+      case '@':
+        readAnnotation(offsets, in);
+        break;
+      case '[':
+        int valueCount = in.readUnsignedShort();
+        for (int i = 0; i < valueCount; i++) {
+          skipElementValue(offsets, in);
+        }
+        break;
+      default:
+        in.skipBytes(2);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webcohesion.enunciate.util;
+
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.MethodInfo;
+import org.reflections.adapters.JavassistAdapter;
+import org.reflections.adapters.MetadataAdapter;
+import org.reflections.vfs.Vfs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Metadata adapter for {@link ClassHeader class headers}. The class-level metadata is read from the header; the metadata
+ * of the fields and methods is read by the javassist adapter, which reads the full class file the first time it's needed.
+ *
+ * @author Ryan Heaton
+ */
+@SuppressWarnings ( "unchecked" )
+public class ClassHeaderMetadataAdapter implements MetadataAdapter<ClassHeader, Object, Object> {
+
+  private final JavassistAdapter delegate = new JavassistAdapter();
+
+  public String getClassName(ClassHeader header) {
+    return header.getClassName();
+  }
+
+  public String getSuperclassName(ClassHeader header) {
+    return header.getSuperclassName();
+  }
+
+  public List<String> getInterfacesNames(ClassHeader header) {
+    return header.getInterfaceNames();
+  }
+
+  public List<String> getClassAnnotationNames(ClassHeader header) {
+    return header.getAnnotationNames();
+  }
+
+  public List<Object> getFields(ClassHeader header) {
+    return (List) this.delegate.getFields(toClassFile(header));
+  }
+
+  public List<Object> getMethods(ClassHeader header) {
+    return (List) this.delegate.getMethods(toClassFile(header));
+  }
+
+  public String getMethodName(Object method) {
+    return this.delegate.getMethodName((MethodInfo) method);
+  }
+
+  public List<String> getParameterNames(Object method) {
+    return this.delegate.getParameterNames((MethodInfo) method);
+  }
+
+  public List<String> getFieldAnnotationNames(Object field) {
+    return this.delegate.getFieldAnnotationNames((FieldInfo) field);
+  }
+
+  public List<String> getMethodAnnotationNames(Object method) {
+    return this.delegate.getMethodAnnotationNames((MethodInfo) method);
+  }
+
+  public List<String> getParameterAnnotationNames(Object method, int parameterIndex) {
+    return this.delegate.getParameterAnnotationNames((MethodInfo) method, parameterIndex);
+  }
+
+  public String getReturnTypeName(Object method) {
+    return this.delegate.getReturnTypeName((MethodInfo) method);
+  }
+
+  public String getFieldName(Object field) {
+    return this.delegate.getFieldName((FieldInfo) field);
+  }
+
+  public ClassHeader getOfCreateClassObject(Vfs.File file) throws Exception {
+    InputStream in = file.openInputStream();
+    try {
+      return new ClassHeader(readFully(in));
+    }
+    finally {
+      in.close();
+    }
+  }
+
+  public String getMethodModifier(Object method) {
+    return this.delegate.getMethodModifier((MethodInfo) method);
+  }
+
+  public String getMethodKey(ClassHeader header, Object method) {
+    return this.delegate.getMethodKey(null, (MethodInfo) method);
+  }
+
+  public String getMethodFullKey(ClassHeader header, Object method) {
+    return getClassName(header) + "." + getMethodKey(header, method);
+  }
+
+  public boolean isPublic(Object o) {
+    if (o instanceof ClassHeader) {
+      return ((ClassHeader) o).isPublic();
+    }
+    return this.delegate.isPublic(o);
+  }
+
+  public boolean acceptsInput(String file) {
+    return this.delegate.acceptsInput(file);
+  }
+
+  /**
+   * Read the full class file of a header.
+   *
+   * @param header The header.
+   * @return The class file.
+   */
+  protected ClassFile toClassFile(ClassHeader header) {
+    try {
+      return new ClassFile(new DataInputStream(new ByteArrayInputStream(header.getBytes())));
+    }
+    catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Read all the bytes of a stream.
+   *
+   * @param in The stream.
+   * @return The bytes.
+   */
+  public static byte[] readFully(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4 * 1024];
+    int len;
+    while ((len = in.read(buffer)) > 0) {
+      bytes.write(buffer, 0, len);
+    }
+    return bytes.toByteArray();
+  }
+}
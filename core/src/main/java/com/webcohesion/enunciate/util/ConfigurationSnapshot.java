@@ -0,0 +1,147 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.util;
+
+import org.apache.commons.configuration.ConversionException;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.PropertyConverter;
+import org.apache.commons.configuration.tree.ConfigurationNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable copy of a configuration, taken once the configuration has been loaded. Each configuration expression
+ * (e.g. "[@disabled]" or "package-conversions.convert") is parsed and evaluated against the configuration tree only
+ * the first time it's queried, so reading the configuration is cheap and safe from concurrent threads.
+ *
+ * @author Ryan Heaton
+ */
+public class ConfigurationSnapshot extends HierarchicalConfiguration {
+
+  private final ConcurrentMap<String, List<ConfigurationNode>> nodesByKey = new ConcurrentHashMap<String, List<ConfigurationNode>>();
+  private final boolean frozen;
+
+  public ConfigurationSnapshot(HierarchicalConfiguration configuration) {
+    super(configuration);
+    setDelimiterParsingDisabled(configuration.isDelimiterParsingDisabled());
+    this.frozen = true;
+  }
+
+  /**
+   * Validate the values of the attributes of the root element of this configuration (e.g. "disabled" of a module),
+   * against the types of the attributes. Only booleans, integers and longs are checked; the values of the other
+   * attributes, and the attributes that aren't specified, are ignored.
+   *
+   * @param attributeTypes The types of the attributes, by attribute name.
+   * @return The validation errors, if any.
+   */
+  public List<String> validateAttributes(Map<String, Class<?>> attributeTypes) {
+    List<String> errors = new ArrayList<String>();
+    for (Map.Entry<String, Class<?>> attributeType : attributeTypes.entrySet()) {
+      String value = getString("[@" + attributeType.getKey() + "]", null);
+      if (value == null) {
+        continue;
+      }
+
+      try {
+        if (Boolean.class.equals(attributeType.getValue())) {
+          PropertyConverter.toBoolean(value);
+        }
+        else if (Integer.class.equals(attributeType.getValue())) {
+          PropertyConverter.toInteger(value);
+        }
+        else if (Long.class.equals(attributeType.getValue())) {
+          PropertyConverter.toLong(value);
+        }
+      }
+      catch (ConversionException e) {
+        errors.add(String.format("attribute \"%s\" must be a %s, but was \"%s\"", attributeType.getKey(), attributeType.getValue().getSimpleName().toLowerCase(), value));
+      }
+    }
+    return errors;
+  }
+
+  @Override
+  protected List<ConfigurationNode> fetchNodeList(String key) {
+    List<ConfigurationNode> nodes = this.nodesByKey.get(key);
+    if (nodes == null) {
+      nodes = Collections.unmodifiableList(super.fetchNodeList(key));
+      this.nodesByKey.put(key, nodes);
+    }
+    return nodes;
+  }
+
+  @Override
+  public void setRootNode(ConfigurationNode rootNode) {
+    assertNotFrozen();
+    super.setRootNode(rootNode);
+  }
+
+  @Override
+  public void setRoot(Node node) {
+    assertNotFrozen();
+    super.setRoot(node);
+  }
+
+  @Override
+  protected void addPropertyDirect(String key, Object obj) {
+    assertNotFrozen();
+    super.addPropertyDirect(key, obj);
+  }
+
+  @Override
+  public void addNodes(String key, Collection<? extends ConfigurationNode> nodes) {
+    assertNotFrozen();
+    super.addNodes(key, nodes);
+  }
+
+  @Override
+  public void setProperty(String key, Object value) {
+    assertNotFrozen();
+    super.setProperty(key, value);
+  }
+
+  @Override
+  public void clear() {
+    assertNotFrozen();
+    super.clear();
+  }
+
+  @Override
+  public void clearTree(String key) {
+    assertNotFrozen();
+    super.clearTree(key);
+  }
+
+  @Override
+  public void clearProperty(String key) {
+    assertNotFrozen();
+    super.clearProperty(key);
+  }
+
+  private void assertNotFrozen() {
+    if (this.frozen) {
+      throw new UnsupportedOperationException("Configuration snapshots can't be modified.");
+    }
+  }
+}
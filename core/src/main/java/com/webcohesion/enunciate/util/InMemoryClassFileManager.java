@@ -0,0 +1,75 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.util;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A file manager that keeps the class files written by the compiler in memory instead of writing them to an output
+ * directory. Everything else is delegated.
+ *
+ * @author Ryan Heaton
+ */
+public class InMemoryClassFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+  private final Map<String, ByteArrayOutputStream> classFiles = new TreeMap<String, ByteArrayOutputStream>();
+
+  public InMemoryClassFileManager(JavaFileManager delegate) {
+    super(delegate);
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+    if (kind != JavaFileObject.Kind.CLASS) {
+      return super.getJavaFileForOutput(location, className, kind, sibling);
+    }
+
+    final String path = className.replace('.', '/') + kind.extension;
+    return new SimpleJavaFileObject(URI.create("mem:///" + path), kind) {
+      @Override
+      public OutputStream openOutputStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        classFiles.put(path, bytes);
+        return bytes;
+      }
+    };
+  }
+
+  /**
+   * The class files that have been written by the compiler, keyed by their path relative to the root of the class output.
+   *
+   * @return The class files.
+   */
+  public Map<String, byte[]> getClassFiles() {
+    Map<String, byte[]> classFiles = new TreeMap<String, byte[]>();
+    for (Map.Entry<String, ByteArrayOutputStream> entry : this.classFiles.entrySet()) {
+      classFiles.put(entry.getKey(), entry.getValue().toByteArray());
+    }
+    return Collections.unmodifiableMap(classFiles);
+  }
+}
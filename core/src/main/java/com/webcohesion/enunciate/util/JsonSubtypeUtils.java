@@ -0,0 +1,72 @@
+package com.webcohesion.enunciate.util;
+
+import com.webcohesion.enunciate.EnunciateException;
+import com.webcohesion.enunciate.facets.FacetFilter;
+import com.webcohesion.enunciate.facets.HasFacets;
+import com.webcohesion.enunciate.javac.decorations.element.DecoratedTypeElement;
+import com.webcohesion.enunciate.javac.decorations.type.DecoratedTypeMirror;
+import com.webcohesion.enunciate.util.freemarker.ClientClassnameForMethod;
+import freemarker.template.TemplateModelException;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.util.Elements;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author Ryan Heaton
+ */
+public class JsonSubtypeUtils {
+
+  private JsonSubtypeUtils() {}
+
+  /**
+   * Finds the known subtypes of the schema types, so that a generated client can resolve the '@class' of a polymorphic
+   * item with a single lookup instead of deriving the client class from the Java class name of each item.
+   *
+   * @param schemaTypes  The schema types.
+   * @param classnameFor The client classname conversion.
+   * @param facetFilter  The facet filter.
+   * @param elementUtils The element utils.
+   * @return The client class names of the complex types, each mapped to the Java class names of the type and its known
+   * subtypes (as written to '@class'), mapped in turn to their client class names.
+   */
+  public static Map<String, Map<String, String>> findJsonSubtypes(List<DecoratedTypeElement> schemaTypes, ClientClassnameForMethod classnameFor, FacetFilter facetFilter, Elements elementUtils) {
+    Map<String, DecoratedTypeElement> complexTypes = new HashMap<String, DecoratedTypeElement>();
+    for (DecoratedTypeElement schemaType : schemaTypes) {
+      if (!schemaType.isEnum() && (!(schemaType instanceof HasFacets) || facetFilter.accept((HasFacets) schemaType))) {
+        complexTypes.put(schemaType.getQualifiedName().toString(), schemaType);
+      }
+    }
+
+    Map<String, Map<String, String>> jsonSubtypes = new TreeMap<String, Map<String, String>>();
+    try {
+      for (DecoratedTypeElement complexType : complexTypes.values()) {
+        Map<String, String> subtypes = new TreeMap<String, String>();
+        subtypes.put(elementUtils.getBinaryName(complexType).toString(), classnameFor.convert(complexType));
+        jsonSubtypes.put(classnameFor.convert(complexType), subtypes);
+      }
+
+      for (DecoratedTypeElement complexType : complexTypes.values()) {
+        String clientName = classnameFor.convert(complexType);
+        DecoratedTypeMirror superType = (DecoratedTypeMirror) complexType.getSuperclass();
+        while (superType != null && superType.isDeclared()) {
+          DecoratedTypeElement superElement = complexTypes.get(((TypeElement) ((DeclaredType) superType).asElement()).getQualifiedName().toString());
+          if (superElement == null) {
+            break;
+          }
+
+          jsonSubtypes.get(classnameFor.convert(superElement)).put(elementUtils.getBinaryName(complexType).toString(), clientName);
+          superType = (DecoratedTypeMirror) superElement.getSuperclass();
+        }
+      }
+    }
+    catch (TemplateModelException e) {
+      throw new EnunciateException(e);
+    }
+    return jsonSubtypes;
+  }
+}
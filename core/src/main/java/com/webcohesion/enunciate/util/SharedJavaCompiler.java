@@ -0,0 +1,119 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.util;
+
+import com.sun.tools.javac.api.JavacTool;
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.daemon.WarmBuildState;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiler for the Java sources generated during a build (e.g. the Java client libraries). All compilations share a
+ * single file manager, so the classpath archives and the platform classes are opened and indexed once per build
+ * instead of once per compilation. When a build daemon keeps its state {@link Enunciate#getWarmState() warm}, the file
+ * managers are kept open between builds too, one per classpath.<br/><br/>
+ *
+ * Javac isn't thread-safe, so compilations are serialized.
+ *
+ * @author Ryan Heaton
+ */
+public class SharedJavaCompiler {
+
+  private final Enunciate enunciate;
+  private final JavaCompiler compiler = JavacTool.create();
+  private StandardJavaFileManager fileManager;
+  private List<File> classpath;
+  private int compilations = 0;
+  private long firstCompilationMillis = 0;
+  private long sharedCompilationMillis = 0;
+
+  public SharedJavaCompiler(Enunciate enunciate) {
+    this.enunciate = enunciate;
+  }
+
+  /**
+   * Compile the specified sources, keeping the compiled classes in memory.
+   *
+   * @param classpath The classpath.
+   * @param sources   The sources to compile.
+   * @param options   The compiler options (other than the classpath and the output directory).
+   * @return The class files, keyed by their path, or null if the compile failed.
+   */
+  public synchronized Map<String, byte[]> compile(List<File> classpath, List<File> sources, List<String> options) throws IOException {
+    long start = System.currentTimeMillis();
+    WarmBuildState warmState = this.enunciate.getWarmState();
+    boolean shared = this.fileManager != null;
+    if (warmState != null) {
+      StandardJavaFileManager fileManager = warmState.getFileManager("classpath:" + classpath, this.compiler, classpath);
+      shared = fileManager == this.fileManager;
+      this.fileManager = fileManager;
+    }
+    else if (!shared) {
+      this.fileManager = this.compiler.getStandardFileManager(null, null, null);
+    }
+
+    if (!classpath.equals(this.classpath)) {
+      //a new classpath resets the indexes of the file manager, so only set it if it changed.
+      this.fileManager.setLocation(StandardLocation.CLASS_PATH, classpath);
+      this.classpath = new ArrayList<File>(classpath);
+    }
+
+    InMemoryClassFileManager classFileManager = new InMemoryClassFileManager(this.fileManager);
+    JavaCompiler.CompilationTask task = this.compiler.getTask(null, classFileManager, null, options, null, this.fileManager.getJavaFileObjectsFromFiles(sources));
+    boolean success = task.call();
+
+    long elapsed = System.currentTimeMillis() - start;
+    this.compilations++;
+    if (shared) {
+      this.sharedCompilationMillis += elapsed;
+    }
+    else {
+      this.firstCompilationMillis = elapsed;
+    }
+    this.enunciate.getLogger().debug("Compiled %s source files in %s ms (%s file manager).", sources.size(), elapsed, shared ? "shared" : "new");
+
+    return success ? classFileManager.getClassFiles() : null;
+  }
+
+  /**
+   * Close the shared file manager, reporting how it was used.
+   */
+  public synchronized void close() throws IOException {
+    if (this.fileManager != null) {
+      if (this.compilations > 1) {
+        this.enunciate.getLogger().debug("Shared compiler file manager was reused by %s compilations (first compilation: %s ms, later compilations: %s ms average).",
+                          this.compilations - 1, this.firstCompilationMillis, this.sharedCompilationMillis / (this.compilations - 1));
+      }
+
+      if (this.enunciate.getWarmState() == null) {
+        this.fileManager.close();
+      }
+      this.fileManager = null;
+      this.classpath = null;
+      this.compilations = 0;
+      this.sharedCompilationMillis = 0;
+    }
+  }
+}
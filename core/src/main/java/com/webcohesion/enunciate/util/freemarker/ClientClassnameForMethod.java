@@ -24,6 +24,7 @@ import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.TypeParameterElement;
 import javax.lang.model.type.*;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -37,6 +38,7 @@ import java.util.Map;
 public class ClientClassnameForMethod extends ClientPackageForMethod {
 
   protected final LinkedList<String> typeParameterDeclarationStack = new LinkedList<String>();
+  private final Map<String, String> convertedTypes = new HashMap<String, String>();
 
   public ClientClassnameForMethod(Map<String, String> conversions, EnunciateContext context) {
     super(conversions, context);
@@ -50,6 +52,9 @@ public class ClientClassnameForMethod extends ClientPackageForMethod {
     else if (unwrapped instanceof TypeParameterElement) {
       return convert((TypeParameterElement) unwrapped);
     }
+    else if (unwrapped instanceof TypeMirror) {
+      return convertMemoized((TypeMirror) unwrapped);
+    }
     else {
       return super.convertUnwrappedObject(unwrapped);
     }
@@ -77,7 +82,52 @@ public class ClientClassnameForMethod extends ClientPackageForMethod {
   }
 
   public String convert(HasClientConvertibleType element) throws TemplateModelException {
-    return convert(element.getClientConvertibleType());
+    return convertMemoized(element.getClientConvertibleType());
+  }
+
+  /**
+   * Converts the specified type, reusing the conversion of any type that has already been converted. Only types
+   * that are fully identified by their canonical name (i.e. that don't reference any type variables) are memoized.
+   *
+   * @param typeMirror The type to convert.
+   * @return The conversion.
+   */
+  protected String convertMemoized(TypeMirror typeMirror) throws TemplateModelException {
+    if (!isMemoizable(typeMirror)) {
+      return convert(typeMirror);
+    }
+
+    String key = typeMirror.toString();
+    String conversion = this.convertedTypes.get(key);
+    if (conversion == null) {
+      conversion = convert(typeMirror);
+      this.convertedTypes.put(key, conversion);
+    }
+    return conversion;
+  }
+
+  private static boolean isMemoizable(TypeMirror typeMirror) {
+    if (typeMirror == null) {
+      return false;
+    }
+
+    switch (typeMirror.getKind()) {
+      case DECLARED:
+        for (TypeMirror typeArg : ((DeclaredType) typeMirror).getTypeArguments()) {
+          if (!isMemoizable(typeArg)) {
+            return false;
+          }
+        }
+        return true;
+      case ARRAY:
+        return isMemoizable(((ArrayType) typeMirror).getComponentType());
+      case WILDCARD:
+        WildcardType wildcard = (WildcardType) typeMirror;
+        return (wildcard.getExtendsBound() == null || isMemoizable(wildcard.getExtendsBound()))
+          && (wildcard.getSuperBound() == null || isMemoizable(wildcard.getSuperBound()));
+      default:
+        return typeMirror.getKind().isPrimitive();
+    }
   }
 
   @Override
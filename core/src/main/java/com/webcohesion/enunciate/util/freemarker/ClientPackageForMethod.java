@@ -18,6 +18,7 @@ package com.webcohesion.enunciate.util.freemarker;
 
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.metadata.ClientName;
+import freemarker.ext.beans.BeansWrapper;
 import freemarker.ext.beans.BeansWrapperBuilder;
 import freemarker.template.Configuration;
 import freemarker.template.TemplateMethodModelEx;
@@ -32,6 +33,7 @@ import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -43,8 +45,12 @@ import java.util.TreeMap;
  */
 public class ClientPackageForMethod implements TemplateMethodModelEx {
 
+  private static final BeansWrapper WRAPPER = new BeansWrapperBuilder(Configuration.getVersion()).build();
+
   protected final TreeMap<String, String> conversions;
   protected final EnunciateContext context;
+  private final PrefixNode conversionIndex = new PrefixNode();
+  private final Map<String, String> convertedPackages = new HashMap<String, String>();
 
   /**
    * @param conversions The conversions.
@@ -58,6 +64,9 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
 
     if (conversions != null) {
       this.conversions.putAll(conversions);
+      for (Map.Entry<String, String> conversion : conversions.entrySet()) {
+        this.conversionIndex.put(conversion.getKey(), conversion.getValue());
+      }
     }
 
     this.context = context;
@@ -79,7 +88,7 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
   }
 
   protected Object unwrap(Object wrapped) throws TemplateModelException {
-    return wrapped instanceof TemplateModel ? new BeansWrapperBuilder(Configuration.getVersion()).build().unwrap((TemplateModel) wrapped) : wrapped;
+    return wrapped instanceof TemplateModel ? WRAPPER.unwrap((TemplateModel) wrapped) : wrapped;
   }
 
   /**
@@ -166,18 +175,50 @@ public class ClientPackageForMethod implements TemplateMethodModelEx {
    */
   public String convert(String fqn) {
     //todo: support for regular expressions or wildcards?
-    if (this.conversions.containsKey(fqn)) {
-      return this.conversions.get(fqn);
+    String conversion = this.convertedPackages.get(fqn);
+    if (conversion == null) {
+      conversion = this.conversionIndex.convert(fqn);
+      this.convertedPackages.put(fqn, conversion);
     }
+    return conversion;
+  }
 
-    for (String pkg : this.conversions.keySet()) {
-      if (fqn.startsWith(pkg)) {
-        String conversion = conversions.get(pkg);
-        return conversion + fqn.substring(pkg.length());
+  /**
+   * Index of the package conversions, used to look up the longest configured prefix of a name without
+   * iterating over every conversion.
+   */
+  private static final class PrefixNode {
+
+    private final Map<Character, PrefixNode> children = new HashMap<Character, PrefixNode>();
+    private String conversion;
+
+    void put(String pkg, String conversion) {
+      PrefixNode node = this;
+      for (int i = 0; i < pkg.length(); i++) {
+        PrefixNode child = node.children.get(pkg.charAt(i));
+        if (child == null) {
+          child = new PrefixNode();
+          node.children.put(pkg.charAt(i), child);
+        }
+        node = child;
       }
+      node.conversion = conversion;
     }
 
-    return fqn;
+    String convert(String fqn) {
+      String conversion = this.conversion;
+      int matched = 0;
+      PrefixNode node = this;
+      for (int i = 0; i < fqn.length() && node != null; i++) {
+        node = node.children.get(fqn.charAt(i));
+        if (node != null && node.conversion != null) {
+          conversion = node.conversion;
+          matched = i + 1;
+        }
+      }
+
+      return conversion == null ? fqn : conversion + fqn.substring(matched);
+    }
   }
 
 }
@@ -5,12 +5,20 @@ import freemarker.core.Environment;
 import freemarker.template.*;
 import freemarker.template.utility.DeepUnwrap;
 
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
+ * A directive that writes its body to a file. A file whose content hasn't changed isn't rewritten (only its
+ * modification time is updated, so it's still up-to-date with the sources), so that watched builds only rewrite the
+ * files that actually changed.
+ *
  * @author Ryan Heaton
  */
 public class FileDirective implements TemplateDirectiveModel {
@@ -58,9 +66,38 @@ public class FileDirective implements TemplateDirectiveModel {
       output.getParentFile().mkdirs();
     }
 
-    PrintWriter writer = new PrintWriter(output, charset);
+    StringWriter buffer = new StringWriter();
+    body.render(buffer);
+    byte[] content = buffer.toString().getBytes(charset);
+    if (isUnchanged(output, content)) {
+      this.logger.debug("%s is unchanged.", output);
+      output.setLastModified(System.currentTimeMillis());
+      return;
+    }
+
     this.logger.debug("Writing %s...", output);
-    body.render(writer);
-    writer.close();
+    FileOutputStream out = new FileOutputStream(output);
+    try {
+      out.write(content);
+    }
+    finally {
+      out.close();
+    }
+  }
+
+  private static boolean isUnchanged(File file, byte[] content) throws IOException {
+    if (!file.isFile() || file.length() != content.length) {
+      return false;
+    }
+
+    byte[] existing = new byte[content.length];
+    DataInputStream in = new DataInputStream(new FileInputStream(file));
+    try {
+      in.readFully(existing);
+    }
+    finally {
+      in.close();
+    }
+    return Arrays.equals(existing, content);
   }
 }
@@ -1,21 +1,35 @@
 package com.webcohesion.enunciate;
 
+import com.webcohesion.enunciate.api.ApiRegistry;
+import com.webcohesion.enunciate.api.datatype.Namespace;
+import com.webcohesion.enunciate.api.datatype.Syntax;
+import com.webcohesion.enunciate.api.resources.MediaTypeDescriptor;
+import com.webcohesion.enunciate.javac.decorations.type.DecoratedTypeMirror;
+import com.webcohesion.enunciate.module.ApiModelGeneratingModule;
+import com.webcohesion.enunciate.module.ApiRegistryAwareModule;
+import com.webcohesion.enunciate.module.BasicEnunicateModule;
 import com.webcohesion.enunciate.module.DependencySpec;
 import com.webcohesion.enunciate.module.DependingModuleAwareModule;
 import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.module.IndexedTypeFilteringModule;
+import com.webcohesion.enunciate.module.TypeFilterRules;
 import com.webcohesion.enunciate.module.TypeFilteringModule;
 import org.jgrapht.DirectedGraph;
 import org.jgrapht.graph.DefaultEdge;
 import org.junit.Test;
-import org.reflections.Reflections;
 import org.reflections.adapters.MetadataAdapter;
 
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
 import javax.tools.JavaCompiler;
 import javax.tools.ToolProvider;
 import java.io.*;
 import java.net.URI;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 
@@ -82,12 +96,36 @@ public class EnunciateTest {
     assertTrue("'e' should be before 'f': " + moduleCallOrder, moduleCallOrder.indexOf("e") < moduleCallOrder.indexOf("f"));
   }
 
+  @Test
+  public void testSourceLastModified() throws Exception {
+    File dir = createTempDir();
+
+    //the up-to-date checks of the modules see an edited source file.
+    File source = new File(dir, "Source.java");
+    copy(new ByteArrayInputStream("class Source {}".getBytes("utf-8")), source);
+    source.setLastModified(1000000000000L);
+    Enunciate.URLFileObject fileObject = new Enunciate.URLFileObject(source.toURI().toURL());
+    assertEquals(source.lastModified(), fileObject.getLastModified());
+    source.setLastModified(1000000002000L);
+    assertEquals(source.lastModified(), fileObject.getLastModified());
+
+    //a source in a jar file is as recent as the jar file.
+    File jar = new File(dir, "sources.jar");
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+    out.putNextEntry(new JarEntry("Source.java"));
+    out.write("class Source {}".getBytes("utf-8"));
+    out.closeEntry();
+    out.close();
+    jar.setLastModified(1000000004000L);
+    fileObject = new Enunciate.URLFileObject(new URL("jar:" + jar.toURI().toURL() + "!/Source.java"));
+    assertEquals(jar.lastModified(), fileObject.getLastModified());
+  }
+
   @Test
   public void testClasspathScanning() throws Exception {
     Enunciate enunciate = new Enunciate();
     enunciate.setModules(Arrays.asList((EnunciateModule) new TestModule("test", new ArrayList<String>())));
-    Reflections reflections = enunciate.loadApiReflections(buildTestClasspath());
-    Set<String> scannedEntries = reflections.getStore().get(EnunciateReflectionsScanner.class.getSimpleName()).keySet();
+    Set<String> scannedEntries = enunciate.scanApiEntries(buildTestClasspath());
     assertTrue(scannedEntries.contains("enunciate.Class1"));
     assertTrue(scannedEntries.contains("enunciate.Class2"));
     assertTrue(scannedEntries.contains("enunciate.Class3"));
@@ -96,7 +134,151 @@ public class EnunciateTest {
     assertFalse(scannedEntries.isEmpty());
   }
 
-  private List<URL> buildTestClasspath() throws Exception {
+  @Test
+  public void testClasspathScanningInRanges() throws Exception {
+    Enunciate enunciate = new Enunciate();
+    enunciate.addExclude("enunciate.Class3");
+    enunciate.setModules(Arrays.asList((EnunciateModule) new TestModule("test", new ArrayList<String>())));
+    ClasspathScanner scanner = new ClasspathScanner(new EnunciateReflectionsScanner(enunciate, enunciate.getModules()), enunciate.getLogger(), 1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    Set<String> scannedEntries;
+    try {
+      scannedEntries = scanner.scan(buildTestClasspath(), executor, 2);
+    }
+    finally {
+      executor.shutdown();
+    }
+    assertTrue(scannedEntries.contains("enunciate.Class1"));
+    assertTrue(scannedEntries.contains("enunciate.Class2"));
+    assertTrue(scannedEntries.contains("enunciate/Class1.java"));
+    assertEquals(3, scannedEntries.size());
+  }
+
+  @Test
+  public void testClasspathScanningStopsTheHelpers() throws Exception {
+    Enunciate enunciate = new Enunciate();
+    enunciate.setModules(Arrays.asList((EnunciateModule) new TestModule("test", new ArrayList<String>())));
+    EnunciateReflectionsScanner typeScanner = new EnunciateReflectionsScanner(enunciate, enunciate.getModules());
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      //nothing to scan: the helpers don't wait for chunks that never come.
+      assertTrue(new ClasspathScanner(typeScanner, enunciate.getLogger(), 1).scan(new ArrayList<File>(), executor, 2).isEmpty());
+
+      //a failing chunk fails the scan, whichever thread runs it, and the other threads stop.
+      ClasspathScanner failingScanner = new ClasspathScanner(typeScanner, enunciate.getLogger(), 1) {
+        @Override
+        protected boolean needsRead(String path) {
+          if (path.endsWith("Class2.class")) {
+            throw new IllegalStateException("unreadable");
+          }
+          return super.needsRead(path);
+        }
+      };
+      try {
+        failingScanner.scan(buildTestClasspath(), executor, 2);
+        fail();
+      }
+      catch (RuntimeException e) {
+        assertEquals("unreadable", e instanceof IllegalStateException ? e.getMessage() : e.getCause().getMessage());
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testClasspathScanningWithTypeIndex() throws Exception {
+    Enunciate enunciate = new Enunciate();
+    enunciate.addExclude("enunciate.Class3");
+    IndexedTestModule module = new IndexedTestModule(new TypeFilterRules().extending(EnunciateTest.class.getName()).detecting("enunciate.Class3"));
+    enunciate.setModules(Arrays.asList((EnunciateModule) module));
+    Set<String> scannedEntries = enunciate.scanApiEntries(buildTestClasspath());
+    assertTrue(scannedEntries.contains("enunciate.Class2"));
+    assertTrue(scannedEntries.contains("enunciate/Class1.java"));
+    assertEquals(2, scannedEntries.size());
+    assertEquals(Collections.singleton("enunciate.Class3"), module.detectedTypes);
+  }
+
+  @Test
+  public void testGenerateFromModel() throws Exception {
+    File sourceDir = createTempDir();
+    File packageDir = new File(sourceDir, "enunciate");
+    packageDir.mkdirs();
+    copy(getClass().getResourceAsStream("/enunciate/Class1.java"), new File(packageDir, "Class1.java"));
+    File license = new File(sourceDir, "license.txt");
+    copy(new ByteArrayInputStream("Licensed.".getBytes("utf-8")), license);
+    File buildDir = createTempDir();
+    File output = new File(buildDir, "generated.txt");
+
+    //a build saves the api model.
+    List<String> moduleCallOrder = new ArrayList<String>();
+    Enunciate enunciate = createModelEnunciate(sourceDir, buildDir, license, moduleCallOrder);
+    enunciate.run();
+    assertTrue(enunciate.getApiModelFile().exists());
+    assertEquals(Arrays.asList("provider", "generator"), moduleCallOrder);
+    String generated = read(output);
+    assertEquals("Class1 (api)\n", generated);
+
+    //the next build generates from the saved model, without the compiler, and generates the same output.
+    moduleCallOrder.clear();
+    output.delete();
+    enunciate = createModelEnunciate(sourceDir, buildDir, license, moduleCallOrder);
+    assertTrue(enunciate.generateFromModel());
+    assertEquals(Arrays.asList("generator"), moduleCallOrder);
+    assertEquals(generated, read(output));
+
+    //the contents of the files the configuration refers to are fingerprinted, not just their sizes and timestamps.
+    long lastModified = license.lastModified();
+    copy(new ByteArrayInputStream("Licensed!".getBytes("utf-8")), license);
+    license.setLastModified(lastModified);
+    assertFalse(createModelEnunciate(sourceDir, buildDir, license, moduleCallOrder).generateFromModel());
+
+    //the model is neither saved nor read unless it's enabled.
+    File otherBuildDir = createTempDir();
+    enunciate = createModelEnunciate(sourceDir, otherBuildDir, license, moduleCallOrder);
+    enunciate.setApiModelEnabled(false);
+    enunciate.run();
+    assertFalse(enunciate.getApiModelFile().exists());
+    assertFalse(createModelEnunciate(sourceDir, buildDir, license, moduleCallOrder).setApiModelEnabled(false).generateFromModel());
+  }
+
+  private Enunciate createModelEnunciate(File sourceDir, File buildDir, File license, List<String> moduleCallOrder) {
+    Enunciate enunciate = new Enunciate();
+    EnunciateConsoleLogger logger = new EnunciateConsoleLogger();
+    logger.setInfoEnabled(false);
+    enunciate.setLogger(logger);
+    enunciate.loadConfiguration(new StringReader("<enunciate><code-license file=\"" + license.getAbsolutePath() + "\"/></enunciate>"));
+    enunciate.addSourceDir(sourceDir);
+    enunciate.setBuildDir(buildDir);
+    enunciate.setApiModelEnabled(true);
+    enunciate.addModule(new ModelProviderModule(moduleCallOrder));
+    enunciate.addModule(new ModelGeneratorModule(moduleCallOrder));
+    return enunciate;
+  }
+
+  private static void copy(InputStream in, File file) throws IOException {
+    copy(in, new FileOutputStream(file));
+  }
+
+  private static String read(File file) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    copy(new FileInputStream(file), bytes);
+    return bytes.toString("utf-8");
+  }
+
+  private static void copy(InputStream in, OutputStream out) throws IOException {
+    byte[] buffer = new byte[1024];
+    int len;
+    while ((len = in.read(buffer)) > 0) {
+      out.write(buffer, 0, len);
+    }
+    in.close();
+    out.close();
+  }
+
+  private List<File> buildTestClasspath() throws Exception {
     JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 
     Enunciate.URLFileObject source1 = new Enunciate.URLFileObject(getClass().getResource("/enunciate/Class1.java"));
@@ -131,7 +313,7 @@ public class EnunciateTest {
     File jar2 = File.createTempFile("EnunciateTest", ".jar");
     jar(jar2, outputDir2);
 
-    return Arrays.asList(jar1.toURI().toURL(), jar2.toURI().toURL(), outputDir3.toURI().toURL());
+    return Arrays.asList(jar1, jar2, outputDir3);
   }
 
   public void jar(File toFile, File... dirs) throws IOException {
@@ -252,4 +434,162 @@ public class EnunciateTest {
       return true;
     }
   }
+
+  private class IndexedTestModule extends TestModule implements IndexedTypeFilteringModule {
+
+    private final TypeFilterRules rules;
+    private Set<String> detectedTypes;
+
+    private IndexedTestModule(TypeFilterRules rules) {
+      super("indexed", new ArrayList<String>());
+      this.rules = rules;
+    }
+
+    @Override
+    public TypeFilterRules getTypeFilterRules() {
+      return this.rules;
+    }
+
+    @Override
+    public void acknowledgeDetectedTypes(Set<String> detectedTypes) {
+      this.detectedTypes = detectedTypes;
+    }
+
+    @Override
+    public boolean acceptType(Object type, MetadataAdapter metadata) {
+      return this.rules.accept(type, metadata);
+    }
+  }
+
+  /**
+   * Provides a syntax for the api types to the api registry.
+   */
+  private static class ModelProviderModule extends BasicEnunicateModule implements ApiRegistryAwareModule {
+
+    private final List<String> moduleCallOrder;
+    private ApiRegistry registry;
+
+    private ModelProviderModule(List<String> moduleCallOrder) {
+      this.moduleCallOrder = moduleCallOrder;
+    }
+
+    @Override
+    public String getName() {
+      return "provider";
+    }
+
+    @Override
+    public void setApiRegistry(ApiRegistry registry) {
+      this.registry = registry;
+    }
+
+    @Override
+    public void call(EnunciateContext context) {
+      this.moduleCallOrder.add(getName());
+      TreeSet<String> names = new TreeSet<String>();
+      for (Element element : context.getLocalApiElements()) {
+        names.add(((TypeElement) element).getSimpleName().toString());
+      }
+      this.registry.getSyntaxes().add(new TestSyntax(names.toString().replaceAll("[\\[\\]]", "")));
+    }
+  }
+
+  /**
+   * Generates a file from the api registry alone.
+   */
+  private static class ModelGeneratorModule extends BasicEnunicateModule implements ApiModelGeneratingModule {
+
+    private final List<String> moduleCallOrder;
+    private ApiRegistry registry;
+
+    private ModelGeneratorModule(List<String> moduleCallOrder) {
+      this.moduleCallOrder = moduleCallOrder;
+    }
+
+    @Override
+    public String getName() {
+      return "generator";
+    }
+
+    @Override
+    public List<DependencySpec> getDependencySpecifications() {
+      return Arrays.asList((DependencySpec) new DependencySpec() {
+        @Override
+        public boolean accept(EnunciateModule module) {
+          return "provider".equals(module.getName());
+        }
+
+        @Override
+        public boolean isFulfilled() {
+          return true;
+        }
+      });
+    }
+
+    @Override
+    public void setApiRegistry(ApiRegistry registry) {
+      this.registry = registry;
+    }
+
+    @Override
+    public void call(EnunciateContext context) {
+      this.moduleCallOrder.add(getName());
+      StringBuilder generated = new StringBuilder();
+      for (Syntax syntax : this.registry.getSyntaxes()) {
+        generated.append(syntax.getLabel()).append(" (").append(syntax.getId()).append(")\n");
+      }
+      try {
+        FileWriter writer = new FileWriter(new File(this.enunciate.getBuildDir(), "generated.txt"));
+        writer.write(generated.toString());
+        writer.close();
+      }
+      catch (IOException e) {
+        throw new EnunciateException(e);
+      }
+    }
+  }
+
+  private static class TestSyntax implements Syntax {
+
+    private final String label;
+
+    private TestSyntax(String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String getId() {
+      return "api";
+    }
+
+    @Override
+    public String getSlug() {
+      return "syntax_api";
+    }
+
+    @Override
+    public String getLabel() {
+      return this.label;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return false;
+    }
+
+    @Override
+    public List<Namespace> getNamespaces() {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public MediaTypeDescriptor findMediaTypeDescriptor(String mediaType, DecoratedTypeMirror typeMirror) {
+      return null;
+    }
+
+    @Override
+    public int compareTo(Syntax syntax) {
+      return getId().compareTo(syntax.getId());
+    }
+  }
 }
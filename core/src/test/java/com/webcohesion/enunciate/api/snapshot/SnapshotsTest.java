@@ -0,0 +1,198 @@
+package com.webcohesion.enunciate.api.snapshot;
+
+import com.webcohesion.enunciate.api.ApiRegistry;
+import com.webcohesion.enunciate.api.datatype.*;
+import com.webcohesion.enunciate.api.resources.MediaTypeDescriptor;
+import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
+import org.junit.Test;
+
+import javax.lang.model.element.AnnotationMirror;
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class SnapshotsTest {
+
+  @Test
+  public void testPropertyMetadataIsCaptured() throws Exception {
+    DataType person = person(syntax());
+    DataType snapshot = new Snapshots().snapshot(person, DataType.class);
+    assertTrue(snapshot instanceof DataTypeSnapshot);
+    assertEquals("Person", snapshot.getLabel());
+    assertEquals(Arrays.asList("namespaceInfo", "defaultValue"), new ArrayList<String>(snapshot.getPropertyMetadata().keySet()));
+
+    PropertySnapshot property = (PropertySnapshot) snapshot.getProperties().get(0);
+    assertEquals("name", property.getName());
+    assertEquals("ns0", ((PropertyMetadata) property.get("namespaceInfo")).getValue());
+    assertEquals("anonymous", property.getMetadata("defaultValue"));
+
+    //metadata that isn't declared by the data type isn't captured.
+    assertNull(property.get("secret"));
+  }
+
+  @Test
+  public void testSnapshotIsDetached() throws Exception {
+    Syntax syntax = syntax();
+    DataType person = person(syntax);
+    DataType snapshot = new Snapshots().snapshot(person, DataType.class);
+
+    //the annotations are javac objects, so they aren't captured.
+    assertFalse(person.getAnnotations().isEmpty());
+    assertTrue(snapshot.getAnnotations().isEmpty());
+    assertTrue(snapshot.getProperties().get(0).getAnnotations().isEmpty());
+
+    //the javadoc is copied.
+    assertEquals("A person.", snapshot.getJavaDoc().toString());
+    assertEquals("1.1", snapshot.getJavaDoc().get("since").toString());
+    person.getJavaDoc().setValue("Changed.");
+    person.getJavaDoc().get("since").add("1.2");
+    assertEquals("A person.", snapshot.getJavaDoc().toString());
+    assertEquals(1, snapshot.getJavaDoc().get("since").size());
+
+    //media types aren't looked up against the live syntax.
+    assertNotNull(syntax.findMediaTypeDescriptor("application/json", null));
+    assertNull(snapshot.getSyntax().findMediaTypeDescriptor("application/json", null));
+
+    //everything is serializable.
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(snapshot);
+    out.close();
+    DataType read = (DataType) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertEquals("Person", read.getLabel());
+    assertEquals("anonymous", read.getProperties().get(0).getMetadata("defaultValue"));
+    assertEquals("1.1", read.getJavaDoc().get("since").toString());
+  }
+
+  @Test
+  public void testCyclicReferencesResolveToTheSameSnapshot() throws Exception {
+    Syntax syntax = syntax();
+    DataType person = person(syntax);
+    Snapshots snapshots = new Snapshots();
+    DataType snapshot = snapshots.snapshot(person, DataType.class);
+
+    //the namespace of the data type lists the data type (created anew by the live model), which is found by its slug.
+    Namespace namespace = snapshot.getNamespace();
+    assertSame(snapshot, namespace.getTypes().get(0));
+    assertSame(namespace, snapshot.getSyntax().getNamespaces().get(0));
+    assertSame(snapshot, snapshots.snapshot(person(syntax), DataType.class));
+  }
+
+  @Test
+  public void testRegistrySnapshotIsTakenOnce() throws Exception {
+    ApiRegistry registry = new ApiRegistry();
+    registry.getSyntaxes().add(syntax());
+
+    ApiRegistry snapshot = registry.snapshot();
+    assertSame(snapshot, registry.snapshot());
+    assertSame(snapshot, snapshot.snapshot());
+    assertEquals(1, snapshot.getSyntaxes().size());
+    Syntax syntax = snapshot.getSyntaxes().iterator().next();
+    assertTrue(syntax instanceof SyntaxSnapshot);
+    assertEquals("Person", syntax.getNamespaces().get(0).getTypes().get(0).getLabel());
+    try {
+      snapshot.getSyntaxes().clear();
+      fail();
+    }
+    catch (UnsupportedOperationException e) {
+      //fall through.
+    }
+  }
+
+  private static Syntax syntax() {
+    final Map<String, Object> values = new HashMap<String, Object>();
+    final Syntax syntax = stub(Syntax.class, values);
+    values.put("getId", "json");
+    values.put("getSlug", "syntax_json");
+    values.put("getLabel", "JSON");
+    values.put("getNamespaces", Arrays.asList(stub(Namespace.class, new HashMap<String, Object>() {{
+      put("getUri", "urn:people");
+      put("getTypes", new Lazy() {
+        @Override
+        public Object get() {
+          return Arrays.asList(person(syntax));
+        }
+      });
+    }})));
+    values.put("findMediaTypeDescriptor", stub(MediaTypeDescriptor.class, Collections.<String, Object>singletonMap("getMediaType", "application/json")));
+    return syntax;
+  }
+
+  private static DataType person(Syntax syntax) {
+    Map<String, String> propertyMetadata = new LinkedHashMap<String, String>();
+    propertyMetadata.put("namespaceInfo", "namespace");
+    propertyMetadata.put("defaultValue", "default");
+
+    Map<String, Object> metadata = new HashMap<String, Object>();
+    metadata.put("namespaceInfo", new PropertyMetadata("ns0", "urn:people", null));
+    metadata.put("defaultValue", "anonymous");
+    metadata.put("secret", "hidden");
+
+    Map<String, Object> property = new HashMap<String, Object>();
+    property.put("getName", "name");
+    property.put("getMetadata", metadata);
+    property.put("getAnnotations", Collections.singletonMap("javax.annotation.Nonnull", (AnnotationMirror) null));
+
+    Map<String, Object> person = new HashMap<String, Object>();
+    person.put("getLabel", "Person");
+    person.put("getSlug", "json_Person");
+    person.put("getSyntax", syntax);
+    person.put("getNamespace", syntax.getNamespaces().get(0));
+    person.put("getProperties", Arrays.asList(stub(Property.class, property)));
+    person.put("getPropertyMetadata", propertyMetadata);
+    person.put("getAnnotations", Collections.singletonMap("javax.xml.bind.annotation.XmlRootElement", (AnnotationMirror) null));
+    person.put("getJavaDoc", new JavaDoc("A person.\n@since 1.1", null));
+    return stub(DataType.class, person);
+  }
+
+  /**
+   * A value of a stub that's computed when it's read.
+   */
+  private interface Lazy {
+    Object get();
+  }
+
+  /**
+   * Stub an interface of the API model with the specified values, by method name. The value of a method that takes
+   * a (single) argument is looked up by that argument if it's a map.
+   */
+  private static <T> T stub(Class<T> type, final Map<String, Object> values) {
+    return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new InvocationHandler() {
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ("hashCode".equals(method.getName())) {
+          return System.identityHashCode(proxy);
+        }
+        else if ("equals".equals(method.getName())) {
+          return proxy == args[0];
+        }
+        else if ("toString".equals(method.getName())) {
+          return "stub";
+        }
+
+        Object value = values.get(method.getName());
+        if (value instanceof Lazy) {
+          value = ((Lazy) value).get();
+        }
+        else if (value instanceof Map && args != null && args.length == 1) {
+          value = ((Map) value).get(args[0]);
+        }
+
+        if (value == null && method.getReturnType() == Boolean.TYPE) {
+          value = Boolean.FALSE;
+        }
+        else if (value == null && method.getReturnType() == Integer.TYPE) {
+          value = 0;
+        }
+        return value;
+      }
+    }));
+  }
+}
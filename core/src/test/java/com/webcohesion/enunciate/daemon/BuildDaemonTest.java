@@ -0,0 +1,302 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateContext;
+import com.webcohesion.enunciate.EnunciateException;
+import com.webcohesion.enunciate.EnunciateLogger;
+import com.webcohesion.enunciate.artifacts.Artifact;
+import com.webcohesion.enunciate.artifacts.FileArtifact;
+import com.webcohesion.enunciate.metadata.Ignore;
+import com.webcohesion.enunciate.module.BasicGeneratingModule;
+import com.webcohesion.enunciate.module.EnunciateModule;
+import freemarker.cache.URLTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class BuildDaemonTest {
+
+  private BuildDaemon daemon;
+  private File daemonFile;
+  private Thread serveThread;
+
+  @Before
+  public void startDaemon() throws Exception {
+    TemplateModule.TEMPLATE = null;
+    TemplateModule.CONFIGURATIONS.clear();
+    this.daemonFile = new File(createTempDir(), "daemon.properties");
+    this.daemon = new BuildDaemon(this.daemonFile, 0, new SilentLogger());
+    this.daemon.start();
+    this.serveThread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          daemon.serve();
+        }
+        catch (IOException e) {
+          //fall through...
+        }
+      }
+    };
+    this.serveThread.start();
+  }
+
+  @After
+  public void stopDaemon() throws Exception {
+    this.daemon.stop();
+    this.serveThread.join(10000);
+  }
+
+  @Test
+  public void testInvalidTokenIsRejected() throws Exception {
+    //nothing sent after an invalid token is deserialized.
+    Socket socket = new Socket(InetAddress.getByName(null), this.daemon.getPort());
+    ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+    out.flush();
+    ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+    try {
+      out.writeUTF("not-the-token");
+      out.writeObject(new Tripwire());
+      out.flush();
+      in.readObject();
+      fail("The daemon should have closed the connection.");
+    }
+    catch (IOException e) {
+      //fall through: the daemon closed the connection.
+    }
+    finally {
+      socket.close();
+    }
+    assertFalse(Tripwire.DESERIALIZED);
+
+    //a client with the wrong token fails instead of building.
+    Properties properties = new Properties();
+    properties.setProperty("port", String.valueOf(this.daemon.getPort()));
+    properties.setProperty("token", "not-the-token");
+    File wrongFile = new File(createTempDir(), "daemon.properties");
+    FileOutputStream fileOut = new FileOutputStream(wrongFile);
+    properties.store(fileOut, null);
+    fileOut.close();
+    TemplateModule.TEMPLATE = writeTemplate(new File(createTempDir(), "hello.fmt"), "Hello, ${name}!");
+    Enunciate enunciate = engine();
+    try {
+      new BuildDaemonClient(wrongFile).build(enunciate, new BuildRequest(enunciate, Arrays.asList(moduleJar(new File(createTempDir(), "modules.jar")))));
+      fail("The build should have been rejected.");
+    }
+    catch (EnunciateException e) {
+      //fall through.
+    }
+    assertTrue(TemplateModule.CONFIGURATIONS.isEmpty());
+  }
+
+  @Test
+  public void testWarmBuildMatchesColdBuild() throws Exception {
+    TemplateModule.TEMPLATE = writeTemplate(new File(createTempDir(), "hello.fmt"), "Hello, ${name}!");
+    List<URL> moduleClasspath = Arrays.asList(moduleJar(new File(createTempDir(), "modules.jar")));
+
+    Enunciate cold = engine();
+    cold.addModule(new TemplateModule());
+    cold.run();
+    String coldOutput = readOutput(cold);
+    assertEquals("Hello, daemon!", coldOutput);
+
+    //the first build through the daemon parses the template, the second reuses it; both build the same artifacts.
+    assertEquals(coldOutput, readOutput(buildThroughDaemon(moduleClasspath)));
+    assertEquals(coldOutput, readOutput(buildThroughDaemon(moduleClasspath)));
+    assertEquals(3, TemplateModule.CONFIGURATIONS.size());
+    assertNotSame(TemplateModule.CONFIGURATIONS.get(0), TemplateModule.CONFIGURATIONS.get(1));
+    assertSame(TemplateModule.CONFIGURATIONS.get(1), TemplateModule.CONFIGURATIONS.get(2));
+  }
+
+  @Test
+  public void testWarmStateIsInvalidated() throws Exception {
+    File template = new File(createTempDir(), "hello.fmt");
+    TemplateModule.TEMPLATE = writeTemplate(template, "Hello, ${name}!");
+    File jar = new File(createTempDir(), "modules.jar");
+    List<URL> moduleClasspath = Arrays.asList(moduleJar(jar));
+    assertEquals("Hello, daemon!", readOutput(buildThroughDaemon(moduleClasspath)));
+    WarmBuildState state = this.daemon.getWarmState(moduleClasspath);
+
+    //a changed template is parsed again by the same configuration.
+    writeTemplate(template, "Goodbye, ${name}!");
+    assertEquals("Goodbye, daemon!", readOutput(buildThroughDaemon(moduleClasspath)));
+    assertSame(state, this.daemon.getWarmState(moduleClasspath));
+    assertSame(TemplateModule.CONFIGURATIONS.get(0), TemplateModule.CONFIGURATIONS.get(1));
+
+    //changed module jars drop the warm state, including the template configurations.
+    moduleJar(jar);
+    assertEquals("Goodbye, daemon!", readOutput(buildThroughDaemon(moduleClasspath)));
+    assertNotSame(state, this.daemon.getWarmState(moduleClasspath));
+    assertNotSame(TemplateModule.CONFIGURATIONS.get(1), TemplateModule.CONFIGURATIONS.get(2));
+  }
+
+  private Enunciate buildThroughDaemon(List<URL> moduleClasspath) throws IOException {
+    Enunciate enunciate = engine();
+    assertTrue(new BuildDaemonClient(this.daemonFile).build(enunciate, new BuildRequest(enunciate, moduleClasspath)));
+    return enunciate;
+  }
+
+  private static Enunciate engine() throws IOException {
+    Enunciate enunciate = new Enunciate();
+    enunciate.setLogger(new SilentLogger());
+    enunciate.setBuildDir(createTempDir());
+    //the classpath of the build only needs the annotations the engine compiles with.
+    try {
+      enunciate.setClasspath(Arrays.asList(new File(Ignore.class.getProtectionDomain().getCodeSource().getLocation().toURI())));
+    }
+    catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+    return enunciate;
+  }
+
+  private static String readOutput(Enunciate enunciate) throws IOException {
+    Artifact artifact = enunciate.findArtifact("daemon-test-output");
+    assertNotNull(artifact);
+    return read(((FileArtifact) artifact).getFile());
+  }
+
+  private static URL writeTemplate(File template, String contents) throws IOException {
+    long lastModified = template.lastModified();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(template), "utf-8");
+    writer.write(contents);
+    writer.close();
+    if (lastModified > 0) {
+      //make sure the change is seen even if the file system has a coarse timestamp resolution.
+      template.setLastModified(lastModified + 2000);
+    }
+    return template.toURI().toURL();
+  }
+
+  private static URL moduleJar(File jar) throws IOException {
+    long lastModified = jar.lastModified();
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+    out.putNextEntry(new JarEntry("META-INF/services/" + EnunciateModule.class.getName()));
+    out.write((TemplateModule.class.getName() + "\n").getBytes("utf-8"));
+    out.closeEntry();
+    out.putNextEntry(new JarEntry("build.txt"));
+    out.write(String.valueOf(System.nanoTime()).getBytes("utf-8"));
+    out.closeEntry();
+    out.close();
+    if (lastModified > 0) {
+      jar.setLastModified(lastModified + 2000);
+    }
+    return jar.toURI().toURL();
+  }
+
+  private static String read(File file) throws IOException {
+    Reader reader = new InputStreamReader(new FileInputStream(file), "utf-8");
+    StringWriter out = new StringWriter();
+    char[] buffer = new char[1024];
+    int len;
+    while ((len = reader.read(buffer)) > 0) {
+      out.write(buffer, 0, len);
+    }
+    reader.close();
+    return out.toString();
+  }
+
+  private static File createTempDir() throws IOException {
+    File tempDir = File.createTempFile("BuildDaemonTest", "");
+    tempDir.delete();
+    tempDir.mkdirs();
+    return tempDir;
+  }
+
+  /**
+   * A module that renders a template with the shared template configuration.
+   */
+  public static class TemplateModule extends BasicGeneratingModule {
+
+    static volatile URL TEMPLATE;
+    static final List<Configuration> CONFIGURATIONS = Collections.synchronizedList(new ArrayList<Configuration>());
+
+    @Override
+    public String getName() {
+      return "daemon-test";
+    }
+
+    @Override
+    protected Configuration createTemplateConfiguration() {
+      Configuration configuration = super.createTemplateConfiguration();
+      configuration.setTemplateLoader(new URLTemplateLoader() {
+        protected URL getURL(String name) {
+          try {
+            return new URL(name);
+          }
+          catch (MalformedURLException e) {
+            return null;
+          }
+        }
+      });
+      configuration.setLocalizedLookup(false);
+      return configuration;
+    }
+
+    @Override
+    public void call(EnunciateContext context) {
+      Configuration configuration = getTemplateConfiguration();
+      CONFIGURATIONS.add(configuration);
+
+      try {
+        Template template = configuration.getTemplate(TEMPLATE.toString());
+        File output = new File(this.enunciate.getBuildDir(), "output.txt");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(output), "utf-8");
+        template.process(Collections.singletonMap("name", "daemon"), writer);
+        writer.close();
+        this.enunciate.addArtifact(new FileArtifact(getName(), "daemon-test-output", output));
+      }
+      catch (Exception e) {
+        throw new EnunciateException(e);
+      }
+    }
+  }
+
+  /**
+   * An object that notes whether it was deserialized.
+   */
+  public static class Tripwire implements Serializable {
+
+    static volatile boolean DESERIALIZED = false;
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      in.defaultReadObject();
+      DESERIALIZED = true;
+    }
+  }
+
+  private static class SilentLogger implements EnunciateLogger {
+    @Override
+    public void debug(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void info(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void warn(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void error(String message, Object... formatArgs) {
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.webcohesion.enunciate.daemon;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateLogger;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class BuildWatcherTest {
+
+  @Test
+  public void testSnapshotDiff() throws Exception {
+    File dir = createTempDir();
+    File a = write(new File(dir, "A.java"), "class A {}");
+    File b = write(new File(new File(dir, "pckg"), "B.java"), "class B {}");
+    write(new File(dir, ".hidden"), "ignored");
+    File single = write(new File(createTempDir(), "enunciate.xml"), "<enunciate/>");
+    Set<File> inputs = new TreeSet<File>(Arrays.asList(dir, single, new File(dir, "missing")));
+
+    BuildWatcher watcher = newWatcher(inputs);
+    Map<String, String> snapshot = watcher.snapshot(inputs);
+    assertEquals(new TreeSet<String>(Arrays.asList(a.getAbsolutePath(), b.getAbsolutePath(), single.getAbsolutePath())), snapshot.keySet());
+    assertEquals(snapshot, watcher.snapshot(inputs));
+
+    //a hidden file isn't an input.
+    write(new File(dir, ".hidden"), "still ignored");
+    assertEquals(snapshot, watcher.snapshot(inputs));
+
+    //a file with the same length and a new modification time changed.
+    long lastModified = a.lastModified();
+    write(a, "class Z {}");
+    a.setLastModified(lastModified + 2000);
+    Map<String, String> modified = watcher.snapshot(inputs);
+    assertEquals(snapshot.keySet(), modified.keySet());
+    assertFalse(snapshot.get(a.getAbsolutePath()).equals(modified.get(a.getAbsolutePath())));
+
+    //a file with a new length and the same modification time changed.
+    lastModified = b.lastModified();
+    write(b, "class B { }");
+    b.setLastModified(lastModified);
+    assertFalse(modified.equals(watcher.snapshot(inputs)));
+
+    //added and deleted files changed.
+    File c = write(new File(dir, "C.java"), "class C {}");
+    assertTrue(watcher.snapshot(inputs).containsKey(c.getAbsolutePath()));
+    assertTrue(c.delete());
+    assertTrue(single.delete());
+    assertFalse(watcher.snapshot(inputs).containsKey(c.getAbsolutePath()));
+    assertFalse(watcher.snapshot(inputs).containsKey(single.getAbsolutePath()));
+  }
+
+  @Test
+  public void testChangesAreDebounced() throws Exception {
+    File dir = createTempDir();
+    File a = write(new File(dir, "A.java"), "class A {}");
+    File b = write(new File(dir, "B.java"), "class B {}");
+    final CountingWatcher watcher = newWatcher(new TreeSet<File>(Collections.singleton(dir)));
+    watcher.setPollInterval(50);
+    watcher.setQuietPeriod(500);
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          watcher.watch(new Enunciate());
+        }
+        catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    thread.start();
+    try {
+      //nothing is built until an input changes.
+      Thread.sleep(300);
+      assertEquals(0, watcher.builds.get());
+
+      //several changes within the quiet period are built once.
+      touch(a, 2000);
+      Thread.sleep(100);
+      touch(b, 2000);
+      Thread.sleep(100);
+      write(new File(dir, "C.java"), "class C {}");
+      awaitBuilds(watcher, 1);
+      Thread.sleep(1000);
+      assertEquals(1, watcher.builds.get());
+
+      //the next change is built again.
+      touch(a, 4000);
+      awaitBuilds(watcher, 2);
+      Thread.sleep(1000);
+      assertEquals(2, watcher.builds.get());
+    }
+    finally {
+      watcher.stop();
+      thread.join(10000);
+    }
+    assertFalse(thread.isAlive());
+  }
+
+  private static void awaitBuilds(CountingWatcher watcher, int builds) throws InterruptedException {
+    long end = System.currentTimeMillis() + 10000;
+    while (watcher.builds.get() < builds && System.currentTimeMillis() < end) {
+      Thread.sleep(20);
+    }
+    assertEquals(builds, watcher.builds.get());
+  }
+
+  private static CountingWatcher newWatcher(Set<File> inputs) {
+    return new CountingWatcher(new BuildRequest(new Enunciate(), Collections.<URL>emptyList()), inputs);
+  }
+
+  private static void touch(File file, long offset) {
+    file.setLastModified(file.lastModified() + offset);
+  }
+
+  private static File write(File file, String contents) throws IOException {
+    file.getParentFile().mkdirs();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "utf-8");
+    writer.write(contents);
+    writer.close();
+    return file;
+  }
+
+  private static File createTempDir() throws IOException {
+    File tempDir = File.createTempFile("BuildWatcherTest", "");
+    tempDir.delete();
+    tempDir.mkdirs();
+    return tempDir;
+  }
+
+  /**
+   * A watcher of fixed inputs that counts its builds instead of running them.
+   */
+  private static class CountingWatcher extends BuildWatcher {
+
+    private final Set<File> inputs;
+    private final AtomicInteger builds = new AtomicInteger(0);
+
+    CountingWatcher(BuildRequest request, Set<File> inputs) {
+      super(request, BuildWatcherTest.class.getClassLoader(), new SilentLogger());
+      this.inputs = inputs;
+    }
+
+    @Override
+    protected Set<File> findInputs(Enunciate enunciate) {
+      return this.inputs;
+    }
+
+    @Override
+    protected Enunciate build() {
+      this.builds.incrementAndGet();
+      return null;
+    }
+  }
+
+  private static class SilentLogger implements EnunciateLogger {
+    @Override
+    public void debug(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void info(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void warn(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void error(String message, Object... formatArgs) {
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.webcohesion.enunciate.daemon;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class LiveReloadServerTest {
+
+  private LiveReloadServer server;
+  private File docsDir;
+
+  @Before
+  public void startServer() throws Exception {
+    File dir = File.createTempFile("LiveReloadServerTest", "");
+    dir.delete();
+    this.docsDir = new File(dir, "docs");
+    write(new File(this.docsDir, "index.html"), "<html><body>Index</body></html>");
+    write(new File(this.docsDir, "css/style.css"), "body {}");
+    write(new File(dir, "secret.txt"), "secret");
+    write(new File(dir, "docs-secret/secret.txt"), "secret");
+
+    this.server = new LiveReloadServer(0);
+    this.server.setDocsDir(this.docsDir);
+    this.server.start();
+  }
+
+  @After
+  public void stopServer() {
+    this.server.stop();
+  }
+
+  @Test
+  public void testFilesAreServed() throws Exception {
+    String index = get("/");
+    assertTrue(index.startsWith("HTTP/1.1 200"));
+    assertTrue(index.contains("Index<script>"));
+    assertTrue(index.contains(LiveReloadServer.RELOAD_PATH));
+    assertEquals(index, get("/index.html"));
+
+    String css = get("/css/style.css");
+    assertTrue(css.startsWith("HTTP/1.1 200"));
+    assertTrue(css.contains("text/css"));
+    assertTrue(css.endsWith("body {}"));
+
+    assertTrue(get("/missing.html").startsWith("HTTP/1.1 404"));
+    assertTrue(get("/css").startsWith("HTTP/1.1 404"));
+  }
+
+  @Test
+  public void testFilesOutsideTheDocsAreNotServed() throws Exception {
+    assertTrue(get("/../secret.txt").startsWith("HTTP/1.1 404"));
+    assertTrue(get("/css/../../secret.txt").startsWith("HTTP/1.1 404"));
+    assertTrue(get("/%2e%2e/secret.txt").startsWith("HTTP/1.1 404"));
+    assertTrue(get("/..%2fsecret.txt").startsWith("HTTP/1.1 404"));
+    assertTrue(get("/../docs-secret/secret.txt").startsWith("HTTP/1.1 404"));
+    assertTrue(get("/..").startsWith("HTTP/1.1 404"));
+
+    //a path that leaves the docs and comes back in is still within the docs.
+    assertTrue(get("/../docs/css/style.css").startsWith("HTTP/1.1 200"));
+  }
+
+  /**
+   * GET the specified path as is, without the normalization of a URL.
+   */
+  private String get(String path) throws IOException {
+    Socket socket = new Socket(InetAddress.getByName(null), this.server.getPort());
+    try {
+      Writer out = new OutputStreamWriter(socket.getOutputStream(), "utf-8");
+      out.write("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n");
+      out.flush();
+      return read(socket.getInputStream());
+    }
+    finally {
+      socket.close();
+    }
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int len;
+    while ((len = in.read(buffer)) > 0) {
+      bytes.write(buffer, 0, len);
+    }
+    return bytes.toString("utf-8");
+  }
+
+  private static void write(File file, String contents) throws IOException {
+    file.getParentFile().mkdirs();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "utf-8");
+    writer.write(contents);
+    writer.close();
+  }
+}
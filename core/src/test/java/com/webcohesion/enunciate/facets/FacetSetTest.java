@@ -0,0 +1,110 @@
+package com.webcohesion.enunciate.facets;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class FacetSetTest {
+
+  @Test
+  public void testIteration() throws Exception {
+    FacetSet facets = new FacetSet(Arrays.asList(new Facet("zebra"), new Facet("apple"), new Facet("mango")));
+    assertEquals(3, facets.size());
+
+    List<String> names = new ArrayList<String>();
+    for (Facet facet : facets) {
+      names.add(facet.getName());
+    }
+    assertEquals(Arrays.asList("apple", "mango", "zebra"), names);
+    assertEquals("[apple, mango, zebra]", names.toString());
+    assertNotNull(facets.toString());
+
+    Iterator<Facet> it = facets.iterator();
+    it.next();
+    it.remove();
+    assertEquals(2, facets.size());
+    assertFalse(facets.contains(new Facet("apple")));
+    assertTrue(facets.contains(new Facet("mango")));
+  }
+
+  @Test
+  public void testEqualsAndHashCode() throws Exception {
+    FacetSet facets = new FacetSet(Arrays.asList(new Facet("one"), new Facet("two")));
+    FacetSet same = new FacetSet(Arrays.asList(new Facet("two"), new Facet("one")));
+    Set<Facet> other = new HashSet<Facet>(Arrays.asList(new Facet("one"), new Facet("two")));
+
+    assertEquals(facets, same);
+    assertEquals(facets.hashCode(), same.hashCode());
+    assertEquals(facets, other);
+    assertEquals(other, facets);
+    assertEquals(other.hashCode(), facets.hashCode());
+
+    same.remove(new Facet("two"));
+    assertFalse(facets.equals(same));
+    assertFalse(same.equals(other));
+  }
+
+  @Test
+  public void testAddAll() throws Exception {
+    FacetSet facets = new FacetSet(Arrays.asList(new Facet("one")));
+    assertFalse(facets.addAll(new FacetSet(Arrays.asList(new Facet("one")))));
+    assertTrue(facets.addAll(new FacetSet(Arrays.asList(new Facet("two")))));
+    assertTrue(facets.addAll(Arrays.asList(new Facet("three"))));
+    assertEquals(3, facets.size());
+  }
+
+  @Test
+  public void testFilter() throws Exception {
+    HasFacets none = item();
+    HasFacets internal = item("internal");
+    HasFacets beta = item("beta");
+    HasFacets both = item("internal", "beta");
+    HasFacets plainSet = new HasFacets() {
+      @Override
+      public Set<Facet> getFacets() {
+        return new HashSet<Facet>(Arrays.asList(new Facet("beta")));
+      }
+    };
+
+    FacetFilter all = new FacetFilter(null, null);
+    assertTrue(all.accept(none));
+    assertTrue(all.accept(both));
+    assertFalse(all.accept(null));
+
+    FacetFilter excludeInternal = new FacetFilter(null, new TreeSet<String>(Arrays.asList("internal")));
+    assertTrue(excludeInternal.accept(none));
+    assertFalse(excludeInternal.accept(internal));
+    assertTrue(excludeInternal.accept(beta));
+    assertFalse(excludeInternal.accept(both));
+
+    FacetFilter includeBeta = new FacetFilter(new TreeSet<String>(Arrays.asList("beta")), null);
+    assertFalse(includeBeta.accept(none));
+    assertFalse(includeBeta.accept(internal));
+    assertTrue(includeBeta.accept(beta));
+    assertTrue(includeBeta.accept(both));
+    assertTrue(includeBeta.accept(plainSet));
+
+    FacetFilter includeBetaExcludeInternal = new FacetFilter(new TreeSet<String>(Arrays.asList("beta")), new TreeSet<String>(Arrays.asList("internal")));
+    assertTrue(includeBetaExcludeInternal.accept(beta));
+    assertFalse(includeBetaExcludeInternal.accept(both));
+    assertFalse(includeBetaExcludeInternal.accept(none));
+  }
+
+  private static HasFacets item(String... names) {
+    final FacetSet facets = new FacetSet();
+    for (String name : names) {
+      facets.add(new Facet(name));
+    }
+    return new HasFacets() {
+      @Override
+      public Set<Facet> getFacets() {
+        return facets;
+      }
+    };
+  }
+}
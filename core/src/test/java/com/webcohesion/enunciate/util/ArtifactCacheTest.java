@@ -0,0 +1,265 @@
+package com.webcohesion.enunciate.util;
+
+import com.webcohesion.enunciate.Enunciate;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.URL;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class ArtifactCacheTest {
+
+  @Test
+  public void testZipHitAndMiss() throws Exception {
+    File cacheDir = createTempDir();
+    Enunciate enunciate = new Enunciate().setCacheDir(cacheDir);
+    File sourceDir = createTempDir();
+    write(new File(sourceDir, "a.txt"), "one");
+
+    //miss: the zip file is created and added to the cache.
+    File zip1 = new File(createTempDir(), "out.zip");
+    assertTrue(enunciate.zip(zip1, sourceDir));
+    assertEquals("one", readEntry(zip1, "a.txt"));
+    File[] entries = new File(cacheDir, "zip").listFiles();
+    assertEquals(1, entries.length);
+
+    //hit: the zip file is copied from the cache without being created again.
+    writeZip(entries[0], "a.txt", "cached");
+    File zip2 = new File(createTempDir(), "out.zip");
+    assertTrue(enunciate.zip(zip2, sourceDir));
+    assertEquals("cached", readEntry(zip2, "a.txt"));
+
+    //hit: the same files in another directory.
+    File otherDir = createTempDir();
+    write(new File(otherDir, "a.txt"), "one");
+    File zip2b = new File(createTempDir(), "out.zip");
+    assertTrue(enunciate.zip(zip2b, otherDir));
+    assertEquals("cached", readEntry(zip2b, "a.txt"));
+
+    //miss: the contents of a file changed, even though its size and modification time didn't.
+    File file = new File(sourceDir, "a.txt");
+    long lastModified = file.lastModified();
+    write(file, "two");
+    file.setLastModified(lastModified);
+    File zip3 = new File(createTempDir(), "out.zip");
+    assertTrue(enunciate.zip(zip3, sourceDir));
+    assertEquals("two", readEntry(zip3, "a.txt"));
+    assertEquals(2, new File(cacheDir, "zip").listFiles().length);
+
+    //miss: a file was renamed.
+    assertTrue(new File(otherDir, "a.txt").renameTo(new File(otherDir, "c.txt")));
+    File zip3b = new File(createTempDir(), "out.zip");
+    assertTrue(enunciate.zip(zip3b, otherDir));
+    assertEquals("one", readEntry(zip3b, "c.txt"));
+    assertEquals(3, new File(cacheDir, "zip").listFiles().length);
+
+    //miss: an in-memory entry changed.
+    File zip4 = new File(createTempDir(), "out.zip");
+    enunciate.zip(zip4, Collections.singletonMap("b.txt", "four".getBytes("utf-8")), sourceDir);
+    assertEquals("four", readEntry(zip4, "b.txt"));
+    assertEquals(4, new File(cacheDir, "zip").listFiles().length);
+  }
+
+  @Test
+  public void testCorruptZipIsCreatedAgain() throws Exception {
+    File cacheDir = createTempDir();
+    Enunciate enunciate = new Enunciate().setCacheDir(cacheDir);
+    File sourceDir = createTempDir();
+    write(new File(sourceDir, "a.txt"), "one");
+
+    enunciate.zip(new File(createTempDir(), "out.zip"), sourceDir);
+    File entry = new File(cacheDir, "zip").listFiles()[0];
+    write(entry, "not a zip file");
+
+    File zip = new File(createTempDir(), "out.zip");
+    enunciate.zip(zip, sourceDir);
+    assertEquals("one", readEntry(zip, "a.txt"));
+    assertEquals("one", readEntry(entry, "a.txt"));
+  }
+
+  @Test
+  public void testUnzipKeyedByContents() throws Exception {
+    File cacheDir = createTempDir();
+    Enunciate enunciate = new Enunciate().setCacheDir(cacheDir);
+    File base = new File(createTempDir(), "base.zip");
+    writeZip(base, "a.txt", "one");
+    URL url = base.toURI().toURL();
+
+    //miss: the zip file is extracted into the cache.
+    File out1 = createTempDir();
+    enunciate.unzip(url, out1);
+    assertEquals("one", read(new File(out1, "a.txt")));
+    File[] entries = new File(cacheDir, "unzip").listFiles();
+    assertEquals(1, entries.length);
+
+    //hit: the extracted files are copied from the cache.
+    write(new File(entries[0], "a.txt"), "cached");
+    File out2 = createTempDir();
+    enunciate.unzip(url, out2);
+    assertEquals("cached", read(new File(out2, "a.txt")));
+
+    //hit: a copy of the zip file.
+    File copy = new File(createTempDir(), "copy.zip");
+    writeZip(copy, "a.txt", "one");
+    File out2b = createTempDir();
+    enunciate.unzip(copy.toURI().toURL(), out2b);
+    assertEquals("cached", read(new File(out2b, "a.txt")));
+
+    //miss: the zip file changed.
+    writeZip(base, "a.txt", "three");
+    File out3 = createTempDir();
+    enunciate.unzip(url, out3);
+    assertEquals("three", read(new File(out3, "a.txt")));
+    assertEquals(2, new File(cacheDir, "unzip").listFiles().length);
+
+    //corrupt: the entry isn't a directory.
+    entries = new File(cacheDir, "unzip").listFiles();
+    for (File entry : entries) {
+      delete(entry);
+      write(entry, "not a directory");
+    }
+    File out4 = createTempDir();
+    enunciate.unzip(url, out4);
+    assertEquals("three", read(new File(out4, "a.txt")));
+  }
+
+  @Test
+  public void testResourceKeys() throws Exception {
+    ArtifactCache cache = new ArtifactCache(createTempDir(), new Enunciate());
+    File jar = new File(createTempDir(), "base.jar");
+    writeZip(jar, "base.zip", "zip");
+    URL entry = new URL("jar:" + jar.toURI().toURL() + "!/base.zip");
+    File file = new File(createTempDir(), "base.zip");
+    write(file, "zip");
+
+    //the key is the same for the same contents, wherever they are.
+    String key = cache.key(entry);
+    assertEquals(key, cache.key(entry));
+    assertEquals(key, cache.key(file.toURI().toURL()));
+    assertFalse(key.equals(cache.key(jar.toURI().toURL())));
+
+    writeZip(jar, "base.zip", "zap");
+    assertFalse(key.equals(cache.key(entry)));
+
+    try {
+      cache.key(new File(jar.getParentFile(), "missing.zip").toURI().toURL());
+      fail();
+    }
+    catch (IOException e) {
+      //fall through...
+    }
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    File cacheDir = createTempDir();
+    ArtifactCache cache = new ArtifactCache(cacheDir, new Enunciate());
+    cache.setMaxSize(10);
+    long now = System.currentTimeMillis();
+
+    //the entries that were just added are kept, even if the cache is too big.
+    File old = put(cache, "zip", "old", "12345");
+    File unused = put(cache, "unzip", "unused", "1234");
+    File used = put(cache, "zip", "used", "1234");
+    assertTrue(old.exists());
+    old.setLastModified(now - cache.getMaxAge() - 60000);
+    unused.setLastModified(now - 2 * ArtifactCache.MIN_AGE);
+    used.setLastModified(now - 3 * ArtifactCache.MIN_AGE);
+    assertNotNull(cache.find("zip", "used"));
+    assertTrue(old.exists());
+
+    //the entries older than the maximum age are evicted, and then the least recently used while the cache is too big.
+    File added = put(cache, "zip", "added", "12345");
+    assertFalse(old.exists());
+    assertFalse(unused.exists());
+    assertTrue(used.exists());
+    assertTrue(added.exists());
+
+    //the entries that were just used are kept, as is the entry that was just added.
+    File big = put(cache, "zip", "big", "12345678901");
+    assertTrue(used.exists());
+    assertTrue(added.exists());
+    assertTrue(big.exists());
+    used.setLastModified(now - 2 * ArtifactCache.MIN_AGE);
+    added.setLastModified(now - 2 * ArtifactCache.MIN_AGE);
+    put(cache, "zip", "small", "1");
+    assertFalse(used.exists());
+    assertFalse(added.exists());
+    assertTrue(big.exists());
+  }
+
+  private static File put(ArtifactCache cache, String kind, String key, String contents) throws IOException {
+    File temp = cache.createTemp(true);
+    write(new File(temp, "entry.txt"), contents);
+    return cache.put(kind, key, temp);
+  }
+
+  private static void write(File file, String contents) throws IOException {
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "utf-8");
+    writer.write(contents);
+    writer.close();
+  }
+
+  private static String read(File file) throws IOException {
+    return read(new FileInputStream(file));
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int len;
+    while ((len = in.read(buffer)) > 0) {
+      bytes.write(buffer, 0, len);
+    }
+    in.close();
+    return bytes.toString("utf-8");
+  }
+
+  private static void writeZip(File file, String name, String contents) throws IOException {
+    long lastModified = file.lastModified();
+    ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+    out.putNextEntry(new ZipEntry(name));
+    out.write(contents.getBytes("utf-8"));
+    out.closeEntry();
+    out.close();
+    if (lastModified > 0) {
+      //make sure the change is seen even if the file system has a coarse timestamp resolution.
+      file.setLastModified(lastModified + 2000);
+    }
+  }
+
+  private static String readEntry(File zip, String name) throws IOException {
+    ZipFile zipFile = new ZipFile(zip);
+    try {
+      return read(zipFile.getInputStream(zipFile.getEntry(name)));
+    }
+    finally {
+      zipFile.close();
+    }
+  }
+
+  private static void delete(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+
+  private static File createTempDir() throws IOException {
+    File tempDir = File.createTempFile("ArtifactCacheTest", "");
+    tempDir.delete();
+    tempDir.mkdirs();
+    return tempDir;
+  }
+}
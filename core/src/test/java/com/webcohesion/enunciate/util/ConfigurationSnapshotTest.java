@@ -0,0 +1,126 @@
+package com.webcohesion.enunciate.util;
+
+import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.EnunciateConfiguration;
+import com.webcohesion.enunciate.EnunciateException;
+import com.webcohesion.enunciate.facets.FacetFilter;
+import com.webcohesion.enunciate.module.BasicEnunicateModule;
+import org.apache.commons.configuration.HierarchicalConfiguration;
+import org.apache.commons.configuration.XMLConfiguration;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class ConfigurationSnapshotTest {
+
+  @Test
+  public void testSnapshotIsImmutable() throws Exception {
+    XMLConfiguration source = load("<enunciate slug=\"one\"><modules><docs docsDir=\"d\"/></modules></enunciate>");
+    ConfigurationSnapshot snapshot = new ConfigurationSnapshot(source);
+    assertEquals("one", snapshot.getString("[@slug]"));
+    assertEquals("d", snapshot.getString("modules.docs[@docsDir]"));
+
+    try {
+      snapshot.setProperty("[@slug]", "two");
+      fail();
+    }
+    catch (UnsupportedOperationException e) {
+      //fall through...
+    }
+
+    try {
+      snapshot.clear();
+      fail();
+    }
+    catch (UnsupportedOperationException e) {
+      //fall through...
+    }
+
+    //the snapshot doesn't see the changes to its source.
+    source.setProperty("[@slug]", "three");
+    assertEquals("one", snapshot.getString("[@slug]"));
+  }
+
+  @Test
+  public void testValidateAttributes() throws Exception {
+    ConfigurationSnapshot snapshot = new ConfigurationSnapshot(load("<docs disabled=\"maybe\" precompress=\"true\" precompressThreads=\"four\" pageCacheSize=\"10\" title=\"anything\"/>"));
+    Map<String, Class<?>> types = new TreeMap<String, Class<?>>();
+    types.put("disabled", Boolean.class);
+    types.put("precompress", Boolean.class);
+    types.put("precompressThreads", Integer.class);
+    types.put("pageCacheSize", Integer.class);
+    types.put("title", String.class);
+    types.put("missing", Boolean.class);
+
+    List<String> errors = snapshot.validateAttributes(types);
+    assertEquals(2, errors.size());
+    assertTrue(errors.get(0), errors.get(0).contains("\"disabled\""));
+    assertTrue(errors.get(1), errors.get(1).contains("\"precompressThreads\""));
+  }
+
+  @Test
+  public void testModuleConfigurationIsValidatedOnInit() throws Exception {
+    Enunciate enunciate = new Enunciate();
+    enunciate.loadConfiguration(new StringReader("<enunciate><modules><test disabled=\"nope\"/></modules></enunciate>"));
+    try {
+      enunciate.addModule(new TestModule());
+      fail();
+    }
+    catch (EnunciateException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("test"));
+    }
+
+    enunciate = new Enunciate();
+    enunciate.loadConfiguration(new StringReader("<enunciate><modules><test disabled=\"true\"/></modules></enunciate>"));
+    TestModule module = new TestModule();
+    enunciate.addModule(module);
+    assertFalse(module.isEnabled());
+  }
+
+  @Test
+  public void testSnapshotIsInvalidatedWhenTheSourceChanges() throws Exception {
+    EnunciateConfiguration configuration = new EnunciateConfiguration();
+    configuration.load(new StringReader("<enunciate slug=\"one\"><facets><exclude name=\"internal\"/></facets></enunciate>"));
+    assertEquals("one", configuration.getSlug());
+    FacetFilter filter = configuration.getFacetFilter();
+    assertSame(filter, configuration.getFacetFilter());
+
+    //changed through the source (i.e. the configuration listener).
+    configuration.getSource().setProperty("[@slug]", "two");
+    assertEquals("two", configuration.getSlug());
+    assertNotSame(filter, configuration.getFacetFilter());
+
+    configuration.getSource().addProperty("facets.exclude(-1)[@name]", "beta");
+    assertEquals(new TreeSet<String>(Arrays.asList("internal", "beta")), configuration.getFacetExcludes());
+
+    //loaded again (the loaded configuration is added to the source).
+    assertEquals("Web Service API", configuration.getTitle());
+    configuration.load(new StringReader("<enunciate><title>Loaded</title></enunciate>"));
+    assertEquals("Loaded", configuration.getTitle());
+  }
+
+  private static XMLConfiguration load(String xml) throws Exception {
+    XMLConfiguration configuration = new XMLConfiguration();
+    configuration.setDelimiterParsingDisabled(true);
+    configuration.load(new StringReader(xml));
+    return configuration;
+  }
+
+  private static class TestModule extends BasicEnunicateModule {
+
+    @Override
+    public String getName() {
+      return "test";
+    }
+
+    @Override
+    public void call(com.webcohesion.enunciate.EnunciateContext context) {
+    }
+  }
+}
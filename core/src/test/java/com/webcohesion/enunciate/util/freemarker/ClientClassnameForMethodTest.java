@@ -0,0 +1,205 @@
+package com.webcohesion.enunciate.util.freemarker;
+
+import com.webcohesion.enunciate.EnunciateContext;
+import com.webcohesion.enunciate.javac.decorations.DecoratedProcessingEnvironment;
+import freemarker.template.TemplateModelException;
+import org.junit.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class ClientClassnameForMethodTest {
+
+  @Test
+  public void testLongestPrefixIsConverted() throws Exception {
+    Map<String, String> conversions = new HashMap<String, String>();
+    conversions.put("com.acme", "org.client");
+    conversions.put("com.acme.api", "org.client.rest");
+    conversions.put("com.acme.api.v1.internal", "org.client.hidden");
+    ClientPackageForMethod method = new ClientPackageForMethod(conversions, null);
+
+    assertEquals("org.client", method.convert("com.acme"));
+    assertEquals("org.client.rest", method.convert("com.acme.api"));
+    assertEquals("org.client.rest.v1", method.convert("com.acme.api.v1"));
+    assertEquals("org.client.hidden", method.convert("com.acme.api.v1.internal"));
+    assertEquals("org.client.model", method.convert("com.acme.model"));
+
+    //a conversion doesn't have to end on a package boundary.
+    assertEquals("org.clientco.model", method.convert("com.acmeco.model"));
+    assertEquals("org.client.restful", method.convert("com.acme.apiful"));
+
+    //a package without a conversion is left as it is, including a package that's a prefix of a conversion.
+    assertEquals("com", method.convert("com"));
+    assertEquals("com.acm", method.convert("com.acm"));
+    assertEquals("net.acme", method.convert("net.acme"));
+    assertEquals("", method.convert(""));
+
+    //the conversions are the same the second time.
+    assertEquals("org.client.rest.v1", method.convert("com.acme.api.v1"));
+    assertEquals("com.acm", method.convert("com.acm"));
+    assertEquals("org.client.rest", method.convertUnwrappedObject("com.acme.api"));
+  }
+
+  @Test
+  public void testTypesAreConvertedOnce() throws Exception {
+    new TypeTest() {
+      @Override
+      protected void test(DecoratedProcessingEnvironment env) throws Exception {
+        Map<String, String> conversions = new HashMap<String, String>();
+        conversions.put("com.acme", "org.client");
+        CountingClassnameForMethod method = new CountingClassnameForMethod(conversions, new EnunciateContext(env, null, null, null, null, null));
+        Map<String, TypeMirror> fields = fieldTypes(env, "com.acme.api.Widget");
+
+        assertEquals("java.util.List<org.client.model.Gadget>", method.convertUnwrappedObject(fields.get("gadgets")));
+        assertTrue(method.conversions > 0);
+        method.conversions = 0;
+        assertEquals("java.util.List<org.client.model.Gadget>", method.convertUnwrappedObject(fields.get("gadgets")));
+        assertEquals("org.client.model.Gadget[]", method.convertUnwrappedObject(fields.get("gadgetArray")));
+        method.conversions = 0;
+        assertEquals("org.client.model.Gadget[]", method.convertUnwrappedObject(fields.get("gadgetArray")));
+        assertEquals("java.util.Map<java.lang.String, ? extends org.client.model.Gadget>", method.convertUnwrappedObject(fields.get("gadgetsById")));
+        assertEquals("int", method.convertUnwrappedObject(fields.get("count")));
+        method.conversions = 0;
+        assertEquals("java.util.Map<java.lang.String, ? extends org.client.model.Gadget>", method.convertUnwrappedObject(fields.get("gadgetsById")));
+        assertEquals("int", method.convertUnwrappedObject(fields.get("count")));
+        assertEquals(0, method.conversions);
+      }
+    }.run(WIDGET, GADGET);
+  }
+
+  @Test
+  public void testTypeVariablesAreNotMemoized() throws Exception {
+    new TypeTest() {
+      @Override
+      protected void test(DecoratedProcessingEnvironment env) throws Exception {
+        CountingClassnameForMethod method = new CountingClassnameForMethod(new HashMap<String, String>(), new EnunciateContext(env, null, null, null, null, null));
+        Map<String, TypeMirror> fields = fieldTypes(env, "com.acme.api.Widget");
+
+        for (int i = 0; i < 2; i++) {
+          method.conversions = 0;
+          assertEquals("T", method.convertUnwrappedObject(fields.get("item")));
+          assertEquals("java.util.List<T>", method.convertUnwrappedObject(fields.get("items")));
+          assertEquals("java.util.List<? super T>[]", method.convertUnwrappedObject(fields.get("consumers")));
+          assertEquals(7, method.conversions);
+        }
+      }
+    }.run(WIDGET, GADGET);
+  }
+
+  private static final JavaFileObject WIDGET = source("com.acme.api.Widget", "package com.acme.api;\n"
+    + "import com.acme.model.Gadget;\n"
+    + "public class Widget<T> {\n"
+    + "  public java.util.List<Gadget> gadgets;\n"
+    + "  public Gadget[] gadgetArray;\n"
+    + "  public java.util.Map<String, ? extends Gadget> gadgetsById;\n"
+    + "  public int count;\n"
+    + "  public T item;\n"
+    + "  public java.util.List<T> items;\n"
+    + "  public java.util.List<? super T>[] consumers;\n"
+    + "}");
+
+  private static final JavaFileObject GADGET = source("com.acme.model.Gadget", "package com.acme.model;\n"
+    + "public class Gadget {\n"
+    + "}");
+
+  private static Map<String, TypeMirror> fieldTypes(DecoratedProcessingEnvironment env, String typeName) {
+    TypeElement type = env.getElementUtils().getTypeElement(typeName);
+    Map<String, TypeMirror> fieldTypes = new HashMap<String, TypeMirror>();
+    for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+      fieldTypes.put(field.getSimpleName().toString(), field.asType());
+    }
+    return fieldTypes;
+  }
+
+  private static JavaFileObject source(String className, final String code) {
+    return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return code;
+      }
+    };
+  }
+
+  /**
+   * Counts the types that are converted (including the type arguments).
+   */
+  private static class CountingClassnameForMethod extends ClientClassnameForMethod {
+
+    private int conversions = 0;
+
+    private CountingClassnameForMethod(Map<String, String> conversions, EnunciateContext context) {
+      super(conversions, context);
+    }
+
+    @Override
+    public String convert(TypeMirror typeMirror) throws TemplateModelException {
+      this.conversions++;
+      return super.convert(typeMirror);
+    }
+  }
+
+  /**
+   * Runs a test against the elements of the compiled sources.
+   */
+  private abstract static class TypeTest extends AbstractProcessor {
+
+    private boolean tested = false;
+    private Throwable failure;
+
+    protected abstract void test(DecoratedProcessingEnvironment env) throws Exception;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (!this.tested) {
+        this.tested = true;
+        try {
+          test(new DecoratedProcessingEnvironment(this.processingEnv));
+        }
+        catch (Throwable e) {
+          this.failure = e;
+        }
+      }
+      return false;
+    }
+
+    void run(JavaFileObject... sources) throws Exception {
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, Arrays.asList("-proc:only"), null, Arrays.asList(sources));
+      task.setProcessors(Arrays.asList(this));
+      assertTrue(task.call());
+      assertTrue(this.tested);
+      if (this.failure instanceof Error) {
+        throw (Error) this.failure;
+      }
+      else if (this.failure != null) {
+        throw (Exception) this.failure;
+      }
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.webcohesion.enunciate.util.freemarker;
+
+import com.webcohesion.enunciate.EnunciateLogger;
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class FileDirectiveTest {
+
+  @Test
+  public void testUnchangedFilesAreNotRewritten() throws Exception {
+    File outputDir = File.createTempFile("FileDirectiveTest", "");
+    outputDir.delete();
+    RecordingLogger logger = new RecordingLogger();
+    File output = new File(new File(new File(outputDir, "com"), "acme"), "Hello.txt");
+
+    //a new file is written.
+    render(outputDir, logger, "Hello, world!");
+    assertEquals("Hello, world!", read(output));
+    assertEquals(1, logger.messages.size());
+    assertTrue(logger.messages.get(0).startsWith("Writing "));
+
+    //an unchanged file isn't written, but it's still up-to-date with the sources.
+    output.setLastModified(1000000000000L);
+    logger.messages.clear();
+    long start = System.currentTimeMillis();
+    render(outputDir, logger, "Hello, world!");
+    assertEquals("Hello, world!", read(output));
+    assertEquals(1, logger.messages.size());
+    assertTrue(logger.messages.get(0).endsWith(" is unchanged."));
+    assertTrue(output.lastModified() >= start - 2000);
+
+    //a changed file is written, including a change that keeps its length.
+    logger.messages.clear();
+    render(outputDir, logger, "Hello, World!");
+    assertEquals("Hello, World!", read(output));
+    assertEquals(1, logger.messages.size());
+    assertTrue(logger.messages.get(0).startsWith("Writing "));
+  }
+
+  private static void render(File outputDir, EnunciateLogger logger, String greeting) throws Exception {
+    StringTemplateLoader loader = new StringTemplateLoader();
+    loader.putTemplate("hello.fmt", "<@file name=\"Hello.txt\" package=\"com.acme\">${greeting}</@file>");
+    Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
+    configuration.setTemplateLoader(loader);
+    configuration.setLocalizedLookup(false);
+
+    Map<String, Object> model = new HashMap<String, Object>();
+    model.put("file", new FileDirective(outputDir, logger));
+    model.put("greeting", greeting);
+    configuration.getTemplate("hello.fmt").process(model, new StringWriter());
+  }
+
+  private static String read(File file) throws IOException {
+    Reader reader = new InputStreamReader(new FileInputStream(file), "utf-8");
+    StringWriter out = new StringWriter();
+    char[] buffer = new char[1024];
+    int len;
+    while ((len = reader.read(buffer)) > 0) {
+      out.write(buffer, 0, len);
+    }
+    reader.close();
+    return out.toString();
+  }
+
+  private static class RecordingLogger implements EnunciateLogger {
+
+    private final List<String> messages = new ArrayList<String>();
+
+    @Override
+    public void debug(String message, Object... formatArgs) {
+      this.messages.add(String.format(message, formatArgs));
+    }
+
+    @Override
+    public void info(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void warn(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void error(String message, Object... formatArgs) {
+    }
+  }
+}
@@ -82,6 +82,15 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
     return "csharp-xml-client";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("disableCompile", Boolean.class);
+    attributeTypes.put("require", Boolean.class);
+    attributeTypes.put("singleFilePerClass", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new DependencySpec() {
@@ -579,14 +588,8 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
     }
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -609,6 +612,19 @@ public class CSharpXMLClientModule extends BasicGeneratingModule implements ApiF
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new CSharpXMLClientObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -48,11 +48,13 @@ import java.net.URL;
 import java.util.*;
 
 
-public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwareModule, DocumentationProviderModule {
+public class DocsModule extends BasicGeneratingModule implements ApiModelGeneratingModule, OnDemandDocumentationProviderModule, WatchedFileProviderModule {
 
   private File defaultDocsDir;
   private String defaultDocsSubdir;
   private ApiRegistry apiRegistry;
+  private boolean renderPagesOnDemand = false;
+  private DocsPageRenderer pageRenderer;
 
   /**
    * @return "docs"
@@ -62,6 +64,18 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
     return "docs";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("disableResourceLinks", Boolean.class);
+    attributeTypes.put("disableRestMountpoint", Boolean.class);
+    attributeTypes.put("fingerprintAssets", Boolean.class);
+    attributeTypes.put("pageCacheSize", Integer.class);
+    attributeTypes.put("precompress", Boolean.class);
+    attributeTypes.put("precompressThreads", Integer.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     //documentation depends on any module that provides something to the api registry.
@@ -189,6 +203,52 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
     return this.config.getBoolean("[@disableResourceLinks]", false);
   }
 
+  /**
+   * The maximum number of pages to cache when the pages are rendered on demand.
+   *
+   * @return The maximum number of pages to cache when the pages are rendered on demand.
+   */
+  public int getPageCacheSize() {
+    return this.config.getInt("[@pageCacheSize]", DocsPageRenderer.DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Whether to fingerprint the static assets of the docs (see {@link StaticAssetProcessor#fingerprint()}).
+   *
+   * @return Whether to fingerprint the static assets of the docs.
+   */
+  public boolean isFingerprintAssets() {
+    return this.config.getBoolean("[@fingerprintAssets]", false);
+  }
+
+  /**
+   * Whether to write a gzipped sibling of each text file of the docs (see {@link StaticAssetProcessor#precompress(int)}).
+   *
+   * @return Whether to precompress the text files of the docs.
+   */
+  public boolean isPrecompress() {
+    return this.config.getBoolean("[@precompress]", false);
+  }
+
+  /**
+   * The number of threads to use to precompress the text files of the docs (default: the number of processors).
+   *
+   * @return The number of threads to use to precompress the text files of the docs.
+   */
+  public int getPrecompressThreads() {
+    return this.config.getInt("[@precompressThreads]", Runtime.getRuntime().availableProcessors());
+  }
+
+  @Override
+  public void setRenderPagesOnDemand(boolean renderPagesOnDemand) {
+    this.renderPagesOnDemand = renderPagesOnDemand;
+  }
+
+  @Override
+  public DocumentationPageRenderer getPageRenderer() {
+    return this.pageRenderer;
+  }
+
   @Override
   public void setDefaultDocsDir(File docsDir) {
     this.defaultDocsDir = docsDir;
@@ -226,6 +286,38 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
     return this.config.getString("[@faviconUri]", null);
   }
 
+  @Override
+  public List<File> getWatchedFiles() {
+    List<File> watchedFiles = new ArrayList<File>();
+    File templateFile = getFreemarkerTemplateFile();
+    if (templateFile != null) {
+      watchedFiles.add(templateFile);
+    }
+
+    File base = getBase();
+    if (base != null) {
+      watchedFiles.add(base);
+    }
+    return watchedFiles;
+  }
+
+  /**
+   * The docs are also out of date if the custom template or the custom base were modified since they were generated.
+   *
+   * @param destDir The docs directory.
+   * @return Whether the docs are up-to-date.
+   */
+  @Override
+  public boolean isUpToDateWithSources(File destDir) {
+    for (File watchedFile : getWatchedFiles()) {
+      if (watchedFile.isFile() && !isUpToDate(watchedFile.lastModified(), destDir)) {
+        return false;
+      }
+    }
+
+    return super.isUpToDateWithSources(destDir);
+  }
+
   @Override
   public void setApiRegistry(ApiRegistry registry) {
     this.apiRegistry = registry;
@@ -240,11 +332,15 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
         docsDir = new File(docsDir, subDir);
       }
 
-      if (!isUpToDateWithSources(docsDir)) {
-        List<ResourceApi> resourceApis = this.apiRegistry.getResourceApis();
+      this.pageRenderer = null;
+      //the pages that are rendered on demand are never up-to-date on disk.
+      if (this.renderPagesOnDemand || !isUpToDateWithSources(docsDir)) {
+        //render from a snapshot of the apis, which has everything the templates need resolved up front.
+        ApiRegistry apiRegistry = this.apiRegistry.snapshot();
+        List<ResourceApi> resourceApis = apiRegistry.getResourceApis();
         Set<Artifact> documentationArtifacts = findDocumentationArtifacts();
 
-        if (this.apiRegistry.getSyntaxes().isEmpty() && this.apiRegistry.getServiceApis().isEmpty() && resourceApis.isEmpty() && documentationArtifacts.isEmpty()) {
+        if (apiRegistry.getSyntaxes().isEmpty() && apiRegistry.getServiceApis().isEmpty() && resourceApis.isEmpty() && documentationArtifacts.isEmpty()) {
           warn("No documentation generated: there are no data types, services, or resources to document.");
           return;
         }
@@ -272,22 +368,20 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
           model.put("cssFile", cssPath);
         }
 
-        model.put("file", new FileDirective(docsDir, this.enunciate.getLogger()));
-
         String apiRelativePath = getRelativePathToRootDir();
         model.put("apiRelativePath", apiRelativePath);
 
         model.put("favicon", getFavicon());
 
         //iterate through schemas and make sure the schema is copied to the docs dir
-        for (Syntax syntax : this.apiRegistry.getSyntaxes()) {
+        for (Syntax syntax : apiRegistry.getSyntaxes()) {
           for (Namespace namespace : syntax.getNamespaces()) {
             if (namespace.getSchemaFile() != null) {
               namespace.getSchemaFile().writeTo(docsDir);
             }
           }
         }
-        model.put("data", this.apiRegistry.getSyntaxes());
+        model.put("data", apiRegistry.getSyntaxes());
 
         for (ResourceApi resourceApi : resourceApis) {
           if (resourceApi.getWadlFile() != null) {
@@ -296,21 +390,21 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
         }
         model.put("resourceApis", resourceApis);
 
-        InterfaceDescriptionFile swaggerUI = this.apiRegistry.getSwaggerUI();
+        InterfaceDescriptionFile swaggerUI = apiRegistry.getSwaggerUI();
         if (swaggerUI != null) {
           swaggerUI.writeTo(docsDir);
           model.put("swaggerUI", swaggerUI);
         }
 
         //iterate through wsdls and make sure the wsdl is copied to the docs dir
-        for (ServiceApi serviceApi : this.apiRegistry.getServiceApis()) {
+        for (ServiceApi serviceApi : apiRegistry.getServiceApis()) {
           for (ServiceGroup serviceGroup : serviceApi.getServiceGroups()) {
             if (serviceGroup.getWsdlFile() != null) {
               serviceGroup.getWsdlFile().writeTo(docsDir);
             }
           }
         }
-        model.put("serviceApis", this.apiRegistry.getServiceApis());
+        model.put("serviceApis", apiRegistry.getServiceApis());
 
         model.put("downloads", copyDocumentationArtifacts(documentationArtifacts, docsDir));
 
@@ -322,7 +416,24 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
 
         model.put("disableResourceLinks", isDisableResourceLinks());
 
-        processTemplate(getDocsTemplateURL(), model);
+        if (this.renderPagesOnDemand) {
+          debug("Rendering the documentation pages on demand.");
+          this.pageRenderer = new DocsPageRenderer(loadTemplate(getDocsTemplateURL()), model, getPageCacheSize());
+        }
+        else {
+          model.put("file", new FileDirective(docsDir, this.enunciate.getLogger()));
+          processTemplate(getDocsTemplateURL(), model);
+
+          StaticAssetProcessor assets = new StaticAssetProcessor(docsDir, this.enunciate.getLogger());
+          if (isFingerprintAssets()) {
+            assets.fingerprint();
+          }
+
+          if (isPrecompress()) {
+            int compressed = assets.precompress(getPrecompressThreads());
+            debug("Precompressed %s documentation files.", compressed);
+          }
+        }
       }
       else {
         info("Skipping documentation source generation as everything appears up-to-date...");
@@ -346,6 +457,14 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
    */
   public void processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
     debug("Processing template %s.", templateURL);
+    Template template = loadTemplate(templateURL);
+    StringWriter unhandledOutput = new StringWriter();
+    template.process(model, unhandledOutput);
+    debug("Freemarker processing output:\n%s", unhandledOutput);
+  }
+
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -368,16 +487,25 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setURLEscapingCharset("UTF-8");
-    Template template = configuration.getTemplate(templateURL.toString());
-    StringWriter unhandledOutput = new StringWriter();
-    template.process(model, unhandledOutput);
-    debug("Freemarker processing output:\n%s", unhandledOutput);
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Loads the specified template.
+   *
+   * @param templateURL The template URL.
+   * @return The template.
+   */
+  protected Template loadTemplate(URL templateURL) throws IOException {
+    Configuration configuration = getTemplateConfiguration();
+    return configuration.getTemplate(templateURL.toString());
   }
 
   protected String buildBase(File outputDir) throws IOException {
     File baseFile = getBase();
     if (baseFile == null) {
-      InputStream discoveredBase = DocsModule.class.getResourceAsStream("/META-INF/enunciate/docs-base.zip");
+      URL discoveredBase = DocsModule.class.getResource("/META-INF/enunciate/docs-base.zip");
       if (discoveredBase == null) {
         debug("Default base to be used for documentation base.");
         this.enunciate.unzip(loadDefaultBase(), outputDir);
@@ -416,7 +544,7 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
     }
     else {
       debug("Zip file %s to be extracted as the documentation base.", baseFile);
-      this.enunciate.unzip(new FileInputStream(baseFile), outputDir);
+      this.enunciate.unzip(baseFile.toURI().toURL(), outputDir);
       return null;
     }
   }
@@ -556,8 +684,8 @@ public class DocsModule extends BasicGeneratingModule implements ApiRegistryAwar
    *
    * @return The default base for the documentation.
    */
-  protected InputStream loadDefaultBase() {
-    return DocsModule.class.getResourceAsStream("/docs.base.zip");
+  protected URL loadDefaultBase() {
+    return DocsModule.class.getResource("/docs.base.zip");
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.modules.docs;
+
+import com.webcohesion.enunciate.module.DocumentationPageRenderer;
+import freemarker.core.Environment;
+import freemarker.template.Template;
+import freemarker.template.TemplateDirectiveBody;
+import freemarker.template.TemplateDirectiveModel;
+import freemarker.template.TemplateException;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.utility.DeepUnwrap;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Renders the pages of the docs on demand from the model of the docs template, instead of writing them to the docs
+ * directory. The template is processed with a "file" directive that captures the requested page instead of writing
+ * the pages.<br/><br/>
+ *
+ * Pages may be nested in the bodies of other pages (e.g. the page of a data type is rendered in the body of the page
+ * of its syntax). The template declares the pages that contain other pages with the "nested" parameter of the "file"
+ * directive (e.g. <code>[@file name="index.html" nested=true]</code>), so the pages are found by only rendering the
+ * requested page and the bodies of the pages that declare nested pages. A template that doesn't declare any nested
+ * pages (e.g. a custom template) may nest its pages anywhere, so the bodies of all its pages are rendered to find
+ * them. The index of the pages is kept with the template, so the next build (e.g. a watched build
+ * with the same template) only renders the requested page and the bodies of the pages it's nested in, unless the page
+ * moved. Only the requested pages are cached, and the least recently used pages are evicted from the cache.<br/><br/>
+ *
+ * The model of the template (e.g. the lazily-computed example bodies of the data types) isn't thread-safe, so the pages
+ * are rendered one at a time.
+ *
+ * @author Ryan Heaton
+ */
+public class DocsPageRenderer implements DocumentationPageRenderer {
+
+  /**
+   * The default maximum number of rendered pages to cache.
+   */
+  public static final int DEFAULT_CACHE_SIZE = 256;
+
+  /**
+   * The custom attribute of the template that holds the index of the pages (the path of each page mapped to the path of
+   * the page it's nested in).
+   */
+  static final String PAGE_INDEX_ATTRIBUTE = DocsPageRenderer.class.getName() + "#PAGE_INDEX";
+
+  private final Template template;
+  private final Map<String, Object> model;
+  private final Map<String, String> cache;
+  private final Object renderLock = new Object();
+  private Map<String, String> pageIndex;
+  private boolean pageIndexCurrent = false;
+
+  /**
+   * @param template  The docs template.
+   * @param model     The model of the docs template (without the "file" directive).
+   * @param cacheSize The maximum number of rendered pages to cache.
+   */
+  @SuppressWarnings("unchecked")
+  public DocsPageRenderer(Template template, Map<String, Object> model, final int cacheSize) {
+    this.template = template;
+    this.model = model;
+    this.pageIndex = (Map<String, String>) template.getCustomAttribute(PAGE_INDEX_ATTRIBUTE);
+    this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  @Override
+  public String renderPage(String path) throws IOException {
+    synchronized (this) {
+      String page = this.cache.get(path);
+      if (page != null) {
+        return page;
+      }
+    }
+
+    synchronized (this.renderLock) {
+      synchronized (this) {
+        //the page may have been rendered while waiting for the lock.
+        String page = this.cache.get(path);
+        if (page != null) {
+          return page;
+        }
+      }
+
+      if (this.pageIndex != null && this.pageIndex.containsKey(path)) {
+        Set<String> ancestors = new TreeSet<String>();
+        for (String parent = this.pageIndex.get(path); parent != null; parent = this.pageIndex.get(parent)) {
+          ancestors.add(parent);
+        }
+
+        PageDirective directive = new PageDirective(path, ancestors, false);
+        process(directive);
+        if (directive.page != null) {
+          return cache(path, directive.page);
+        }
+        //fall through: the index of a previous build is out of date.
+      }
+      else if (this.pageIndex != null && this.pageIndexCurrent) {
+        return null;
+      }
+
+      PageDirective directive = new PageDirective(path, null, false);
+      process(directive);
+      if (!directive.nestingDeclared) {
+        //the template doesn't declare its nested pages: they're found in the bodies of all the pages.
+        directive = new PageDirective(path, null, true);
+        process(directive);
+      }
+      this.pageIndex = Collections.unmodifiableMap(directive.parents);
+      this.pageIndexCurrent = true;
+      this.template.setCustomAttribute(PAGE_INDEX_ATTRIBUTE, this.pageIndex);
+      return directive.page == null ? null : cache(path, directive.page);
+    }
+  }
+
+  private synchronized String cache(String path, String page) {
+    this.cache.put(path, page);
+    return page;
+  }
+
+  private void process(PageDirective directive) throws IOException {
+    Map<String, Object> model = new HashMap<String, Object>(this.model);
+    model.put("file", directive);
+    try {
+      this.template.process(model, new DiscardingWriter());
+    }
+    catch (TemplateException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * A "file" directive that captures the requested page instead of writing the pages.
+   */
+  class PageDirective implements TemplateDirectiveModel {
+
+    private final String path;
+    private final Set<String> ancestors;
+    private final boolean allPages;
+    private final Map<String, String> parents = new HashMap<String, String>();
+    private final LinkedList<String> enclosingPages = new LinkedList<String>();
+    private String page;
+    private boolean nestingDeclared = false;
+
+    /**
+     * @param path      The path of the page to render.
+     * @param ancestors The paths of the pages the page to render is nested in, or null to find all the pages.
+     * @param allPages  Whether to find the pages in the bodies of all the pages, instead of only in the bodies of the
+     *                  pages that declare nested pages.
+     */
+    PageDirective(String path, Set<String> ancestors, boolean allPages) {
+      this.path = path;
+      this.ancestors = ancestors;
+      this.allPages = allPages;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void execute(Environment env, Map params, TemplateModel[] loopVars, TemplateDirectiveBody body) throws TemplateException, IOException {
+      String fileName = (String) DeepUnwrap.unwrap((TemplateModel) params.get("name"));
+      if (fileName == null) {
+        throw new TemplateModelException("A 'name' parameter must be provided to create a new file.");
+      }
+
+      String path = fileName;
+      String pckg = (String) DeepUnwrap.unwrap((TemplateModel) params.get("package"));
+      if ((pckg != null) && (pckg.trim().length() > 0)) {
+        path = pckg.replace('.', '/') + "/" + fileName;
+      }
+
+      Object nested = DeepUnwrap.unwrap((TemplateModel) params.get("nested"));
+      if (nested != null) {
+        this.nestingDeclared = true;
+      }
+
+      this.parents.put(path, this.enclosingPages.peek());
+      boolean requested = path.equals(this.path);
+      if (!requested) {
+        boolean container;
+        if (this.ancestors != null) {
+          container = this.ancestors.contains(path);
+        }
+        else {
+          container = this.allPages || Boolean.valueOf(String.valueOf(nested));
+        }
+
+        if (!container) {
+          //not the requested page, and it doesn't contain the requested page.
+          return;
+        }
+      }
+
+      this.enclosingPages.push(path);
+      try {
+        if (requested) {
+          StringWriter page = new StringWriter();
+          body.render(page);
+          this.page = page.toString();
+        }
+        else {
+          body.render(new DiscardingWriter());
+        }
+      }
+      finally {
+        this.enclosingPages.pop();
+      }
+    }
+  }
+
+  /**
+   * A writer of the output that isn't needed.
+   */
+  static class DiscardingWriter extends Writer {
+    @Override
+    public void write(char[] chars, int offset, int length) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,485 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.modules.docs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.webcohesion.enunciate.EnunciateException;
+import com.webcohesion.enunciate.EnunciateLogger;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Prepares the static files of the docs to be served from a CDN: the static assets (stylesheets, scripts, images and
+ * fonts) can be fingerprinted, and the text files can be precompressed.<br/><br/>
+ *
+ * A fingerprinted asset is copied to a name that includes a hash of its content (e.g. "css/style.0a1b2c3d4e.css"), so
+ * that it can be cached forever, and the references to it in the pages and the stylesheets are rewritten to the new
+ * name (including the stylesheets imported with "@import", which are fingerprinted before the stylesheets that import
+ * them). The original asset is kept, for the references that can't be rewritten (e.g. the ones computed by scripts).
+ * The fingerprinted names are listed in an asset manifest, which is also used to clean up the stale fingerprinted
+ * assets of the previous builds.<br/><br/>
+ *
+ * A precompressed file gets a gzipped sibling (e.g. "index.html.gz") for servers that can serve it as is.
+ *
+ * @author Ryan Heaton
+ */
+public class StaticAssetProcessor {
+
+  /**
+   * The name of the asset manifest, which maps the path of each fingerprinted asset to its fingerprinted path.
+   */
+  public static final String MANIFEST_NAME = "asset-manifest.json";
+
+  private static final Set<String> ASSET_EXTENSIONS = new TreeSet<String>(Arrays.asList("css", "js", "png", "gif", "jpg", "jpeg", "svg", "ico", "woff", "woff2", "ttf", "eot", "otf"));
+  private static final Set<String> TEXT_EXTENSIONS = new TreeSet<String>(Arrays.asList("html", "css", "js", "json", "xml", "xsd", "wsdl", "wadl", "svg", "txt"));
+  private static final Pattern HTML_REFERENCE = Pattern.compile("(\\s(?:src|href)\\s*=\\s*)([\"'])([^\"']*)\\2", Pattern.CASE_INSENSITIVE);
+  private static final Pattern CSS_REFERENCE = Pattern.compile("(url\\(\\s*)([\"']?)([^\"')\\s]+)\\2(\\s*\\))");
+  private static final Pattern CSS_IMPORT = Pattern.compile("(@import\\s+)([\"'])([^\"']+)\\2");
+
+  private final File docsDir;
+  private final EnunciateLogger logger;
+
+  /**
+   * @param docsDir The docs directory.
+   * @param logger  The logger.
+   */
+  public StaticAssetProcessor(File docsDir, EnunciateLogger logger) {
+    this.docsDir = docsDir;
+    this.logger = logger;
+  }
+
+  /**
+   * Fingerprint the static assets of the docs, rewrite the references to them, and write the asset manifest.
+   *
+   * @return The manifest: the path of each fingerprinted asset (relative to the docs directory), mapped to its fingerprinted path.
+   */
+  public Map<String, String> fingerprint() throws IOException {
+    File manifestFile = new File(this.docsDir, MANIFEST_NAME);
+    ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    Map<String, String> previousManifest = new TreeMap<String, String>();
+    if (manifestFile.isFile()) {
+      Map<?, ?> saved = mapper.readValue(manifestFile, Map.class);
+      for (Map.Entry<?, ?> entry : saved.entrySet()) {
+        previousManifest.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+      }
+    }
+    Set<String> previous = new TreeSet<String>(previousManifest.values());
+
+    //the assets that are referenced by stylesheets go first, so the stylesheets are fingerprinted once they're rewritten.
+    Map<String, String> manifest = new TreeMap<String, String>();
+    Set<String> stylesheets = new TreeSet<String>();
+    List<String> pages = new ArrayList<String>();
+    for (String path : listFiles()) {
+      String extension = extension(path);
+      if (previous.contains(path)) {
+        continue;
+      }
+      else if ("css".equals(extension)) {
+        stylesheets.add(path);
+      }
+      else if ("html".equals(extension)) {
+        pages.add(path);
+      }
+      else if (ASSET_EXTENSIONS.contains(extension)) {
+        manifest.put(path, copyToFingerprint(path));
+      }
+    }
+
+    for (String stylesheet : stylesheets) {
+      fingerprintStylesheet(stylesheet, stylesheets, manifest, previousManifest, new HashSet<String>());
+    }
+
+    Map<String, String> references = references(manifest, previousManifest);
+    for (String page : pages) {
+      rewriteReferences(page, references, HTML_REFERENCE);
+    }
+
+    previous.removeAll(manifest.values());
+    for (String stale : previous) {
+      this.logger.debug("Deleting stale fingerprinted asset %s.", stale);
+      new File(this.docsDir, stale).delete();
+      new File(this.docsDir, stale + ".gz").delete();
+    }
+
+    mapper.writeValue(manifestFile, manifest);
+    this.logger.debug("Fingerprinted %s static assets of the docs.", manifest.size());
+    return manifest;
+  }
+
+  /**
+   * Fingerprint a stylesheet, once the stylesheets it imports are fingerprinted.
+   *
+   * @param stylesheet       The path of the stylesheet.
+   * @param stylesheets      The paths of all the stylesheets.
+   * @param manifest         The fingerprinted assets.
+   * @param previousManifest The fingerprinted assets of the previous build.
+   * @param visiting         The stylesheets that are waiting for the stylesheets they import (to stop at a cycle).
+   */
+  private void fingerprintStylesheet(String stylesheet, Set<String> stylesheets, Map<String, String> manifest, Map<String, String> previousManifest, Set<String> visiting) throws IOException {
+    if (manifest.containsKey(stylesheet) || !visiting.add(stylesheet)) {
+      return;
+    }
+
+    Map<String, String> originals = new HashMap<String, String>();
+    for (Map.Entry<String, String> entry : previousManifest.entrySet()) {
+      originals.put(entry.getValue(), entry.getKey());
+    }
+
+    for (String reference : findReferences(stylesheet, CSS_REFERENCE, CSS_IMPORT)) {
+      //a stylesheet that wasn't regenerated refers to the fingerprinted names of the previous build.
+      String imported = originals.containsKey(reference) ? originals.get(reference) : reference;
+      if (stylesheets.contains(imported)) {
+        fingerprintStylesheet(imported, stylesheets, manifest, previousManifest, visiting);
+      }
+    }
+
+    rewriteReferences(stylesheet, references(manifest, previousManifest), CSS_REFERENCE, CSS_IMPORT);
+    manifest.put(stylesheet, copyToFingerprint(stylesheet));
+  }
+
+  /**
+   * The references to rewrite: the assets, and their previous fingerprinted paths (for the files that weren't
+   * regenerated since they were last rewritten).
+   *
+   * @param manifest         The fingerprinted assets.
+   * @param previousManifest The fingerprinted assets of the previous build.
+   * @return The references to rewrite, mapped to their fingerprinted paths.
+   */
+  private static Map<String, String> references(Map<String, String> manifest, Map<String, String> previousManifest) {
+    Map<String, String> references = new HashMap<String, String>(manifest);
+    for (Map.Entry<String, String> entry : previousManifest.entrySet()) {
+      String fingerprinted = manifest.get(entry.getKey());
+      if (fingerprinted != null) {
+        references.put(entry.getValue(), fingerprinted);
+      }
+    }
+    return references;
+  }
+
+  /**
+   * Write a gzipped sibling of each text file of the docs, on a pool of worker threads. A gzipped sibling gets the
+   * modification time of its file, so the ones with the same modification time as their file are kept (even if the file
+   * is dated in the future), and the ones whose file no longer exists are deleted.
+   *
+   * @param threads The number of worker threads.
+   * @return The number of files that were compressed.
+   */
+  public int precompress(int threads) throws IOException {
+    List<File> files = new ArrayList<File>();
+    for (String path : listFiles()) {
+      File file = new File(this.docsDir, path);
+      if (path.endsWith(".gz")) {
+        File source = new File(this.docsDir, path.substring(0, path.length() - 3));
+        if (!source.exists()) {
+          file.delete();
+        }
+      }
+      else if (TEXT_EXTENSIONS.contains(extension(path))) {
+        File gz = new File(this.docsDir, path + ".gz");
+        if (!gz.exists() || gz.lastModified() != file.lastModified()) {
+          files.add(file);
+        }
+      }
+    }
+
+    if (threads < 2 || files.size() < 2) {
+      for (File file : files) {
+        gzip(file);
+      }
+      return files.size();
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, files.size()));
+    try {
+      List<Future<?>> results = new ArrayList<Future<?>>();
+      for (final File file : files) {
+        results.add(executor.submit(new Callable<Object>() {
+          @Override
+          public Object call() throws Exception {
+            gzip(file);
+            return null;
+          }
+        }));
+      }
+
+      for (Future<?> result : results) {
+        try {
+          result.get();
+        }
+        catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof IOException) {
+            throw (IOException) cause;
+          }
+          else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          else if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new EnunciateException(cause);
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new EnunciateException(e);
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    return files.size();
+  }
+
+  private void gzip(File file) throws IOException {
+    this.logger.debug("Compressing %s...", file);
+    File gz = new File(file.getParentFile(), file.getName() + ".gz");
+    InputStream in = new FileInputStream(file);
+    try {
+      OutputStream out = new GZIPOutputStream(new FileOutputStream(gz)) {
+        {
+          def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+      };
+      try {
+        byte[] buffer = new byte[8 * 1024];
+        int len;
+        while ((len = in.read(buffer)) > 0) {
+          out.write(buffer, 0, len);
+        }
+      }
+      finally {
+        out.close();
+      }
+    }
+    finally {
+      in.close();
+    }
+    gz.setLastModified(file.lastModified());
+  }
+
+  /**
+   * Copy an asset to its fingerprinted name, unless it's already there.
+   *
+   * @param path The path of the asset.
+   * @return The fingerprinted path.
+   */
+  private String copyToFingerprint(String path) throws IOException {
+    File file = new File(this.docsDir, path);
+    byte[] content = read(file);
+    String fingerprinted = fingerprintedName(path, content);
+    File copy = new File(this.docsDir, fingerprinted);
+    if (!copy.exists() || copy.length() != content.length) {
+      write(copy, content);
+    }
+    return fingerprinted;
+  }
+
+  private static String fingerprintedName(String path, byte[] content) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-1");
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new EnunciateException(e);
+    }
+
+    StringBuilder hash = new StringBuilder();
+    for (byte b : digest.digest(content)) {
+      hash.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+
+    int dot = path.lastIndexOf('.');
+    return path.substring(0, dot) + "." + hash.substring(0, 10) + path.substring(dot);
+  }
+
+  /**
+   * Find the assets a file refers to.
+   *
+   * @param path     The path of the file.
+   * @param patterns The patterns of the references, whose third group is the reference.
+   * @return The paths of the assets the file refers to.
+   */
+  private Set<String> findReferences(String path, Pattern... patterns) throws IOException {
+    File file = new File(this.docsDir, path);
+    String content = new String(read(file), "utf-8");
+    Set<String> assets = new TreeSet<String>();
+    for (Pattern pattern : patterns) {
+      Matcher matcher = pattern.matcher(content);
+      while (matcher.find()) {
+        String reference = matcher.group(3);
+        String asset = resolveReference(file.getParentFile(), reference.substring(0, referencePathEnd(reference)));
+        if (asset != null) {
+          assets.add(asset);
+        }
+      }
+    }
+    return assets;
+  }
+
+  /**
+   * Rewrite the references of a file to the fingerprinted assets.
+   *
+   * @param path       The path of the file.
+   * @param references The references to rewrite, mapped to their fingerprinted paths.
+   * @param patterns   The patterns of the references, whose third group is the reference.
+   */
+  private void rewriteReferences(String path, Map<String, String> references, Pattern... patterns) throws IOException {
+    File file = new File(this.docsDir, path);
+    String content = new String(read(file), "utf-8");
+    boolean changed = false;
+    for (Pattern pattern : patterns) {
+      Matcher matcher = pattern.matcher(content);
+      StringBuffer rewritten = new StringBuffer();
+      while (matcher.find()) {
+        String reference = matcher.group(3);
+        String fingerprinted = fingerprintedReference(file.getParentFile(), reference, references);
+        if (fingerprinted != null) {
+          changed = true;
+          int start = matcher.start(3) - matcher.start();
+          String match = matcher.group();
+          matcher.appendReplacement(rewritten, Matcher.quoteReplacement(match.substring(0, start) + fingerprinted + match.substring(start + reference.length())));
+        }
+      }
+      matcher.appendTail(rewritten);
+      content = rewritten.toString();
+    }
+
+    if (changed) {
+      write(file, content.getBytes("utf-8"));
+    }
+  }
+
+  private String fingerprintedReference(File dir, String reference, Map<String, String> references) throws IOException {
+    int end = referencePathEnd(reference);
+    String referencePath = reference.substring(0, end);
+    String asset = resolveReference(dir, referencePath);
+    String fingerprinted = asset == null ? null : references.get(asset);
+    if (fingerprinted == null) {
+      return null;
+    }
+
+    //the fingerprinted asset is next to the asset, so only the name is replaced.
+    String name = fingerprinted.substring(fingerprinted.lastIndexOf('/') + 1);
+    return referencePath.substring(0, referencePath.lastIndexOf('/') + 1) + name + reference.substring(end);
+  }
+
+  /**
+   * The end of the path of a reference, before its query or fragment.
+   *
+   * @param reference The reference.
+   * @return The end of the path of the reference.
+   */
+  private static int referencePathEnd(String reference) {
+    int end = reference.length();
+    for (char delimiter : new char[]{'?', '#'}) {
+      int index = reference.indexOf(delimiter);
+      if (index >= 0 && index < end) {
+        end = index;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Resolve the path of a reference to an asset of the docs.
+   *
+   * @param dir           The directory of the file that has the reference.
+   * @param referencePath The path of the reference (without its query or fragment).
+   * @return The path of the asset (relative to the docs directory), or null if the reference isn't to an asset of the docs.
+   */
+  private String resolveReference(File dir, String referencePath) throws IOException {
+    if (referencePath.isEmpty() || referencePath.startsWith("/") || referencePath.contains(":")) {
+      //absolute, external, or not a file.
+      return null;
+    }
+
+    if (!ASSET_EXTENSIONS.contains(extension(referencePath))) {
+      return null;
+    }
+
+    String root = this.docsDir.getCanonicalPath() + File.separator;
+    String target = new File(dir, referencePath).getCanonicalPath();
+    if (!target.startsWith(root)) {
+      return null;
+    }
+
+    return target.substring(root.length()).replace(File.separatorChar, '/');
+  }
+
+  private List<String> listFiles() {
+    List<String> paths = new ArrayList<String>();
+    listFiles(this.docsDir, "", paths);
+    return paths;
+  }
+
+  private static void listFiles(File dir, String path, List<String> paths) {
+    File[] files = dir.listFiles();
+    if (files != null) {
+      Arrays.sort(files);
+      for (File file : files) {
+        if (file.isDirectory()) {
+          listFiles(file, path + file.getName() + "/", paths);
+        }
+        else {
+          paths.add(path + file.getName());
+        }
+      }
+    }
+  }
+
+  private static String extension(String path) {
+    String name = path.substring(path.lastIndexOf('/') + 1);
+    int dot = name.lastIndexOf('.');
+    return dot < 0 ? "" : name.substring(dot + 1).toLowerCase();
+  }
+
+  private static byte[] read(File file) throws IOException {
+    byte[] content = new byte[(int) file.length()];
+    DataInputStream in = new DataInputStream(new FileInputStream(file));
+    try {
+      in.readFully(content);
+    }
+    finally {
+      in.close();
+    }
+    return content;
+  }
+
+  private static void write(File file, byte[] content) throws IOException {
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content);
+    }
+    finally {
+      out.close();
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package com.webcohesion.enunciate.modules.docs;
+
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.utility.DeepUnwrap;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class DocsPageRendererTest {
+
+  private static final String TEMPLATE = "[#ftl]"
+    + "[#macro typePage type][@file name=type + \".html\"]${visit(type)}Type ${type}[/@file][/#macro]"
+    + "[#macro syntaxPage syntax][@file name=syntax.name + \".html\" nested=true]${visit(syntax.name)}Syntax ${syntax.name}[#list syntax.types as type][@typePage type=type/][/#list][/@file][/#macro]"
+    + "[@file name=\"index.html\" nested=true]${visit(\"index\")}Index[#list syntaxes as syntax][@syntaxPage syntax=syntax/][/#list][/@file]"
+    + "[@file name=\"about.html\" package=\"info\"]${visit(\"about\")}About[/@file]";
+
+  private static final String UNDECLARED_TEMPLATE = TEMPLATE.replace(" nested=true", "");
+
+  @Test
+  public void testOnlyTheNeededBodiesAreRendered() throws Exception {
+    Template template = template();
+    VisitMethod visits = new VisitMethod();
+    DocsPageRenderer renderer = new DocsPageRenderer(template, model(visits, "json:a,b", "xml:c"), 10);
+
+    //the first request finds the pages: the bodies of the other pages that don't declare nested pages aren't rendered.
+    assertEquals("Type a", renderer.renderPage("a.html"));
+    assertEquals(Arrays.asList("index", "json", "a", "xml"), visits.visited);
+
+    //the requested pages are cached.
+    visits.visited.clear();
+    assertEquals("Type a", renderer.renderPage("a.html"));
+    assertTrue(visits.visited.isEmpty());
+
+    //once the pages are found, only the bodies of the pages a page is nested in are rendered.
+    assertEquals("Type c", renderer.renderPage("c.html"));
+    assertEquals(Arrays.asList("index", "xml", "c"), visits.visited);
+    visits.visited.clear();
+    assertEquals("About", renderer.renderPage("info/about.html"));
+    assertEquals(Arrays.asList("about"), visits.visited);
+    visits.visited.clear();
+    assertEquals("Syntax json", renderer.renderPage("json.html"));
+    assertEquals(Arrays.asList("index", "json"), visits.visited);
+
+    //a missing page isn't rendered.
+    visits.visited.clear();
+    assertNull(renderer.renderPage("missing.html"));
+    assertTrue(visits.visited.isEmpty());
+  }
+
+  @Test
+  public void testUndeclaredNestedPagesAreFound() throws Exception {
+    VisitMethod visits = new VisitMethod();
+    DocsPageRenderer renderer = new DocsPageRenderer(template(UNDECLARED_TEMPLATE), model(visits, "json:a,b", "xml:c"), 10);
+
+    //the template doesn't declare its nested pages: they're found in the bodies of all the pages.
+    assertEquals("About", renderer.renderPage("info/about.html"));
+    assertEquals(Arrays.asList("about", "index", "json", "a", "b", "xml", "c", "about"), visits.visited);
+
+    //once the pages are found, only the bodies of the pages a page is nested in are rendered.
+    visits.visited.clear();
+    assertEquals("Type c", renderer.renderPage("c.html"));
+    assertEquals(Arrays.asList("index", "xml", "c"), visits.visited);
+    visits.visited.clear();
+    assertNull(renderer.renderPage("missing.html"));
+    assertTrue(visits.visited.isEmpty());
+  }
+
+  @Test
+  public void testThePagesAreFoundOncePerTemplate() throws Exception {
+    Template template = template();
+    new DocsPageRenderer(template, model(new VisitMethod(), "json:a,b", "xml:c"), 10).renderPage("index.html");
+
+    //the next build finds the pages from the index of the previous build.
+    VisitMethod visits = new VisitMethod();
+    DocsPageRenderer renderer = new DocsPageRenderer(template, model(visits, "json:a,b", "xml:c,d"), 10);
+    assertEquals("Type c", renderer.renderPage("c.html"));
+    assertEquals(Arrays.asList("index", "xml", "c"), visits.visited);
+
+    //a page that isn't in the index of the previous build is found again.
+    visits.visited.clear();
+    assertEquals("Type d", renderer.renderPage("d.html"));
+    assertEquals(Arrays.asList("index", "json", "xml", "d"), visits.visited);
+    visits.visited.clear();
+    assertNull(renderer.renderPage("missing.html"));
+    assertTrue(visits.visited.isEmpty());
+
+    //a page that moved since the previous build is found again.
+    visits = new VisitMethod();
+    renderer = new DocsPageRenderer(template, model(visits, "json:a,b,c", "xml:d"), 10);
+    assertEquals("Type c", renderer.renderPage("c.html"));
+    assertEquals(Arrays.asList("index", "xml", "index", "json", "c", "xml"), visits.visited);
+
+    //a page that was removed since the previous build isn't found.
+    visits = new VisitMethod();
+    renderer = new DocsPageRenderer(template, model(visits, "json:a,b,c"), 10);
+    assertNull(renderer.renderPage("d.html"));
+    assertEquals(Arrays.asList("index", "index", "json"), visits.visited);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedPagesAreEvicted() throws Exception {
+    VisitMethod visits = new VisitMethod();
+    DocsPageRenderer renderer = new DocsPageRenderer(template(), model(visits, "json:a,b"), 1);
+    renderer.renderPage("a.html");
+    renderer.renderPage("b.html");
+    visits.visited.clear();
+    assertEquals("Type b", renderer.renderPage("b.html"));
+    assertTrue(visits.visited.isEmpty());
+    assertEquals("Type a", renderer.renderPage("a.html"));
+    assertEquals(Arrays.asList("index", "json", "a"), visits.visited);
+  }
+
+  @Test
+  public void testPagesAreRenderedOneAtATime() throws Exception {
+    final VisitMethod visits = new VisitMethod();
+    visits.delay = 5;
+    final DocsPageRenderer renderer = new DocsPageRenderer(template(), model(visits, "json:a,b,c,d", "xml:e,f,g,h"), 10);
+    final List<String> pages = Collections.synchronizedList(new ArrayList<String>());
+    List<Thread> threads = new ArrayList<Thread>();
+    for (final String type : Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h")) {
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            pages.add(renderer.renderPage(type + ".html"));
+          }
+          catch (Exception e) {
+            pages.add(e.getMessage());
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join(30000);
+    }
+
+    assertEquals(8, pages.size());
+    for (String type : Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h")) {
+      assertTrue(pages.contains("Type " + type));
+    }
+    assertEquals(1, visits.maxConcurrent);
+  }
+
+  private static Template template() throws Exception {
+    return template(TEMPLATE);
+  }
+
+  private static Template template(String source) throws Exception {
+    StringTemplateLoader loader = new StringTemplateLoader();
+    loader.putTemplate("docs.fmt", source);
+    Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
+    configuration.setTemplateLoader(loader);
+    configuration.setLocalizedLookup(false);
+    return configuration.getTemplate("docs.fmt");
+  }
+
+  /**
+   * @param syntaxes The syntaxes, each as its name and the comma-separated names of its types (e.g. "json:a,b").
+   */
+  private static Map<String, Object> model(VisitMethod visits, String... syntaxes) {
+    List<Map<String, Object>> syntaxList = new ArrayList<Map<String, Object>>();
+    for (String syntax : syntaxes) {
+      Map<String, Object> syntaxModel = new HashMap<String, Object>();
+      syntaxModel.put("name", syntax.substring(0, syntax.indexOf(':')));
+      syntaxModel.put("types", Arrays.asList(syntax.substring(syntax.indexOf(':') + 1).split(",")));
+      syntaxList.add(syntaxModel);
+    }
+
+    Map<String, Object> model = new HashMap<String, Object>();
+    model.put("syntaxes", syntaxList);
+    model.put("visit", visits);
+    return model;
+  }
+
+  /**
+   * Notes the bodies that are rendered, and how many are rendered at the same time.
+   */
+  private static class VisitMethod implements TemplateMethodModelEx {
+
+    private final List<String> visited = Collections.synchronizedList(new ArrayList<String>());
+    private final AtomicInteger concurrent = new AtomicInteger(0);
+    private volatile int maxConcurrent = 0;
+    private long delay = 0;
+
+    @Override
+    public Object exec(List arguments) throws TemplateModelException {
+      int current = this.concurrent.incrementAndGet();
+      this.maxConcurrent = Math.max(this.maxConcurrent, current);
+      try {
+        this.visited.add(String.valueOf(DeepUnwrap.unwrap((TemplateModel) arguments.get(0))));
+        if (this.delay > 0) {
+          Thread.sleep(this.delay);
+        }
+        return "";
+      }
+      catch (InterruptedException e) {
+        throw new TemplateModelException(e);
+      }
+      finally {
+        this.concurrent.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package com.webcohesion.enunciate.modules.docs;
+
+import com.webcohesion.enunciate.EnunciateLogger;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class StaticAssetProcessorTest {
+
+  @Test
+  public void testReferencesAreRewritten() throws Exception {
+    File docsDir = createTempDir();
+    write(new File(docsDir, "img/bg.png"), "png");
+    write(new File(docsDir, "js/app.js"), "app();");
+    write(new File(docsDir, "css/reset.css"), "* { margin: 0; }");
+    write(new File(docsDir, "css/base.css"), "@import 'reset.css';");
+    write(new File(docsDir, "css/style.css"), "@import \"base.css\";\n"
+      + "@import url('fonts/none.css') screen;\n"
+      + "body { background: url(\"../img/bg.png?v=1#top\"); }\n"
+      + ".a { background: url( ../img/bg.png ); }\n"
+      + ".b { background: url(../img/missing.png); }");
+    write(new File(docsDir, "index.html"), "<link href=\"css/style.css?v=2\" rel=\"stylesheet\"/>"
+      + "<script src='js/app.js#main'></script>"
+      + "<img src=\"img/bg.png\"/>"
+      + "<a href=\"other.html\">other</a>"
+      + "<img src=\"http://example.com/img/bg.png\"/>"
+      + "<img src=\"/img/bg.png\"/>"
+      + "<a href=\"#img/bg.png\">anchor</a>");
+    write(new File(docsDir, "sub/page.html"), "<img src=\"../img/bg.png\"/><img src=\"../../img/bg.png\"/>");
+
+    Map<String, String> manifest = new StaticAssetProcessor(docsDir, new SilentLogger()).fingerprint();
+    String bg = manifest.get("img/bg.png");
+    String app = manifest.get("js/app.js");
+    String reset = manifest.get("css/reset.css");
+    String base = manifest.get("css/base.css");
+    String style = manifest.get("css/style.css");
+    assertTrue(bg.matches("img/bg\\.[0-9a-f]{10}\\.png"));
+    assertTrue(app.matches("js/app\\.[0-9a-f]{10}\\.js"));
+    assertEquals(5, manifest.size());
+    assertEquals("png", read(new File(docsDir, bg)));
+    assertEquals("png", read(new File(docsDir, "img/bg.png")));
+
+    //imported stylesheets are fingerprinted before the stylesheets that import them.
+    assertEquals("@import '" + name(reset) + "';", read(new File(docsDir, base)));
+    assertEquals("@import \"" + name(base) + "\";\n"
+      + "@import url('fonts/none.css') screen;\n"
+      + "body { background: url(\"../" + bg + "?v=1#top\"); }\n"
+      + ".a { background: url( ../" + bg + " ); }\n"
+      + ".b { background: url(../img/missing.png); }", read(new File(docsDir, style)));
+    assertEquals(read(new File(docsDir, style)), read(new File(docsDir, "css/style.css")));
+
+    //the query and fragment are kept, and the external, absolute and anchor references are left as they are.
+    assertEquals("<link href=\"" + style + "?v=2\" rel=\"stylesheet\"/>"
+      + "<script src='" + app + "#main'></script>"
+      + "<img src=\"" + bg + "\"/>"
+      + "<a href=\"other.html\">other</a>"
+      + "<img src=\"http://example.com/img/bg.png\"/>"
+      + "<img src=\"/img/bg.png\"/>"
+      + "<a href=\"#img/bg.png\">anchor</a>", read(new File(docsDir, "index.html")));
+
+    //references are resolved relative to the page, and the ones outside the docs are left as they are.
+    assertEquals("<img src=\"../" + bg + "\"/><img src=\"../../img/bg.png\"/>", read(new File(docsDir, "sub/page.html")));
+  }
+
+  @Test
+  public void testStaleAssetsAreDeleted() throws Exception {
+    File docsDir = createTempDir();
+    File png = write(new File(docsDir, "img/bg.png"), "png");
+    write(new File(docsDir, "css/style.css"), "body { background: url(../img/bg.png); }");
+    File page = write(new File(docsDir, "index.html"), "<link href=\"css/style.css\"/><img src=\"img/bg.png\"/>");
+    StaticAssetProcessor processor = new StaticAssetProcessor(docsDir, new SilentLogger());
+    Map<String, String> first = processor.fingerprint();
+    processor.precompress(1);
+    assertTrue(new File(docsDir, first.get("css/style.css") + ".gz").exists());
+
+    //the page and the stylesheet weren't regenerated: their references to the previous fingerprinted names are rewritten.
+    write(png, "new png");
+    Map<String, String> second = processor.fingerprint();
+    assertFalse(first.get("img/bg.png").equals(second.get("img/bg.png")));
+    assertFalse(first.get("css/style.css").equals(second.get("css/style.css")));
+    assertEquals("body { background: url(../" + second.get("img/bg.png") + "); }", read(new File(docsDir, second.get("css/style.css"))));
+    assertEquals("<link href=\"" + second.get("css/style.css") + "\"/><img src=\"" + second.get("img/bg.png") + "\"/>", read(page));
+
+    //the fingerprinted assets of the previous build are deleted, with their gzipped siblings.
+    assertFalse(new File(docsDir, first.get("img/bg.png")).exists());
+    assertFalse(new File(docsDir, first.get("css/style.css")).exists());
+    assertFalse(new File(docsDir, first.get("css/style.css") + ".gz").exists());
+    assertTrue(new File(docsDir, second.get("img/bg.png")).exists());
+    assertTrue(new File(docsDir, second.get("css/style.css")).exists());
+
+    //the fingerprinted assets aren't fingerprinted again.
+    assertEquals(second, processor.fingerprint());
+    assertTrue(new File(docsDir, second.get("img/bg.png")).exists());
+  }
+
+  @Test
+  public void testPrecompressedFilesAreKeptFresh() throws Exception {
+    File docsDir = createTempDir();
+    File page = write(new File(docsDir, "index.html"), "<html>index</html>");
+    File other = write(new File(docsDir, "other.html"), "<html>other</html>");
+    write(new File(docsDir, "css/style.css"), "body {}");
+    write(new File(docsDir, "img/bg.png"), "png");
+    StaticAssetProcessor processor = new StaticAssetProcessor(docsDir, new SilentLogger());
+
+    //the text files are compressed, the others aren't.
+    assertEquals(3, processor.precompress(4));
+    assertEquals("<html>index</html>", gunzip(new File(docsDir, "index.html.gz")));
+    assertEquals("body {}", gunzip(new File(docsDir, "css/style.css.gz")));
+    assertFalse(new File(docsDir, "img/bg.png.gz").exists());
+
+    //the compressed files of the unchanged files are kept.
+    assertEquals(0, processor.precompress(4));
+
+    //a changed file is compressed again, even if it's dated in the future.
+    long lastModified = page.lastModified();
+    write(page, "<html>changed</html>");
+    page.setLastModified(lastModified + 60000);
+    assertEquals(1, processor.precompress(1));
+    assertEquals("<html>changed</html>", gunzip(new File(docsDir, "index.html.gz")));
+    assertEquals(0, processor.precompress(1));
+
+    //a file that was regenerated with an older modification time is compressed again.
+    write(page, "<html>older</html>");
+    page.setLastModified(lastModified - 60000);
+    assertEquals(1, processor.precompress(1));
+    assertEquals("<html>older</html>", gunzip(new File(docsDir, "index.html.gz")));
+
+    //the compressed file of a deleted file is deleted.
+    assertTrue(other.delete());
+    assertEquals(0, processor.precompress(1));
+    assertFalse(new File(docsDir, "other.html.gz").exists());
+  }
+
+  private static String name(String path) {
+    return path.substring(path.lastIndexOf('/') + 1);
+  }
+
+  private static File write(File file, String contents) throws IOException {
+    file.getParentFile().mkdirs();
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "utf-8");
+    writer.write(contents);
+    writer.close();
+    return file;
+  }
+
+  private static String read(File file) throws IOException {
+    return read(new FileInputStream(file));
+  }
+
+  private static String gunzip(File file) throws IOException {
+    return read(new GZIPInputStream(new FileInputStream(file)));
+  }
+
+  private static String read(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[1024];
+    int len;
+    while ((len = in.read(buffer)) > 0) {
+      bytes.write(buffer, 0, len);
+    }
+    in.close();
+    return bytes.toString("utf-8");
+  }
+
+  private static File createTempDir() throws IOException {
+    File tempDir = File.createTempFile("StaticAssetProcessorTest", "");
+    tempDir.delete();
+    tempDir.mkdirs();
+    return tempDir;
+  }
+
+  private static class SilentLogger implements EnunciateLogger {
+    @Override
+    public void debug(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void info(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void warn(String message, Object... formatArgs) {
+    }
+
+    @Override
+    public void error(String message, Object... formatArgs) {
+    }
+  }
+}
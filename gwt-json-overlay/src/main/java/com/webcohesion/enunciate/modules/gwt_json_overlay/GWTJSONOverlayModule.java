@@ -228,14 +228,8 @@ public class GWTJSONOverlayModule extends BasicGeneratingModule implements ApiFe
     return new File(new File(this.enunciate.getBuildDir(), getName()), "src");
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -258,6 +252,19 @@ public class GWTJSONOverlayModule extends BasicGeneratingModule implements ApiFe
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new GWTJSONOverlayObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -14,6 +14,7 @@ import freemarker.template.TemplateExceptionHandler;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,7 +26,9 @@ public abstract class BaseXMLInterfaceDescriptionFile implements InterfaceDescri
   protected final FacetFilter facetFilter;
   protected final Map<String, String> namespacePrefixes;
   protected final String filename;
-  private String contents;
+  private File writtenFile;
+  private long writtenLastModified;
+  private long size = -1;
 
   public BaseXMLInterfaceDescriptionFile(String filename, Map<String, String> namespacePrefixes, FacetFilter facetFilter) {
     this.namespacePrefixes = namespacePrefixes;
@@ -35,30 +38,111 @@ public abstract class BaseXMLInterfaceDescriptionFile implements InterfaceDescri
 
   @Override
   public String getHref() {
-    if (contents == null) {
+    if (this.size < 0) {
       throw new IllegalStateException(String.format("%s hasn't been written yet.", filename));
     }
 
     return filename;
   }
 
+  /**
+   * The size of the document, in bytes.
+   *
+   * @return The size of the document, in bytes.
+   * @throws IllegalStateException If the document hasn't been written yet.
+   */
+  public long getSize() {
+    if (this.size < 0) {
+      throw new IllegalStateException(String.format("%s hasn't been written yet.", filename));
+    }
+
+    return this.size;
+  }
+
+  /**
+   * Writes the document to the specified directory. The document is rendered straight to the file the first time
+   * it's written; later writes copy that file instead of rendering the document again.
+   *
+   * @param directory The directory.
+   */
   @Override
   public void writeTo(File directory) throws IOException {
-    FileWriter writer = new FileWriter(new File(directory, this.filename));
-    writeTo(writer);
-    writer.flush();
-    writer.close();
+    File file = new File(directory, this.filename);
+    if (isRendered()) {
+      if (!this.writtenFile.getCanonicalFile().equals(file.getCanonicalFile())) {
+        copy(this.writtenFile, file);
+      }
+    }
+    else {
+      FileOutputStream out = new FileOutputStream(file);
+      try {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"));
+        render(writer);
+        writer.flush();
+        this.size = out.getChannel().position();
+      }
+      finally {
+        out.close();
+      }
+      this.writtenFile = file;
+      this.writtenLastModified = file.lastModified();
+    }
   }
 
   protected void writeTo(Writer writer) throws IOException {
-    if (this.contents != null) {
-      writer.write(this.contents);
+    if (isRendered()) {
+      Reader reader = new InputStreamReader(new FileInputStream(this.writtenFile), "UTF-8");
+      try {
+        char[] buffer = new char[8192];
+        int len;
+        while ((len = reader.read(buffer)) >= 0) {
+          writer.write(buffer, 0, len);
+        }
+      }
+      finally {
+        reader.close();
+      }
     }
     else {
-      Map<String, Object> model = createModel();
-      URL template = getTemplateURL();
-      String idl = processTemplate(template, model);
-      writer.write(idl);
+      CountingWriter counter = new CountingWriter(writer);
+      render(counter);
+      this.size = counter.count;
+    }
+  }
+
+  /**
+   * Whether the document has already been rendered to a file that can be copied.
+   *
+   * @return Whether the document has already been rendered to a file.
+   */
+  private boolean isRendered() {
+    //the rendered file might have been cleaned up or changed since it was written.
+    return this.writtenFile != null && this.writtenFile.exists() && this.writtenFile.length() == this.size && this.writtenFile.lastModified() == this.writtenLastModified;
+  }
+
+  private void render(Writer writer) throws IOException {
+    processTemplate(getTemplateURL(), createModel(), writer);
+  }
+
+  private static void copy(File from, File to) throws IOException {
+    FileInputStream in = new FileInputStream(from);
+    try {
+      FileOutputStream out = new FileOutputStream(to);
+      try {
+        FileChannel source = in.getChannel();
+        FileChannel target = out.getChannel();
+        long position = 0;
+        long count = source.size();
+        while (position < count) {
+          position += source.transferTo(position, count - position, target);
+        }
+      }
+      finally {
+        out.close();
+      }
+    }
+    finally {
+      in.close();
     }
   }
 
@@ -75,8 +159,9 @@ public abstract class BaseXMLInterfaceDescriptionFile implements InterfaceDescri
    * Processes the specified template with the given model.
    *
    * @param model       The root model.
+   * @param output      The writer to which to write the output.
    */
-  protected String processTemplate(URL templateURL, Map<String, Object> model) throws IOException {
+  protected void processTemplate(URL templateURL, Map<String, Object> model, Writer output) throws IOException {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -100,18 +185,62 @@ public abstract class BaseXMLInterfaceDescriptionFile implements InterfaceDescri
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new IDLObjectWrapper(this.namespacePrefixes));
     Template template = configuration.getTemplate(templateURL.toString());
-    StringWriter output = new StringWriter();
-
     try {
       template.process(model, output);
     }
     catch (TemplateException e) {
       throw new RuntimeException(e);
     }
+  }
+
+  /**
+   * Writer that counts the bytes of the UTF-8 encoding of what's written through it.
+   */
+  private static class CountingWriter extends FilterWriter {
+
+    private long count = 0;
+
+    private CountingWriter(Writer out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+      super.write(c);
+      this.count += utf8Length((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+      super.write(cbuf, off, len);
+      for (int i = off; i < off + len; i++) {
+        this.count += utf8Length(cbuf[i]);
+      }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+      super.write(str, off, len);
+      for (int i = off; i < off + len; i++) {
+        this.count += utf8Length(str.charAt(i));
+      }
+    }
 
-    String idl = output.toString();
-    this.contents = idl;
-    return idl;
+    private static int utf8Length(char c) {
+      if (c < 0x80) {
+        return 1;
+      }
+      else if (c < 0x800) {
+        return 2;
+      }
+      else if (c >= '\uD800' && c <= '\uDFFF') {
+        //each half of a surrogate pair accounts for half of the 4-byte encoding.
+        return 2;
+      }
+      else {
+        return 3;
+      }
+    }
   }
 
 }
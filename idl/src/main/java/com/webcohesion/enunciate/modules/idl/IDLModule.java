@@ -48,6 +48,14 @@ public class IDLModule extends BasicGeneratingModule implements ApiFeatureProvid
     return "idl";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("disableWadl", Boolean.class);
+    attributeTypes.put("inlineSchema", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new DependencySpec() {
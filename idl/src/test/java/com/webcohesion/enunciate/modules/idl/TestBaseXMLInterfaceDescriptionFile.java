@@ -0,0 +1,157 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.modules.idl;
+
+import junit.framework.TestCase;
+
+import java.io.*;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestBaseXMLInterfaceDescriptionFile extends TestCase {
+
+  private static final String DOCUMENT = "<doc>café € 😀</doc>";
+
+  /**
+   * Tests that the document is rendered once and copied afterwards.
+   */
+  public void testRenderedOnce() throws Exception {
+    TestFile idl = new TestFile(template());
+
+    File first = createTempDir();
+    idl.writeTo(first);
+    assertEquals(DOCUMENT, read(new File(first, "test.xml")));
+    assertEquals(DOCUMENT.getBytes("utf-8").length, idl.getSize());
+    assertEquals(1, idl.renders);
+
+    File second = createTempDir();
+    idl.writeTo(second);
+    assertEquals(DOCUMENT, read(new File(second, "test.xml")));
+
+    StringWriter writer = new StringWriter();
+    idl.writeTo(writer);
+    assertEquals(DOCUMENT, writer.toString());
+    assertEquals(1, idl.renders);
+  }
+
+  /**
+   * Tests that a changed or deleted rendering is rendered again instead of being copied.
+   */
+  public void testChangedRenderingIsRenderedAgain() throws Exception {
+    TestFile idl = new TestFile(template());
+    File first = createTempDir();
+    idl.writeTo(first);
+    File rendered = new File(first, "test.xml");
+
+    //the same length, but not the same document.
+    long lastModified = rendered.lastModified();
+    byte[] changed = DOCUMENT.getBytes("utf-8");
+    changed[1] = 'X';
+    FileOutputStream out = new FileOutputStream(rendered);
+    out.write(changed);
+    out.close();
+    rendered.setLastModified(lastModified + 2000);
+
+    File second = createTempDir();
+    idl.writeTo(second);
+    assertEquals(DOCUMENT, read(new File(second, "test.xml")));
+    assertEquals(2, idl.renders);
+
+    //the document is copied from its new rendering.
+    idl.writeTo(createTempDir());
+    assertEquals(2, idl.renders);
+
+    assertTrue(new File(second, "test.xml").delete());
+    StringWriter writer = new StringWriter();
+    idl.writeTo(writer);
+    assertEquals(DOCUMENT, writer.toString());
+    assertEquals(3, idl.renders);
+  }
+
+  /**
+   * Tests the size of a document that is streamed before it's written to a file.
+   */
+  public void testStreamedSize() throws Exception {
+    TestFile idl = new TestFile(template());
+    try {
+      idl.getSize();
+      fail();
+    }
+    catch (IllegalStateException e) {
+      //fall through...
+    }
+
+    StringWriter writer = new StringWriter();
+    idl.writeTo(writer);
+    assertEquals(DOCUMENT, writer.toString());
+    assertEquals(DOCUMENT.getBytes("utf-8").length, idl.getSize());
+    assertEquals("test.xml", idl.getHref());
+  }
+
+  private static URL template() throws IOException {
+    File template = new File(createTempDir(), "test.fmt");
+    Writer writer = new OutputStreamWriter(new FileOutputStream(template), "utf-8");
+    writer.write(DOCUMENT);
+    writer.close();
+    return template.toURI().toURL();
+  }
+
+  private static String read(File file) throws IOException {
+    Reader reader = new InputStreamReader(new FileInputStream(file), "utf-8");
+    StringWriter out = new StringWriter();
+    char[] buffer = new char[1024];
+    int len;
+    while ((len = reader.read(buffer)) > 0) {
+      out.write(buffer, 0, len);
+    }
+    reader.close();
+    return out.toString();
+  }
+
+  private static File createTempDir() throws IOException {
+    File tempDir = File.createTempFile("TestBaseXMLInterfaceDescriptionFile", "");
+    tempDir.delete();
+    tempDir.mkdirs();
+    return tempDir;
+  }
+
+  private static class TestFile extends BaseXMLInterfaceDescriptionFile {
+
+    private final URL template;
+    private int renders = 0;
+
+    private TestFile(URL template) {
+      super("test.xml", new HashMap<String, String>(), null);
+      this.template = template;
+    }
+
+    @Override
+    protected URL getTemplateURL() {
+      return this.template;
+    }
+
+    @Override
+    protected void processTemplate(URL templateURL, Map<String, Object> model, Writer output) throws IOException {
+      this.renders++;
+      super.processTemplate(templateURL, model, output);
+    }
+  }
+}
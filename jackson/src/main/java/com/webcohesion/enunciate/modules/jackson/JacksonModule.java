@@ -18,16 +18,23 @@ import javax.lang.model.type.TypeMirror;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlType;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * @author Ryan Heaton
  */
 @SuppressWarnings ( "unchecked" )
-public class JacksonModule extends BasicEnunicateModule implements TypeFilteringModule, MediaTypeDefinitionModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
+public class JacksonModule extends BasicEnunicateModule implements IndexedTypeFilteringModule, MediaTypeDefinitionModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
 
+  private final TypeFilterRules typeFilterRules = new TypeFilterRules()
+    .annotatedWith(JsonSerialize.class.getName())
+    .annotatedWithAnyIn(JsonFormat.class.getPackage().getName())
+    .exceptAnnotatedWith(JacksonAnnotation.class.getName())
+    .detecting(ObjectMapper.class.getName(), "com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector");
   private DataTypeDetectionStrategy defaultDataTypeDetectionStrategy;
   private boolean jacksonDetected = false;
   private boolean jaxbSupportDetected = false;
@@ -39,6 +46,13 @@ public class JacksonModule extends BasicEnunicateModule implements TypeFiltering
     return "jackson";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("honorJaxb", Boolean.class);
+    return attributeTypes;
+  }
+
   public boolean isHonorJaxbAnnotations() {
     return this.config.getBoolean("[@honorJaxb]", this.jaxbSupportDetected);
   }
@@ -226,21 +240,21 @@ public class JacksonModule extends BasicEnunicateModule implements TypeFiltering
     return declaration.getKind() == ElementKind.CLASS && ((DecoratedTypeMirror) declaration.asType()).isInstanceOf(Throwable.class);
   }
 
+  @Override
+  public TypeFilterRules getTypeFilterRules() {
+    return this.typeFilterRules;
+  }
+
+  @Override
+  public void acknowledgeDetectedTypes(Set<String> detectedTypes) {
+    this.jacksonDetected |= detectedTypes.contains(ObjectMapper.class.getName());
+    this.jaxbSupportDetected |= detectedTypes.contains("com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector");
+  }
+
   @Override
   public boolean acceptType(Object type, MetadataAdapter metadata) {
-    String classname = metadata.getClassName(type);
-    this.jacksonDetected |= ObjectMapper.class.getName().equals(classname);
-    this.jaxbSupportDetected |= "com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector".equals(classname);
-
-    List<String> classAnnotations = metadata.getClassAnnotationNames(type);
-    if (classAnnotations != null) {
-      for (String fqn : classAnnotations) {
-        if (isJacksonSerializationAnnotation(fqn)) {
-          return true;
-        }
-      }
-    }
-    return false;
+    acknowledgeDetectedTypes(Collections.singleton(metadata.getClassName(type)));
+    return this.typeFilterRules.accept(type, metadata);
   }
 
   boolean isJacksonSerializationAnnotation(String fqn) {
@@ -62,4 +62,16 @@ public class PropertyImpl implements Property {
   public JavaDoc getJavaDoc() {
     return member.getJavaDoc();
   }
+
+  @Override
+  public Object getMetadata(String name) {
+    if ("constraints".equals(name)) {
+      return getConstraints();
+    }
+    else if ("defaultValue".equals(name)) {
+      return getDefaultValue();
+    }
+
+    return null;
+  }
 }
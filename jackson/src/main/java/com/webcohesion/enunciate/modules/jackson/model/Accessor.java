@@ -17,6 +17,7 @@
 package com.webcohesion.enunciate.modules.jackson.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedElement;
@@ -39,7 +40,6 @@ import javax.lang.model.type.MirroredTypeException;
 import javax.lang.model.type.TypeMirror;
 import java.util.LinkedList;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * An accessor for a field or method value into a type.
@@ -51,7 +51,7 @@ public abstract class Accessor extends DecoratedElement<javax.lang.model.element
 
   final TypeDefinition typeDefinition;
   final AdapterType adapterType;
-  final Set<Facet> facets = new TreeSet<Facet>();
+  final Set<Facet> facets = new FacetSet();
   final EnunciateJacksonContext context;
 
   public Accessor(javax.lang.model.element.Element delegate, TypeDefinition typeDef, EnunciateJacksonContext context) {
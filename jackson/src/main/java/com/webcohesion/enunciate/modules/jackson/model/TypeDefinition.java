@@ -19,6 +19,7 @@ package com.webcohesion.enunciate.modules.jackson.model;
 import com.fasterxml.jackson.annotation.*;
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedElement;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedExecutableElement;
@@ -52,7 +53,7 @@ public abstract class TypeDefinition extends DecoratedTypeElement implements Has
   private final Value value;
   private final WildcardMember wildcardMember;
   private final LinkedList<javax.lang.model.element.Element> referencedFrom = new LinkedList<javax.lang.model.element.Element>();
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   protected final EnunciateJacksonContext context;
 
   protected TypeDefinition(TypeElement delegate, EnunciateJacksonContext context) {
@@ -17,16 +17,21 @@ import javax.lang.model.type.TypeMirror;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlType;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * @author Ryan Heaton
  */
 @SuppressWarnings ( "unchecked" )
-public class Jackson1Module extends BasicEnunicateModule implements TypeFilteringModule, MediaTypeDefinitionModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
+public class Jackson1Module extends BasicEnunicateModule implements IndexedTypeFilteringModule, MediaTypeDefinitionModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
 
+  private final TypeFilterRules typeFilterRules = new TypeFilterRules()
+    .annotatedWith(JsonSerialize.class.getName())
+    .detecting(ObjectMapper.class.getName(), "org.codehaus.jackson.xc.JaxbAnnotationIntrospector");
   private DataTypeDetectionStrategy defaultDataTypeDetectionStrategy;
   private boolean jacksonDetected = false;
   private boolean jaxbSupportDetected = false;
@@ -38,6 +43,13 @@ public class Jackson1Module extends BasicEnunicateModule implements TypeFilterin
     return "jackson1";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("honorJaxb", Boolean.class);
+    return attributeTypes;
+  }
+
   public boolean isHonorJaxbAnnotations() {
     return this.config.getBoolean("[@honorJaxb]", this.jaxbSupportDetected);
   }
@@ -210,21 +222,21 @@ public class Jackson1Module extends BasicEnunicateModule implements TypeFilterin
     return declaration.getKind() == ElementKind.CLASS && ((DecoratedTypeMirror) declaration.asType()).isInstanceOf(Throwable.class);
   }
 
+  @Override
+  public TypeFilterRules getTypeFilterRules() {
+    return this.typeFilterRules;
+  }
+
+  @Override
+  public void acknowledgeDetectedTypes(Set<String> detectedTypes) {
+    this.jacksonDetected |= detectedTypes.contains(ObjectMapper.class.getName());
+    this.jaxbSupportDetected |= detectedTypes.contains("org.codehaus.jackson.xc.JaxbAnnotationIntrospector");
+  }
+
   @Override
   public boolean acceptType(Object type, MetadataAdapter metadata) {
-    String classname = metadata.getClassName(type);
-    this.jacksonDetected |= ObjectMapper.class.getName().equals(classname);
-    this.jaxbSupportDetected |= "org.codehaus.jackson.xc.JaxbAnnotationIntrospector".equals(classname);
-
-    List<String> classAnnotations = metadata.getClassAnnotationNames(type);
-    if (classAnnotations != null) {
-      for (String fqn : classAnnotations) {
-        if (isJacksonSerializationAnnotation(fqn)) {
-          return true;
-        }
-      }
-    }
-    return false;
+    acknowledgeDetectedTypes(Collections.singleton(metadata.getClassName(type)));
+    return this.typeFilterRules.accept(type, metadata);
   }
 
   boolean isJacksonSerializationAnnotation(String fqn) {
@@ -1,12 +1,12 @@
 package com.webcohesion.enunciate.modules.jackson1.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedVariableElement;
 
 import javax.lang.model.element.VariableElement;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * @author Ryan Heaton
@@ -16,7 +16,7 @@ public class EnumValue extends DecoratedVariableElement implements HasFacets {
   private final EnumTypeDefinition typeDefinition;
   private final String name;
   private final String value;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   public EnumValue(EnumTypeDefinition typeDefinition, VariableElement delegate, String name, String value) {
     super(delegate, typeDefinition.getContext().getContext().getProcessingEnvironment());
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.modules.java_json_client;
+
+import freemarker.ext.beans.BeansWrapper;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A method used in templates to determine whether JSON serializers and deserializers are generated for a type.
+ *
+ * @author Ryan Heaton
+ */
+public class HasJsonCodecsMethod implements TemplateMethodModelEx {
+
+  private final Set<String> codecTypes;
+
+  public HasJsonCodecsMethod(Set<String> codecTypes) {
+    this.codecTypes = codecTypes;
+  }
+
+  public Object exec(List list) throws TemplateModelException {
+    if (list.size() < 1) {
+      throw new TemplateModelException("The hasJsonCodecs method must have a type definition as a parameter.");
+    }
+
+    TemplateModel from = (TemplateModel) list.get(0);
+    Object unwrapped = BeansWrapper.getDefaultInstance().unwrap(from);
+    return unwrapped instanceof TypeElement && this.codecTypes.contains(((TypeElement) unwrapped).getQualifiedName().toString());
+  }
+
+}
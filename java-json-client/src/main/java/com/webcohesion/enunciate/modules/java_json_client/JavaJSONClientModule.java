@@ -16,7 +16,6 @@
 
 package com.webcohesion.enunciate.modules.java_json_client;
 
-import com.sun.tools.javac.api.JavacTool;
 import com.webcohesion.enunciate.Enunciate;
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.EnunciateException;
@@ -50,10 +49,12 @@ import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateExceptionHandler;
+import freemarker.template.TemplateModelException;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 
 import javax.lang.model.element.TypeElement;
-import javax.tools.JavaCompiler;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
 import javax.tools.JavaFileObject;
 import java.io.*;
 import java.net.MalformedURLException;
@@ -79,6 +80,15 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return "java-json-client";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("bundleSourcesWithClasses", Boolean.class);
+    attributeTypes.put("disableCompile", Boolean.class);
+    attributeTypes.put("generateSerializers", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new DependencySpec() {
@@ -125,9 +135,8 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     detectAccessorNamingErrors();
 
     File sourceDir = generateClientSources();
-    File compileDir = compileClientSources(sourceDir);
 
-    packageArtifacts(sourceDir, compileDir);
+    packageArtifacts(sourceDir);
   }
 
   protected void detectAccessorNamingErrors() {
@@ -189,6 +198,9 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     AntPatternMatcher matcher = new AntPatternMatcher();
     matcher.setPathSeparator(".");
 
+    Map<String, TypeElement> codecTypes = isGenerateSerializers() ? findJsonCodecTypes(jacksonContext, jackson1Context, facetFilter, matcher) : Collections.<String, TypeElement>emptyMap();
+    model.put("hasJsonCodecs", new HasJsonCodecsMethod(codecTypes.keySet()));
+
     boolean upToDate = isUpToDateWithSources(sourceDir);
     if (!upToDate) {
       try {
@@ -223,6 +235,19 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
             }
           }
         }
+
+        if (!codecTypes.isEmpty()) {
+          String serializersModule = getSerializersModule();
+          if (serializersModule == null) {
+            serializersModule = getDefaultSerializersModule(codecTypes.values(), new ClientPackageForMethod(conversions, this.context));
+          }
+
+          int lastDot = serializersModule.lastIndexOf('.');
+          model.put("modulePackage", lastDot < 0 ? "" : serializersModule.substring(0, lastDot));
+          model.put("moduleSimpleName", serializersModule.substring(lastDot + 1));
+          model.put("types", new ArrayList<TypeElement>(codecTypes.values()));
+          processTemplate(getTemplateURL("client-json-module.fmt"), model);
+        }
       }
       catch (IOException e) {
         throw new EnunciateException(e);
@@ -240,6 +265,124 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return sourceDir;
   }
 
+  /**
+   * Finds the client types for which JSON serializers and deserializers are generated. These are the generated
+   * object types that have no value, no type parameters and no members with their own subtypes, and that extend
+   * either nothing or another one of these types.
+   *
+   * @param jacksonContext  The Jackson context, or null.
+   * @param jackson1Context The Jackson 1 context, or null.
+   * @param facetFilter     The facet filter.
+   * @param matcher         The matcher for the server-side types.
+   * @return The types, keyed by their qualified name.
+   */
+  protected Map<String, TypeElement> findJsonCodecTypes(EnunciateJacksonContext jacksonContext, EnunciateJackson1Context jackson1Context, FacetFilter facetFilter, AntPatternMatcher matcher) {
+    Map<String, TypeElement> candidates = new HashMap<String, TypeElement>();
+    if (jacksonContext != null) {
+      for (TypeDefinition typeDefinition : jacksonContext.getTypeDefinitions()) {
+        if (facetFilter.accept(typeDefinition) && !useServerSide(typeDefinition, matcher) && isJsonCodecCandidate(typeDefinition)) {
+          candidates.put(typeDefinition.getQualifiedName().toString(), typeDefinition);
+        }
+      }
+    }
+
+    if (jackson1Context != null) {
+      for (com.webcohesion.enunciate.modules.jackson1.model.TypeDefinition typeDefinition : jackson1Context.getTypeDefinitions()) {
+        if (facetFilter.accept(typeDefinition) && !useServerSide(typeDefinition, matcher) && isJsonCodecCandidate(typeDefinition)) {
+          candidates.put(typeDefinition.getQualifiedName().toString(), typeDefinition);
+        }
+      }
+    }
+
+    Map<String, TypeElement> codecTypes = new TreeMap<String, TypeElement>();
+    for (Map.Entry<String, TypeElement> candidate : candidates.entrySet()) {
+      TypeElement type = candidate.getValue();
+      while (type != null) {
+        boolean baseObject = type instanceof TypeDefinition ? ((TypeDefinition) type).isBaseObject() : ((com.webcohesion.enunciate.modules.jackson1.model.TypeDefinition) type).isBaseObject();
+        if (baseObject) {
+          codecTypes.put(candidate.getKey(), candidate.getValue());
+          break;
+        }
+
+        TypeMirror superclass = type.getSuperclass();
+        type = superclass instanceof DeclaredType ? candidates.get(((TypeElement) ((DeclaredType) superclass).asElement()).getQualifiedName().toString()) : null;
+      }
+    }
+    return codecTypes;
+  }
+
+  private boolean isJsonCodecCandidate(TypeDefinition typeDefinition) {
+    if (!typeDefinition.isObject() || typeDefinition.getValue() != null || !typeDefinition.getTypeParameters().isEmpty()) {
+      return false;
+    }
+
+    for (com.webcohesion.enunciate.modules.jackson.model.Member member : typeDefinition.getMembers()) {
+      if (member.getChoices().size() > 1 || member.getSubtypeIdInclusion() != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isJsonCodecCandidate(com.webcohesion.enunciate.modules.jackson1.model.TypeDefinition typeDefinition) {
+    if (!typeDefinition.isObject() || typeDefinition.getValue() != null || !typeDefinition.getTypeParameters().isEmpty()) {
+      return false;
+    }
+
+    for (com.webcohesion.enunciate.modules.jackson1.model.Member member : typeDefinition.getMembers()) {
+      if (member.getChoices().size() > 1 || member.getSubtypeIdInclusion() != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The default name of the generated serializers module: a class named after the slug, in the package that is
+   * common to all the types of the module (or in the package of the first type if there is no common package).
+   *
+   * @param types      The types of the module.
+   * @param packageFor The client package conversion.
+   * @return The default name of the generated serializers module.
+   */
+  protected String getDefaultSerializersModule(Collection<TypeElement> types, ClientPackageForMethod packageFor) throws TemplateModelException {
+    String commonPackage = null;
+    String firstPackage = null;
+    for (TypeElement type : types) {
+      String pckg = packageFor.convert(type);
+      if (firstPackage == null) {
+        firstPackage = commonPackage = pckg;
+      }
+
+      while (!(pckg.equals(commonPackage) || pckg.startsWith(commonPackage + ".")) && commonPackage.length() > 0) {
+        int lastDot = commonPackage.lastIndexOf('.');
+        commonPackage = lastDot < 0 ? "" : commonPackage.substring(0, lastDot);
+      }
+    }
+
+    if (commonPackage == null || commonPackage.length() == 0) {
+      commonPackage = firstPackage == null ? "" : firstPackage;
+    }
+
+    StringBuilder simpleName = new StringBuilder();
+    boolean capitalize = true;
+    for (char ch : getSlug().toCharArray()) {
+      if (Character.isJavaIdentifierPart(ch) && ch != '$') {
+        simpleName.append(capitalize ? Character.toUpperCase(ch) : ch);
+        capitalize = false;
+      }
+      else {
+        capitalize = true;
+      }
+    }
+    if (simpleName.length() == 0 || !Character.isJavaIdentifierStart(simpleName.charAt(0))) {
+      simpleName.insert(0, "Client");
+    }
+    simpleName.append("JsonModule");
+
+    return commonPackage.length() == 0 ? simpleName.toString() : commonPackage + "." + simpleName;
+  }
+
   protected void copyServerSideType(File sourceDir, TypeElement type) throws IOException {
     SourcePosition source = this.context.getProcessingEnvironment().findSourcePosition(type);
     JavaFileObject sourceFile = source.getSourceFile();
@@ -255,14 +398,8 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return new File(new File(this.enunciate.getBuildDir(), getName()), "src");
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -285,6 +422,19 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new JavaJSONClientObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -337,34 +487,25 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return pckg + "." + simpleName;
   }
 
-  protected File compileClientSources(File sourceDir) {
-    File compileDir = getCompileDir();
-    compileDir.mkdirs();
-
-    //Compile the java files.
-    if (!isDisableCompile()) {
-      if (!isUpToDateWithSources(compileDir)) {
-        List<File> sources = findJavaFiles(sourceDir);
-        if (sources != null && !sources.isEmpty()) {
-          String classpath = this.enunciate.writeClasspath(enunciate.getClasspath());
-          JavaCompiler compiler = JavacTool.create();
-          List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-cp", classpath, "-d", compileDir.getAbsolutePath(), "-nowarn");
-          JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, compiler.getStandardFileManager(null, null, null).getJavaFileObjectsFromFiles(sources));
-          if (!task.call()) {
-            throw new EnunciateException("Compile failed of Java JSON client-side classes.");
-          }
-        }
-        else {
-          debug("No Java JSON client classes to compile.");
-        }
-      }
-      else {
-        info("Skipping compilation of Java JSON client classes as everything appears up-to-date...");
-      }
+  /**
+   * Compiles the client sources, keeping the compiled classes in memory.
+   *
+   * @param sourceDir The source directory.
+   * @return The class files, keyed by their path.
+   */
+  protected Map<String, byte[]> compileClientSources(File sourceDir) throws IOException {
+    List<File> sources = findJavaFiles(sourceDir);
+    if (sources == null || sources.isEmpty()) {
+      debug("No Java JSON client classes to compile.");
+      return Collections.emptyMap();
     }
 
-    return compileDir;
-
+    List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-nowarn");
+    Map<String, byte[]> classFiles = this.enunciate.getJavaCompiler().compile(this.enunciate.getClasspath(), sources, options);
+    if (classFiles == null) {
+      throw new EnunciateException("Compile failed of Java JSON client-side classes.");
+    }
+    return classFiles;
   }
 
   private List<File> findJavaFiles(File sourceDir) {
@@ -378,15 +519,11 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return javaFiles;
   }
 
-  protected File getCompileDir() {
-    return new File(new File(this.enunciate.getBuildDir(), getName()), "classes");
-  }
-
   protected File getResourcesDir() {
     return new File(new File(this.enunciate.getBuildDir(), getName()), "resources");
   }
 
-  protected File packageArtifacts(File sourceDir, File compileDir) {
+  protected File packageArtifacts(File sourceDir) {
     File packageDir = getPackageDir();
     packageDir.mkdirs();
 
@@ -397,14 +534,15 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
       if (!isDisableCompile()) {
         clientJarFile = new File(packageDir, jarName);
         if (!isUpToDateWithSources(clientJarFile)) {
+          Map<String, byte[]> classFiles = compileClientSources(sourceDir);
           if (isBundleSourcesWithClasses()) {
-            boolean anyFiles = this.enunciate.zip(clientJarFile, sourceDir, compileDir);
+            boolean anyFiles = this.enunciate.zip(clientJarFile, classFiles, sourceDir);
             if (!anyFiles) {
               clientJarFile = null;
             }
           }
           else {
-            boolean anyFiles = this.enunciate.zip(clientJarFile, compileDir);
+            boolean anyFiles = this.enunciate.zip(clientJarFile, classFiles);
             if (!anyFiles) {
               clientJarFile = null;
             }
@@ -628,6 +766,27 @@ public class JavaJSONClientModule extends BasicGeneratingModule implements ApiFe
     return this.config.getBoolean("[@disableCompile]", this.jacksonModule == null || !this.jacksonModule.isJacksonDetected());
   }
 
+  /**
+   * Whether to generate JSON serializers and deserializers for the client types (default: false). The serializers
+   * and deserializers read and write the fields of the types directly, so that Jackson doesn't have to introspect
+   * the types. They're registered with a generated Jackson module.
+   *
+   * @return Whether to generate JSON serializers and deserializers for the client types.
+   */
+  public boolean isGenerateSerializers() {
+    return this.config.getBoolean("[@generateSerializers]", false);
+  }
+
+  /**
+   * The fully-qualified name of the generated Jackson module that registers the generated serializers and
+   * deserializers, or null for the default.
+   *
+   * @return The fully-qualified name of the generated Jackson module.
+   */
+  public String getSerializersModule() {
+    return this.config.getString("[@serializersModule]", null);
+  }
+
   public Set<String> getFacetIncludes() {
     List<Object> includes = this.config.getList("facets.include[@name]");
     Set<String> facetIncludes = new TreeSet<String>();
@@ -515,6 +515,57 @@ public class TestGeneratedJsonTypeSerialization extends TestCase {
     assertNull(house.getWindows());
   }
 
+  /**
+   * tests that the generated serializers read and write the same JSON as the reflective (annotation-driven) path.
+   */
+  public void testGeneratedSerializers() throws Exception {
+    House house = new House();
+    Rectangle base = new Rectangle();
+    base.setColor(Color.BLUE);
+    base.setHeight(80);
+    base.setWidth(80);
+    base.setLineStyle(LineStyle.solid);
+    base.setId("baseid");
+    house.setBase(base);
+    Circle knob = new Circle();
+    knob.setColor(Color.RED);
+    knob.setRadius(2);
+    house.setDoorKnob(knob);
+    Label label = new Label();
+    label.setValue("bachelor-pad");
+    house.setLabels(Arrays.asList(label));
+    Rectangle window = new Rectangle();
+    window.setHeight(10);
+    window.setWidth(10);
+    house.setWindows(Arrays.asList(window));
+    house.setConstructedDate(new DateTime(3L));
+    house.setType(QNameEnumUtil.toURI(HouseType.brick));
+
+    JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
+    ObjectMapper houseMapper = provider.locateMapper(House.class, MediaType.APPLICATION_JSON_TYPE);
+    ObjectMapper reflectiveMapper = new ObjectMapper();
+    ObjectMapper clientMapper = new ObjectMapper().registerModule(new shapes.json.ShapesJsonModule());
+    byte[] json = houseMapper.writeValueAsBytes(house);
+
+    shapes.json.structures.House clientHouse = clientMapper.readValue(json, shapes.json.structures.House.class);
+    shapes.json.structures.House reflectiveHouse = reflectiveMapper.readValue(json, shapes.json.structures.House.class);
+    assertEquals(reflectiveMapper.readTree(reflectiveMapper.writeValueAsBytes(reflectiveHouse)), reflectiveMapper.readTree(reflectiveMapper.writeValueAsBytes(clientHouse)));
+    assertEquals(reflectiveMapper.readTree(reflectiveMapper.writeValueAsBytes(clientHouse)), reflectiveMapper.readTree(clientMapper.writeValueAsBytes(clientHouse)));
+    assertSame(shapes.json.Color.BLUE, clientHouse.getBase().getColor());
+    assertEquals("baseid", clientHouse.getBase().getId());
+    assertEquals(2, clientHouse.getDoorKnob().getRadius());
+    assertEquals("bachelor-pad", clientHouse.getLabels().iterator().next().getValue());
+    assertEquals(10, clientHouse.getWindows().get(0).getWidth());
+    assertEquals(new Date(3L), clientHouse.getConstructedDate());
+
+    house = houseMapper.readValue(clientMapper.writeValueAsBytes(clientHouse), House.class);
+    assertSame(Color.BLUE, house.getBase().getColor());
+    assertEquals("baseid", house.getBase().getId());
+    assertEquals(2, house.getDoorKnob().getRadius());
+    assertEquals(10, house.getWindows().get(0).getWidth());
+    assertEquals(new DateTime(3L), house.getConstructedDate());
+  }
+
   /**
    * tests cat.  This one has IDREFs.
    */
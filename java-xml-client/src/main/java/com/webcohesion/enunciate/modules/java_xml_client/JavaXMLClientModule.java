@@ -16,7 +16,6 @@
 
 package com.webcohesion.enunciate.modules.java_xml_client;
 
-import com.sun.tools.javac.api.JavacTool;
 import com.webcohesion.enunciate.Enunciate;
 import com.webcohesion.enunciate.EnunciateContext;
 import com.webcohesion.enunciate.EnunciateException;
@@ -33,6 +32,7 @@ import com.webcohesion.enunciate.metadata.DocumentationExample;
 import com.webcohesion.enunciate.module.*;
 import com.webcohesion.enunciate.modules.jaxb.EnunciateJaxbContext;
 import com.webcohesion.enunciate.modules.jaxb.JaxbModule;
+import com.webcohesion.enunciate.modules.jaxb.model.ElementDeclaration;
 import com.webcohesion.enunciate.modules.jaxb.model.QNameEnumTypeDefinition;
 import com.webcohesion.enunciate.modules.jaxb.model.Registry;
 import com.webcohesion.enunciate.modules.jaxb.model.SchemaInfo;
@@ -50,11 +50,11 @@ import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import freemarker.template.TemplateExceptionHandler;
+import freemarker.template.TemplateModelException;
 import org.apache.commons.configuration.HierarchicalConfiguration;
 
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
-import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
 import java.io.*;
 import java.net.MalformedURLException;
@@ -80,6 +80,15 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return "java-xml-client";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("bundleSourcesWithClasses", Boolean.class);
+    attributeTypes.put("disableCompile", Boolean.class);
+    attributeTypes.put("generateStaxCodecs", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new DependencySpec() {
@@ -135,10 +144,9 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     }
 
     File sourceDir = generateClientSources();
-    File compileDir = compileClientSources(sourceDir);
     File resourcesDir = copyResources();
 
-    packageArtifacts(sourceDir, resourcesDir, compileDir);
+    packageArtifacts(sourceDir, resourcesDir);
   }
 
   protected File generateClientSources() {
@@ -165,6 +173,13 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
 
+    XmlCodecTypes codecTypes = findXmlCodecTypes(conversions, facetFilter);
+    String codecsClass = codecTypes.getCodecTypes().isEmpty() ? null : getXmlCodecsClass(codecTypes, conversions);
+    model.put("xmlCodecs", codecTypes);
+    if (codecsClass != null) {
+      model.put("xmlCodecsClass", codecsClass);
+    }
+
     boolean upToDate = isUpToDateWithSources(sourceDir);
     if (!upToDate) {
       try {
@@ -274,6 +289,23 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
             processTemplate(getTemplateURL("client-registry.fmt"), model);
           }
         }
+
+        if (codecsClass != null) {
+          Map<String, ElementDeclaration> rootElements = new HashMap<String, ElementDeclaration>();
+          for (Map.Entry<String, TypeDefinition> codecType : codecTypes.getCodecTypes().entrySet()) {
+            ElementDeclaration rootElement = this.jaxbModule.getJaxbContext().findElementDeclaration(codecType.getValue());
+            if (rootElement != null) {
+              rootElements.put(codecType.getKey(), rootElement);
+            }
+          }
+
+          int lastDot = codecsClass.lastIndexOf('.');
+          model.put("codecsPackage", lastDot < 0 ? "" : codecsClass.substring(0, lastDot));
+          model.put("codecsSimpleName", codecsClass.substring(lastDot + 1));
+          model.put("types", new ArrayList<TypeDefinition>(codecTypes.getCodecTypes().values()));
+          model.put("rootElements", rootElements);
+          processTemplate(getTemplateURL("client-xml-codecs.fmt"), model);
+        }
       }
       catch (IOException e) {
         throw new EnunciateException(e);
@@ -291,6 +323,100 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return sourceDir;
   }
 
+  /**
+   * Finds the client types that get StAX codecs, if the codecs are to be generated.
+   *
+   * @param conversions The client package conversions.
+   * @param facetFilter The facet filter.
+   * @return The types that get StAX codecs.
+   */
+  protected XmlCodecTypes findXmlCodecTypes(Map<String, String> conversions, FacetFilter facetFilter) {
+    XmlCodecTypes codecTypes = new XmlCodecTypes();
+    if (!isGenerateStaxCodecs()) {
+      return codecTypes;
+    }
+
+    AntPatternMatcher matcher = new AntPatternMatcher();
+    matcher.setPathSeparator(".");
+    ClientClassnameForMethod classnameFor = new ClientClassnameForMethod(conversions, this.jaxbModule.getJaxbContext());
+    try {
+      for (SchemaInfo schemaInfo : this.jaxbModule.getJaxbContext().getSchemas().values()) {
+        for (TypeDefinition typeDefinition : schemaInfo.getTypeDefinitions()) {
+          if (facetFilter.accept(typeDefinition) && !useServerSide(typeDefinition, matcher)) {
+            if (typeDefinition.isEnum()) {
+              if (!(typeDefinition instanceof QNameEnumTypeDefinition)) {
+                codecTypes.addEnumType(classnameFor.convert(typeDefinition));
+              }
+            }
+            else {
+              codecTypes.addCandidate(classnameFor.convert(typeDefinition), typeDefinition);
+            }
+          }
+        }
+      }
+
+      codecTypes.resolve(classnameFor, facetFilter);
+    }
+    catch (TemplateModelException e) {
+      throw new EnunciateException(e);
+    }
+
+    debug("StAX codecs will be generated for %s types.", codecTypes.getCodecTypes().size());
+    return codecTypes;
+  }
+
+  /**
+   * The name of the generated class that registers the StAX codecs: either the configured name, or a class named after
+   * the slug in the package that is common to all the types with codecs (or in the package of the first type if there
+   * is no common package).
+   *
+   * @param codecTypes  The types that get StAX codecs.
+   * @param conversions The client package conversions.
+   * @return The name of the class that registers the StAX codecs.
+   */
+  protected String getXmlCodecsClass(XmlCodecTypes codecTypes, Map<String, String> conversions) {
+    String codecsClass = getStaxCodecs();
+    if (codecsClass != null) {
+      return codecsClass;
+    }
+
+    String commonPackage = null;
+    for (String clientName : codecTypes.getCodecTypes().keySet()) {
+      String pckg = clientName.lastIndexOf('.') < 0 ? "" : clientName.substring(0, clientName.lastIndexOf('.'));
+      if (commonPackage == null) {
+        commonPackage = pckg;
+      }
+
+      while (!(pckg.equals(commonPackage) || pckg.startsWith(commonPackage + ".")) && commonPackage.length() > 0) {
+        int lastDot = commonPackage.lastIndexOf('.');
+        commonPackage = lastDot < 0 ? "" : commonPackage.substring(0, lastDot);
+      }
+    }
+
+    if (commonPackage == null || commonPackage.length() == 0) {
+      String first = codecTypes.getCodecTypes().keySet().iterator().next();
+      commonPackage = first.lastIndexOf('.') < 0 ? "" : first.substring(0, first.lastIndexOf('.'));
+    }
+
+    StringBuilder simpleName = new StringBuilder();
+    boolean capitalize = true;
+    for (char ch : getSlug().toCharArray()) {
+      if (Character.isJavaIdentifierPart(ch) && ch != '$') {
+        simpleName.append(capitalize ? Character.toUpperCase(ch) : ch);
+        capitalize = false;
+      }
+      else {
+        capitalize = true;
+      }
+    }
+    if (simpleName.length() == 0 || !Character.isJavaIdentifierStart(simpleName.charAt(0))) {
+      simpleName.insert(0, "Client");
+    }
+    simpleName.append("XmlCodecs");
+
+    return commonPackage.length() == 0 ? simpleName.toString() : commonPackage + "." + simpleName;
+  }
+
   protected void copyServerSideType(File sourceDir, TypeElement type) throws IOException {
     SourcePosition source = this.context.getProcessingEnvironment().findSourcePosition(type);
     JavaFileObject sourceFile = source.getSourceFile();
@@ -306,14 +432,8 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return new File(new File(this.enunciate.getBuildDir(), getName()), "src");
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -336,6 +456,19 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new JavaXMLClientObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -388,34 +521,25 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return pckg + "." + simpleName;
   }
 
-  protected File compileClientSources(File sourceDir) {
-    File compileDir = getCompileDir();
-    compileDir.mkdirs();
-
-    //Compile the java files.
-    if (!isDisableCompile()) {
-      if (!isUpToDateWithSources(compileDir)) {
-        List<File> sources = findJavaFiles(sourceDir);
-        if (sources != null && !sources.isEmpty()) {
-          String classpath = this.enunciate.writeClasspath(enunciate.getClasspath());
-          JavaCompiler compiler = JavacTool.create();
-          List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-cp", classpath, "-d", compileDir.getAbsolutePath(), "-nowarn");
-          JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, compiler.getStandardFileManager(null, null, null).getJavaFileObjectsFromFiles(sources));
-          if (!task.call()) {
-            throw new EnunciateException("Compile failed of Java client-side classes.");
-          }
-        }
-        else {
-          debug("No Java XML client classes to compile.");
-        }
-      }
-      else {
-        info("Skipping compilation of Java client classes as everything appears up-to-date...");
-      }
+  /**
+   * Compiles the client sources, keeping the compiled classes in memory.
+   *
+   * @param sourceDir The source directory.
+   * @return The class files, keyed by their path.
+   */
+  protected Map<String, byte[]> compileClientSources(File sourceDir) throws IOException {
+    List<File> sources = findJavaFiles(sourceDir);
+    if (sources == null || sources.isEmpty()) {
+      debug("No Java XML client classes to compile.");
+      return Collections.emptyMap();
     }
 
-    return compileDir;
-
+    List<String> options = Arrays.asList("-source", getJavacSource(), "-target", getJavacTarget(), "-encoding", "UTF-8", "-nowarn");
+    Map<String, byte[]> classFiles = this.enunciate.getJavaCompiler().compile(this.enunciate.getClasspath(), sources, options);
+    if (classFiles == null) {
+      throw new EnunciateException("Compile failed of Java client-side classes.");
+    }
+    return classFiles;
   }
 
   private List<File> findJavaFiles(File sourceDir) {
@@ -429,10 +553,6 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return javaFiles;
   }
 
-  protected File getCompileDir() {
-    return new File(new File(this.enunciate.getBuildDir(), getName()), "classes");
-  }
-
   protected File copyResources() {
     File resourcesDir = getResourcesDir();
     resourcesDir.mkdirs();
@@ -462,7 +582,7 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return new File(new File(this.enunciate.getBuildDir(), getName()), "resources");
   }
 
-  protected File packageArtifacts(File sourceDir, File resourcesDir, File compileDir) {
+  protected File packageArtifacts(File sourceDir, File resourcesDir) {
     File packageDir = getPackageDir();
     packageDir.mkdirs();
 
@@ -473,14 +593,15 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
       if (!isDisableCompile()) {
         clientJarFile = new File(packageDir, jarName);
         if (!isUpToDateWithSources(clientJarFile)) {
+          Map<String, byte[]> classFiles = compileClientSources(sourceDir);
           if (isBundleSourcesWithClasses()) {
-            boolean anyFiles = this.enunciate.zip(clientJarFile, sourceDir, resourcesDir, compileDir);
+            boolean anyFiles = this.enunciate.zip(clientJarFile, classFiles, sourceDir, resourcesDir);
             if (!anyFiles) {
               clientJarFile = null;
             }
           }
           else {
-            boolean anyFiles = this.enunciate.zip(clientJarFile, resourcesDir, compileDir);
+            boolean anyFiles = this.enunciate.zip(clientJarFile, classFiles, resourcesDir);
             if (!anyFiles) {
               clientJarFile = null;
             }
@@ -737,6 +858,25 @@ public class JavaXMLClientModule extends BasicGeneratingModule implements ApiFea
     return this.config.getBoolean("[@disableCompile]", false);
   }
 
+  /**
+   * Whether to generate StAX codecs for the client types (default: false). The codecs read and write the XML of the
+   * types with an XMLStreamReader and an XMLStreamWriter, so that the client doesn't have to create a JAXB context.
+   *
+   * @return Whether to generate StAX codecs for the client types.
+   */
+  public boolean isGenerateStaxCodecs() {
+    return this.config.getBoolean("[@generateStaxCodecs]", false);
+  }
+
+  /**
+   * The fully-qualified name of the generated class that registers the StAX codecs, or null for the default.
+   *
+   * @return The fully-qualified name of the generated class that registers the StAX codecs.
+   */
+  public String getStaxCodecs() {
+    return this.config.getString("[@staxCodecs]", null);
+  }
+
   public Set<String> getFacetIncludes() {
     List<Object> includes = this.config.getList("facets.include[@name]");
     Set<String> facetIncludes = new TreeSet<String>();
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.modules.java_xml_client;
+
+import com.webcohesion.enunciate.facets.FacetFilter;
+import com.webcohesion.enunciate.modules.jaxb.model.Accessor;
+import com.webcohesion.enunciate.modules.jaxb.model.Attribute;
+import com.webcohesion.enunciate.modules.jaxb.model.Element;
+import com.webcohesion.enunciate.modules.jaxb.model.ElementRef;
+import com.webcohesion.enunciate.modules.jaxb.model.TypeDefinition;
+import freemarker.template.TemplateModelException;
+
+import javax.lang.model.element.TypeElement;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The client types that get generated StAX codecs, and the kinds of the values of their accessors. The client types
+ * and the values are identified by their client-side class names.
+ *
+ * @author Ryan Heaton
+ */
+public class XmlCodecTypes {
+
+  /**
+   * The client-side types of the values that are written as text.
+   */
+  static final Set<String> TEXT_TYPES = new TreeSet<String>(Arrays.asList(
+    "java.lang.String", "boolean", "java.lang.Boolean", "byte", "java.lang.Byte", "short", "java.lang.Short",
+    "int", "java.lang.Integer", "long", "java.lang.Long", "float", "java.lang.Float", "double", "java.lang.Double",
+    "java.math.BigInteger", "java.math.BigDecimal", "java.util.Date", "java.util.Calendar", "java.net.URI",
+    "java.util.UUID", "byte[]"
+  ));
+
+  private static final Pattern COLLECTION_TYPE = Pattern.compile("java\\.util\\.(List|Collection)<(.+)>");
+
+  private final Set<String> enumTypes = new TreeSet<String>();
+  private final Map<String, TypeDefinition> candidates = new TreeMap<String, TypeDefinition>();
+  private final Map<String, TypeDefinition> codecTypes = new TreeMap<String, TypeDefinition>();
+  private final Set<String> codecTypeNames = new TreeSet<String>();
+
+  /**
+   * Add a client enum type, written as the text of its value.
+   *
+   * @param clientName The client-side class name of the enum type.
+   */
+  public void addEnumType(String clientName) {
+    this.enumTypes.add(clientName);
+  }
+
+  /**
+   * Add a client type that might get a codec.
+   *
+   * @param clientName The client-side class name of the type.
+   * @param type       The type definition.
+   */
+  public void addCandidate(String clientName, TypeDefinition type) {
+    this.candidates.put(clientName, type);
+  }
+
+  /**
+   * Resolves the candidates that get codecs: the candidates that have no type parameters, no wildcard elements and
+   * no accessors that need more than text or another codec, that extend either nothing or another one of these types,
+   * and whose subtypes all get codecs too (so that a codec can read any xsi:type it is given). The candidates that
+   * reference each other are resolved together.
+   *
+   * @param classnameFor The client classname conversion.
+   * @param facetFilter  The facet filter.
+   */
+  public void resolve(ClientClassnameForMethod classnameFor, FacetFilter facetFilter) throws TemplateModelException {
+    Map<String, TypeDefinition> remaining = new TreeMap<String, TypeDefinition>(this.candidates);
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      Iterator<Map.Entry<String, TypeDefinition>> it = remaining.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<String, TypeDefinition> entry = it.next();
+        if (!isSupported(entry.getValue(), remaining, classnameFor, facetFilter) || hasUnsupportedSubtype(entry.getKey(), remaining, classnameFor)) {
+          it.remove();
+          changed = true;
+        }
+      }
+    }
+
+    this.codecTypes.putAll(remaining);
+    for (TypeDefinition type : remaining.values()) {
+      this.codecTypeNames.add(type.getQualifiedName().toString());
+    }
+  }
+
+  private boolean isSupported(TypeDefinition type, Map<String, TypeDefinition> remaining, ClientClassnameForMethod classnameFor, FacetFilter facetFilter) throws TemplateModelException {
+    if (!type.getTypeParameters().isEmpty() || type.getAnyElement() != null) {
+      return false;
+    }
+
+    if (!type.isBaseObject() && !remaining.containsKey(classnameFor.convert(type.getSuperclass()))) {
+      return false;
+    }
+
+    for (Attribute attribute : type.getAttributes()) {
+      if (facetFilter.accept(attribute) && getSupportedKind(attribute, classnameFor, remaining, false) == null) {
+        return false;
+      }
+    }
+
+    if (type.getValue() != null) {
+      return !facetFilter.accept(type.getValue()) || getSupportedKind(type.getValue(), classnameFor, remaining, false) != null;
+    }
+
+    for (Element element : type.getElements()) {
+      if (facetFilter.accept(element)) {
+        if (element instanceof ElementRef || element.isNillable() || element.getChoices().size() > 1 || (element.isWrapped() && element.isWrapperNillable())) {
+          return false;
+        }
+
+        if (getSupportedKind(element, classnameFor, remaining, true) == null) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  private boolean hasUnsupportedSubtype(String clientName, Map<String, TypeDefinition> remaining, ClientClassnameForMethod classnameFor) throws TemplateModelException {
+    for (Map.Entry<String, TypeDefinition> candidate : this.candidates.entrySet()) {
+      TypeDefinition type = candidate.getValue();
+      if (!remaining.containsKey(candidate.getKey()) && !type.isBaseObject() && clientName.equals(classnameFor.convert(type.getSuperclass()))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String getSupportedKind(Accessor accessor, ClientClassnameForMethod classnameFor, Map<String, TypeDefinition> remaining, boolean element) throws TemplateModelException {
+    if (accessor.isXmlList() || accessor.isXmlIDREF() || accessor.isSwaRef() || accessor.isMTOMAttachment() || accessor.getMimeType() != null || accessor.isReferencesQNameEnum() || accessor.isQNameType()) {
+      return null;
+    }
+
+    String clientType = classnameFor.convert(accessor);
+    if (isCollection(clientType) && !element) {
+      return null;
+    }
+
+    String itemType = getItemType(clientType);
+    if (TEXT_TYPES.contains(itemType)) {
+      return "text";
+    }
+    else if (this.enumTypes.contains(itemType)) {
+      return "enum";
+    }
+    else if (element && remaining.containsKey(itemType)) {
+      return "type";
+    }
+    return null;
+  }
+
+  /**
+   * Whether the specified type gets a codec.
+   *
+   * @param type The type.
+   * @return Whether the specified type gets a codec.
+   */
+  public boolean isCodecType(TypeElement type) {
+    return this.codecTypeNames.contains(type.getQualifiedName().toString());
+  }
+
+  /**
+   * The types that get codecs.
+   *
+   * @return The types that get codecs, keyed by their client-side class name.
+   */
+  public Map<String, TypeDefinition> getCodecTypes() {
+    return this.codecTypes;
+  }
+
+  /**
+   * Whether the specified client-side type is a collection of items.
+   *
+   * @param clientType The client-side type.
+   * @return Whether the specified client-side type is a collection of items.
+   */
+  public boolean isCollection(String clientType) {
+    return COLLECTION_TYPE.matcher(clientType).matches();
+  }
+
+  /**
+   * The client-side type of the items of the specified type: the type parameter of a collection, or the type itself.
+   *
+   * @param clientType The client-side type.
+   * @return The client-side type of the items.
+   */
+  public String getItemType(String clientType) {
+    Matcher matcher = COLLECTION_TYPE.matcher(clientType);
+    return matcher.matches() ? matcher.group(2) : clientType;
+  }
+
+  /**
+   * The kind of the specified item type: "text" for a value written as text, "enum" for an enum written as the text of
+   * its value, or "type" for a type with its own codec.
+   *
+   * @param itemType The client-side type of the item.
+   * @return The kind of the item type, or null if the item type isn't supported.
+   */
+  public String getKind(String itemType) {
+    return TEXT_TYPES.contains(itemType) ? "text" : this.enumTypes.contains(itemType) ? "enum" : this.codecTypes.containsKey(itemType) ? "type" : null;
+  }
+}
@@ -0,0 +1,137 @@
+package com.webcohesion.enunciate.modules.java_xml_client;
+
+import com.webcohesion.enunciate.EnunciateConfiguration;
+import com.webcohesion.enunciate.EnunciateContext;
+import com.webcohesion.enunciate.javac.decorations.DecoratedProcessingEnvironment;
+import com.webcohesion.enunciate.modules.jaxb.EnunciateJaxbContext;
+import junit.framework.TestCase;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestClientClassnameForMethod extends TestCase {
+
+  /**
+   * tests that the map and adapter conversions of the client classnames aren't bypassed by the memoized conversions.
+   */
+  public void testMapsAndAdaptersAreConverted() throws Exception {
+    new TypeTest() {
+      @Override
+      protected void test(DecoratedProcessingEnvironment env) throws Exception {
+        EnunciateContext context = new EnunciateContext(env, null, null, new EnunciateConfiguration(), null, null);
+        Map<String, String> conversions = new HashMap<String, String>();
+        conversions.put("com.acme", "org.client");
+        ClientClassnameForMethod method = new ClientClassnameForMethod(conversions, new EnunciateJaxbContext(context));
+        com.webcohesion.enunciate.util.freemarker.ClientClassnameForMethod generic = new com.webcohesion.enunciate.util.freemarker.ClientClassnameForMethod(conversions, context);
+        TypeElement holder = env.getElementUtils().getTypeElement("com.acme.Holder");
+        Map<String, TypeMirror> fields = new HashMap<String, TypeMirror>();
+        for (VariableElement field : ElementFilter.fieldsIn(holder.getEnclosedElements())) {
+          fields.put(field.getSimpleName().toString(), field.asType());
+        }
+
+        for (int i = 0; i < 2; i++) {
+          assertEquals("java.lang.String", method.convertUnwrappedObject(fields.get("widget")));
+          assertEquals("java.util.List<java.lang.String>", method.convertUnwrappedObject(fields.get("widgets")));
+          assertEquals("java.util.Map<java.lang.String, java.lang.String>", method.convertUnwrappedObject(fields.get("widgetsByName")));
+          assertEquals("java.util.Map<java.lang.String, java.lang.Integer>", method.convertUnwrappedObject(fields.get("counts")));
+          assertEquals("org.client.Holder", method.convertUnwrappedObject(holder.asType()));
+        }
+
+        //the generic conversions of the same types are memoized separately.
+        assertEquals("org.client.Widget", generic.convertUnwrappedObject(fields.get("widget")));
+        assertEquals("org.client.Counts", generic.convertUnwrappedObject(fields.get("counts")));
+        assertEquals("java.lang.String", method.convertUnwrappedObject(fields.get("widget")));
+      }
+    }.run(source("com.acme.Widget", "package com.acme;\n"
+      + "@javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter(WidgetAdapter.class)\n"
+      + "public class Widget {\n"
+      + "}"),
+      source("com.acme.WidgetAdapter", "package com.acme;\n"
+      + "public class WidgetAdapter extends javax.xml.bind.annotation.adapters.XmlAdapter<String, Widget> {\n"
+      + "  public Widget unmarshal(String value) { return new Widget(); }\n"
+      + "  public String marshal(Widget value) { return \"widget\"; }\n"
+      + "}"),
+      source("com.acme.Counts", "package com.acme;\n"
+      + "public class Counts extends java.util.HashMap<String, Integer> {\n"
+      + "}"),
+      source("com.acme.Holder", "package com.acme;\n"
+      + "public class Holder {\n"
+      + "  public Widget widget;\n"
+      + "  public java.util.List<Widget> widgets;\n"
+      + "  public java.util.TreeMap<String, Widget> widgetsByName;\n"
+      + "  public Counts counts;\n"
+      + "}"));
+  }
+
+  private static JavaFileObject source(String className, final String code) {
+    return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return code;
+      }
+    };
+  }
+
+  /**
+   * Runs a test against the elements of the compiled sources.
+   */
+  private abstract static class TypeTest extends AbstractProcessor {
+
+    private boolean tested = false;
+    private Throwable failure;
+
+    protected abstract void test(DecoratedProcessingEnvironment env) throws Exception;
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (!this.tested) {
+        this.tested = true;
+        try {
+          test(new DecoratedProcessingEnvironment(this.processingEnv));
+        }
+        catch (Throwable e) {
+          this.failure = e;
+        }
+      }
+      return false;
+    }
+
+    void run(JavaFileObject... sources) throws Exception {
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, Arrays.asList("-proc:only"), null, Arrays.asList(sources));
+      task.setProcessors(Arrays.asList(this));
+      assertTrue(task.call());
+      assertTrue(this.tested);
+      if (this.failure instanceof Error) {
+        throw (Error) this.failure;
+      }
+      else if (this.failure != null) {
+        throw (Exception) this.failure;
+      }
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.modules.java_xml_client;
+
+import com.webcohesion.enunciate.examples.java_xml_client.schema.*;
+import com.webcohesion.enunciate.examples.java_xml_client.schema.draw.Sketch;
+import junit.framework.TestCase;
+import shapes.ShapesXmlCodecs;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.stream.XMLOutputFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * @author Ryan Heaton
+ */
+public class TestGeneratedStaxCodecs extends TestCase {
+
+  /**
+   * tests that the codecs read the XML written by JAXB.
+   */
+  public void testReadJaxbXml() throws Exception {
+    Circle circle = new Circle();
+    circle.setId("circle");
+    circle.setColor(Color.RED);
+    circle.setPositionX(3);
+    circle.setRadius(4);
+    Triangle triangle = new Triangle();
+    triangle.setLineStyle(LineStyle.dashed);
+    triangle.setBase(5);
+    triangle.setHeight(6);
+    Label label = new Label();
+    label.setValue("a label");
+
+    Sketch sketch = new Sketch();
+    sketch.setTitle("sketch & title");
+    sketch.setCreated(new Date(1234567890123L));
+    sketch.setSource(URI.create("http://localhost/sketch"));
+    sketch.setShapes(Arrays.asList(circle, triangle));
+    sketch.setLabels(Arrays.asList(label));
+    sketch.setPalette(Arrays.asList(Color.GREEN, Color.BLUE));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JAXBContext.newInstance(Sketch.class, Circle.class, Triangle.class).createMarshaller().marshal(sketch, out);
+    XMLStreamReader in = XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(out.toByteArray()));
+    shapes.draw.Sketch clientSketch = ShapesXmlCodecs.read(in, shapes.draw.Sketch.class);
+
+    assertEquals("sketch & title", clientSketch.getTitle());
+    assertEquals(sketch.getCreated(), clientSketch.getCreated());
+    assertEquals(sketch.getSource(), clientSketch.getSource());
+    assertEquals(2, clientSketch.getShapes().size());
+    shapes.Circle clientCircle = (shapes.Circle) clientSketch.getShapes().get(0);
+    assertEquals("circle", clientCircle.getId());
+    assertSame(shapes.Color.RED, clientCircle.getColor());
+    assertEquals(3, clientCircle.getPositionX());
+    assertEquals(4, clientCircle.getRadius());
+    shapes.Triangle clientTriangle = (shapes.Triangle) clientSketch.getShapes().get(1);
+    assertSame(shapes.LineStyle.dashed, clientTriangle.getLineStyle());
+    assertEquals(5, clientTriangle.getBase());
+    assertEquals(6, clientTriangle.getHeight());
+    assertEquals(1, clientSketch.getLabels().size());
+    assertEquals("a label", clientSketch.getLabels().get(0).getValue());
+    assertEquals(Arrays.asList(shapes.Color.GREEN, shapes.Color.BLUE), clientSketch.getPalette());
+  }
+
+  /**
+   * tests that JAXB reads the XML written by the codecs.
+   */
+  public void testWriteJaxbXml() throws Exception {
+    shapes.Circle circle = new shapes.Circle();
+    circle.setId("circle");
+    circle.setColor(shapes.Color.RED);
+    circle.setRadius(4);
+    shapes.Rectangle rectangle = new shapes.Rectangle();
+    rectangle.setWidth(7);
+    rectangle.setHeight(8);
+    shapes.Label label = new shapes.Label();
+    label.setValue("<label>");
+
+    shapes.draw.Sketch sketch = new shapes.draw.Sketch();
+    sketch.setTitle("title");
+    sketch.setCreated(new Date(1234567890123L));
+    sketch.setShapes(Arrays.<shapes.Shape>asList(circle, rectangle));
+    sketch.setLabels(Arrays.asList(label));
+    sketch.setPalette(Arrays.asList(shapes.Color.BLUE));
+
+    StringWriter xml = new StringWriter();
+    XMLStreamWriter out = XMLOutputFactory.newInstance().createXMLStreamWriter(xml);
+    out.writeStartDocument();
+    ShapesXmlCodecs.write(sketch, out);
+    out.writeEndDocument();
+    out.flush();
+
+    Sketch serverSketch = (Sketch) JAXBContext.newInstance(Sketch.class, Circle.class, Rectangle.class).createUnmarshaller().unmarshal(new StringReader(xml.toString()));
+    assertEquals("title", serverSketch.getTitle());
+    assertEquals(sketch.getCreated(), serverSketch.getCreated());
+    assertNull(serverSketch.getSource());
+    assertEquals(2, serverSketch.getShapes().size());
+    Circle serverCircle = (Circle) serverSketch.getShapes().get(0);
+    assertEquals("circle", serverCircle.getId());
+    assertSame(Color.RED, serverCircle.getColor());
+    assertEquals(4, serverCircle.getRadius());
+    Rectangle serverRectangle = (Rectangle) serverSketch.getShapes().get(1);
+    assertEquals(7, serverRectangle.getWidth());
+    assertEquals(8, serverRectangle.getHeight());
+    assertEquals("<label>", serverSketch.getLabels().get(0).getValue());
+    assertEquals(Arrays.asList(Color.BLUE), serverSketch.getPalette());
+
+    XMLStreamReader in = XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml.toString()));
+    shapes.draw.Sketch clientSketch = ShapesXmlCodecs.read(in, shapes.draw.Sketch.class);
+    assertEquals(4, ((shapes.Circle) clientSketch.getShapes().get(0)).getRadius());
+    assertEquals("<label>", clientSketch.getLabels().get(0).getValue());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.examples.java_xml_client.schema.draw;
+
+import com.webcohesion.enunciate.examples.java_xml_client.schema.Color;
+import com.webcohesion.enunciate.examples.java_xml_client.schema.Label;
+import com.webcohesion.enunciate.examples.java_xml_client.schema.Shape;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElementWrapper;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @author Ryan Heaton
+ */
+@XmlRootElement
+public class Sketch {
+
+  private String title;
+  private Date created;
+  private URI source;
+  private List<Shape> shapes;
+  private List<Label> labels;
+  private List<Color> palette;
+
+  @XmlAttribute
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public Date getCreated() {
+    return created;
+  }
+
+  public void setCreated(Date created) {
+    this.created = created;
+  }
+
+  public URI getSource() {
+    return source;
+  }
+
+  public void setSource(URI source) {
+    this.source = source;
+  }
+
+  public List<Shape> getShapes() {
+    return shapes;
+  }
+
+  public void setShapes(List<Shape> shapes) {
+    this.shapes = shapes;
+  }
+
+  @XmlElementWrapper
+  public List<Label> getLabels() {
+    return labels;
+  }
+
+  public void setLabels(List<Label> labels) {
+    this.labels = labels;
+  }
+
+  public List<Color> getPalette() {
+    return palette;
+  }
+
+  public void setPalette(List<Color> palette) {
+    this.palette = palette;
+  }
+}
@@ -34,8 +34,11 @@ import javax.lang.model.util.Types;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.annotation.*;
 import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.stream.XMLOutputFactory;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Ryan Heaton
@@ -52,6 +55,8 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
   private final Map<String, String> namespacePrefixes;
   private final Map<String, SchemaInfo> schemas;
   private final Map<String, Map<String, XmlSchemaType>> packageSpecifiedTypes;
+  private final ConcurrentMap<String, String> exampleBodies;
+  private final XMLOutputFactory xmlOutputFactory;
 
   public EnunciateJaxbContext(EnunciateContext context) {
     super(context);
@@ -61,6 +66,8 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
     this.namespacePrefixes = loadKnownPrefixes(context);
     this.schemas = new HashMap<String, SchemaInfo>();
     this.packageSpecifiedTypes = new HashMap<String, Map<String, XmlSchemaType>>();
+    this.exampleBodies = new ConcurrentHashMap<String, String>();
+    this.xmlOutputFactory = XMLOutputFactory.newInstance();
   }
 
   protected Map<String, String> loadKnownPrefixes(EnunciateContext context) {
@@ -215,6 +222,26 @@ public class EnunciateJaxbContext extends EnunciateModuleContext implements Synt
     return schemas;
   }
 
+  /**
+   * The bodies of the XML examples that have been written, by the qualified name of the type they're an example of.
+   * The examples may be written by modules that run at the same time (e.g. the docs and swagger modules).
+   *
+   * @return The example bodies.
+   */
+  public ConcurrentMap<String, String> getExampleBodies() {
+    return exampleBodies;
+  }
+
+  /**
+   * The factory for the writers of the XML examples, looked up once per build. It's only read once it's created, so
+   * the writers of the modules that run at the same time can be created from it.
+   *
+   * @return The factory.
+   */
+  public XMLOutputFactory getXmlOutputFactory() {
+    return this.xmlOutputFactory;
+  }
+
   protected Map<String, XmlType> loadKnownTypes() {
     HashMap<String, XmlType> knownTypes = new HashMap<String, XmlType>();
 
@@ -22,8 +22,10 @@ import java.util.Set;
  * @author Ryan Heaton
  */
 @SuppressWarnings ( "unchecked" )
-public class JaxbModule extends BasicEnunicateModule implements TypeFilteringModule, MediaTypeDefinitionModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
+public class JaxbModule extends BasicEnunicateModule implements IndexedTypeFilteringModule, MediaTypeDefinitionModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
 
+  private final TypeFilterRules typeFilterRules = new TypeFilterRules()
+    .annotatedWith(XmlType.class.getName(), XmlRootElement.class.getName());
   private DataTypeDetectionStrategy defaultDataTypeDetectionStrategy;
   private EnunciateJaxbContext jaxbContext;
   private ApiRegistry apiRegistry;
@@ -189,16 +191,18 @@ public class JaxbModule extends BasicEnunicateModule implements TypeFilteringMod
     return declaration.getKind() == ElementKind.CLASS && ((DecoratedTypeMirror) declaration.asType()).isInstanceOf(Throwable.class);
   }
 
+  @Override
+  public TypeFilterRules getTypeFilterRules() {
+    return this.typeFilterRules;
+  }
+
+  @Override
+  public void acknowledgeDetectedTypes(Set<String> detectedTypes) {
+    //no-op
+  }
+
   @Override
   public boolean acceptType(Object type, MetadataAdapter metadata) {
-    List<String> classAnnotations = metadata.getClassAnnotationNames(type);
-    if (classAnnotations != null) {
-      for (String classAnnotation : classAnnotations) {
-        if ((XmlType.class.getName().equals(classAnnotation)) || (XmlRootElement.class.getName().equals(classAnnotation))) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return this.typeFilterRules.accept(type, metadata);
   }
 }
@@ -6,25 +6,21 @@ import com.webcohesion.enunciate.facets.FacetFilter;
 import com.webcohesion.enunciate.javac.decorations.element.ElementUtils;
 import com.webcohesion.enunciate.javac.javadoc.JavaDoc;
 import com.webcohesion.enunciate.metadata.DocumentationExample;
+import com.webcohesion.enunciate.modules.jaxb.EnunciateJaxbContext;
 import com.webcohesion.enunciate.modules.jaxb.model.Attribute;
 import com.webcohesion.enunciate.modules.jaxb.model.ComplexTypeDefinition;
 import com.webcohesion.enunciate.modules.jaxb.model.ElementDeclaration;
 import com.webcohesion.enunciate.modules.jaxb.model.types.XmlClassType;
 import com.webcohesion.enunciate.modules.jaxb.model.types.XmlType;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.List;
 
 /**
  * @author Ryan Heaton
@@ -44,67 +40,69 @@ public class ExampleImpl implements Example {
 
   @Override
   public String getBody() {
-    try {
-      DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-      builderFactory.setNamespaceAware(true);
-      DocumentBuilder domBuilder = builderFactory.newDocumentBuilder();
-      Document document = domBuilder.newDocument();
+    //the example of a type is the same every time it's asked for, and it's asked for on every page that references the type.
+    EnunciateJaxbContext jaxbContext = this.typeDefinition.getContext();
+    String typeName = this.typeDefinition.getQualifiedName().toString();
+    String body = jaxbContext.getExampleBodies().get(typeName);
+    if (body == null) {
+      //modules that run at the same time may write the same example; they all get the one that was kept.
+      String written = writeBody(jaxbContext);
+      body = jaxbContext.getExampleBodies().putIfAbsent(typeName, written);
+      if (body == null) {
+        body = written;
+      }
+    }
+    return body;
+  }
 
+  private String writeBody(EnunciateJaxbContext jaxbContext) {
+    try {
       String rootName = Character.toLowerCase(this.typeDefinition.getSimpleName().charAt(0)) + "-----";
       String rootNamespace = this.typeDefinition.getNamespace();
-      ElementDeclaration element = typeDefinition.getContext().findElementDeclaration(typeDefinition);
+      ElementDeclaration element = jaxbContext.findElementDeclaration(typeDefinition);
       if (element != null) {
         rootName = element.getName();
         rootNamespace = element.getNamespace();
       }
+      rootNamespace = normalize(rootNamespace);
 
-      Element rootElement = document.createElementNS(rootNamespace, rootName);
-      document.appendChild(rootElement);
+      StringWriter value = new StringWriter();
+      ExampleWriter writer = new ExampleWriter(jaxbContext.getXmlOutputFactory().createXMLStreamWriter(value));
 
       Context context = new Context();
       context.stack = new LinkedList<String>();
-      build(rootElement, this.typeDefinition, document, context);
-
-      TransformerFactory transformerFactory = TransformerFactory.newInstance();
-      Transformer transformer = transformerFactory.newTransformer();
-      transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-      transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-      transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-      transformer.setOutputProperty(OutputKeys.ENCODING, "utf-8");
-      transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-      DOMSource source = new DOMSource(document);
-      StringWriter value = new StringWriter();
-      transformer.transform(source, new StreamResult(value));
+      List<ExampleAttribute> attributes = new ArrayList<ExampleAttribute>();
+      collectAttributes(attributes, this.typeDefinition, context);
+      writer.startElement(rootNamespace, rootName, attributes);
+      build(writer, rootNamespace, this.typeDefinition, context);
+      writer.endElement();
+      writer.close();
       return value.toString();
     }
-    catch (ParserConfigurationException e) {
-      throw new EnunciateException(e);
-    }
-    catch (TransformerException e) {
+    catch (XMLStreamException e) {
       throw new EnunciateException(e);
     }
   }
 
-  private String build(Element rootElement, ComplexTypeDefinition type, final Document document, Context context) {
+  /**
+   * Collect the attributes of the example of a type (including the attributes of its supertypes). The attributes have to
+   * be known before the start tag is written, but the attributes of the supertypes are only reached after the child
+   * elements of the type, so they're collected up front.
+   */
+  private void collectAttributes(List<ExampleAttribute> attributes, ComplexTypeDefinition type, Context context) {
     if (context.stack.size() > 2) {
-      //don't go deeper than 2 for fear of the OOM (see https://github.com/stoicflame/enunciate/issues/139).
-      return rootElement.getNamespaceURI();
+      return;
     }
 
     if (context.stack.contains(type.getQualifiedName().toString())) {
-      return rootElement.getNamespaceURI();
+      return;
     }
 
-    String defaultNamespace = rootElement.getNamespaceURI();
     context.stack.push(type.getQualifiedName().toString());
     try {
       FacetFilter facetFilter = type.getContext().getContext().getConfiguration().getFacetFilter();
       for (Attribute attribute : type.getAttributes()) {
-        if (ElementUtils.findDeprecationMessage(attribute) != null) {
-          continue;
-        }
-
-        if (!facetFilter.accept(attribute)) {
+        if (isExcluded(attribute, facetFilter)) {
           continue;
         }
 
@@ -118,18 +116,64 @@ public class ExampleImpl implements Example {
 
         DocumentationExample documentationExample = attribute.getAnnotation(DocumentationExample.class);
         if (documentationExample != null) {
-          if (documentationExample.exclude()) {
-            continue;
-          }
-          else if (context.currentIndex == 1 && !"##default".equals(documentationExample.value2())) {
+          if (context.currentIndex == 1 && !"##default".equals(documentationExample.value2())) {
             example = documentationExample.value2();
           }
           else if (!"##default".equals(documentationExample.value())) {
             example = documentationExample.value();
           }
         }
-        rootElement.setAttributeNS(attribute.getNamespace(), attribute.getName(), example);
-        if (attribute.getNamespace() == null) {
+
+        ExampleAttribute exampleAttribute = new ExampleAttribute(normalize(attribute.getNamespace()), attribute.getName(), example);
+        int existing = attributes.indexOf(exampleAttribute);
+        if (existing >= 0) {
+          attributes.set(existing, exampleAttribute);
+        }
+        else {
+          attributes.add(exampleAttribute);
+        }
+      }
+
+      XmlType supertype = type.getBaseType();
+      if (supertype instanceof XmlClassType && ((XmlClassType)supertype).getTypeDefinition() instanceof ComplexTypeDefinition) {
+        collectAttributes(attributes, (ComplexTypeDefinition) ((XmlClassType) supertype).getTypeDefinition(), context);
+      }
+    }
+    finally {
+      context.stack.pop();
+    }
+  }
+
+  private boolean isExcluded(Attribute attribute, FacetFilter facetFilter) {
+    if (ElementUtils.findDeprecationMessage(attribute) != null) {
+      return true;
+    }
+
+    if (!facetFilter.accept(attribute)) {
+      return true;
+    }
+
+    DocumentationExample documentationExample = attribute.getAnnotation(DocumentationExample.class);
+    return documentationExample != null && documentationExample.exclude();
+  }
+
+  private String build(ExampleWriter writer, String namespace, ComplexTypeDefinition type, Context context) throws XMLStreamException {
+    if (context.stack.size() > 2) {
+      //don't go deeper than 2 for fear of the OOM (see https://github.com/stoicflame/enunciate/issues/139).
+      return namespace;
+    }
+
+    if (context.stack.contains(type.getQualifiedName().toString())) {
+      return namespace;
+    }
+
+    String defaultNamespace = namespace;
+    context.stack.push(type.getQualifiedName().toString());
+    try {
+      FacetFilter facetFilter = type.getContext().getContext().getConfiguration().getFacetFilter();
+      for (Attribute attribute : type.getAttributes()) {
+        //the attributes were already written with the start tag (see collectAttributes).
+        if (!isExcluded(attribute, facetFilter) && attribute.getNamespace() == null) {
           defaultNamespace = null;
         }
       }
@@ -150,7 +194,7 @@ public class ExampleImpl implements Example {
           }
         }
 
-        rootElement.setTextContent(example);
+        writer.text(example);
       }
       else {
         for (com.webcohesion.enunciate.modules.jaxb.model.Element element : type.getElements()) {
@@ -162,28 +206,29 @@ public class ExampleImpl implements Example {
             continue;
           }
 
-          Element currentElement = rootElement;
           if (element.isWrapped()) {
-            Element wrapper = document.createElementNS(element.getWrapperNamespace(), element.getWrapperName());
-            rootElement.appendChild(wrapper);
-            currentElement = wrapper;
+            writer.startElement(normalize(element.getWrapperNamespace()), element.getWrapperName(), Collections.<ExampleAttribute>emptyList());
             if (element.getWrapperNamespace() == null) {
               defaultNamespace = null;
             }
           }
 
           for (com.webcohesion.enunciate.modules.jaxb.model.Element choice : element.getChoices()) {
-            Element childElement = document.createElementNS(choice.getNamespace(), choice.getName());
             if (choice.getNamespace() == null) {
               defaultNamespace = null;
             }
 
             XmlType baseType = choice.getXmlType();
             if (baseType instanceof XmlClassType && ((XmlClassType) baseType).getTypeDefinition() instanceof ComplexTypeDefinition) {
-              String defaultChildNs = build(childElement, (ComplexTypeDefinition) ((XmlClassType) baseType).getTypeDefinition(), document, context);
+              ComplexTypeDefinition childType = (ComplexTypeDefinition) ((XmlClassType) baseType).getTypeDefinition();
+              List<ExampleAttribute> childAttributes = new ArrayList<ExampleAttribute>();
+              collectAttributes(childAttributes, childType, context);
+              writer.startElement(normalize(choice.getNamespace()), choice.getName(), childAttributes);
+              String defaultChildNs = build(writer, normalize(choice.getNamespace()), childType, context);
               if (defaultChildNs == null) {
                 defaultNamespace = null;
               }
+              writer.endElement();
             }
             else {
               String example = "...";
@@ -207,10 +252,14 @@ public class ExampleImpl implements Example {
                 }
               }
 
-              childElement.setTextContent(example);
+              writer.startElement(normalize(choice.getNamespace()), choice.getName(), Collections.<ExampleAttribute>emptyList());
+              writer.text(example);
+              writer.endElement();
             }
+          }
 
-            currentElement.appendChild(childElement);
+          if (element.isWrapped()) {
+            writer.endElement();
           }
         }
       }
@@ -218,19 +267,19 @@ public class ExampleImpl implements Example {
 
       XmlType supertype = type.getBaseType();
       if (supertype instanceof XmlClassType && ((XmlClassType)supertype).getTypeDefinition() instanceof ComplexTypeDefinition) {
-        String defaultSuperNs = build(rootElement, (ComplexTypeDefinition) ((XmlClassType) supertype).getTypeDefinition(), document, context);
+        String defaultSuperNs = build(writer, namespace, (ComplexTypeDefinition) ((XmlClassType) supertype).getTypeDefinition(), context);
         if (defaultSuperNs == null) {
           defaultNamespace = null;
         }
       }
 
       if (type.getAnyElement() != null && ElementUtils.findDeprecationMessage(type.getAnyElement()) == null) {
-        Element extension1 = document.createElementNS(defaultNamespace, "extension1");
-        extension1.setTextContent("...");
-        rootElement.appendChild(extension1);
-        Element extension2 = document.createElementNS(defaultNamespace, "extension2");
-        extension2.setTextContent("...");
-        rootElement.appendChild(extension2);
+        writer.startElement(defaultNamespace, "extension1", Collections.<ExampleAttribute>emptyList());
+        writer.text("...");
+        writer.endElement();
+        writer.startElement(defaultNamespace, "extension2", Collections.<ExampleAttribute>emptyList());
+        writer.text("...");
+        writer.endElement();
       }
     }
     finally {
@@ -240,8 +289,167 @@ public class ExampleImpl implements Example {
     return defaultNamespace;
   }
 
+  private static String normalize(String namespace) {
+    return namespace == null || namespace.isEmpty() ? null : namespace;
+  }
+
   private static class Context {
     LinkedList<String> stack;
     int currentIndex = 0;
   }
+
+  private static class ExampleAttribute {
+    final String namespace;
+    final String name;
+    final String value;
+
+    ExampleAttribute(String namespace, String name, String value) {
+      this.namespace = namespace;
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof ExampleAttribute)) {
+        return false;
+      }
+
+      ExampleAttribute other = (ExampleAttribute) o;
+      return this.name.equals(other.name) && (this.namespace == null ? other.namespace == null : this.namespace.equals(other.namespace));
+    }
+
+    @Override
+    public int hashCode() {
+      return this.name.hashCode();
+    }
+  }
+
+  private static class ExampleElement {
+    final String namespace;
+    final String name;
+    final List<ExampleAttribute> attributes;
+    final String inheritedNamespace;
+    final int depth;
+    boolean started = false;
+    boolean hasChildElements = false;
+
+    ExampleElement(String namespace, String name, List<ExampleAttribute> attributes, String inheritedNamespace, int depth) {
+      this.namespace = namespace == null ? "" : namespace;
+      this.name = name;
+      this.attributes = attributes;
+      this.inheritedNamespace = inheritedNamespace;
+      this.depth = depth;
+    }
+  }
+
+  /**
+   * Writes an example to an XML stream, indented by two spaces per level. The start tag of an element is held back until
+   * its content is known so that elements without content can be written as empty elements. Namespaced attributes each
+   * get their own prefix (ns0, ns1, ...), and the default namespace is declared wherever it changes.
+   */
+  private static class ExampleWriter {
+
+    private static final Comparator<ExampleAttribute> ATTRIBUTE_ORDER = new Comparator<ExampleAttribute>() {
+      @Override
+      public int compare(ExampleAttribute a1, ExampleAttribute a2) {
+        return a1.name.compareTo(a2.name);
+      }
+    };
+
+    private final XMLStreamWriter xml;
+    private final LinkedList<ExampleElement> elements = new LinkedList<ExampleElement>();
+
+    ExampleWriter(XMLStreamWriter xml) {
+      this.xml = xml;
+    }
+
+    void startElement(String namespace, String name, List<ExampleAttribute> attributes) throws XMLStreamException {
+      ExampleElement parent = this.elements.peek();
+      String inheritedNamespace = "";
+      if (parent != null) {
+        writeStartTag(parent, false);
+        parent.hasChildElements = true;
+        inheritedNamespace = parent.namespace;
+      }
+      this.elements.push(new ExampleElement(namespace, name, attributes, inheritedNamespace, this.elements.size()));
+    }
+
+    void text(String text) throws XMLStreamException {
+      if (text != null && !text.isEmpty()) {
+        writeStartTag(this.elements.peek(), false);
+        this.xml.writeCharacters(text);
+      }
+    }
+
+    void endElement() throws XMLStreamException {
+      ExampleElement element = this.elements.pop();
+      if (!element.started) {
+        writeStartTag(element, true);
+      }
+      else {
+        if (element.hasChildElements) {
+          indent(element.depth);
+        }
+        this.xml.writeEndElement();
+      }
+
+      if (this.elements.isEmpty()) {
+        this.xml.writeCharacters("\n");
+      }
+    }
+
+    void close() throws XMLStreamException {
+      this.xml.flush();
+      this.xml.close();
+    }
+
+    private void writeStartTag(ExampleElement element, boolean empty) throws XMLStreamException {
+      if (element.started) {
+        return;
+      }
+
+      if (element.depth > 0) {
+        indent(element.depth);
+      }
+
+      if (empty) {
+        this.xml.writeEmptyElement(element.name);
+      }
+      else {
+        this.xml.writeStartElement(element.name);
+      }
+
+      //attributes are in order of their names; of two attributes with the same name, the last one comes first.
+      List<ExampleAttribute> attributes = new ArrayList<ExampleAttribute>(element.attributes);
+      Collections.reverse(attributes);
+      Collections.sort(attributes, ATTRIBUTE_ORDER);
+      int prefixIndex = 0;
+      for (ExampleAttribute attribute : attributes) {
+        String value = attribute.value == null ? "" : attribute.value;
+        if (attribute.namespace != null) {
+          String prefix = "ns" + prefixIndex++;
+          this.xml.writeNamespace(prefix, attribute.namespace);
+          this.xml.writeAttribute(prefix, attribute.namespace, attribute.name, value);
+        }
+        else {
+          this.xml.writeAttribute(attribute.name, value);
+        }
+      }
+
+      if (!element.namespace.equals(element.inheritedNamespace)) {
+        this.xml.writeDefaultNamespace(element.namespace);
+      }
+
+      element.started = true;
+    }
+
+    private void indent(int depth) throws XMLStreamException {
+      StringBuilder indent = new StringBuilder(1 + depth * 2).append('\n');
+      for (int i = 0; i < depth; i++) {
+        indent.append("  ");
+      }
+      this.xml.writeCharacters(indent.toString());
+    }
+  }
 }
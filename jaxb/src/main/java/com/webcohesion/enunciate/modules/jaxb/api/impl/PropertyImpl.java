@@ -136,4 +136,22 @@ public class PropertyImpl implements Property {
   public JavaDoc getJavaDoc() {
     return this.accessor.getJavaDoc();
   }
+
+  @Override
+  public Object getMetadata(String name) {
+    if ("type".equals(name)) {
+      return getType();
+    }
+    else if ("namespaceInfo".equals(name)) {
+      return getNamespaceInfo();
+    }
+    else if ("minMaxOccurs".equals(name)) {
+      return getMinMaxOccurs();
+    }
+    else if ("defaultValue".equals(name)) {
+      return getDefaultValue();
+    }
+
+    return null;
+  }
 }
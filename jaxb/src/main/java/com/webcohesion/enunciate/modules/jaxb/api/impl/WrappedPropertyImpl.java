@@ -27,6 +27,15 @@ public class WrappedPropertyImpl extends PropertyImpl {
     }
   }
 
+  @Override
+  public Object getMetadata(String name) {
+    if ("wrapper".equals(name)) {
+      return getWrapper();
+    }
+
+    return super.getMetadata(name);
+  }
+
   public String getWrapperName() {
     return wrapperName;
   }
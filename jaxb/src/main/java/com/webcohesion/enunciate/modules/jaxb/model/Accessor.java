@@ -17,6 +17,7 @@
 package com.webcohesion.enunciate.modules.jaxb.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.Annotations;
 import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
@@ -58,7 +59,7 @@ public abstract class Accessor extends DecoratedElement<javax.lang.model.element
 
   final TypeDefinition typeDefinition;
   final AdapterType adapterType;
-  final Set<Facet> facets = new TreeSet<Facet>();
+  final Set<Facet> facets = new FacetSet();
   final EnunciateJaxbContext context;
 
   public Accessor(javax.lang.model.element.Element delegate, TypeDefinition typeDef, EnunciateJaxbContext context) {
@@ -18,6 +18,7 @@ package com.webcohesion.enunciate.modules.jaxb.model;
 
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedElement;
 import com.webcohesion.enunciate.javac.decorations.type.DecoratedTypeMirror;
@@ -38,7 +39,7 @@ public class AnyElement extends DecoratedElement<javax.lang.model.element.Elemen
 
   private final boolean lax;
   private final List<ElementRef> refs;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   public AnyElement(javax.lang.model.element.Element delegate, TypeDefinition typeDef, EnunciateJaxbContext context) {
     super(delegate, context.getContext().getProcessingEnvironment());
@@ -1,6 +1,7 @@
 package com.webcohesion.enunciate.modules.jaxb.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.Annotations;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedExecutableElement;
@@ -20,7 +21,6 @@ import javax.xml.bind.annotation.XmlElementDecl;
 import javax.xml.namespace.QName;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.Callable;
 
 /**
@@ -33,7 +33,7 @@ public class LocalElementDeclaration extends DecoratedExecutableElement implemen
   private final TypeElement elementTypeDeclaration;
   private final XmlElementDecl elementDecl;
   private final Registry registry;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   private final EnunciateJaxbContext context;
 
   public LocalElementDeclaration(ExecutableElement element, Registry registry, EnunciateJaxbContext context) {
@@ -253,9 +253,10 @@ public class SchemaInfo {
    */
   public Set<String> getReferencedNamespaces() {
     Set<String> referencedNamespaces = new HashSet<String>();
+    Set<String> visited = new HashSet<String>();
 
     for (TypeDefinition typeDefinition : getTypeDefinitions()) {
-      addReferencedNamespaces(typeDefinition, referencedNamespaces);
+      addReferencedNamespaces(typeDefinition, visited, referencedNamespaces);
     }
 
     for (RootElementDeclaration rootElement : getRootElements()) {
@@ -271,7 +272,7 @@ public class SchemaInfo {
 
       if (schemaElement instanceof ImplicitRootElement) {
         for (ImplicitChildElement childElement : ((ImplicitRootElement) schemaElement).getChildElements()) {
-          addReferencedNamespaces(childElement.getXmlType(), new LinkedList<String>(), referencedNamespaces);
+          addReferencedNamespaces(childElement.getXmlType(), visited, referencedNamespaces);
         }
       }
     }
@@ -303,62 +304,55 @@ public class SchemaInfo {
   }
 
   /**
-   * Adds the referenced namespaces of the given type definition to the given set.
+   * Adds the referenced namespaces of the given type definition (and of the types it references) to the given set. Each
+   * type definition is only visited once: the namespaces of a type are the same no matter how it was reached, and walking
+   * every path through a densely connected set of types takes exponential time.
    *
    * @param typeDefinition The type definition.
+   * @param visited The qualified names of the type definitions that have already been visited.
    * @param referencedNamespaces The set of referenced namespaces.
    */
-  private void addReferencedNamespaces(TypeDefinition typeDefinition, Set<String> referencedNamespaces) {
-    addReferencedNamespaces(typeDefinition, new LinkedList<String>(), referencedNamespaces);
-  }
-
-  private void addReferencedNamespaces(TypeDefinition typeDefinition, LinkedList<String> stack, Set<String> referencedNamespaces) {
-    if (stack.contains(typeDefinition.getQualifiedName().toString())) {
+  private void addReferencedNamespaces(TypeDefinition typeDefinition, Set<String> visited, Set<String> referencedNamespaces) {
+    if (!visited.add(typeDefinition.getQualifiedName().toString())) {
       return;
     }
 
-    stack.push(typeDefinition.getQualifiedName().toString());
-    try {
-      for (Attribute attribute : typeDefinition.getAttributes()) {
-        QName ref = attribute.getRef();
+    for (Attribute attribute : typeDefinition.getAttributes()) {
+      QName ref = attribute.getRef();
+      if (ref != null) {
+        referencedNamespaces.add(ref.getNamespaceURI());
+      }
+      else {
+        addReferencedNamespaces(attribute.getBaseType(), visited, referencedNamespaces);
+      }
+    }
+
+    for (Element element : typeDefinition.getElements()) {
+      for (Element choice : element.getChoices()) {
+        QName ref = choice.getRef();
         if (ref != null) {
           referencedNamespaces.add(ref.getNamespaceURI());
         }
         else {
-          addReferencedNamespaces(attribute.getBaseType(), stack, referencedNamespaces);
-        }
-      }
-
-      for (Element element : typeDefinition.getElements()) {
-        for (Element choice : element.getChoices()) {
-          QName ref = choice.getRef();
-          if (ref != null) {
-            referencedNamespaces.add(ref.getNamespaceURI());
-          }
-          else {
-            addReferencedNamespaces(choice.getBaseType(), stack, referencedNamespaces);
-          }
+          addReferencedNamespaces(choice.getBaseType(), visited, referencedNamespaces);
         }
       }
+    }
 
-      Value value = typeDefinition.getValue();
-      if (value != null) {
-        addReferencedNamespaces(value.getBaseType(), stack, referencedNamespaces);
-      }
+    Value value = typeDefinition.getValue();
+    if (value != null) {
+      addReferencedNamespaces(value.getBaseType(), visited, referencedNamespaces);
+    }
 
-      if (typeDefinition instanceof QNameEnumTypeDefinition) {
-        for (EnumValue enumValue : ((QNameEnumTypeDefinition) typeDefinition).getEnumValues()) {
-          if (enumValue.getValue() != null) {
-            referencedNamespaces.add(((QName)enumValue.getValue()).getNamespaceURI());
-          }
+    if (typeDefinition instanceof QNameEnumTypeDefinition) {
+      for (EnumValue enumValue : ((QNameEnumTypeDefinition) typeDefinition).getEnumValues()) {
+        if (enumValue.getValue() != null) {
+          referencedNamespaces.add(((QName)enumValue.getValue()).getNamespaceURI());
         }
       }
-
-      addReferencedNamespaces(typeDefinition.getBaseType(), stack, referencedNamespaces);
-    }
-    finally {
-      stack.pop();
     }
+
+    addReferencedNamespaces(typeDefinition.getBaseType(), visited, referencedNamespaces);
   }
 
   /**
@@ -367,7 +361,7 @@ public class SchemaInfo {
    * @param xmlType The xml type.
    * @param referencedNamespaces The set of referenced namespaces.
    */
-  private void addReferencedNamespaces(XmlType xmlType, LinkedList<String> stack, Set<String> referencedNamespaces) {
+  private void addReferencedNamespaces(XmlType xmlType, Set<String> visited, Set<String> referencedNamespaces) {
     if (!xmlType.isAnonymous()) {
       referencedNamespaces.add(xmlType.getNamespace());
     }
@@ -377,7 +371,7 @@ public class SchemaInfo {
     }
 
     if (xmlType instanceof XmlClassType) {
-      addReferencedNamespaces(((XmlClassType) xmlType).getTypeDefinition(), stack, referencedNamespaces);
+      addReferencedNamespaces(((XmlClassType) xmlType).getTypeDefinition(), visited, referencedNamespaces);
     }
   }
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.webcohesion.enunciate.modules.jaxb.util;
+
+import freemarker.ext.beans.BeansWrapper;
+import freemarker.ext.beans.BeansWrapperBuilder;
+import freemarker.template.Configuration;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * A method used in the templates of the C-based clients to output the hash of an XML name as a C literal, so the
+ * generated readers can match a child node against the known names by comparing integers. The hash is the 32-bit
+ * FNV-1a hash of the UTF-8 bytes of the name, which has to agree with the hash function of the generated code.
+ *
+ * @author Ryan Heaton
+ */
+public class XmlNameHashMethod implements TemplateMethodModelEx {
+
+  private static final Charset UTF_8 = Charset.forName("utf-8");
+  private static final BeansWrapper WRAPPER = new BeansWrapperBuilder(Configuration.getVersion()).build();
+
+  public Object exec(List list) throws TemplateModelException {
+    if (list.size() < 1) {
+      throw new TemplateModelException("The xmlNameHash method must have the name as a parameter.");
+    }
+
+    Object name = WRAPPER.unwrap((TemplateModel) list.get(0));
+    if (!(name instanceof String)) {
+      throw new TemplateModelException("The xmlNameHash method must have the name as a parameter.");
+    }
+
+    return String.format("0x%08xu", hash((String) name));
+  }
+
+  /**
+   * The hash of an XML name.
+   *
+   * @param name The name.
+   * @return The hash.
+   */
+  public static int hash(String name) {
+    int hash = 0x811c9dc5;
+    for (byte b : name.getBytes(UTF_8)) {
+      hash ^= (b & 0xff);
+      hash *= 16777619;
+    }
+    return hash;
+  }
+}
@@ -23,8 +23,10 @@ import java.util.*;
  * @author Ryan Heaton
  */
 @SuppressWarnings ( "unchecked" )
-public class JaxrsModule extends BasicEnunicateModule implements TypeFilteringModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
+public class JaxrsModule extends BasicEnunicateModule implements IndexedTypeFilteringModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
 
+  private final TypeFilterRules typeFilterRules = new TypeFilterRules()
+    .annotatedWith(Path.class.getName(), Provider.class.getName(), ApplicationPath.class.getName());
   private DataTypeDetectionStrategy defaultDataTypeDetectionStrategy;
   private final List<MediaTypeDefinitionModule> mediaTypeModules = new ArrayList<MediaTypeDefinitionModule>();
   private ApiRegistry apiRegistry;
@@ -233,19 +235,19 @@ public class JaxrsModule extends BasicEnunicateModule implements TypeFilteringMo
     }
   }
 
+  @Override
+  public TypeFilterRules getTypeFilterRules() {
+    return this.typeFilterRules;
+  }
+
+  @Override
+  public void acknowledgeDetectedTypes(Set<String> detectedTypes) {
+    //no-op
+  }
+
   @Override
   public boolean acceptType(Object type, MetadataAdapter metadata) {
-    List<String> classAnnotations = metadata.getClassAnnotationNames(type);
-    if (classAnnotations != null) {
-      for (String classAnnotation : classAnnotations) {
-        if ((Path.class.getName().equals(classAnnotation))
-          || (Provider.class.getName().equals(classAnnotation))
-          || (ApplicationPath.class.getName().equals(classAnnotation))) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return this.typeFilterRules.accept(type, metadata);
   }
 
   public class MediaTypeDependencySpec implements DependencySpec {
@@ -16,6 +16,7 @@
 package com.webcohesion.enunciate.modules.jaxrs.model;
 
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedTypeElement;
 import com.webcohesion.enunciate.javac.decorations.element.PropertyElement;
@@ -50,7 +51,7 @@ public abstract class Resource extends DecoratedTypeElement implements HasFacets
   private final Set<ResourceParameter> resourceParameters;
   private final List<ResourceMethod> resourceMethods;
   private final List<SubResourceLocator> resourceLocators;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
 
   protected Resource(TypeElement delegate, String path, EnunciateJaxrsContext context) {
     super(delegate, context.getContext().getProcessingEnvironment());
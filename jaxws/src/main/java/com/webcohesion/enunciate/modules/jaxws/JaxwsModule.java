@@ -26,8 +26,10 @@ import java.util.*;
  * @author Ryan Heaton
  */
 @SuppressWarnings ( "unchecked" )
-public class JaxwsModule extends BasicEnunicateModule implements TypeFilteringModule, ApiRegistryProviderModule, ApiFeatureProviderModule, WebInfAwareModule {
+public class JaxwsModule extends BasicEnunicateModule implements IndexedTypeFilteringModule, ApiRegistryProviderModule, ApiFeatureProviderModule, WebInfAwareModule {
 
+  private final TypeFilterRules typeFilterRules = new TypeFilterRules()
+    .annotatedWith(WebService.class.getName());
   private JaxbModule jaxbModule;
   private DataTypeDetectionStrategy defaultDataTypeDetectionStrategy;
   private ApiRegistry apiRegistry;
@@ -39,6 +41,14 @@ public class JaxwsModule extends BasicEnunicateModule implements TypeFilteringMo
     return "jaxws";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("aggressiveWebMethodExcludePolicy", Boolean.class);
+    attributeTypes.put("useSourceParameterNames", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new JaxbDependencySpec());
@@ -234,17 +244,19 @@ public class JaxwsModule extends BasicEnunicateModule implements TypeFilteringMo
     }
   }
 
+  @Override
+  public TypeFilterRules getTypeFilterRules() {
+    return this.typeFilterRules;
+  }
+
+  @Override
+  public void acknowledgeDetectedTypes(Set<String> detectedTypes) {
+    //no-op
+  }
+
   @Override
   public boolean acceptType(Object type, MetadataAdapter metadata) {
-    List<String> classAnnotations = metadata.getClassAnnotationNames(type);
-    if (classAnnotations != null) {
-      for (String classAnnotation : classAnnotations) {
-        if (WebService.class.getName().equals(classAnnotation)) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return this.typeFilterRules.accept(type, metadata);
   }
 
   /**
@@ -18,6 +18,7 @@ package com.webcohesion.enunciate.modules.jaxws.model;
 
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.TypeElementComparator;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedTypeElement;
@@ -46,7 +47,7 @@ public class EndpointInterface extends DecoratedTypeElement implements HasFacets
   private final List<WebMethod> webMethods;
   private final Collection<EndpointImplementation> impls;
   private final Map<String, Object> metaData = new HashMap<String, Object>();
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   private final boolean aggressiveWebMethodExcludePolicy;
   private final EnunciateJaxwsContext context;
 
@@ -18,6 +18,7 @@ package com.webcohesion.enunciate.modules.jaxws.model;
 
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.facets.Facet;
+import com.webcohesion.enunciate.facets.FacetSet;
 import com.webcohesion.enunciate.facets.HasFacets;
 import com.webcohesion.enunciate.javac.decorations.TypeMirrorDecorator;
 import com.webcohesion.enunciate.javac.decorations.element.DecoratedExecutableElement;
@@ -52,7 +53,7 @@ public class WebMethod extends DecoratedExecutableElement implements Comparable<
   private final Collection<WebMessage> messages;
   private final RequestWrapper requestWrapper;
   private final ResponseWrapper responseWrapper;
-  private final Set<Facet> facets = new TreeSet<Facet>();
+  private final Set<Facet> facets = new FacetSet();
   private final EnunciateJaxwsContext context;
 
   public WebMethod(ExecutableElement delegate, EndpointInterface endpointInterface, EnunciateJaxwsContext context) {
@@ -0,0 +1,13 @@
+package com.webcohesion.enunciate.mojo;
+
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Runs an Enunciate build daemon in the foreground, with all the modules available to it.
+ *
+ * @author Ryan Heaton
+ */
+@Mojo ( name = "daemon", requiresProject = false )
+public class DaemonMojo extends DaemonBaseMojo {
+
+}
@@ -41,6 +41,7 @@ import com.webcohesion.enunciate.modules.jaxb.model.util.JAXBCodeErrors;
 import com.webcohesion.enunciate.modules.jaxb.model.util.MapType;
 import com.webcohesion.enunciate.modules.jaxb.util.AccessorOverridesAnotherMethod;
 import com.webcohesion.enunciate.modules.jaxb.util.FindRootElementMethod;
+import com.webcohesion.enunciate.modules.jaxb.util.XmlNameHashMethod;
 import com.webcohesion.enunciate.modules.jaxrs.JaxrsModule;
 import com.webcohesion.enunciate.util.freemarker.FileDirective;
 import com.webcohesion.enunciate.util.freemarker.IsFacetExcludedMethod;
@@ -76,6 +77,13 @@ public class ObjCXMLClientModule extends BasicGeneratingModule implements ApiFea
     return "obj-c-xml-client";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("separateCommonCode", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new DependencySpec() {
@@ -210,6 +218,7 @@ public class ObjCXMLClientModule extends BasicGeneratingModule implements ApiFea
     model.put("referencedNamespaces", new ReferencedNamespacesMethod(jaxbContext));
     model.put("prefix", new PrefixMethod(jaxbContext.getNamespacePrefixes()));
     model.put("accessorOverridesAnother", new AccessorOverridesAnotherMethod());
+    model.put("xmlNameHash", new XmlNameHashMethod());
     model.put("file", new FileDirective(srcDir, this.enunciate.getLogger()));
 
     Set<String> facetIncludes = new TreeSet<String>(this.enunciate.getConfiguration().getFacetIncludes());
@@ -331,14 +340,8 @@ public class ObjCXMLClientModule extends BasicGeneratingModule implements ApiFea
     return new File(new File(this.enunciate.getBuildDir(), getName()), "src");
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -361,6 +364,19 @@ public class ObjCXMLClientModule extends BasicGeneratingModule implements ApiFea
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new ObjCXMLClientObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -37,6 +37,7 @@ import com.webcohesion.enunciate.modules.jackson1.EnunciateJackson1Context;
 import com.webcohesion.enunciate.modules.jackson1.Jackson1Module;
 import com.webcohesion.enunciate.modules.jackson1.model.util.Jackson1CodeErrors;
 import com.webcohesion.enunciate.modules.jaxrs.JaxrsModule;
+import com.webcohesion.enunciate.util.JsonSubtypeUtils;
 import com.webcohesion.enunciate.util.freemarker.ClientPackageForMethod;
 import com.webcohesion.enunciate.util.freemarker.FileDirective;
 import com.webcohesion.enunciate.util.freemarker.IsFacetExcludedMethod;
@@ -76,6 +77,13 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
     return "php-json-client";
   }
 
+  @Override
+  protected Map<String, Class<?>> getAttributeTypes() {
+    Map<String, Class<?>> attributeTypes = super.getAttributeTypes();
+    attributeTypes.put("singleFilePerClass", Boolean.class);
+    return attributeTypes;
+  }
+
   @Override
   public List<DependencySpec> getDependencySpecifications() {
     return Arrays.asList((DependencySpec) new DependencySpec() {
@@ -178,6 +186,7 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
     FacetFilter facetFilter = new FacetFilter(facetIncludes, facetExcludes);
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
+    model.put("jsonSubtypes", JsonSubtypeUtils.findJsonSubtypes(schemaTypes, classnameFor, facetFilter, this.context.getProcessingEnvironment().getElementUtils()));
 
     if (!isUpToDateWithSources(srcDir)) {
       debug("Generating the PHP data classes...");
@@ -285,14 +294,8 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
     return new File(new File(this.enunciate.getBuildDir(), getName()), "build");
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -315,6 +318,19 @@ public class PHPJSONClientModule extends BasicGeneratingModule implements ApiFea
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new PHPJSONClientObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
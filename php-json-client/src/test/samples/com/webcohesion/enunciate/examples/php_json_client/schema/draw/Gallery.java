@@ -0,0 +1,51 @@
+/*
+ * Copyright 2006-2008 Web Cohesion
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.webcohesion.enunciate.examples.php_json_client.schema.draw;
+
+import com.webcohesion.enunciate.examples.php_json_client.schema.Figure;
+import com.webcohesion.enunciate.examples.php_json_client.schema.Shape;
+
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.Collection;
+
+/**
+ * A gallery of figures and shapes, each of which may be of any of their subclasses.
+ *
+ * @author Ryan Heaton
+ */
+@XmlRootElement
+public class Gallery {
+
+  private Collection<Figure> figures;
+  private Collection<Shape> shapes;
+
+  public Collection<Figure> getFigures() {
+    return figures;
+  }
+
+  public void setFigures(Collection<Figure> figures) {
+    this.figures = figures;
+  }
+
+  public Collection<Shape> getShapes() {
+    return shapes;
+  }
+
+  public void setShapes(Collection<Shape> shapes) {
+    this.shapes = shapes;
+  }
+}
@@ -37,6 +37,7 @@ import com.webcohesion.enunciate.modules.jackson1.EnunciateJackson1Context;
 import com.webcohesion.enunciate.modules.jackson1.Jackson1Module;
 import com.webcohesion.enunciate.modules.jackson1.model.util.Jackson1CodeErrors;
 import com.webcohesion.enunciate.modules.jaxrs.JaxrsModule;
+import com.webcohesion.enunciate.util.JsonSubtypeUtils;
 import com.webcohesion.enunciate.util.freemarker.ClientPackageForMethod;
 import com.webcohesion.enunciate.util.freemarker.FileDirective;
 import com.webcohesion.enunciate.util.freemarker.IsFacetExcludedMethod;
@@ -181,6 +182,7 @@ public class RubyJSONClientModule extends BasicGeneratingModule implements ApiFe
     FacetFilter facetFilter = new FacetFilter(facetIncludes, facetExcludes);
 
     model.put("isFacetExcluded", new IsFacetExcludedMethod(facetFilter));
+    model.put("jsonSubtypes", JsonSubtypeUtils.findJsonSubtypes(schemaTypes, classnameFor, facetFilter, this.context.getProcessingEnvironment().getElementUtils()));
 
     if (!isUpToDateWithSources(srcDir)) {
       debug("Generating the Ruby JSON data classes...");
@@ -268,14 +270,8 @@ public class RubyJSONClientModule extends BasicGeneratingModule implements ApiFe
     return new File(new File(this.enunciate.getBuildDir(), getName()), "src");
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -298,6 +294,19 @@ public class RubyJSONClientModule extends BasicGeneratingModule implements ApiFe
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new RubyJSONClientObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -1,9 +1,13 @@
 package com.webcohesion.enunciate.modules.ruby_json_client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
 import com.webcohesion.enunciate.examples.ruby_json_client.schema.*;
 import com.webcohesion.enunciate.examples.ruby_json_client.schema.animals.Cat;
 import com.webcohesion.enunciate.examples.ruby_json_client.schema.draw.Canvas;
+import com.webcohesion.enunciate.examples.ruby_json_client.schema.draw.Gallery;
 import com.webcohesion.enunciate.examples.ruby_json_client.schema.structures.House;
 import com.webcohesion.enunciate.examples.ruby_json_client.schema.vehicles.Bus;
 import junit.framework.TestCase;
@@ -503,6 +507,63 @@ public class TestRubySerialization extends TestCase {
     //todo: test element refs of attachment elements.
   }
 
+  /**
+   * tests that the items of polymorphic collections are resolved to the classes named by their '@class'.
+   */
+  public void testPolymorphicCollections() throws Exception {
+    if (this.skipRubyTests) {
+      System.out.println("Ruby tests have been disabled.");
+      return;
+    }
+
+    Bus bus = new Bus();
+    bus.setId("busId");
+    Rectangle busFrame = new Rectangle();
+    busFrame.setWidth(100);
+    bus.setFrame(busFrame);
+    Cat cat = new Cat();
+    cat.setId("catId");
+    Circle catFace = new Circle();
+    catFace.setRadius(30);
+    cat.setFace(catFace);
+    Circle circle = new Circle();
+    circle.setRadius(10);
+    circle.setId("circleId");
+    Triangle triangle = new Triangle();
+    triangle.setBase(80);
+    triangle.setId("triId");
+    Rectangle rectangle = new Rectangle();
+    rectangle.setHeight(50);
+    rectangle.setId("rectId");
+
+    Gallery gallery = new Gallery();
+    gallery.setFigures(Arrays.asList(bus, cat));
+    gallery.setShapes(Arrays.asList(circle, triangle, rectangle));
+    ObjectMapper mapper = new ObjectMapper();
+    ObjectNode json = (ObjectNode) mapper.readTree(toJson(gallery));
+    addClassNames(json.get("figures"), bus, cat);
+    addClassNames(json.get("shapes"), circle, triangle);
+
+    //the items of the collections of a type with subtypes are looked up by their '@class'.
+    JsonNode out = processThroughJson(json, gallery.getClass().getName());
+    assertEquals(100, out.get("figures").get(0).get("frame").get("width").asInt());
+    assertEquals(30, out.get("figures").get(1).get("face").get("radius").asInt());
+    assertEquals(10, out.get("shapes").get(0).get("radius").asInt());
+    assertEquals(80, out.get("shapes").get(1).get("base").asInt());
+
+    //an item without an '@class' is read as the item type of the collection.
+    assertEquals("rectId", out.get("shapes").get(2).get("id").asText());
+    assertNull(out.get("shapes").get(2).get("height"));
+
+    //the items of collections that aren't typed are looked up by their '@class' too.
+    Canvas canvas = new Canvas();
+    canvas.setFigures(Arrays.asList(bus, cat));
+    json = (ObjectNode) mapper.readTree(toJson(canvas));
+    addClassNames(json.get("figures"), bus, cat);
+    out = processThroughJson(json, canvas.getClass().getName());
+    assertEquals(100, out.get("figures").get(0).get("frame").get("width").asInt());
+    assertEquals(30, out.get("figures").get(1).get("face").get("radius").asInt());
+  }
 
   protected <T> T processThroughJson(T object) throws Exception {
     JacksonJaxbJsonProvider provider = new JacksonJaxbJsonProvider();
@@ -529,6 +590,39 @@ public class TestRubySerialization extends TestCase {
     return (T) provider.readFrom((Class<Object>) object.getClass(), object.getClass(), null, null, null, fis);
   }
 
+  protected byte[] toJson(Object object) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new JacksonJaxbJsonProvider().writeTo(object, object.getClass(), null, null, null, null, out);
+    return out.toByteArray();
+  }
+
+  protected void addClassNames(JsonNode items, Object... objects) {
+    for (int i = 0; i < objects.length; i++) {
+      ((ObjectNode) items.get(i)).put("@class", objects[i].getClass().getName());
+    }
+  }
+
+  protected JsonNode processThroughJson(JsonNode json, String className) throws Exception {
+    ObjectMapper mapper = new ObjectMapper();
+    File in = File.createTempFile(className + "In", ".json", this.tempDir);
+    File out = File.createTempFile(className + "Out", ".json", this.tempDir);
+    mapper.writeValue(in, json);
+    Process process = new ProcessBuilder(this.rubyExe, this.exe.getAbsolutePath(), packageToModule(className), in.getAbsolutePath(), out.getAbsolutePath())
+      .directory(this.exe.getParentFile())
+      .redirectErrorStream(true)
+      .start();
+    BufferedReader procReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+    String line = procReader.readLine();
+    while (line != null) {
+      System.out.println(line);
+      line = procReader.readLine();
+    }
+    int exitStatus = process.waitFor();
+    assertEquals("ruby process json failed.", 0, exitStatus);
+
+    return mapper.readTree(out);
+  }
+
   protected String packageToModule(String pckg) {
     if (pckg == null) {
       return null;
@@ -3,6 +3,7 @@ package com.webcohesion.enunciate.mojo;
 import com.webcohesion.enunciate.Enunciate;
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.artifacts.Artifact;
+import com.webcohesion.enunciate.daemon.BuildRequest;
 import com.webcohesion.enunciate.module.DocumentationProviderModule;
 import com.webcohesion.enunciate.module.EnunciateModule;
 import com.webcohesion.enunciate.module.WebInfAwareModule;
@@ -72,6 +73,17 @@ public class AssembleBaseMojo extends ConfigMojo {
     }
   }
 
+  @Override
+  protected void applyAdditionalConfiguration(BuildRequest request) {
+    super.applyAdditionalConfiguration(request);
+
+    request.setDefaultDocsDir(new File(this.docsDir));
+    if (this.docsSubdir != null) {
+      request.setDefaultDocsSubdir(this.docsSubdir);
+    }
+    request.setWebInfDir(new File(this.webInfDirectory));
+  }
+
   @Override
   public void execute() throws MojoExecutionException {
     if (skipEnunciate) {
@@ -20,7 +20,11 @@ import com.webcohesion.enunciate.Enunciate;
 import com.webcohesion.enunciate.EnunciateConfiguration;
 import com.webcohesion.enunciate.EnunciateException;
 import com.webcohesion.enunciate.EnunciateLogger;
+import com.webcohesion.enunciate.daemon.BuildDaemonClient;
+import com.webcohesion.enunciate.daemon.BuildRequest;
+import com.webcohesion.enunciate.daemon.BuildWatcher;
 import com.webcohesion.enunciate.module.EnunciateModule;
+import com.webcohesion.enunciate.module.OnDemandDocumentationProviderModule;
 import com.webcohesion.enunciate.module.ProjectExtensionModule;
 
 import org.apache.maven.artifact.factory.ArtifactFactory;
@@ -107,6 +111,27 @@ public class ConfigMojo extends AbstractMojo {
   @Parameter ( defaultValue = "${project.build.directory}/enunciate", property = "enunciate.build.directory" )
   protected File buildDir = null;
 
+  /**
+   * The directory of the artifact cache, shared across builds (e.g. by the builds of a CI agent), in which the
+   * extracted bundles and the packaged artifacts are kept so they can be copied instead of generated again. No
+   * artifacts are cached by default.
+   */
+  @Parameter ( property = "enunciate.cacheDir" )
+  protected File cacheDir = null;
+
+  /**
+   * The maximum size of the artifact cache, in megabytes. The least recently used artifacts are evicted from a larger
+   * cache.
+   */
+  @Parameter ( defaultValue = "1024", property = "enunciate.cacheMaxSize" )
+  protected long cacheMaxSize = 1024;
+
+  /**
+   * The maximum age of an unused artifact in the artifact cache, in days.
+   */
+  @Parameter ( defaultValue = "30", property = "enunciate.cacheMaxAge" )
+  protected long cacheMaxAge = 30;
+
   /**
    * The place where classes are compiled for the current project. Enunciate needs to know this to include the classes on the classpath.
    */
@@ -167,6 +192,47 @@ public class ConfigMojo extends AbstractMojo {
   @Parameter ( defaultValue = "false", property = "enunciate.skip" )
   protected boolean skipEnunciate;
 
+  /**
+   * A flag used to generate from the API model saved by the previous build when the sources haven't changed since,
+   * skipping the compiler. Only the modules that generate from the API model alone (e.g. the documentation) are invoked.
+   */
+  @Parameter ( defaultValue = "false", property = "enunciate.generateFromModel" )
+  protected boolean generateFromModel = false;
+
+  /**
+   * A flag used to delegate the build to a running build daemon (started with the 'daemon' goal), which keeps the modules,
+   * the templates, the classpath scans and the compiler state warm between builds. If no daemon is running, the build
+   * is run by the plugin.
+   */
+  @Parameter ( defaultValue = "false", property = "enunciate.daemon" )
+  protected boolean daemon = false;
+
+  /**
+   * The daemon file of the build daemon, if not the default.
+   */
+  @Parameter ( property = "enunciate.daemonFile" )
+  protected File daemonFile;
+
+  /**
+   * A flag used to keep watching the sources, the configuration and the templates once the build is done, and to build
+   * again (in process) when they change. Generally used from the command line during API development.
+   */
+  @Parameter ( defaultValue = "false", property = "enunciate.watch" )
+  protected boolean watch = false;
+
+  /**
+   * The port on which the docs are served with live reload while watching: 0 for any free port, or -1 to not serve them.
+   */
+  @Parameter ( defaultValue = "0", property = "enunciate.watch.port" )
+  protected int watchPort = 0;
+
+  /**
+   * A flag used to render the pages of the docs on demand as they're served while watching, instead of writing them all
+   * to the docs directory on each build. Ignored unless the docs are served while watching.
+   */
+  @Parameter ( defaultValue = "false", property = "enunciate.watch.docsOnDemand" )
+  protected boolean watchDocsOnDemand = false;
+
   /**
    * A flag used to disable the sourcepath. This may be the quickest and dirtiest way to bypass the infamous "Java compiler crashed" errors.
    */
@@ -200,6 +266,10 @@ public class ConfigMojo extends AbstractMojo {
 
     //set the build dir.
     enunciate.setBuildDir(this.buildDir);
+    enunciate.setCacheDir(this.cacheDir);
+    enunciate.setCacheMaxSize(this.cacheMaxSize * 1024L * 1024L);
+    enunciate.setCacheMaxAge(this.cacheMaxAge * 24L * 60L * 60L * 1000L);
+    enunciate.setApiModelEnabled(this.generateFromModel || this.watch);
 
     //load the config.
     EnunciateConfiguration config = enunciate.getConfiguration();
@@ -348,6 +418,10 @@ public class ConfigMojo extends AbstractMojo {
           }
         }
 
+        if (module instanceof OnDemandDocumentationProviderModule && isRenderDocsOnDemand()) {
+          ((OnDemandDocumentationProviderModule) module).setRenderPagesOnDemand(true);
+        }
+
         applyAdditionalConfiguration(module);
       }
     }
@@ -372,7 +446,11 @@ public class ConfigMojo extends AbstractMojo {
     postProcessConfig(enunciate);
 
     try {
-      enunciate.run();
+      if (!this.daemon || !delegateToDaemon(enunciate, pluginClasspath)) {
+        if (!enunciate.generateFromModel()) {
+          enunciate.run();
+        }
+      }
     }
     catch (Exception e) {
       Throwable t = unwrap(e);
@@ -417,6 +495,10 @@ public class ConfigMojo extends AbstractMojo {
     postProcess(enunciate);
 
     getPluginContext().put(ConfigMojo.ENUNCIATE_PROPERTY, enunciate);
+
+    if (this.watch) {
+      watch(enunciate, pluginClasspath);
+    }
   }
 
   private Throwable unwrap(Throwable e) {
@@ -434,6 +516,60 @@ public class ConfigMojo extends AbstractMojo {
 
   }
 
+  /**
+   * Delegate the build to the build daemon.
+   *
+   * @param enunciate       The configured engine.
+   * @param pluginClasspath The classpath from which the daemon is to load the modules.
+   * @return Whether the build was delegated, or false if no daemon is running.
+   */
+  protected boolean delegateToDaemon(Enunciate enunciate, List<URL> pluginClasspath) {
+    BuildRequest request = new BuildRequest(enunciate, pluginClasspath);
+    request.setGenerateFromModel(this.generateFromModel);
+    request.setDebug(getLog().isDebugEnabled());
+    applyAdditionalConfiguration(request);
+    return new BuildDaemonClient(this.daemonFile).build(enunciate, request);
+  }
+
+  /**
+   * Watch the inputs of the build, and build again when they change, until the build is interrupted.
+   *
+   * @param enunciate       The engine of the build.
+   * @param pluginClasspath The classpath from which the modules are loaded.
+   */
+  protected void watch(Enunciate enunciate, List<URL> pluginClasspath) throws MojoExecutionException {
+    BuildRequest request = new BuildRequest(enunciate, pluginClasspath);
+    request.setRenderPagesOnDemand(isRenderDocsOnDemand());
+    applyAdditionalConfiguration(request);
+    BuildWatcher watcher = new BuildWatcher(request, Thread.currentThread().getContextClassLoader(), enunciate.getLogger());
+    watcher.setLiveReloadPort(this.watchPort);
+    try {
+      watcher.watch(enunciate);
+    }
+    catch (IOException e) {
+      throw new MojoExecutionException("Error watching the Enunciate build.", e);
+    }
+  }
+
+  /**
+   * Whether the pages of the docs are rendered on demand, i.e. whether they're served while watching and were asked to be.
+   *
+   * @return Whether the pages of the docs are rendered on demand.
+   */
+  protected boolean isRenderDocsOnDemand() {
+    return this.watch && this.watchPort >= 0 && this.watchDocsOnDemand;
+  }
+
+  /**
+   * Apply the additional configuration of the modules (see {@link #applyAdditionalConfiguration(EnunciateModule)}) to
+   * a build that is delegated to the build daemon, which loads its own modules.
+   *
+   * @param request The build.
+   */
+  protected void applyAdditionalConfiguration(BuildRequest request) {
+
+  }
+
   protected String findSourceVersion() {
     String source = this.source;
     if (source == null) {
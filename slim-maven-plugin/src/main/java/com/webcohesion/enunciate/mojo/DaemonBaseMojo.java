@@ -0,0 +1,58 @@
+package com.webcohesion.enunciate.mojo;
+
+import com.webcohesion.enunciate.EnunciateConsoleLogger;
+import com.webcohesion.enunciate.daemon.BuildDaemon;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Runs an Enunciate build daemon in the foreground, until the build is interrupted. The builds of the other goals are
+ * delegated to the daemon when they're run with the 'enunciate.daemon' property.
+ *
+ * @author Ryan Heaton
+ */
+@Mojo ( name = "daemon", requiresProject = false )
+public class DaemonBaseMojo extends AbstractMojo {
+
+  /**
+   * The port on which the daemon listens. By default, any free port.
+   */
+  @Parameter ( defaultValue = "0", property = "enunciate.daemonPort" )
+  protected int port = 0;
+
+  /**
+   * The file to which the daemon writes its port and its token, if not the default.
+   */
+  @Parameter ( property = "enunciate.daemonFile" )
+  protected File daemonFile;
+
+  @Override
+  public void execute() throws MojoExecutionException {
+    EnunciateConsoleLogger logger = new EnunciateConsoleLogger();
+    logger.setDebugEnabled(getLog().isDebugEnabled());
+    final BuildDaemon daemon = new BuildDaemon(this.daemonFile == null ? BuildDaemon.DEFAULT_DAEMON_FILE : this.daemonFile, this.port, logger);
+    Thread shutdown = new Thread() {
+      @Override
+      public void run() {
+        daemon.stop();
+      }
+    };
+
+    try {
+      daemon.start();
+      Runtime.getRuntime().addShutdownHook(shutdown);
+      daemon.serve();
+    }
+    catch (IOException e) {
+      throw new MojoExecutionException("Error running the Enunciate build daemon.", e);
+    }
+    finally {
+      daemon.stop();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.webcohesion.enunciate.mojo;
 
 import com.webcohesion.enunciate.Enunciate;
+import com.webcohesion.enunciate.daemon.BuildRequest;
 import com.webcohesion.enunciate.module.DocumentationProviderModule;
 import com.webcohesion.enunciate.module.EnunciateModule;
 import org.apache.maven.plugin.MojoExecutionException;
@@ -73,6 +74,16 @@ public class DocsBaseMojo extends ConfigMojo implements MavenReport {
     }
   }
 
+  @Override
+  protected void applyAdditionalConfiguration(BuildRequest request) {
+    super.applyAdditionalConfiguration(request);
+
+    request.setDefaultDocsDir(new File(this.docsStagingDir));
+    if (this.docsSubdir != null) {
+      request.setDefaultDocsSubdir(this.docsSubdir);
+    }
+  }
+
   @Override
   public void execute() throws MojoExecutionException {
     //if this method is called, it means we're _not_ being invoked via the maven site plugin. Therefore, we don't need a staging area:
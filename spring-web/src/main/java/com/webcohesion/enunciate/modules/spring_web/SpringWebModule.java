@@ -22,8 +22,10 @@ import java.util.*;
  * @author Ryan Heaton
  */
 @SuppressWarnings ( "unchecked" )
-public class SpringWebModule extends BasicEnunicateModule implements TypeFilteringModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
+public class SpringWebModule extends BasicEnunicateModule implements IndexedTypeFilteringModule, ApiRegistryProviderModule, ApiFeatureProviderModule {
 
+  private final TypeFilterRules typeFilterRules = new TypeFilterRules()
+    .annotatedWith(Controller.class.getName(), RestController.class.getName());
   private DataTypeDetectionStrategy defaultDataTypeDetectionStrategy;
   private final List<MediaTypeDefinitionModule> mediaTypeModules = new ArrayList<MediaTypeDefinitionModule>();
   private ApiRegistry apiRegistry;
@@ -208,18 +210,19 @@ public class SpringWebModule extends BasicEnunicateModule implements TypeFilteri
     }
   }
 
+  @Override
+  public TypeFilterRules getTypeFilterRules() {
+    return this.typeFilterRules;
+  }
+
+  @Override
+  public void acknowledgeDetectedTypes(Set<String> detectedTypes) {
+    //no-op
+  }
+
   @Override
   public boolean acceptType(Object type, MetadataAdapter metadata) {
-    List<String> classAnnotations = metadata.getClassAnnotationNames(type);
-    if (classAnnotations != null) {
-      for (String classAnnotation : classAnnotations) {
-        if ((Controller.class.getName().equals(classAnnotation))
-          || (RestController.class.getName().equals(classAnnotation))) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return this.typeFilterRules.accept(type, metadata);
   }
 
   public class MediaTypeDependencySpec implements DependencySpec {
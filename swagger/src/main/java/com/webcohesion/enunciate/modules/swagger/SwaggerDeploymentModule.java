@@ -44,7 +44,7 @@ import java.util.*;
  * <h1>Swagger Module</h1>
  * @author Ryan Heaton
  */
-public class SwaggerDeploymentModule extends BasicGeneratingModule implements ApiFeatureProviderModule, ApiRegistryAwareModule {
+public class SwaggerDeploymentModule extends BasicGeneratingModule implements ApiFeatureProviderModule, ApiModelGeneratingModule {
 
   private ApiRegistry apiRegistry;
 
@@ -229,14 +229,8 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
     return basePath;
   }
 
-  /**
-   * Processes the specified template with the given model.
-   *
-   * @param templateURL The template URL.
-   * @param model       The root model.
-   */
-  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
-    debug("Processing template %s.", templateURL);
+  @Override
+  protected Configuration createTemplateConfiguration() {
     Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
 
     configuration.setTemplateLoader(new URLTemplateLoader() {
@@ -259,6 +253,19 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
     configuration.setLocalizedLookup(false);
     configuration.setDefaultEncoding("UTF-8");
     configuration.setObjectWrapper(new SwaggerUIObjectWrapper());
+    configuration.setTemplateUpdateDelay(0);
+    return configuration;
+  }
+
+  /**
+   * Processes the specified template with the given model.
+   *
+   * @param templateURL The template URL.
+   * @param model       The root model.
+   */
+  public String processTemplate(URL templateURL, Object model) throws IOException, TemplateException {
+    debug("Processing template %s.", templateURL);
+    Configuration configuration = getTemplateConfiguration();
     Template template = configuration.getTemplate(templateURL.toString());
     StringWriter unhandledOutput = new StringWriter();
     template.process(model, unhandledOutput);
@@ -272,7 +279,7 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
   protected void buildBase(File buildDir) throws IOException {
     String base = getBase();
     if (base == null) {
-      InputStream discoveredBase = SwaggerDeploymentModule.class.getResourceAsStream("/META-INF/enunciate/swagger-base.zip");
+      URL discoveredBase = SwaggerDeploymentModule.class.getResource("/META-INF/enunciate/swagger-base.zip");
       if (discoveredBase == null) {
         debug("Default base to be used for swagger base.");
         enunciate.unzip(loadDefaultBase(), buildDir);
@@ -295,7 +302,7 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
       }
       else {
         debug("Zip file %s to be extracted as the documentation base.", baseFile);
-        enunciate.unzip(new FileInputStream(baseFile), buildDir);
+        enunciate.unzip(baseFile.toURI().toURL(), buildDir);
       }
     }
   }
@@ -319,8 +326,8 @@ public class SwaggerDeploymentModule extends BasicGeneratingModule implements Ap
    *
    * @return The default base for the swagger ui.
    */
-  protected InputStream loadDefaultBase() {
-    return SwaggerDeploymentModule.class.getResourceAsStream("/swagger-ui.zip");
+  protected URL loadDefaultBase() {
+    return SwaggerDeploymentModule.class.getResource("/swagger-ui.zip");
   }
 
   /**